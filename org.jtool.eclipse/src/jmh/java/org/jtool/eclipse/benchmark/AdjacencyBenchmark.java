@@ -0,0 +1,119 @@
+/*
+ *  Copyright 2020
+ *  Software Science and Technology Lab.
+ *  Department of Computer Science, Ritsumeikan University
+ */
+
+package org.jtool.eclipse.benchmark;
+
+import org.jtool.eclipse.batch.ModelBuilderBatch;
+import org.jtool.eclipse.cfg.CFGNode;
+import org.jtool.eclipse.cfg.ControlFlow;
+import org.jtool.eclipse.javamodel.JavaProject;
+import org.jtool.eclipse.pdg.CD;
+import org.jtool.eclipse.pdg.DD;
+import org.jtool.eclipse.pdg.Dependence;
+import org.jtool.eclipse.pdg.PDGNode;
+import org.jtool.eclipse.pdg.SDG;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures visiting the adjacent edges of every node in the SDG of a project.
+ * The copying accessors return a new set on every call while the list accessors return shared views,
+ * so compare the normalized allocation rate (gc.alloc.rate.norm) reported by the gc profiler.
+ * 
+ * @author Katsuhisa Maruyama
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class AdjacencyBenchmark {
+    
+    @Param({ "jrb-1.0.2", "DrawTool", "Tetris", "CS-classroom" })
+    public String target;
+    
+    private ModelBuilderBatch builder;
+    private PDGNode[] nodes;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        builder = new ModelBuilderBatch(true);
+        JavaProject jproject = BenchmarkTarget.build(builder, target);
+        SDG sdg = builder.getSDG(jproject);
+        nodes = sdg.getNodes().toArray(new PDGNode[0]);
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        builder.unbuild();
+    }
+    
+    @Benchmark
+    public void copyingAccessors(Blackhole blackhole) {
+        for (PDGNode node : nodes) {
+            for (CD edge : node.getIncomingCDEdges()) {
+                blackhole.consume(edge.getSrcNode());
+            }
+            for (DD edge : node.getIncomingDDEdges()) {
+                blackhole.consume(edge.getSrcNode());
+            }
+            for (Dependence edge : node.getOutgoingDependeceEdges()) {
+                blackhole.consume(edge.getDstNode());
+            }
+            
+            CFGNode cfgnode = node.getCFGNode();
+            for (ControlFlow flow : cfgnode.getOutgoingFlows()) {
+                blackhole.consume(flow.getDstNode());
+            }
+            for (CFGNode pred : cfgnode.getPredecessors()) {
+                blackhole.consume(pred);
+            }
+        }
+    }
+    
+    @Benchmark
+    public void listAccessors(Blackhole blackhole) {
+        for (PDGNode node : nodes) {
+            List<CD> cds = node.getIncomingCDList();
+            for (int i = 0; i < cds.size(); i++) {
+                blackhole.consume(cds.get(i).getSrcNode());
+            }
+            List<DD> dds = node.getIncomingDDList();
+            for (int i = 0; i < dds.size(); i++) {
+                blackhole.consume(dds.get(i).getSrcNode());
+            }
+            List<Dependence> edges = node.getOutgoingDependenceList();
+            for (int i = 0; i < edges.size(); i++) {
+                blackhole.consume(edges.get(i).getDstNode());
+            }
+            
+            CFGNode cfgnode = node.getCFGNode();
+            List<ControlFlow> flows = cfgnode.getOutgoingFlowList();
+            for (int i = 0; i < flows.size(); i++) {
+                blackhole.consume(flows.get(i).getDstNode());
+            }
+            List<CFGNode> preds = cfgnode.getPredecessorList();
+            for (int i = 0; i < preds.size(); i++) {
+                blackhole.consume(preds.get(i));
+            }
+        }
+    }
+}
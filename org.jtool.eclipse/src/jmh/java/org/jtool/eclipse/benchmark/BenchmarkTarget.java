@@ -0,0 +1,35 @@
+/*
+ *  Copyright 2020
+ *  Software Science and Technology Lab.
+ *  Department of Computer Science, Ritsumeikan University
+ */
+
+package org.jtool.eclipse.benchmark;
+
+import org.jtool.eclipse.batch.ModelBuilderBatch;
+import org.jtool.eclipse.javamodel.JavaProject;
+import org.jtool.eclipse.util.Logger;
+import java.io.File;
+
+/**
+ * Builds a Java project in test_target for the benchmarks.
+ * The benchmarks run with the directory of this project as the working directory.
+ * 
+ * @author Katsuhisa Maruyama
+ */
+public class BenchmarkTarget {
+    
+    private final static String testDirInside = new File(".").getAbsoluteFile().getParent() + "/test_target/";
+    
+    public static JavaProject build(ModelBuilderBatch builder, String name) {
+        Logger.getInstance().setVisible(false);
+        
+        String target = testDirInside + name + "/";
+        if (name.equals("Tetris")) {
+            return builder.build(target, target, target, target, target);
+        } else if (name.equals("CS-classroom")) {
+            return builder.build(target, target, target + "../lib/*", target + "/src/", target);
+        }
+        return builder.build(target, target, target, target + "/src", target);
+    }
+}
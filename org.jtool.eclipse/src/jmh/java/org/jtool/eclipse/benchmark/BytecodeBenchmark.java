@@ -0,0 +1,67 @@
+/*
+ *  Copyright 2020
+ *  Software Science and Technology Lab.
+ *  Department of Computer Science, Ritsumeikan University
+ */
+
+package org.jtool.eclipse.benchmark;
+
+import org.jtool.eclipse.batch.ModelBuilderBatch;
+import org.jtool.eclipse.javamodel.JavaProject;
+import org.jtool.eclipse.javamodel.builder.BytecodeClassStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures registering bytecode-classes the source files of a project depend on.
+ * 
+ * @author Katsuhisa Maruyama
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class BytecodeBenchmark {
+    
+    @Param({ "jrb-1.0.2", "DrawTool", "Tetris", "CS-classroom" })
+    public String target;
+    
+    private ModelBuilderBatch builder;
+    private JavaProject jproject;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        builder = new ModelBuilderBatch(false);
+        jproject = BenchmarkTarget.build(builder, target);
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        builder.unbuild();
+    }
+    
+    @Benchmark
+    public BytecodeClassStore registerBytecodeClasses() {
+        BytecodeClassStore bytecodeClassStore = new BytecodeClassStore();
+        bytecodeClassStore.existsBytecodeClassInfo(jproject);
+        for (String className : bytecodeClassStore.createBytecodeClassStore(jproject)) {
+            bytecodeClassStore.registerBytecodeClass(jproject, className);
+        }
+        bytecodeClassStore.collectBytecodeClassInfo(jproject);
+        return bytecodeClassStore;
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ *  Copyright 2020
+ *  Software Science and Technology Lab.
+ *  Department of Computer Science, Ritsumeikan University
+ */
+
+package org.jtool.eclipse.benchmark;
+
+import org.jtool.eclipse.batch.ModelBuilderBatch;
+import org.jtool.eclipse.cfg.builder.CFGStore;
+import org.jtool.eclipse.javamodel.JavaClass;
+import org.jtool.eclipse.javamodel.JavaField;
+import org.jtool.eclipse.javamodel.JavaMethod;
+import org.jtool.eclipse.javamodel.JavaProject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import java.util.List;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures building CFGs of all the methods and fields in a project.
+ * Bytecode-classes are registered in the set-up so that they are excluded from the measurement.
+ * 
+ * @author Katsuhisa Maruyama
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class CFGBenchmark {
+    
+    @Param({ "jrb-1.0.2", "DrawTool", "Tetris", "CS-classroom" })
+    public String target;
+    
+    private ModelBuilderBatch builder;
+    private CFGStore cfgStore;
+    private List<JavaMethod> methods = new ArrayList<>();
+    private List<JavaField> fields = new ArrayList<>();
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        builder = new ModelBuilderBatch(true);
+        JavaProject jproject = BenchmarkTarget.build(builder, target);
+        cfgStore = jproject.getCFGStore();
+        for (JavaClass jclass : jproject.getClasses()) {
+            methods.addAll(jclass.getMethods());
+            fields.addAll(jclass.getFields());
+        }
+        methods.forEach(jmethod -> cfgStore.getCFG(jmethod, false));
+        fields.forEach(jfield -> cfgStore.getCFG(jfield, false));
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        builder.unbuild();
+    }
+    
+    @Benchmark
+    public void getCFGs(Blackhole blackhole) {
+        for (JavaMethod jmethod : methods) {
+            blackhole.consume(cfgStore.getCFG(jmethod, true));
+        }
+        for (JavaField jfield : fields) {
+            blackhole.consume(cfgStore.getCFG(jfield, true));
+        }
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ *  Copyright 2020
+ *  Software Science and Technology Lab.
+ *  Department of Computer Science, Ritsumeikan University
+ */
+
+package org.jtool.eclipse.benchmark;
+
+import org.jtool.eclipse.batch.ModelBuilderBatch;
+import org.jtool.eclipse.javamodel.JavaProject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures parsing source files and collecting information on their Java models.
+ * 
+ * @author Katsuhisa Maruyama
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ModelBenchmark {
+    
+    @Param({ "jrb-1.0.2", "DrawTool", "Tetris", "CS-classroom" })
+    public String target;
+    
+    private ModelBuilderBatch builder;
+    
+    @Setup(Level.Invocation)
+    public void setUp() {
+        builder = new ModelBuilderBatch(false);
+    }
+    
+    @TearDown(Level.Invocation)
+    public void tearDown() {
+        builder.unbuild();
+    }
+    
+    @Benchmark
+    public JavaProject parseAndCollectInfo() {
+        return BenchmarkTarget.build(builder, target);
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ *  Copyright 2020
+ *  Software Science and Technology Lab.
+ *  Department of Computer Science, Ritsumeikan University
+ */
+
+package org.jtool.eclipse.benchmark;
+
+import org.jtool.eclipse.batch.ModelBuilderBatch;
+import org.jtool.eclipse.cfg.CFG;
+import org.jtool.eclipse.javamodel.JavaClass;
+import org.jtool.eclipse.javamodel.JavaField;
+import org.jtool.eclipse.javamodel.JavaMethod;
+import org.jtool.eclipse.javamodel.JavaProject;
+import org.jtool.eclipse.pdg.builder.PDGBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import java.util.List;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures building PDGs from the CFGs of all the methods and fields in a project.
+ * 
+ * @author Katsuhisa Maruyama
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class PDGBenchmark {
+    
+    @Param({ "jrb-1.0.2", "DrawTool", "Tetris", "CS-classroom" })
+    public String target;
+    
+    private ModelBuilderBatch builder;
+    private List<CFG> cfgs = new ArrayList<>();
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        builder = new ModelBuilderBatch(true);
+        JavaProject jproject = BenchmarkTarget.build(builder, target);
+        for (JavaClass jclass : jproject.getClasses()) {
+            for (JavaMethod jmethod : jclass.getMethods()) {
+                addCFG(builder.getCFG(jmethod));
+            }
+            for (JavaField jfield : jclass.getFields()) {
+                addCFG(builder.getCFG(jfield));
+            }
+        }
+    }
+    
+    private void addCFG(CFG cfg) {
+        if (cfg != null) {
+            cfgs.add(cfg);
+        }
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        builder.unbuild();
+    }
+    
+    @Benchmark
+    public void buildPDGs(Blackhole blackhole) {
+        for (CFG cfg : cfgs) {
+            blackhole.consume(PDGBuilder.buildPDG(cfg));
+        }
+    }
+}
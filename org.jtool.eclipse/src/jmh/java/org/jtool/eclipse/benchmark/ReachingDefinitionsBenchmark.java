@@ -0,0 +1,132 @@
+/*
+ *  Copyright 2020
+ *  Software Science and Technology Lab.
+ *  Department of Computer Science, Ritsumeikan University
+ */
+
+package org.jtool.eclipse.benchmark;
+
+import org.jtool.eclipse.batch.ModelBuilderBatch;
+import org.jtool.eclipse.cfg.CFG;
+import org.jtool.eclipse.cfg.CFGNode;
+import org.jtool.eclipse.cfg.CFGStatement;
+import org.jtool.eclipse.cfg.ControlFlow;
+import org.jtool.eclipse.cfg.JReference;
+import org.jtool.eclipse.javamodel.JavaClass;
+import org.jtool.eclipse.javamodel.JavaMethod;
+import org.jtool.eclipse.javamodel.JavaProject;
+import org.jtool.eclipse.pdg.builder.ReachingDefinitions;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import java.util.List;
+import java.util.ArrayList;
+import java.util.Set;
+import java.util.HashSet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the per-definition depth-first search formerly used in DDFinder with bit-vector reaching definitions
+ * on the CFGs of all the methods in a project.
+ * 
+ * @author Katsuhisa Maruyama
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ReachingDefinitionsBenchmark {
+    
+    @Param({ "jrb-1.0.2", "DrawTool", "Tetris", "CS-classroom" })
+    public String target;
+    
+    private ModelBuilderBatch builder;
+    private List<CFG> cfgs = new ArrayList<>();
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        builder = new ModelBuilderBatch(false);
+        JavaProject jproject = BenchmarkTarget.build(builder, target);
+        for (JavaClass jclass : jproject.getClasses()) {
+            for (JavaMethod jmethod : jclass.getMethods()) {
+                CFG cfg = builder.getCFG(jmethod);
+                if (cfg != null) {
+                    cfgs.add(cfg);
+                }
+            }
+        }
+        cfgs.forEach(cfg -> cfg.getDominatorTree());
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        builder.unbuild();
+    }
+    
+    @Benchmark
+    public void bitVectors(Blackhole blackhole) {
+        for (CFG cfg : cfgs) {
+            long[] count = new long[1];
+            ReachingDefinitions rd = new ReachingDefinitions(cfg);
+            rd.findUses((def, jvar, node, loopIndependent) -> count[0]++);
+            rd.findRedefinitions((def, jvar, node, loopIndependent) -> count[0]++);
+            blackhole.consume(count[0]);
+        }
+    }
+    
+    @Benchmark
+    public void depthFirstSearch(Blackhole blackhole) {
+        for (CFG cfg : cfgs) {
+            blackhole.consume(findByDepthFirstSearch(cfg));
+        }
+    }
+    
+    private long findByDepthFirstSearch(CFG cfg) {
+        long count = 0;
+        for (CFGNode cfgnode : cfg.getNodes()) {
+            if (cfgnode.isStatement() && cfgnode.hasDefVariable()) {
+                CFGStatement anchor = (CFGStatement)cfgnode;
+                for (JReference jvar : anchor.getDefVariables()) {
+                    Set<CFGNode> reached = new HashSet<>();
+                    for (ControlFlow flow : anchor.getOutgoingFlows()) {
+                        if (!flow.isFallThrough()) {
+                            walkForward(flow.getDstNode(), jvar, new HashSet<>(), reached);
+                        }
+                    }
+                    count = count + reached.size();
+                }
+            }
+        }
+        return count;
+    }
+    
+    private void walkForward(CFGNode node, JReference jvar, Set<CFGNode> track, Set<CFGNode> reached) {
+        track.add(node);
+        if (node.hasUseVariable() && ((CFGStatement)node).useVariable(jvar)) {
+            reached.add(node);
+        }
+        if (node.hasDefVariable() && ((CFGStatement)node).defineVariable(jvar)) {
+            reached.add(node);
+            return;
+        }
+        
+        for (ControlFlow flow : node.getOutgoingFlows()) {
+            if (!flow.isFallThrough() && !track.contains(flow.getDstNode())) {
+                walkForward(flow.getDstNode(), jvar, track, reached);
+            }
+        }
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ *  Copyright 2020
+ *  Software Science and Technology Lab.
+ *  Department of Computer Science, Ritsumeikan University
+ */
+
+package org.jtool.eclipse.benchmark;
+
+import org.jtool.eclipse.batch.ModelBuilderBatch;
+import org.jtool.eclipse.cfg.JReference;
+import org.jtool.eclipse.javamodel.JavaProject;
+import org.jtool.eclipse.pdg.PDG;
+import org.jtool.eclipse.pdg.PDGNode;
+import org.jtool.eclipse.pdg.PDGStatement;
+import org.jtool.eclipse.pdg.SDG;
+import org.jtool.eclipse.slice.Slice;
+import org.jtool.eclipse.slice.SliceCriterion;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import java.util.List;
+import java.util.ArrayList;
+import java.util.Set;
+import java.util.HashSet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures constructing slices on the SDG of a project.
+ * Every statement that defines or uses variables is a criterion with all of the variables.
+ * 
+ * @author Katsuhisa Maruyama
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class SliceBenchmark {
+    
+    @Param({ "jrb-1.0.2", "DrawTool", "Tetris", "CS-classroom" })
+    public String target;
+    
+    private ModelBuilderBatch builder;
+    private List<SliceCriterion> criteria = new ArrayList<>();
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        builder = new ModelBuilderBatch(true);
+        JavaProject jproject = BenchmarkTarget.build(builder, target);
+        SDG sdg = builder.getSDG(jproject);
+        for (PDG pdg : sdg.getPDGs()) {
+            for (PDGNode node : pdg.getNodes()) {
+                if (node.isStatement()) {
+                    Set<JReference> vars = new HashSet<>(((PDGStatement)node).getDefVariables());
+                    vars.addAll(((PDGStatement)node).getUseVariables());
+                    if (vars.size() > 0) {
+                        criteria.add(new SliceCriterion(pdg, node, vars));
+                    }
+                }
+            }
+        }
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        builder.unbuild();
+    }
+    
+    @Benchmark
+    public void sliceAll(Blackhole blackhole) {
+        for (SliceCriterion criterion : criteria) {
+            blackhole.consume(new Slice(criterion));
+        }
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ *  Copyright 2020
+ *  Software Science and Technology Lab.
+ *  Department of Computer Science, Ritsumeikan University
+ */
+
+package org.jtool.eclipse.graph;
+
+import org.jtool.eclipse.batch.ModelBuilderBatch;
+import org.jtool.eclipse.benchmark.BenchmarkTarget;
+import org.jtool.eclipse.javamodel.JavaClass;
+import org.jtool.eclipse.javamodel.JavaProject;
+import org.jtool.eclipse.pdg.ClDG;
+import org.jtool.eclipse.pdg.PDG;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import java.util.List;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the heap consumed by the hash-based (thawed) and array-based (frozen) adjacency sets of graph nodes.
+ * Each benchmark builds the adjacency sets of all the CFG and PDG nodes in a project in one of the representations,
+ * so the normalized allocation rate (gc.alloc.rate.norm) reported by the gc profiler approximates their footprint.
+ * It is placed in the graph package since the array-based set is not visible outside.
+ * 
+ * @author Katsuhisa Maruyama
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class GraphMemoryBenchmark {
+    
+    @Param({ "jrb-1.0.2", "DrawTool", "Tetris", "CS-classroom" })
+    public String target;
+    
+    private ModelBuilderBatch builder;
+    private List<List<Object>> adjacency = new ArrayList<>();
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        builder = new ModelBuilderBatch(false);
+        JavaProject jproject = BenchmarkTarget.build(builder, target);
+        for (JavaClass jclass : jproject.getClasses()) {
+            ClDG cldg = builder.getClDG(jclass);
+            for (PDG pdg : cldg.getPDGs()) {
+                pdg.getNodes().forEach(node -> addAdjacency(node));
+                pdg.getCFG().getNodes().forEach(node -> addAdjacency(node));
+            }
+        }
+    }
+    
+    private void addAdjacency(GraphNode node) {
+        adjacency.add(new ArrayList<>(node.getIncomingEdges()));
+        adjacency.add(new ArrayList<>(node.getOutgoingEdges()));
+        adjacency.add(new ArrayList<>(node.getSrcNodes()));
+        adjacency.add(new ArrayList<>(node.getDstNodes()));
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        builder.unbuild();
+    }
+    
+    @Benchmark
+    public void hashBasedSets(Blackhole blackhole) {
+        for (List<Object> elems : adjacency) {
+            blackhole.consume(new HashSet<>(elems));
+        }
+    }
+    
+    @Benchmark
+    public void arrayBasedSets(Blackhole blackhole) {
+        for (List<Object> elems : adjacency) {
+            blackhole.consume(CompactSet.of(elems));
+        }
+    }
+}
@@ -0,0 +1,566 @@
+/*
+ *  Copyright 2020
+ *  Software Science and Technology Lab.
+ *  Department of Computer Science, Ritsumeikan University
+ */
+
+package org.jtool.eclipse.batch;
+
+import org.jtool.eclipse.javamodel.JavaProject;
+import org.jtool.eclipse.javamodel.JavaFile;
+import org.jtool.eclipse.javamodel.JavaClass;
+import org.jtool.eclipse.javamodel.JavaMethod;
+import org.jtool.eclipse.javamodel.JavaField;
+import org.jtool.eclipse.javamodel.JavaElement;
+import org.jtool.eclipse.javamodel.builder.ProjectStore;
+import org.jtool.eclipse.cfg.CFG;
+import org.jtool.eclipse.cfg.CCFG;
+import org.jtool.eclipse.pdg.PDG;
+import org.jtool.eclipse.pdg.ClDG;
+import org.jtool.eclipse.pdg.SDG;
+import org.jtool.eclipse.pdg.PDGNode;
+import org.jtool.eclipse.slice.Slice;
+import org.jtool.eclipse.slice.SliceCriterion;
+import org.jtool.eclipse.slice.SliceExtractor;
+import org.jtool.eclipse.util.Options;
+import org.jtool.eclipse.util.Logger;
+import org.eclipse.jdt.core.dom.ASTNode;
+import org.eclipse.jdt.core.dom.CompilationUnit;
+import java.io.File;
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.io.OutputStreamWriter;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.LinkedHashMap;
+import java.util.Set;
+import java.util.HashSet;
+import java.util.TreeSet;
+import java.util.List;
+import java.util.ArrayList;
+
+/**
+ * Keeps Java models of projects in ProjectStore and answers requests for them, so that each request
+ * pays neither the startup of a JVM nor the parse of the whole project.
+ * Requests and responses are JSON objects, each of which is written in a single line,
+ * and are exchanged through the standard input and output or a socket bound to the loopback address.
+ * 
+ * A request has a "command" and its arguments:
+ *   build  : "target", and optionally "name", "classpath", "srcpath", and "binpath"
+ *   update : "project" and "files", a list of paths of changed, deleted, or added files in the project
+ *   cfg    : "project" and either "class" or "method" (or "field") given by its qualified name
+ *   pdg    : the same arguments as cfg
+ *   slice  : "project", "file", "line", and "column" of the slicing criterion
+ *   close  : "project"
+ *   exit   : no arguments
+ * A response has a "status", which is either "ok" or "error", the result of the command, and "time" in milliseconds.
+ * 
+ * @author Katsuhisa Maruyama
+ */
+public class AnalysisDaemon {
+    
+    private ModelBuilderBatch modelBuilder;
+    private volatile boolean running = true;
+    
+    public AnalysisDaemon(int numberOfThreads) {
+        modelBuilder = new ModelBuilderBatch(true);
+        modelBuilder.setNumberOfThreads(numberOfThreads);
+    }
+    
+    public void serve(BufferedReader in, PrintWriter out) throws IOException {
+        String line;
+        while (running && (line = in.readLine()) != null) {
+            if (line.trim().length() > 0) {
+                out.println(Json.write(handle(line)));
+                out.flush();
+            }
+        }
+    }
+    
+    public void serve(int port) throws IOException {
+        try (ServerSocket server = new ServerSocket(port, 50, InetAddress.getLoopbackAddress())) {
+            Logger.getInstance().printError("** Listening on port " + server.getLocalPort());
+            while (running) {
+                try (Socket socket = server.accept()) {
+                    BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+                    PrintWriter out = new PrintWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8));
+                    serve(in, out);
+                } catch (IOException e) {
+                    Logger.getInstance().printError("IO error " + e.getMessage());
+                }
+            }
+        }
+    }
+    
+    public synchronized Map<String, Object> handle(String line) {
+        long start = System.currentTimeMillis();
+        Map<String, Object> response = new LinkedHashMap<>();
+        try {
+            Map<String, Object> request = Json.read(line);
+            response.put("status", "ok");
+            String command = getString(request, "command");
+            if (command.equals("build")) {
+                build(request, response);
+            } else if (command.equals("update")) {
+                update(request, response);
+            } else if (command.equals("cfg")) {
+                cfg(request, response);
+            } else if (command.equals("pdg")) {
+                pdg(request, response);
+            } else if (command.equals("slice")) {
+                slice(request, response);
+            } else if (command.equals("close")) {
+                close(request, response);
+            } else if (command.equals("exit")) {
+                exit();
+            } else {
+                throw new IllegalArgumentException("unknown command " + command);
+            }
+        } catch (RuntimeException e) {
+            response.clear();
+            response.put("status", "error");
+            response.put("message", e.getMessage() != null ? e.getMessage() : e.toString());
+        }
+        response.put("time", System.currentTimeMillis() - start);
+        return response;
+    }
+    
+    private void build(Map<String, Object> request, Map<String, Object> response) {
+        String cdir = new File(".").getAbsoluteFile().getParent();
+        String target = ModelBuilderBatch.getFullPath(getString(request, "target"), cdir);
+        String name = getString(request, "name", new File(target).getName());
+        String classpath = getString(request, "classpath", target);
+        String srcpath = getString(request, "srcpath", target);
+        String binpath = getString(request, "binpath", target);
+        
+        JavaProject jproject = modelBuilder.build(name, target, classpath, srcpath, binpath);
+        response.put("project", jproject.getPath());
+        response.put("files", jproject.getFiles().size());
+        response.put("classes", jproject.getClasses().size());
+    }
+    
+    private void update(Map<String, Object> request, Map<String, Object> response) {
+        JavaProject jproject = getProject(request);
+        Set<JavaFile> jfiles = new HashSet<>();
+        Set<String> addedPaths = new HashSet<>();
+        for (Object path : getList(request, "files")) {
+            if (!(path instanceof String)) {
+                throw new IllegalArgumentException("malformed files");
+            }
+            String fullPath = ModelBuilderBatch.getFullPath((String)path, jproject.getPath());
+            JavaFile jfile = jproject.getFile(fullPath);
+            if (jfile != null) {
+                jfiles.add(jfile);
+            } else if (new File(fullPath).isFile()) {
+                addedPaths.add(fullPath);
+            } else {
+                throw new IllegalArgumentException("file not found " + path);
+            }
+        }
+        
+        modelBuilder.update(jproject, jfiles, addedPaths);
+        response.put("project", jproject.getPath());
+        response.put("classes", jproject.getClasses().size());
+    }
+    
+    private void cfg(Map<String, Object> request, Map<String, Object> response) {
+        JavaProject jproject = getProject(request);
+        if (request.containsKey("class")) {
+            CCFG ccfg = modelBuilder.getCCFG(getClass(jproject, getString(request, "class")));
+            response.put("result", ccfg.toString());
+        } else if (request.containsKey("field")) {
+            CFG cfg = modelBuilder.getCFG(getField(jproject, getString(request, "field")));
+            response.put("result", cfg.toString());
+        } else {
+            CFG cfg = modelBuilder.getCFG(getMethod(jproject, getString(request, "method")));
+            response.put("result", cfg.toString());
+        }
+    }
+    
+    private void pdg(Map<String, Object> request, Map<String, Object> response) {
+        JavaProject jproject = getProject(request);
+        if (request.containsKey("class")) {
+            ClDG cldg = modelBuilder.getClDG(getClass(jproject, getString(request, "class")));
+            response.put("result", cldg.toString());
+        } else if (request.containsKey("field")) {
+            PDG pdg = modelBuilder.getPDG(getField(jproject, getString(request, "field")));
+            response.put("result", pdg.toString());
+        } else {
+            PDG pdg = modelBuilder.getPDG(getMethod(jproject, getString(request, "method")));
+            response.put("result", pdg.toString());
+        }
+    }
+    
+    private void slice(Map<String, Object> request, Map<String, Object> response) {
+        JavaProject jproject = getProject(request);
+        JavaFile jfile = getFile(jproject, getString(request, "file"));
+        int line = getInt(request, "line");
+        int column = getInt(request, "column");
+        
+        SDG sdg = modelBuilder.getSDG(jproject);
+        for (JavaClass jclass : jfile.getClasses()) {
+            ClDG cldg = sdg.getClDG(jclass.getQualifiedName());
+            SliceCriterion criterion = cldg != null ? SliceCriterion.find(cldg, jfile.getCode(), line, column) : null;
+            if (criterion != null) {
+                Slice slice = new Slice(criterion);
+                response.put("class", jclass.getQualifiedName());
+                response.put("lines", getLineNumbers(slice));
+                response.put("code", new SliceExtractor(modelBuilder, slice, jclass).extract());
+                return;
+            }
+        }
+        throw new IllegalArgumentException("no slicing criterion at " + line + ":" + column);
+    }
+    
+    private List<Object> getLineNumbers(Slice slice) {
+        Set<Integer> lines = new TreeSet<>();
+        for (PDGNode node : slice.getNodes()) {
+            ASTNode astNode = node.getCFGNode().getASTNode();
+            if (astNode != null && astNode.getRoot() instanceof CompilationUnit) {
+                lines.add(((CompilationUnit)astNode.getRoot()).getLineNumber(astNode.getStartPosition()));
+            }
+        }
+        return new ArrayList<>(lines);
+    }
+    
+    private void close(Map<String, Object> request, Map<String, Object> response) {
+        JavaProject jproject = getProject(request);
+        String path = jproject.getPath();
+        ProjectStore.getInstance().removeProject(path);
+        jproject.dispose();
+        response.put("project", path);
+    }
+    
+    private void exit() {
+        running = false;
+        modelBuilder.unbuild();
+    }
+    
+    private JavaProject getProject(Map<String, Object> request) {
+        String path = getString(request, "project");
+        JavaProject jproject = ProjectStore.getInstance().getProject(path);
+        if (jproject == null) {
+            try {
+                jproject = ProjectStore.getInstance().getProject(new File(path).getCanonicalPath());
+            } catch (IOException e) { /* empty */ }
+        }
+        if (jproject == null) {
+            throw new IllegalArgumentException("project not built " + path);
+        }
+        return jproject;
+    }
+    
+    private JavaFile getFile(JavaProject jproject, String path) {
+        JavaFile jfile = jproject.getFile(ModelBuilderBatch.getFullPath(path, jproject.getPath()));
+        if (jfile == null) {
+            throw new IllegalArgumentException("file not found " + path);
+        }
+        return jfile;
+    }
+    
+    private JavaClass getClass(JavaProject jproject, String fqn) {
+        JavaClass jclass = jproject.getClass(fqn);
+        if (jclass == null) {
+            throw new IllegalArgumentException("class not found " + fqn);
+        }
+        return jclass;
+    }
+    
+    private JavaMethod getMethod(JavaProject jproject, String fqn) {
+        int index = fqn.indexOf(JavaElement.QualifiedNameSeparator);
+        JavaClass jclass = getClass(jproject, index != -1 ? fqn.substring(0, index) : fqn);
+        JavaMethod jmethod = index != -1 ? jclass.getMethod(fqn.substring(index + 1)) : null;
+        if (jmethod == null) {
+            throw new IllegalArgumentException("method not found " + fqn);
+        }
+        return jmethod;
+    }
+    
+    private JavaField getField(JavaProject jproject, String fqn) {
+        int index = fqn.indexOf(JavaElement.QualifiedNameSeparator);
+        JavaClass jclass = getClass(jproject, index != -1 ? fqn.substring(0, index) : fqn);
+        JavaField jfield = index != -1 ? jclass.getField(fqn.substring(index + 1)) : null;
+        if (jfield == null) {
+            throw new IllegalArgumentException("field not found " + fqn);
+        }
+        return jfield;
+    }
+    
+    private String getString(Map<String, Object> request, String key) {
+        Object value = request.get(key);
+        if (!(value instanceof String)) {
+            throw new IllegalArgumentException("missing " + key);
+        }
+        return (String)value;
+    }
+    
+    private String getString(Map<String, Object> request, String key, String defaultValue) {
+        return request.containsKey(key) ? getString(request, key) : defaultValue;
+    }
+    
+    private int getInt(Map<String, Object> request, String key) {
+        Object value = request.get(key);
+        if (!(value instanceof Number)) {
+            throw new IllegalArgumentException("missing " + key);
+        }
+        return ((Number)value).intValue();
+    }
+    
+    private List<?> getList(Map<String, Object> request, String key) {
+        Object value = request.get(key);
+        if (!(value instanceof List)) {
+            throw new IllegalArgumentException("missing " + key);
+        }
+        return (List<?>)value;
+    }
+    
+    public static void main(String[] args) {
+        Options options = new Options(args);
+        int port = Integer.parseInt(options.get("-port", "-1"));
+        AnalysisDaemon daemon = new AnalysisDaemon(Integer.parseInt(options.get("-threads", "1")));
+        try {
+            if (port >= 0) {
+                daemon.serve(port);
+            } else {
+                Logger.getInstance().setVisible(false);
+                BufferedReader in = new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8));
+                PrintWriter out = new PrintWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8));
+                daemon.serve(in, out);
+            }
+        } catch (IOException e) {
+            System.err.println("IO error " + e.getMessage());
+        }
+    }
+}
+    
+/*
+ * Reads and writes JSON text, where objects are maps, arrays are lists, and numbers are longs or doubles.
+ */
+class Json {
+    
+    private String text;
+    private int pos = 0;
+    
+    private Json(String text) {
+        this.text = text;
+    }
+    
+    @SuppressWarnings("unchecked")
+    static Map<String, Object> read(String text) {
+        Json json = new Json(text);
+        Object value = json.readValue();
+        json.skipSpaces();
+        if (!(value instanceof Map) || json.pos != text.length()) {
+            throw new IllegalArgumentException("malformed request");
+        }
+        return (Map<String, Object>)value;
+    }
+    
+    private Object readValue() {
+        skipSpaces();
+        char c = peek();
+        if (c == '{') {
+            return readObject();
+        } else if (c == '[') {
+            return readArray();
+        } else if (c == '"') {
+            return readString();
+        } else if (text.startsWith("true", pos)) {
+            pos = pos + 4;
+            return Boolean.TRUE;
+        } else if (text.startsWith("false", pos)) {
+            pos = pos + 5;
+            return Boolean.FALSE;
+        } else if (text.startsWith("null", pos)) {
+            pos = pos + 4;
+            return null;
+        }
+        return readNumber();
+    }
+    
+    private Map<String, Object> readObject() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        expect('{');
+        skipSpaces();
+        if (peek() == '}') {
+            pos++;
+            return map;
+        }
+        do {
+            skipSpaces();
+            String key = readString();
+            skipSpaces();
+            expect(':');
+            map.put(key, readValue());
+            skipSpaces();
+        } while (accept(','));
+        expect('}');
+        return map;
+    }
+    
+    private List<Object> readArray() {
+        List<Object> list = new ArrayList<>();
+        expect('[');
+        skipSpaces();
+        if (peek() == ']') {
+            pos++;
+            return list;
+        }
+        do {
+            list.add(readValue());
+            skipSpaces();
+        } while (accept(','));
+        expect(']');
+        return list;
+    }
+    
+    private String readString() {
+        expect('"');
+        StringBuilder buf = new StringBuilder();
+        while (peek() != '"') {
+            char c = text.charAt(pos++);
+            if (c < 0x20) {
+                throw new IllegalArgumentException("malformed request");
+            }
+            if (c == '\\') {
+                c = peek();
+                pos++;
+                switch (c) {
+                    case '"': buf.append('"'); break;
+                    case '\\': buf.append('\\'); break;
+                    case '/': buf.append('/'); break;
+                    case 'n': buf.append('\n'); break;
+                    case 't': buf.append('\t'); break;
+                    case 'r': buf.append('\r'); break;
+                    case 'b': buf.append('\b'); break;
+                    case 'f': buf.append('\f'); break;
+                    case 'u': buf.append(readHexChar()); break;
+                    default: throw new IllegalArgumentException("malformed request");
+                }
+            } else {
+                buf.append(c);
+            }
+        }
+        pos++;
+        return buf.toString();
+    }
+    
+    private char readHexChar() {
+        int value = 0;
+        for (int i = 0; i < 4; i++) {
+            int digit = Character.digit(peek(), 16);
+            if (digit == -1) {
+                throw new IllegalArgumentException("malformed request");
+            }
+            value = value * 16 + digit;
+            pos++;
+        }
+        return (char)value;
+    }
+    
+    private Number readNumber() {
+        int start = pos;
+        while (pos < text.length() && "+-0123456789.eE".indexOf(text.charAt(pos)) != -1) {
+            pos++;
+        }
+        String number = text.substring(start, pos);
+        try {
+            if (number.contains(".") || number.contains("e") || number.contains("E")) {
+                return Double.parseDouble(number);
+            }
+            return Long.parseLong(number);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("malformed request");
+        }
+    }
+    
+    private void skipSpaces() {
+        while (pos < text.length() && Character.isWhitespace(text.charAt(pos))) {
+            pos++;
+        }
+    }
+    
+    private char peek() {
+        if (pos >= text.length()) {
+            throw new IllegalArgumentException("malformed request");
+        }
+        return text.charAt(pos);
+    }
+    
+    private void expect(char c) {
+        if (peek() != c) {
+            throw new IllegalArgumentException("malformed request");
+        }
+        pos++;
+    }
+    
+    private boolean accept(char c) {
+        if (pos < text.length() && text.charAt(pos) == c) {
+            pos++;
+            return true;
+        }
+        return false;
+    }
+    
+    static String write(Object value) {
+        StringBuilder buf = new StringBuilder();
+        write(buf, value);
+        return buf.toString();
+    }
+    
+    private static void write(StringBuilder buf, Object value) {
+        if (value instanceof Map) {
+            buf.append('{');
+            String separator = "";
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>)value).entrySet()) {
+                buf.append(separator);
+                writeString(buf, entry.getKey().toString());
+                buf.append(':');
+                write(buf, entry.getValue());
+                separator = ",";
+            }
+            buf.append('}');
+        } else if (value instanceof List) {
+            buf.append('[');
+            String separator = "";
+            for (Object elem : (List<?>)value) {
+                buf.append(separator);
+                write(buf, elem);
+                separator = ",";
+            }
+            buf.append(']');
+        } else if (value instanceof Number || value instanceof Boolean) {
+            buf.append(value.toString());
+        } else if (value == null) {
+            buf.append("null");
+        } else {
+            writeString(buf, value.toString());
+        }
+    }
+    
+    private static void writeString(StringBuilder buf, String str) {
+        buf.append('"');
+        for (int i = 0; i < str.length(); i++) {
+            char c = str.charAt(i);
+            switch (c) {
+                case '"': buf.append("\\\""); break;
+                case '\\': buf.append("\\\\"); break;
+                case '\n': buf.append("\\n"); break;
+                case '\t': buf.append("\\t"); break;
+                case '\r': buf.append("\\r"); break;
+                default:
+                    if (c < 0x20) {
+                        buf.append(String.format("\\u%04x", (int)c));
+                    } else {
+                        buf.append(c);
+                    }
+            }
+        }
+        buf.append('"');
+    }
+}
@@ -28,6 +28,7 @@ public class JavaModelBuilder {
     private String classpath;
     private String logfile = "";
     private String autoCheckEnv;
+    private int numberOfThreads = 1;
     
     private ModelBuilderBatch modelBuilder;
     
@@ -50,6 +51,8 @@ public class JavaModelBuilder {
                 binpath = getPath(target, options.get("-binpath", target));
             }
             
+            numberOfThreads = getNumberOfThreads(options.get("-threads", "1"));
+            
             logfile = options.get("-logfile", "");
             if (logfile.length() > 0) {
                 Logger.getInstance().setLogFile(projectPath + File.separator + logfile);
@@ -100,6 +103,22 @@ public class JavaModelBuilder {
         }
     }
     
+    private int getNumberOfThreads(String value) {
+        try {
+            int num = Integer.parseInt(value);
+            if (num == 0) {
+                return Runtime.getRuntime().availableProcessors();
+            }
+            return num > 0 ? num : 1;
+        } catch (NumberFormatException e) {
+            return 1;
+        }
+    }
+    
+    public void setNumberOfThreads(int num) {
+        numberOfThreads = num;
+    }
+    
     private String getProjectName(String target, String cdir) {
         String name = removeLastFileSeparator(target);
         if (name.startsWith(cdir)) {
@@ -126,11 +145,13 @@ public class JavaModelBuilder {
     public List<JavaProject> build() {
         if (!autoCheckEnv.equals("yes")) {
             modelBuilder = new ModelBuilderBatch(true);
+            modelBuilder.setNumberOfThreads(numberOfThreads);
             List<JavaProject> projects = new ArrayList<>();
             projects.add(modelBuilder.build(projectName, projectPath, classpath, srcpath, binpath));
             return projects;
         } else {
             modelBuilder = new ModelBuilderBatch(true);
+            modelBuilder.setNumberOfThreads(numberOfThreads);
             return modelBuilder.build(projectName, projectPath);
         }
     }
@@ -23,7 +23,14 @@ import java.util.ArrayList;
 import java.util.Map;
 import java.util.HashMap;
 import java.util.Set;
+import java.util.HashSet;
 import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
 import java.io.File;
 import java.io.FileReader;
 import java.io.BufferedReader;
@@ -39,6 +46,8 @@ import java.util.stream.Collectors;
  */
 public class ModelBuilderBatch extends ModelBuilder {
     
+    private int numberOfThreads = 1;
+    
     public ModelBuilderBatch() {
         super(false, false);
     }
@@ -56,6 +65,14 @@ public class ModelBuilderBatch extends ModelBuilder {
         return false;
     }
     
+    public void setNumberOfThreads(int num) {
+        numberOfThreads = num > 0 ? num : 1;
+    }
+    
+    public int getNumberOfThreads() {
+        return numberOfThreads;
+    }
+    
     public List<JavaProject> build(String name, String target) {
         List<String> subProjects = getSubProjects(new File(target));
         if (subProjects.size() > 0) {
@@ -235,6 +252,182 @@ public class ModelBuilderBatch extends ModelBuilder {
         build(jproject.getName(), jproject.getPath(), jproject.getClassPath(), jproject.getSourcePath(), jproject.getBinaryPath());
     }
     
+    public void update(JavaProject jproject, Set<JavaFile> jfiles) {
+        update(jproject, jfiles, new HashSet<>());
+    }
+    
+    /**
+     * Updates the models of changed files and of files newly added to the project.
+     * Files that refer to a class declared in an added file are also re-parsed since their references were not resolved.
+     * @param jproject the project
+     * @param jfiles the changed files, which may have been deleted
+     * @param addedPaths the paths of the added files
+     */
+    public void update(JavaProject jproject, Set<JavaFile> jfiles, Set<String> addedPaths) {
+        Set<JavaClass> classes = new HashSet<>();
+        for (JavaFile jfile : jfiles) {
+            for (JavaClass jclass : jfile.getClasses()) {
+                classes.add(jclass);
+                classes.addAll(jproject.collectDanglingClasses(jclass));
+            }
+        }
+        Set<JavaFile> changedFiles = new HashSet<>(jfiles);
+        classes.forEach(jclass -> changedFiles.add(jclass.getFile()));
+        
+        Set<JavaClass> dependentClasses = new HashSet<>();
+        for (JavaClass jclass : classes) {
+            for (JavaClass jc : jclass.getAncestors()) {
+                if (jc.isInProject()) {
+                    collectAfferentClasses(jc, dependentClasses);
+                }
+            }
+        }
+        Set<JavaFile> dependentFiles = new HashSet<>();
+        dependentClasses.forEach(jclass -> dependentFiles.add(jclass.getFile()));
+        dependentFiles.removeAll(changedFiles);
+        
+        Set<String> classNames = new HashSet<>();
+        List<JavaClass> removedClasses = new ArrayList<>();
+        for (JavaClass jclass : jproject.getClasses()) {
+            if (changedFiles.contains(jclass.getFile())) {
+                classNames.add(jclass.getQualifiedName());
+                removedClasses.add(jclass);
+            } else if (dependentFiles.contains(jclass.getFile())) {
+                classNames.add(jclass.getQualifiedName());
+            }
+        }
+        List<String> paths = changedFiles.stream().map(jfile -> jfile.getPath()).collect(Collectors.toList());
+        String[] sourceRoots = getSourceRoots(jproject);
+        removedClasses.sort((jc1, jc2) -> jc2.getQualifiedName().length() - jc1.getQualifiedName().length());
+        removedClasses.forEach(jclass -> jproject.removeClass(jclass)); // inner classes are disposed with their outer class
+        paths.forEach(path -> jproject.removeFile(path));
+        
+        Set<String> newPaths = new HashSet<>();
+        for (String path : addedPaths) {
+            String canonicalPath = getCanonicalPath(path);
+            if (jproject.getFile(canonicalPath) == null) {
+                paths.add(canonicalPath);
+                newPaths.add(canonicalPath);
+            }
+        }
+        
+        classNames.addAll(reparse(jproject, paths, sourceRoots));
+        
+        Set<JavaClass> addedClasses = new HashSet<>();
+        for (String path : newPaths) {
+            JavaFile jfile = jproject.getFile(path);
+            if (jfile != null) {
+                addedClasses.addAll(jfile.getClasses());
+            }
+        }
+        Set<JavaClass> afferentClasses = new HashSet<>();
+        for (JavaClass jclass : addedClasses) {
+            for (JavaClass jc : jclass.getAncestors()) {
+                if (jc.isInProject()) {
+                    collectAfferentClasses(jc, afferentClasses);
+                }
+            }
+        }
+        afferentClasses.forEach(jclass -> classNames.add(jclass.getQualifiedName()));
+        
+        jproject.getCFGStore().update(classNames);
+        jproject.getPDGStore().update(classNames);
+        
+        Set<JavaFile> referringFiles = collectReferringFiles(jproject, addedClasses, new HashSet<>(paths));
+        if (!referringFiles.isEmpty()) {
+            update(jproject, referringFiles);
+        }
+    }
+    
+    private String getCanonicalPath(String path) {
+        try {
+            return new File(path).getCanonicalPath();
+        } catch (IOException e) {
+            return path;
+        }
+    }
+    
+    private Set<JavaFile> collectReferringFiles(JavaProject jproject, Set<JavaClass> addedClasses, Set<String> parsedPaths) {
+        Set<JavaFile> jfiles = new HashSet<>();
+        Set<String> names = new HashSet<>();
+        for (JavaClass jclass : addedClasses) {
+            String fqn = jclass.getQualifiedName();
+            names.add(fqn.substring(fqn.lastIndexOf('.') + 1));
+        }
+        if (names.isEmpty()) {
+            return jfiles;
+        }
+        
+        Pattern pattern = Pattern.compile("\\b(" + names.stream().map(Pattern::quote).collect(Collectors.joining("|")) + ")\\b");
+        for (JavaFile jfile : jproject.getFiles()) {
+            if (!parsedPaths.contains(jfile.getPath()) && pattern.matcher(jfile.getCode()).find()) {
+                jfiles.add(jfile);
+            }
+        }
+        return jfiles;
+    }
+    
+    private void collectAfferentClasses(JavaClass jclass, Set<JavaClass> classes) {
+        if (classes.contains(jclass)) {
+            return;
+        }
+        classes.add(jclass);
+        
+        for (JavaClass jc : jclass.getAfferentClassesInProject()) {
+            collectAfferentClasses(jc, classes);
+        }
+    }
+    
+    private String[] getSourceRoots(JavaProject jproject) {
+        Set<String> roots = new HashSet<>(Arrays.asList(jproject.getSourcePath()));
+        for (JavaFile jfile : jproject.getFiles()) {
+            File dir = new File(jfile.getPath()).getParentFile();
+            if (jfile.getPackage() != null && !jfile.getPackage().isDefault()) {
+                for (int i = 0; i < jfile.getPackage().getName().split("\\.").length && dir != null; i++) {
+                    dir = dir.getParentFile();
+                }
+            }
+            if (dir != null) {
+                roots.add(dir.getPath());
+            }
+        }
+        return roots.toArray(new String[roots.size()]);
+    }
+    
+    private Set<String> reparse(JavaProject jproject, List<String> paths, String[] sourceRoots) {
+        List<String> existingPaths = new ArrayList<>();
+        List<String> encodings = new ArrayList<>();
+        Map<String, String> sources = new HashMap<>();
+        Map<String, String> charsets = new HashMap<>();
+        for (String path : paths) {
+            File file = new File(path);
+            if (file.isFile()) {
+                try {
+                    String source = read(file);
+                    String charset = DetectCharset.getCharsetName(source.getBytes());
+                    existingPaths.add(path);
+                    encodings.add(charset);
+                    sources.put(path, source);
+                    charsets.put(path, charset);
+                } catch (IOException e) { /* empty */ }
+            }
+        }
+        Set<String> classNames = new HashSet<>();
+        if (existingPaths.isEmpty()) {
+            return classNames;
+        }
+        
+        parse(jproject, existingPaths.toArray(new String[existingPaths.size()]), encodings.toArray(new String[encodings.size()]),
+                sources, charsets, sourceRoots);
+        for (JavaClass jclass : jproject.getClasses()) {
+            if (sources.containsKey(jclass.getFile().getPath())) {
+                jproject.collectInfo(jclass);
+                classNames.add(jclass.getQualifiedName());
+            }
+        }
+        return classNames;
+    }
+    
     private void run(JavaProject jproject) {
         List<File> sourceFiles = collectAllJavaFiles(jproject.getSourcePath());
         if (sourceFiles.size() > 0) {
@@ -256,15 +449,26 @@ public class ModelBuilderBatch extends ModelBuilder {
                     count++;
                 } catch (IOException e) { /* empty */ }
             }
+            if (count < paths.length) {
+                paths = Arrays.copyOf(paths, count);
+                encodings = Arrays.copyOf(encodings, count);
+            }
             
-            parse(jproject, paths, encodings, sources, charsets);
-            collectInfo(jproject);
+            if (numberOfThreads > 1 && paths.length > 1) {
+                List<String[]> partitions = partition(paths);
+                parseInParallel(jproject, partitions, sources, charsets);
+                collectInfoInParallel(jproject, partitions);
+            } else {
+                parse(jproject, paths, encodings, sources, charsets, null);
+                collectInfo(jproject);
+            }
         } else {
             System.err.println("Found no Java source files in " + jproject.getPath());
         }
     }
     
-    private void parse(JavaProject jproject, String[] paths, String[] encodings, Map<String, String> sources, Map<String, String> charsets) {
+    private void parse(JavaProject jproject, String[] paths, String[] encodings, Map<String, String> sources, Map<String, String> charsets,
+            String[] sourcePaths) {
         final int size = paths.length;
         ConsoleProgressMonitor pm = new ConsoleProgressMonitor();
         pm.begin(size);
@@ -288,11 +492,135 @@ public class ModelBuilderBatch extends ModelBuilder {
         
         Logger.getInstance().printMessage("** Ready to parse " + size + " files");
         ASTParser parser = getParser();
-        parser.setEnvironment(jproject.getClassPath(), null, null, true);
+        parser.setEnvironment(jproject.getClassPath(), sourcePaths, null, true);
         parser.createASTs(paths, encodings, new String[]{ }, requestor, null);
         pm.done();
     }
     
+    private List<String[]> partition(String[] paths) {
+        int num = Math.min(numberOfThreads, paths.length);
+        List<String[]> partitions = new ArrayList<>(num);
+        for (int i = 0; i < num; i++) {
+            int from = (int)((long)paths.length * i / num);
+            int to = (int)((long)paths.length * (i + 1) / num);
+            partitions.add(Arrays.copyOfRange(paths, from, to));
+        }
+        return partitions;
+    }
+    
+    private void parseInParallel(JavaProject jproject, List<String[]> partitions,
+            Map<String, String> sources, Map<String, String> charsets) {
+        final int size = sources.size();
+        ConsoleProgressMonitor pm = new ConsoleProgressMonitor();
+        pm.begin(size);
+        AtomicInteger count = new AtomicInteger(0);
+        
+        Logger.getInstance().printMessage("Target = " + jproject.getPath() + " (" + jproject.getName() + ")");
+        Logger.getInstance().printMessage("** Ready to parse " + size + " files with " + partitions.size() + " threads");
+        
+        List<Runnable> tasks = new ArrayList<>();
+        for (String[] paths : partitions) {
+            tasks.add(() -> {
+                FileASTRequestor requestor = new FileASTRequestor() {
+                    
+                    public void acceptAST(String path, CompilationUnit cu) {
+                        JavaFile jfile = new JavaFile(cu, path, sources.get(path), charsets.get(path), jproject);
+                        JavaASTVisitor visitor = new JavaASTVisitor(jfile);
+                        cu.accept(visitor);
+                        visitor.terminate();
+                        jproject.addFile(jfile);
+                        
+                        pm.work(1);
+                        Logger.getInstance().printLog("-Parsed " + jfile.getRelativePath() + " (" + count.incrementAndGet() + "/" + size + ")");
+                    }
+                };
+                
+                String[] encodings = new String[paths.length];
+                for (int i = 0; i < paths.length; i++) {
+                    encodings[i] = charsets.get(paths[i]);
+                }
+                ASTParser parser = getParser();
+                parser.setEnvironment(jproject.getClassPath(), jproject.getSourcePath(), null, true);
+                parser.createASTs(paths, encodings, new String[]{ }, requestor, null);
+            });
+        }
+        execute(tasks);
+        pm.done();
+    }
+    
+    private void collectInfoInParallel(JavaProject jproject, List<String[]> partitions) {
+        int size = jproject.getClasses().size();
+        Logger.getInstance().printMessage("** Ready to build java models of " + size + " classes");
+        ConsoleProgressMonitor pm = new ConsoleProgressMonitor();
+        pm.begin(size);
+        AtomicInteger count = new AtomicInteger(0);
+        
+        Map<String, Integer> partitionIndex = new HashMap<>();
+        for (int i = 0; i < partitions.size(); i++) {
+            for (String path : partitions.get(i)) {
+                partitionIndex.put(path, i);
+            }
+        }
+        List<List<JavaClass>> classes = new ArrayList<>();
+        for (int i = 0; i < partitions.size(); i++) {
+            classes.add(new ArrayList<>());
+        }
+        for (JavaClass jclass : jproject.getClasses()) {
+            Integer index = partitionIndex.get(jclass.getFile().getPath());
+            classes.get(index != null ? index : 0).add(jclass);
+        }
+        
+        List<Runnable> tasks = new ArrayList<>();
+        for (List<JavaClass> jclasses : classes) {
+            tasks.add(() -> {
+                for (JavaClass jclass : jclasses) {
+                    jproject.collectInfo(jclass);
+                    
+                    pm.work(1);
+                    Logger.getInstance().printLog("-Built " + jclass.getQualifiedName() + " (" + count.incrementAndGet() + "/" + size + ")");
+                }
+            });
+        }
+        execute(tasks);
+        pm.done();
+    }
+    
+    private void execute(List<Runnable> tasks) {
+        ExecutorService executor = Executors.newFixedThreadPool(tasks.size());
+        Throwable failure = null;
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (Runnable task : tasks) {
+                futures.add(executor.submit(task));
+            }
+            for (Future<?> future : futures) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    if (failure == null) {
+                        failure = e.getCause();
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+            failure = e;
+        } finally {
+            executor.shutdown();
+        }
+        
+        if (failure != null) {
+            Logger.getInstance().printError("Failed to build a Java model: " + failure);
+            if (failure instanceof RuntimeException) {
+                throw (RuntimeException)failure;
+            } else if (failure instanceof Error) {
+                throw (Error)failure;
+            }
+            throw new IllegalStateException("Failed to build a Java model", failure);
+        }
+    }
+    
     public void collectInfo(JavaProject jproject) {
         int size = jproject.getClasses().size();
         Logger.getInstance().printMessage("** Ready to build java models of " + size + " classes");
@@ -352,6 +680,12 @@ public class ModelBuilderBatch extends ModelBuilder {
     
     @Override
     public void resisterBytecodeClasses(JavaProject jproject) {
+        if (lazyBytecodeIndexing) {
+            int size = bytecodeClassStore.createBytecodeClassIndex(jproject);
+            Logger.getInstance().printMessage("** Ready to index names of " + size + " bytecode-classes");
+            return;
+        }
+        
         Set<String> names = bytecodeClassStore.createBytecodeClassStore(jproject);
         Logger.getInstance().printMessage("** Ready to build java models of " + names.size() + " bytecode-classes");
         ConsoleProgressMonitor pm = new ConsoleProgressMonitor();
@@ -8,6 +8,7 @@ package org.jtool.eclipse.cfg;
 
 import java.util.Set;
 import java.util.HashSet;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * An object storing information about a basic block of a CFG.
@@ -20,11 +21,10 @@ public class BasicBlock {
     private CFGNode leader;
     private Set<CFGNode> nodes = new HashSet<CFGNode>();
     
-    private static int num = 0;
+    private static final AtomicInteger num = new AtomicInteger(0);
     
     public BasicBlock(CFGNode node) {
-        num++;
-        id = num;
+        id = num.incrementAndGet();
         leader = node;
     }
     
@@ -6,6 +6,7 @@
 
 package org.jtool.eclipse.cfg;
 
+import org.jtool.eclipse.graph.CompactGraph;
 import java.util.Map;
 import java.util.HashMap;
 import java.util.Set;
@@ -39,6 +40,7 @@ public class CCFG extends CommonCFG {
     public void add(CFG cfg) {
         if (!cfgs.values().contains(cfg)) {
             cfgs.put(cfg.getQualifiedName(), cfg);
+            changed();
         }
     }
     
@@ -64,6 +66,38 @@ public class CCFG extends CommonCFG {
                 .flatMap(cfg -> cfg.getEdges().stream()).collect(Collectors.toSet());
     }
     
+    @Override
+    public void freeze() {
+        super.freeze();
+        cfgs.values().forEach(cfg -> cfg.freeze());
+    }
+    
+    @Override
+    public void thaw() {
+        super.thaw();
+        cfgs.values().forEach(cfg -> cfg.thaw());
+    }
+    
+    @Override
+    public boolean isFrozen() {
+        return cfgs.values().stream().allMatch(cfg -> cfg.isFrozen());
+    }
+    
+    @Override
+    public CompactGraph<CFGNode, ControlFlow> getCompactGraph() {
+        return getCompactGraph(getVersion() + cfgs.values().stream().mapToLong(cfg -> cfg.getVersion()).sum());
+    }
+    
+    @Override
+    protected CompactGraph<CFGNode, ControlFlow> getTraversalGraph(CFGNode node) {
+        for (CFG cfg : cfgs.values()) {
+            if (cfg.contains(node)) {
+                return cfg.getCompactGraph();
+            }
+        }
+        return getCompactGraph();
+    }
+    
     @Override
     public String toString() {
         StringBuilder buf = new StringBuilder();
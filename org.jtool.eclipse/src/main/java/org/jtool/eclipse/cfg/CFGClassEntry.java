@@ -7,6 +7,7 @@
 package org.jtool.eclipse.cfg;
 
 import org.jtool.eclipse.javamodel.JavaClass;
+import org.jtool.eclipse.javamodel.JavaProject;
 import java.util.Set;
 import java.util.HashSet;
 
@@ -24,7 +25,7 @@ public class CFGClassEntry extends CFGEntry {
     private Set<CCFG> types = new HashSet<>();
     
     public CFGClassEntry(JavaClass jclass, CFGNode.Kind kind) {
-        super(jclass.getASTNode(), kind, jclass.getName(), jclass.getQualifiedName(), jclass.getQualifiedName());
+        super(jclass.getASTNode(), kind, jclass.getName(), jclass.getQualifiedName(), jclass.getQualifiedName(), jclass.getSymbolId());
         this.jclass = jclass;
     }
     
@@ -32,6 +33,11 @@ public class CFGClassEntry extends CFGEntry {
         return jclass;
     }
     
+    @Override
+    public JavaProject getJavaProject() {
+        return jclass.getJavaProject();
+    }
+    
     public void addMethod(CFG cfg) {
         methods.add(cfg);
     }
@@ -6,6 +6,7 @@
 
 package org.jtool.eclipse.cfg;
 
+import org.jtool.eclipse.javamodel.JavaProject;
 import org.eclipse.jdt.core.dom.ASTNode;
 
 /**
@@ -18,13 +19,15 @@ public abstract class CFGEntry extends CFGNode {
     private String name;
     private String signature;
     private String fqn;
+    private int symbolId;
     private CommonCFG cfg = null;
     
-    protected CFGEntry(ASTNode node, CFGNode.Kind kind, String name, String signature, String fqn) {
+    protected CFGEntry(ASTNode node, CFGNode.Kind kind, String name, String signature, String fqn, int symbolId) {
         super(node, kind);
         this.name = name;
         this.signature = signature;
         this.fqn = fqn;
+        this.symbolId = symbolId;
     }
     
     public void setCFG(CommonCFG cfg) {
@@ -46,4 +49,12 @@ public abstract class CFGEntry extends CFGNode {
     public String getQualifiedName() {
         return fqn;
     }
+    
+    public int getSymbolId() {
+        return symbolId;
+    }
+    
+    public JavaProject getJavaProject() {
+        return null;
+    }
 }
@@ -7,6 +7,7 @@
 package org.jtool.eclipse.cfg;
 
 import org.jtool.eclipse.javamodel.JavaField;
+import org.jtool.eclipse.javamodel.JavaProject;
 import java.util.List;
 
 /**
@@ -20,7 +21,7 @@ public class CFGFieldEntry extends CFGEntry {
     private CFGStatement declNode;
     
     public CFGFieldEntry(JavaField jfield, CFGNode.Kind kind) {
-        super(jfield.getASTNode(), kind, jfield.getName(), jfield.getQualifiedName(), jfield.getQualifiedName());
+        super(jfield.getASTNode(), kind, jfield.getName(), jfield.getQualifiedName(), jfield.getQualifiedName(), jfield.getSymbolId());
         this.jfield = jfield;
     }
     
@@ -28,6 +29,11 @@ public class CFGFieldEntry extends CFGEntry {
         return jfield;
     }
     
+    @Override
+    public JavaProject getJavaProject() {
+        return jfield.getJavaProject();
+    }
+    
     public void setDeclarationNode(CFGStatement declNode) {
         this.declNode = declNode;
     }
@@ -7,6 +7,7 @@
 package org.jtool.eclipse.cfg;
 
 import org.jtool.eclipse.javamodel.JavaMethod;
+import org.jtool.eclipse.javamodel.JavaProject;
 import java.util.List;
 import java.util.ArrayList;
 
@@ -25,7 +26,7 @@ public class CFGMethodEntry extends CFGEntry {
     private List<CFGCatch> exceptionNodes = new ArrayList<>();
     
     public CFGMethodEntry(JavaMethod jmethod, CFGNode.Kind kind) {
-        super(jmethod.getASTNode(), kind, jmethod.getName(), jmethod.getSignature(), jmethod.getQualifiedName());
+        super(jmethod.getASTNode(), kind, jmethod.getName(), jmethod.getSignature(), jmethod.getQualifiedName(), jmethod.getSymbolId());
         this.jmethod = jmethod;
     }
     
@@ -33,6 +34,11 @@ public class CFGMethodEntry extends CFGEntry {
         return jmethod;
     }
     
+    @Override
+    public JavaProject getJavaProject() {
+        return jmethod.getJavaProject();
+    }
+    
     public void addFormalIn(CFGParameter node) {
         formalIns.add(node);
     }
@@ -6,17 +6,17 @@
 
 package org.jtool.eclipse.cfg;
 
-import org.jtool.eclipse.graph.GraphEdge;
 import org.jtool.eclipse.graph.GraphNode;
 import org.jtool.eclipse.pdg.PDGNode;
 import org.eclipse.jdt.core.dom.ASTNode;
 import java.util.Set;
+import java.util.HashSet;
 import java.util.List;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
-import java.util.stream.Collectors;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * A node of a CFG.
@@ -29,8 +29,9 @@ public class CFGNode extends GraphNode {
     private Kind kind;
     private PDGNode pdgNode = null;
     private BasicBlock basicBlock = null;
+    private volatile Adjacency adjacency = null;
     
-    private static long num = 1;
+    private static final AtomicLong num = new AtomicLong(1);
     
     public enum Kind {
         
@@ -105,13 +106,12 @@ public class CFGNode extends GraphNode {
         if (kind == Kind.dummy) {
             super.setId(0);
         } else {
-            super.setId(num);
-            num++;
+            super.setId(num.getAndIncrement());
         }
     }
     
     public static void resetId() {
-        num = 1;
+        num.set(1);
     }
     
     public void setASTNode(ASTNode node) {
@@ -147,11 +147,11 @@ public class CFGNode extends GraphNode {
     }
     
     public Set<CFGNode> getPredecessors() {
-        return convertNodes(getSrcNodes());
+        return toSet(getAdjacency().predecessors);
     }
     
     public Set<CFGNode> getSuccessors() {
-        return convertNodes(getDstNodes());
+        return toSet(getAdjacency().successors);
     }
     
     public int getNumOfPredecessors() {
@@ -163,19 +163,78 @@ public class CFGNode extends GraphNode {
     }
     
     public Set<ControlFlow> getIncomingFlows() {
-        return convertEdges(getIncomingEdges());
+        return toSet(getAdjacency().incomingFlows);
     }
     
     public Set<ControlFlow> getOutgoingFlows() {
-        return convertEdges(getOutgoingEdges());
+        return toSet(getAdjacency().outgoingFlows);
     }
     
-    private Set<CFGNode> convertNodes(Set<GraphNode> nodes) {
-        return nodes.stream().map(node -> (CFGNode)node).collect(Collectors.toSet());
+    /*
+     * The following methods return read-only views that are shared until the edges of this node change,
+     * so that traversals can iterate over them by index without creating any object.
+     */
+    
+    public List<CFGNode> getPredecessorList() {
+        return getAdjacency().predecessors;
+    }
+    
+    public List<CFGNode> getSuccessorList() {
+        return getAdjacency().successors;
+    }
+    
+    public List<ControlFlow> getIncomingFlowList() {
+        return getAdjacency().incomingFlows;
+    }
+    
+    public List<ControlFlow> getOutgoingFlowList() {
+        return getAdjacency().outgoingFlows;
     }
     
-    private Set<ControlFlow> convertEdges(Set<GraphEdge> edges) {
-        return edges.stream().map(edge -> (ControlFlow)edge).collect(Collectors.toSet());
+    private static <T> Set<T> toSet(List<T> elems) {
+        Set<T> set = new HashSet<>();
+        elems.forEach(elem -> set.add(elem));
+        return set;
+    }
+    
+    private Adjacency getAdjacency() {
+        Adjacency adj = adjacency;
+        if (adj == null) {
+            adj = new Adjacency(this);
+            adjacency = adj;
+        }
+        return adj;
+    }
+    
+    @Override
+    protected void adjacencyChanged() {
+        adjacency = null;
+    }
+    
+    private static class Adjacency {
+        
+        final List<CFGNode> predecessors;
+        final List<CFGNode> successors;
+        final List<ControlFlow> incomingFlows;
+        final List<ControlFlow> outgoingFlows;
+        
+        Adjacency(CFGNode node) {
+            predecessors = view(node.getSrcNodes());
+            successors = view(node.getDstNodes());
+            incomingFlows = view(node.getIncomingEdges());
+            outgoingFlows = view(node.getOutgoingEdges());
+        }
+        
+        @SuppressWarnings("unchecked")
+        private static <T> List<T> view(Set<?> elems) {
+            if (elems.isEmpty()) {
+                return Collections.emptyList();
+            }
+            if (elems.size() == 1) {
+                return Collections.singletonList(((Set<T>)elems).iterator().next());
+            }
+            return Collections.unmodifiableList(new ArrayList<>(new HashSet<>((Set<T>)elems)));
+        }
     }
     
     public boolean isBranch() { 
@@ -382,7 +441,13 @@ public class CFGNode extends GraphNode {
     }
     
     public boolean isNextToBranch() {
-        return getPredecessors().stream().anyMatch(node -> node.isBranch());
+        List<CFGNode> predecessors = getPredecessorList();
+        for (int i = 0; i < predecessors.size(); i++) {
+            if (predecessors.get(i).isBranch()) {
+                return true;
+            }
+        }
+        return false;
     }
     
     public boolean hasDefVariable() {
@@ -6,8 +6,12 @@
 
 package org.jtool.eclipse.cfg;
 
+import org.jtool.eclipse.javamodel.SymbolTable;
+import org.jtool.eclipse.graph.CompactGraph;
 import org.jtool.eclipse.graph.Graph;
 import org.jtool.eclipse.graph.GraphElement;
+import org.jtool.eclipse.graph.GraphTraversal;
+import org.jtool.eclipse.graph.GraphTraversal.Direction;
 import java.util.Set;
 import java.util.HashSet;
 import java.util.stream.Collectors;
@@ -22,6 +26,9 @@ public class CommonCFG extends Graph<CFGNode, ControlFlow> {
     protected CFGEntry entry;
     protected CFGNode exit;
     
+    private DominatorTree dominatorTree = null;
+    private PostDominatorTree postDominatorTree = null;
+    
     public CommonCFG() {
     }
     
@@ -54,6 +61,10 @@ public class CommonCFG extends Graph<CFGNode, ControlFlow> {
         return entry.getQualifiedName();
     }
     
+    public int getSymbolId() {
+        return entry.getSymbolId();
+    }
+    
     public boolean isMethod() {
         return entry instanceof CFGMethodEntry;
     }
@@ -129,19 +140,11 @@ public class CommonCFG extends Graph<CFGNode, ControlFlow> {
     }
     
     public Set<CFGNode> forwardReachableNodes(CFGNode from, boolean loopbackOk, StopConditionOnReachablePath condition) {
-        Set<CFGNode> track = new HashSet<>();
-        if (from != null) {
-            walkForward(from, condition, loopbackOk, track);
-        }
-        return track;
+        return walk(from, Direction.FORWARD, loopbackOk, condition);
     }
     
     public Set<CFGNode> backwardReachableNodes(CFGNode from, boolean loopbackOk, StopConditionOnReachablePath condition) {
-        Set<CFGNode> track = new HashSet<>();
-        if (from != null) {
-            walkBackward(from, condition, loopbackOk, track);
-        }
-        return track;
+        return walk(from, Direction.BACKWARD, loopbackOk, condition);
     }
     
     public Set<CFGNode> forwardReachableNodes(CFGNode from, boolean loopbackOk) {
@@ -185,17 +188,27 @@ public class CommonCFG extends Graph<CFGNode, ControlFlow> {
         return track;
     }
     
+    public synchronized DominatorTree getDominatorTree() {
+        if (dominatorTree == null || dominatorTree.getCompactGraph() != getCompactGraph()) {
+            dominatorTree = new DominatorTree(this);
+        }
+        return dominatorTree;
+    }
+    
+    public synchronized PostDominatorTree getPostDominatorTree() {
+        if (postDominatorTree == null || postDominatorTree.getCompactGraph() != getCompactGraph()) {
+            postDominatorTree = new PostDominatorTree(this);
+        }
+        return postDominatorTree;
+    }
+    
     public Set<CFGNode> postDominator(CFGNode anchor) {
-        Set<CFGNode> postDominator = new HashSet<>();
-        for (CFGNode node : getNodes()) {
-            if (!anchor.equals(node)) {
-                Set<CFGNode> track = forwardReachableNodes(anchor, node, true);
-                if (track.contains(node) && !track.contains(getExitNode())) {
-                    postDominator.add(node);
-                }
-            }
+        if (getExitNode() == null) {
+            Set<CFGNode> postDominator = new HashSet<>(getNodes());
+            postDominator.remove(anchor);
+            return postDominator;
         }
-        return postDominator;
+        return getPostDominatorTree().getPostDominators(anchor);
     }
     
     public Set<CFGNode> constrainedReachableNodes(CFGNode from, CFGNode to) {
@@ -211,36 +224,24 @@ public class CommonCFG extends Graph<CFGNode, ControlFlow> {
         return CRP;
     }
     
-    private void walkForward(CFGNode node, StopConditionOnReachablePath condition, boolean loopbackOk, Set<CFGNode> track) {
-        if (condition.isStop(node)) {
-            return;
+    private Set<CFGNode> walk(CFGNode from, Direction direction, boolean loopbackOk, StopConditionOnReachablePath condition) {
+        if (from == null || condition.isStop(from)) {
+            return new HashSet<>();
         }
-        track.add(node);
         
-        for (ControlFlow flow : node.getOutgoingFlows()) {
-            if (loopbackOk || !flow.isLoopBack()) {
-                CFGNode succ = flow.getDstNode();
-                if (!track.contains(succ)) {
-                    walkForward(succ, condition, loopbackOk, track);
-                }
-            }
+        GraphTraversal<CFGNode, ControlFlow> traversal = new GraphTraversal<>(getTraversalGraph(from), direction);
+        if (!loopbackOk) {
+            traversal.setEdgeFilter(flow -> !flow.isLoopBack());
         }
+        traversal.setStopCondition(node -> condition.isStop(node));
+        return traversal.reachableNodes(from);
     }
     
-    private void walkBackward(CFGNode node, StopConditionOnReachablePath condition, boolean loopbackOk, Set<CFGNode> track) {
-        if (condition.isStop(node)) {
-            return;
-        }
-        track.add(node);
-        
-        for (ControlFlow flow : node.getIncomingFlows()) {
-            if (loopbackOk || !flow.isLoopBack()) {
-                CFGNode pred = flow.getSrcNode();
-                if (!track.contains(pred)) {
-                    walkBackward(pred, condition, loopbackOk, track);
-                }
-            }
-        }
+    /**
+     * Returns the compact graph on which nodes reachable from a given node are collected.
+     */
+    protected CompactGraph<CFGNode, ControlFlow> getTraversalGraph(CFGNode node) {
+        return getCompactGraph();
     }
     
     @Override
@@ -248,8 +249,24 @@ public class CommonCFG extends Graph<CFGNode, ControlFlow> {
         return (obj instanceof CommonCFG) ? equals((CommonCFG)obj) : false;
     }
     
+    /*
+     * CFGs are equal when they belong to the same project and have the same qualified name.
+     * Symbol identifiers are compared instead of names when both exist, since they are unique within a project.
+     */
     public boolean equals(CommonCFG cfg) {
-        return cfg != null && (this == cfg || getQualifiedName().equals(cfg.getQualifiedName()));
+        if (cfg == null) {
+            return false;
+        }
+        if (this == cfg) {
+            return true;
+        }
+        if (entry.getJavaProject() != cfg.entry.getJavaProject()) {
+            return false;
+        }
+        if (getSymbolId() != SymbolTable.NO_SYMBOL && cfg.getSymbolId() != SymbolTable.NO_SYMBOL) {
+            return getSymbolId() == cfg.getSymbolId();
+        }
+        return getQualifiedName().equals(cfg.getQualifiedName());
     }
     
     @Override
@@ -0,0 +1,320 @@
+/*
+ *  Copyright 2020
+ *  Software Science and Technology Lab.
+ *  Department of Computer Science, Ritsumeikan University
+ */
+
+package org.jtool.eclipse.cfg;
+
+import org.jtool.eclipse.graph.CompactGraph;
+import java.util.Set;
+import java.util.HashSet;
+import java.util.List;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * A dominator tree of a CFG, which is built once with the algorithm by Cooper, Harvey, and Kennedy.
+ * A forward tree is rooted at the entry node and a backward tree at the exit node.
+ * A node that cannot be reached from the root is regarded as having a virtual edge from the root.
+ * 
+ * @author Katsuhisa Maruyama
+ */
+public abstract class CommonDominatorTree {
+    
+    protected final CompactGraph<CFGNode, ControlFlow> graph;
+    protected final boolean forward;
+    protected int root;
+    
+    protected int[] idom;
+    private boolean[] reachable;
+    protected int[] preorder;
+    protected int[] postorder;
+    
+    private int[][] frontiers = null;
+    
+    protected CommonDominatorTree(CommonCFG cfg, CFGNode rootNode, boolean forward) {
+        this.graph = cfg.getCompactGraph();
+        this.forward = forward;
+        root = graph.indexOf(rootNode);
+        
+        int size = graph.size();
+        idom = new int[size];
+        Arrays.fill(idom, -1);
+        reachable = new boolean[size];
+        preorder = new int[size];
+        postorder = new int[size];
+        Arrays.fill(preorder, -1);
+        Arrays.fill(postorder, -1);
+        
+        if (root >= 0) {
+            markReachableNodes();
+            build();
+            numberTree();
+        }
+    }
+    
+    private int numberOfPredecessors(int node) {
+        return forward ? graph.inDegree(node) : graph.outDegree(node);
+    }
+    
+    private int predecessor(int node, int k) {
+        return forward ? graph.getPredecessor(node, k) : graph.getSuccessor(node, k);
+    }
+    
+    private int numberOfSuccessors(int node) {
+        return forward ? graph.outDegree(node) : graph.inDegree(node);
+    }
+    
+    private int successor(int node, int k) {
+        return forward ? graph.getSuccessor(node, k) : graph.getPredecessor(node, k);
+    }
+    
+    private void markReachableNodes() {
+        int[] stack = new int[graph.size()];
+        int top = 0;
+        stack[top++] = root;
+        reachable[root] = true;
+        while (top > 0) {
+            int node = stack[--top];
+            for (int k = 0; k < numberOfSuccessors(node); k++) {
+                int succ = successor(node, k);
+                if (!reachable[succ]) {
+                    reachable[succ] = true;
+                    stack[top++] = succ;
+                }
+            }
+        }
+    }
+    
+    private void build() {
+        int size = graph.size();
+        int[] order = reversePostorder();
+        int[] rank = new int[size];
+        for (int i = 0; i < order.length; i++) {
+            rank[order[i]] = i;
+        }
+        
+        idom[root] = root;
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (int i = 1; i < order.length; i++) {
+                int node = order[i];
+                int newIdom = reachable[node] ? -1 : root;
+                for (int k = 0; k < numberOfPredecessors(node); k++) {
+                    int pred = predecessor(node, k);
+                    if (idom[pred] != -1) {
+                        newIdom = (newIdom == -1) ? pred : intersect(pred, newIdom, rank);
+                    }
+                }
+                if (newIdom != -1 && idom[node] != newIdom) {
+                    idom[node] = newIdom;
+                    changed = true;
+                }
+            }
+        }
+        idom[root] = -1;
+    }
+    
+    private int intersect(int node1, int node2, int[] rank) {
+        while (node1 != node2) {
+            while (rank[node1] > rank[node2]) {
+                node1 = idom[node1];
+            }
+            while (rank[node2] > rank[node1]) {
+                node2 = idom[node2];
+            }
+        }
+        return node1;
+    }
+    
+    private int[] reversePostorder() {
+        int size = graph.size();
+        int[] order = new int[size];
+        int count = size;
+        boolean[] visited = new boolean[size];
+        int[] stack = new int[size];
+        int[] edge = new int[size];
+        int top = 0;
+        
+        stack[top] = root;
+        edge[top] = 0;
+        top++;
+        visited[root] = true;
+        int virtual = 0;
+        while (top > 0) {
+            int node = stack[top - 1];
+            int next = -1;
+            if (edge[top - 1] < numberOfSuccessors(node)) {
+                int succ = successor(node, edge[top - 1]++);
+                if (!visited[succ]) {
+                    next = succ;
+                }
+            } else if (node == root && virtual < size) {
+                for ( ; virtual < size && next == -1; virtual++) {
+                    if (!reachable[virtual] && !visited[virtual]) {
+                        next = virtual;
+                    }
+                }
+                if (next == -1) {
+                    top--;
+                    order[--count] = node;
+                    continue;
+                }
+            } else {
+                top--;
+                order[--count] = node;
+                continue;
+            }
+            
+            if (next != -1) {
+                visited[next] = true;
+                stack[top] = next;
+                edge[top] = 0;
+                top++;
+            }
+        }
+        return Arrays.copyOfRange(order, count, size);
+    }
+    
+    private void numberTree() {
+        int size = graph.size();
+        int[] childCount = new int[size + 1];
+        for (int node = 0; node < size; node++) {
+            if (idom[node] != -1) {
+                childCount[idom[node] + 1]++;
+            }
+        }
+        for (int node = 0; node < size; node++) {
+            childCount[node + 1] += childCount[node];
+        }
+        int[] children = new int[size];
+        int[] next = Arrays.copyOf(childCount, size);
+        for (int node = 0; node < size; node++) {
+            if (idom[node] != -1) {
+                children[next[idom[node]]++] = node;
+            }
+        }
+        
+        int[] stack = new int[size];
+        int[] edge = new int[size];
+        int top = 0;
+        int pre = 0;
+        int post = 0;
+        stack[top] = root;
+        edge[top] = childCount[root];
+        top++;
+        preorder[root] = pre++;
+        while (top > 0) {
+            int node = stack[top - 1];
+            if (edge[top - 1] < childCount[node + 1]) {
+                int child = children[edge[top - 1]++];
+                preorder[child] = pre++;
+                stack[top] = child;
+                edge[top] = childCount[child];
+                top++;
+            } else {
+                postorder[node] = post++;
+                top--;
+            }
+        }
+    }
+    
+    public CompactGraph<CFGNode, ControlFlow> getCompactGraph() {
+        return graph;
+    }
+    
+    public CFGNode getRoot() {
+        return root >= 0 ? graph.getNode(root) : null;
+    }
+    
+    protected CFGNode getImmediateDominatorOf(CFGNode node) {
+        int index = graph.indexOf(node);
+        if (index < 0 || idom[index] < 0) {
+            return null;
+        }
+        return graph.getNode(idom[index]);
+    }
+    
+    protected boolean dominates(int dominator, int node) {
+        if (dominator < 0 || node < 0 || preorder[dominator] < 0 || preorder[node] < 0) {
+            return false;
+        }
+        return preorder[dominator] <= preorder[node] && postorder[node] <= postorder[dominator];
+    }
+    
+    protected Set<CFGNode> getDominatorsOf(CFGNode node) {
+        Set<CFGNode> nodes = new HashSet<>();
+        int index = graph.indexOf(node);
+        if (index < 0) {
+            return nodes;
+        }
+        for (int n = idom[index]; n != -1; n = idom[n]) {
+            nodes.add(graph.getNode(n));
+        }
+        return nodes;
+    }
+    
+    protected List<CFGNode> getPathOf(CFGNode from, CFGNode to) {
+        List<CFGNode> nodes = new ArrayList<>();
+        int index = graph.indexOf(from);
+        int end = graph.indexOf(to);
+        for (int n = index; n != -1 && n != end; n = idom[n]) {
+            nodes.add(graph.getNode(n));
+        }
+        return nodes;
+    }
+    
+    protected Set<CFGNode> getFrontierOf(CFGNode node) {
+        int[][] frontier = getFrontiers();
+        Set<CFGNode> nodes = new HashSet<>();
+        int index = graph.indexOf(node);
+        if (index >= 0) {
+            for (int n : frontier[index]) {
+                nodes.add(graph.getNode(n));
+            }
+        }
+        return nodes;
+    }
+    
+    private synchronized int[][] getFrontiers() {
+        if (frontiers == null) {
+            frontiers = computeFrontiers();
+        }
+        return frontiers;
+    }
+    
+    private int[][] computeFrontiers() {
+        int size = graph.size();
+        int[][] frontier = new int[size][];
+        int[] count = new int[size];
+        int[] last = new int[size];
+        Arrays.fill(last, -1);
+        for (int i = 0; i < size; i++) {
+            frontier[i] = new int[0];
+        }
+        
+        for (int join = 0; join < size; join++) {
+            if (numberOfPredecessors(join) < 2 || preorder[join] < 0) {
+                continue;
+            }
+            for (int k = 0; k < numberOfPredecessors(join); k++) {
+                for (int n = predecessor(join, k); n != -1 && n != idom[join]; n = idom[n]) {
+                    if (last[n] == join) {
+                        continue;
+                    }
+                    last[n] = join;
+                    if (count[n] == frontier[n].length) {
+                        frontier[n] = Arrays.copyOf(frontier[n], Math.max(4, count[n] * 2));
+                    }
+                    frontier[n][count[n]++] = join;
+                }
+            }
+        }
+        for (int i = 0; i < size; i++) {
+            frontier[i] = Arrays.copyOf(frontier[i], count[i]);
+        }
+        return frontier;
+    }
+}
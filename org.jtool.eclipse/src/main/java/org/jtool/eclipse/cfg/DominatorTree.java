@@ -0,0 +1,235 @@
+/*
+ *  Copyright 2020
+ *  Software Science and Technology Lab.
+ *  Department of Computer Science, Ritsumeikan University
+ */
+
+package org.jtool.eclipse.cfg;
+
+import java.util.Set;
+import java.util.HashSet;
+import java.util.List;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * A dominator tree of a CFG, which is rooted at its entry node.
+ * Natural loops are detected from back edges, each of which goes to a node dominating its source.
+ * 
+ * @author Katsuhisa Maruyama
+ */
+public class DominatorTree extends CommonDominatorTree {
+    
+    private int[] headers;
+    private int[] innermostHeaders;
+    private int[] outerHeaders;
+    private int[] loopPreorder;
+    private int[] loopPostorder;
+    
+    public DominatorTree(CommonCFG cfg) {
+        super(cfg, cfg.getEntryNode(), true);
+        detectNaturalLoops();
+    }
+    
+    public CFGNode getImmediateDominator(CFGNode node) {
+        return getImmediateDominatorOf(node);
+    }
+    
+    public boolean dominates(CFGNode dominator, CFGNode node) {
+        return dominates(graph.indexOf(dominator), graph.indexOf(node));
+    }
+    
+    public Set<CFGNode> getDominators(CFGNode node) {
+        return getDominatorsOf(node);
+    }
+    
+    public List<CFGNode> getDominatorPath(CFGNode from, CFGNode to) {
+        return getPathOf(from, to);
+    }
+    
+    public Set<CFGNode> getDominanceFrontier(CFGNode node) {
+        return getFrontierOf(node);
+    }
+    
+    public boolean isBackEdge(ControlFlow flow) {
+        return dominates(graph.indexOf(flow.getDstNode()), graph.indexOf(flow.getSrcNode()));
+    }
+    
+    public List<CFGNode> getLoopHeaders() {
+        List<CFGNode> nodes = new ArrayList<>();
+        for (int header : headers) {
+            nodes.add(graph.getNode(header));
+        }
+        return nodes;
+    }
+    
+    public Set<CFGNode> getNaturalLoop(CFGNode header) {
+        Set<CFGNode> nodes = new HashSet<>();
+        int h = graph.indexOf(header);
+        if (h >= 0 && Arrays.binarySearch(headers, h) >= 0) {
+            for (int n = 0; n < graph.size(); n++) {
+                if (isInNaturalLoop(h, n)) {
+                    nodes.add(graph.getNode(n));
+                }
+            }
+        }
+        return nodes;
+    }
+    
+    public boolean isInNaturalLoop(CFGNode header, CFGNode node) {
+        int h = graph.indexOf(header);
+        int n = graph.indexOf(node);
+        return h >= 0 && n >= 0 && isInNaturalLoop(h, n);
+    }
+    
+    private boolean isInNaturalLoop(int header, int node) {
+        int inner = innermostHeaders[node];
+        return inner != -1 && loopPreorder[header] <= loopPreorder[inner] && loopPostorder[inner] <= loopPostorder[header];
+    }
+    
+    public List<CFGNode> getEnclosingLoopHeaders(CFGNode node) {
+        List<CFGNode> nodes = new ArrayList<>();
+        int n = graph.indexOf(node);
+        if (n < 0) {
+            return nodes;
+        }
+        for (int h = innermostHeaders[n]; h != -1; h = outerHeaders[h]) {
+            nodes.add(graph.getNode(h));
+        }
+        return nodes;
+    }
+    
+    /**
+     * Detects natural loops in near-linear time.
+     * Headers are processed from the innermost, that is, in the reverse preorder of the dominator tree.
+     * The backward walk from the back edges of a header absorbs an inner loop as a whole by jumping to its outermost header,
+     * which is found on a union-find forest of headers.
+     * Each node records its innermost loop header, and each header records the header of the loop enclosing it.
+     * The loop nesting forest is numbered so that the membership of a node is tested in constant time.
+     */
+    private void detectNaturalLoops() {
+        int size = graph.size();
+        innermostHeaders = new int[size];
+        outerHeaders = new int[size];
+        Arrays.fill(innermostHeaders, -1);
+        Arrays.fill(outerHeaders, -1);
+        
+        boolean[] isHeader = new boolean[size];
+        int num = 0;
+        for (int e = 0; e < graph.numberOfEdges(); e++) {
+            int dst = graph.getDstIndex(e);
+            if (!isHeader[dst] && dominates(dst, graph.getSrcIndex(e))) {
+                isHeader[dst] = true;
+                num++;
+            }
+        }
+        headers = new int[num];
+        for (int n = 0, index = 0; n < size; n++) {
+            if (isHeader[n]) {
+                headers[index++] = n;
+            }
+        }
+        
+        Integer[] order = new Integer[num];
+        for (int index = 0; index < num; index++) {
+            order[index] = headers[index];
+        }
+        Arrays.sort(order, (h1, h2) -> preorder[h2] - preorder[h1]);
+        
+        int[] parents = new int[size];
+        int[] stack = new int[graph.numberOfEdges() + 1];
+        for (int h : order) {
+            parents[h] = h;
+            innermostHeaders[h] = h;
+            int top = pushPredecessors(h, h, stack, 0);
+            while (top > 0) {
+                int node = stack[--top];
+                if (innermostHeaders[node] == -1) {
+                    innermostHeaders[node] = h;
+                    top = pushPredecessors(h, node, stack, top);
+                } else {
+                    int root = findOutermostHeader(innermostHeaders[node], parents);
+                    if (root != h) {
+                        parents[root] = h;
+                        outerHeaders[root] = h;
+                        top = pushPredecessors(h, root, stack, top);
+                    }
+                }
+            }
+        }
+        numberLoopForest();
+    }
+    
+    private void numberLoopForest() {
+        int size = graph.size();
+        loopPreorder = new int[size];
+        loopPostorder = new int[size];
+        Arrays.fill(loopPreorder, -1);
+        Arrays.fill(loopPostorder, -1);
+        
+        int[] offsets = new int[size + 1];
+        for (int h : headers) {
+            if (outerHeaders[h] != -1) {
+                offsets[outerHeaders[h] + 1]++;
+            }
+        }
+        for (int n = 0; n < size; n++) {
+            offsets[n + 1] += offsets[n];
+        }
+        int[] children = new int[headers.length];
+        int[] next = Arrays.copyOf(offsets, size);
+        for (int h : headers) {
+            if (outerHeaders[h] != -1) {
+                children[next[outerHeaders[h]]++] = h;
+            }
+        }
+        
+        int pre = 0;
+        int post = 0;
+        int[] stack = new int[headers.length];
+        for (int h : headers) {
+            if (outerHeaders[h] != -1) {
+                continue;
+            }
+            int top = 0;
+            stack[top++] = h;
+            loopPreorder[h] = pre++;
+            next[h] = offsets[h];
+            while (top > 0) {
+                int header = stack[top - 1];
+                if (next[header] < offsets[header + 1]) {
+                    int child = children[next[header]++];
+                    loopPreorder[child] = pre++;
+                    next[child] = offsets[child];
+                    stack[top++] = child;
+                } else {
+                    loopPostorder[header] = post++;
+                    top--;
+                }
+            }
+        }
+    }
+    
+    private int pushPredecessors(int header, int node, int[] stack, int top) {
+        for (int k = 0; k < graph.inDegree(node); k++) {
+            int pred = graph.getPredecessor(node, k);
+            if (dominates(header, pred)) {
+                stack[top++] = pred;
+            }
+        }
+        return top;
+    }
+    
+    private int findOutermostHeader(int header, int[] parents) {
+        int root = header;
+        while (parents[root] != root) {
+            root = parents[root];
+        }
+        while (parents[header] != root) {
+            int next = parents[header];
+            parents[header] = root;
+            header = next;
+        }
+        return root;
+    }
+}
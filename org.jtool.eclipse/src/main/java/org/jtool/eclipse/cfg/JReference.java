@@ -8,6 +8,7 @@ package org.jtool.eclipse.cfg;
 
 import org.jtool.eclipse.javamodel.CodeRange;
 import org.jtool.eclipse.javamodel.JavaMethod;
+import org.jtool.eclipse.javamodel.SymbolTable;
 import static org.jtool.eclipse.javamodel.JavaElement.QualifiedNameSeparator;
 import org.eclipse.jdt.core.dom.ASTNode;
 import org.eclipse.jdt.core.dom.EnumDeclaration;
@@ -39,6 +40,7 @@ public abstract class JReference {
     protected boolean isPrimitiveType;
     protected int modifiers;
     protected boolean inProject;
+    protected int symbolId = SymbolTable.NO_SYMBOL;
     
     protected CodeRange codeRange = null;
     
@@ -82,6 +84,24 @@ public abstract class JReference {
         return referenceName;
     }
     
+    public int getSymbolId() {
+        return symbolId;
+    }
+    
+    public void intern(SymbolTable symbols) {
+        if (symbolId == SymbolTable.NO_SYMBOL && fqn != null) {
+            symbolId = symbols.getId(fqn);
+            fqn = symbols.getSymbol(symbolId);
+            referenceName = symbols.intern(referenceName);
+            enclosingClassName = symbols.intern(enclosingClassName);
+            enclosingMethodName = symbols.intern(enclosingMethodName);
+            declaringClassName = symbols.intern(declaringClassName);
+            declaringMethodName = symbols.intern(declaringMethodName);
+            signature = symbols.intern(signature);
+            type = symbols.intern(type);
+        }
+    }
+    
     public String getType() {
         return type;
     }
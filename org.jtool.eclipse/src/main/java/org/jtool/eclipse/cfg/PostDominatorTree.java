@@ -0,0 +1,43 @@
+/*
+ *  Copyright 2020
+ *  Software Science and Technology Lab.
+ *  Department of Computer Science, Ritsumeikan University
+ */
+
+package org.jtool.eclipse.cfg;
+
+import java.util.Set;
+import java.util.List;
+
+/**
+ * A post-dominator tree of a CFG, which is rooted at its exit node.
+ * A node that cannot reach the exit node is regarded as having a virtual edge to the exit node.
+ * 
+ * @author Katsuhisa Maruyama
+ */
+public class PostDominatorTree extends CommonDominatorTree {
+    
+    public PostDominatorTree(CommonCFG cfg) {
+        super(cfg, cfg.getExitNode(), false);
+    }
+    
+    public CFGNode getImmediatePostDominator(CFGNode node) {
+        return getImmediateDominatorOf(node);
+    }
+    
+    public boolean postDominates(CFGNode dominator, CFGNode node) {
+        return dominates(graph.indexOf(dominator), graph.indexOf(node));
+    }
+    
+    public Set<CFGNode> getPostDominators(CFGNode node) {
+        return getDominatorsOf(node);
+    }
+    
+    public List<CFGNode> getPostDominatorPath(CFGNode from, CFGNode to) {
+        return getPathOf(from, to);
+    }
+    
+    public Set<CFGNode> getPostDominanceFrontier(CFGNode node) {
+        return getFrontierOf(node);
+    }
+}
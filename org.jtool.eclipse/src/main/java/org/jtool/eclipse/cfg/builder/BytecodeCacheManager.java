@@ -8,36 +8,31 @@ package org.jtool.eclipse.cfg.builder;
 
 import org.jtool.eclipse.javamodel.JavaProject;
 import org.jtool.eclipse.util.TimeInfo;
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.parsers.ParserConfigurationException;
-import javax.xml.parsers.SAXParser;
-import javax.xml.parsers.SAXParserFactory;
-import javax.xml.transform.OutputKeys;
-import javax.xml.transform.Transformer;
-import javax.xml.transform.TransformerException;
-import javax.xml.transform.TransformerFactory;
-import javax.xml.transform.dom.DOMSource;
-import javax.xml.transform.stream.StreamResult;
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
-import org.xml.sax.Attributes;
-import org.xml.sax.SAXException;
-import org.xml.sax.helpers.DefaultHandler;
 import java.util.Collection;
 import java.util.Map;
 import java.util.HashMap;
 import java.util.Map.Entry;
+import java.util.Set;
 import java.util.List;
 import java.util.ArrayList;
 import java.io.File;
-import java.io.FileWriter;
-import java.io.BufferedWriter;
+import java.io.FileOutputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 
 /**
  * Manages the cache of bytecode classes.
+ * The cache file is a binary file consisting of a header, class records, a string table, and two indexes.
+ * Class records refer to strings by their indexes, which are encoded as variable-length integers.
  * All methods of this class are not intended to be directly called by clients.
  * 
  * @author Katsuhisa Maruyama
@@ -46,210 +41,341 @@ class BytecodeCacheManager {
     
     private static final String BYTECODE_INFO_FILENAME = ".bytecode.info";
     
-    static final String ProjectElem = "project";
-    static final String ClassElem = "class";
-    static final String MethodElem = "method";
-    static final String FieldElem = "field";
-    
-    static final String PathAttr = "path";
-    static final String TimeAttr = "time";
+    static final int MAGIC = 0x4a584243;
+    static final int VERSION = 2;
+    static final int HEADER_SIZE = 32;
     
     static void writeCache(JavaProject jproject, Collection<JClass> classes) {
         try {
             String filename = jproject.getDir() + File.separator + BYTECODE_INFO_FILENAME;
             File file = new File(filename);
             
-            CacheExporter exporter = new CacheExporter();
-            Document doc = exporter.getDocument(jproject, classes);
-            write(file, doc);
+            CacheWriter writer = new CacheWriter(false);
+            writer.write(file, jproject.getPath(), classes);
         } catch (IOException e) {
             System.err.println("IO error " + e.getMessage());
         }
     }
     
-    private static void write(File file, Document doc) throws IOException {
-        try {
-            Transformer transformer = TransformerFactory.newInstance().newTransformer();
-            transformer.setOutputProperty(OutputKeys.ENCODING, "UTF-8");
-            transformer.setOutputProperty(OutputKeys.INDENT, "yes");
-            DOMSource src = new DOMSource(doc);
-            
-            StringWriter writer = new StringWriter();
-            transformer.transform(src, new StreamResult(writer));
-            if (file.exists()) {
-                file.delete();
-            }
-            
-            BufferedWriter bwriter = new BufferedWriter(new FileWriter(file));
-            bwriter.write(writer.toString());
-            bwriter.flush();
-            bwriter.close();
-        } catch (TransformerException e) {
-            System.err.println("DOM: Export error occurred: " + e.getMessage() + ".");
-        }
-    }
-    
-    static boolean loadCache(JavaProject jproject, CFGStore cfgStore) {
+    static CacheReader loadCache(JavaProject jproject, CFGStore cfgStore) {
         String filename = jproject.getPath() + File.separator + BYTECODE_INFO_FILENAME;
         File file = new File(filename);
         if (!file.canRead()) {
-            return false;
+            return null;
         }
         
         try {
-            SAXParserFactory factory = SAXParserFactory.newInstance();
-            factory.setNamespaceAware(true);
-            
-            SAXParser parser = factory.newSAXParser();
-            CacheImporter handler = new CacheImporter(cfgStore);
-            parser.parse(file, handler);
-        } catch (ParserConfigurationException | SAXException | IOException e) {
-            return false;
+            return new CacheReader(file, cfgStore, false);
+        } catch (IOException | RuntimeException e) {
+            return null;
         }
-        return true;
     }
 }
-
-class CacheExporter {
     
-    Document getDocument(JavaProject jproject, Collection<JClass> classes) {
-        try {
-            DocumentBuilder builder = DocumentBuilderFactory.newInstance().newDocumentBuilder();
-            Document doc = builder.newDocument();
-            Element projectElem = doc.createElement(BytecodeCacheManager.ProjectElem);
-            projectElem.setAttribute(BytecodeCacheManager.PathAttr, jproject.getPath());
-            projectElem.setAttribute(BytecodeCacheManager.TimeAttr, TimeInfo.getTimeAsISOString(TimeInfo.getCurrentTime()));
-            doc.appendChild(projectElem);
+/*
+ * Layout of the cache file, where all integers in the header and the indexes are four bytes long:
+ *   header       : magic, version, number of strings, number of classes,
+ *                  position of the string index, position of the class index, origin of classes, creation time
+ *   class records: attributes of a class, its methods with def-use fields, and its fields
+ *   string data  : UTF-8 bytes of all strings
+ *   string index : position and length of each string
+ *   class index  : name and record position of each class
+ * The shared cache stores def-use fields of methods in the classpath, and the cache of a project those in the project.
+ */
+class CacheWriter {
+    
+    private boolean inClassPath;
+    
+    private Map<String, Integer> stringIds = new HashMap<>();
+    private List<String> strings = new ArrayList<>();
+    private ByteArrayOutputStream records = new ByteArrayOutputStream();
+    
+    CacheWriter(boolean inClassPath) {
+        this.inClassPath = inClassPath;
+    }
+    
+    void write(File file, String origin, Collection<JClass> classes) throws IOException {
+        int pathId = getStringId(origin);
+        int timeId = getStringId(TimeInfo.getTimeAsISOString(TimeInfo.getCurrentTime()));
+        
+        int[] classNames = new int[classes.size()];
+        int[] classPositions = new int[classes.size()];
+        int index = 0;
+        for (JClass clazz : classes) {
+            classNames[index] = getStringId(clazz.getQualifiedName());
+            classPositions[index] = BytecodeCacheManager.HEADER_SIZE + records.size();
+            writeClass(clazz);
+            index++;
+        }
+        
+        byte[][] bytes = new byte[strings.size()][];
+        int stringIndexPos = BytecodeCacheManager.HEADER_SIZE + records.size();
+        for (int id = 0; id < strings.size(); id++) {
+            bytes[id] = strings.get(id).getBytes(StandardCharsets.UTF_8);
+            stringIndexPos = stringIndexPos + bytes[id].length;
+        }
+        int classIndexPos = stringIndexPos + strings.size() * 8;
+        
+        File tmpfile = Files.createTempFile(file.getAbsoluteFile().getParentFile().toPath(), file.getName(), ".tmp").toFile();
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmpfile)))) {
+            out.writeInt(BytecodeCacheManager.MAGIC);
+            out.writeInt(BytecodeCacheManager.VERSION);
+            out.writeInt(strings.size());
+            out.writeInt(classes.size());
+            out.writeInt(stringIndexPos);
+            out.writeInt(classIndexPos);
+            out.writeInt(pathId);
+            out.writeInt(timeId);
+            records.writeTo(out);
             
-            for (JClass clazz : classes) {
-                export(doc, projectElem, clazz);
+            for (byte[] b : bytes) {
+                out.write(b);
+            }
+            int pos = BytecodeCacheManager.HEADER_SIZE + records.size();
+            for (byte[] b : bytes) {
+                out.writeInt(pos);
+                out.writeInt(b.length);
+                pos = pos + b.length;
+            }
+            for (int i = 0; i < classNames.length; i++) {
+                out.writeInt(classNames[i]);
+                out.writeInt(classPositions[i]);
             }
-            return doc;
-            
-        } catch (ParserConfigurationException e) {
-            System.err.println("DOM: Export error occurred: " + e.getMessage() + ".");
         }
-        return null;
+        Files.move(tmpfile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
     }
     
-    private void export(Document doc, Element parent, JClass clazz) {
-        Element classElem = doc.createElement(BytecodeCacheManager.ClassElem);
-        for (Entry<String, String> entry : clazz.getCacheData().entrySet()) {
-            classElem.setAttribute(entry.getKey(), entry.getValue());
-        }
+    private void writeClass(JClass clazz) {
+        writeAttributes(clazz.getCacheData());
         
+        writeVarint(clazz.getMethods().length);
         for (JMethod method : clazz.getMethods()) {
-            export(doc, classElem, method);
+            writeAttributes(method.getCacheData());
+            if (inClassPath || !method.defuseDecided()) {
+                writeFields(method.getClassPathDefFields());
+                writeFields(method.getClassPathUseFields());
+            } else {
+                writeFields(method.getDefFields());
+                writeFields(method.getUseFields());
+            }
         }
+        
+        writeVarint(clazz.getFields().length);
         for (JField field : clazz.getFields()) {
-            export(doc, classElem, field);
+            writeAttributes(field.getCacheData());
         }
-        parent.appendChild(classElem);
     }
     
-    private void export(Document doc, Element parent, JMethod method) {
-        Element methodElem = doc.createElement(BytecodeCacheManager.MethodElem);
-        for (Entry<String, String> entry : method.getCacheData().entrySet()) {
-            methodElem.setAttribute(entry.getKey(), entry.getValue());
+    private void writeAttributes(Map<String, String> attrs) {
+        List<Entry<String, String>> entries = new ArrayList<>();
+        for (Entry<String, String> entry : attrs.entrySet()) {
+            if (entry.getValue() != null &&
+                !entry.getKey().equals(JElement.DefAttr) && !entry.getKey().equals(JElement.UseAttr)) {
+                entries.add(entry);
+            }
+        }
+        
+        writeVarint(entries.size());
+        for (Entry<String, String> entry : entries) {
+            writeVarint(getStringId(entry.getKey()));
+            writeVarint(getStringId(entry.getValue()));
         }
-        parent.appendChild(methodElem);
     }
     
-    private void export(Document doc, Element parent, JField field) {
-        Element fieldElem = doc.createElement(BytecodeCacheManager.FieldElem);
-        for (Entry<String, String> entry : field.getCacheData().entrySet()) {
-            fieldElem.setAttribute(entry.getKey(), entry.getValue());
+    private void writeFields(Set<DefOrUseField> fields) {
+        if (fields == null) {
+            writeVarint(0);
+            return;
+        }
+        
+        writeVarint(fields.size());
+        for (DefOrUseField field : fields) {
+            writeVarint(getStringId(field.toString()));
         }
-        parent.appendChild(fieldElem);
     }
     
-    @SuppressWarnings("unused")
-    private String convert(String str) {
-        if (str == null || str.length() == 0) {
-            return str;
+    private void writeVarint(int value) {
+        while ((value & ~0x7f) != 0) {
+            records.write((value & 0x7f) | 0x80);
+            value = value >>> 7;
         }
-        
-        StringBuffer buf = new StringBuffer();
-        for (int i = 0; i < str.length(); i++) {
-            char ch = str.charAt(i);
-            
-            if (ch == '&') {
-                buf.append("&amp;");
-                
-            } else if (ch == '<') {
-                buf.append("&lt;");
-                
-            } else if (ch == '>') {
-                buf.append("&gt;");
-                
-            } else if (ch == '\'') {
-                 buf.append("&apos;");
-                 
-            } else if (ch == '"') {
-                buf.append("&quot;");
-                
-            } else {
-                buf.append(ch);
-            }
+        records.write(value);
+    }
+    
+    private int getStringId(String str) {
+        Integer id = stringIds.get(str);
+        if (id == null) {
+            id = strings.size();
+            stringIds.put(str, id);
+            strings.add(str);
         }
-        return buf.toString();
+        return id;
     }
 }
     
-class CacheImporter extends DefaultHandler {
+/*
+ * Reads the cache file through a memory-mapped buffer.
+ * A class record is decoded when the class is first requested, and each string is decoded only once.
+ * Positions and counts are checked against the size of the file, and a class record that cannot be decoded
+ * is regarded as missing, so a truncated or corrupt file never fails the analysis.
+ */
+class CacheReader {
     
     private CFGStore cfgStore;
+    private boolean inClassPath;
     
-    private JClassCache clazz = null;
-    private List<JMethodCache> cmethods = new ArrayList<>();
-    private List<JFieldCache> cfields = new ArrayList<>();
+    private MappedByteBuffer buffer;
+    private int stringIndexPos;
+    private String[] strings;
+    private Map<String, Integer> classPositions;
     
-    public CacheImporter(CFGStore cfgStore) {
+    CacheReader(File file, CFGStore cfgStore, boolean inClassPath) throws IOException {
         this.cfgStore = cfgStore;
+        this.inClassPath = inClassPath;
+        
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        if (buffer.capacity() < BytecodeCacheManager.HEADER_SIZE ||
+            buffer.getInt(0) != BytecodeCacheManager.MAGIC || buffer.getInt(4) != BytecodeCacheManager.VERSION) {
+            throw new IOException("obsolete format of " + file.getName());
+        }
+        
+        int stringCount = buffer.getInt(8);
+        int classCount = buffer.getInt(12);
+        stringIndexPos = buffer.getInt(16);
+        int classIndexPos = buffer.getInt(20);
+        if (!isInFile(stringIndexPos, stringCount, 8) || !isInFile(classIndexPos, classCount, 8)) {
+            throw new IOException("broken index of " + file.getName());
+        }
+        
+        strings = new String[stringCount];
+        classPositions = new HashMap<>();
+        for (int i = 0; i < classCount; i++) {
+            int pos = classIndexPos + i * 8;
+            int recordPos = buffer.getInt(pos + 4);
+            if (recordPos < BytecodeCacheManager.HEADER_SIZE || recordPos >= buffer.capacity()) {
+                throw new IOException("broken class index of " + file.getName());
+            }
+            classPositions.put(getString(buffer.getInt(pos)), recordPos);
+        }
     }
     
-    @Override
-    public void startElement(String uri, String name, String qname, Attributes attrs) {
-        if (qname.equals(BytecodeCacheManager.ClassElem)) {
-            clazz = new JClassCache(cfgStore, attributes(attrs));
-            return;
+    private boolean isInFile(int pos, int count, int size) {
+        return pos >= BytecodeCacheManager.HEADER_SIZE && count >= 0 &&
+               (long)pos + (long)count * size <= buffer.capacity();
+    }
+    
+    synchronized JClassCache read(String fqn) {
+        Integer pos = classPositions.remove(fqn);
+        if (pos == null) {
+            return null;
+        }
+        try {
+            return readClass(pos);
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+    
+    synchronized List<JClassCache> readAll() {
+        List<JClassCache> classes = new ArrayList<>();
+        for (int pos : classPositions.values()) {
+            try {
+                classes.add(readClass(pos));
+            } catch (RuntimeException e) { /* empty */ }
         }
+        classPositions.clear();
+        return classes;
+    }
+    
+    private JClassCache readClass(int pos) {
+        ByteBuffer in = buffer.duplicate();
+        in.position(pos);
         
-        if (qname.equals(BytecodeCacheManager.MethodElem)) {
-            if (clazz != null) {
-                JMethodCache method = new JMethodCache(clazz, cfgStore, attributes(attrs));
-                cmethods.add(method);
-            }
-            return;
+        JClassCache clazz = new JClassCache(cfgStore, readAttributes(in));
+        
+        int methodCount = readCount(in);
+        List<JMethodCache> cmethods = new ArrayList<>(methodCount);
+        for (int i = 0; i < methodCount; i++) {
+            Map<String, String> attrs = readAttributes(in);
+            String[] defs = readFields(in);
+            String[] uses = readFields(in);
+            cmethods.add(new JMethodCache(clazz, cfgStore, attrs, defs, uses, inClassPath));
         }
         
-        if (qname.equals(BytecodeCacheManager.FieldElem)) {
-            if (clazz != null) {
-                JFieldCache field = new JFieldCache(clazz, cfgStore, attributes(attrs));
-                cfields.add(field);
-            }
-            return;
+        int fieldCount = readCount(in);
+        List<JFieldCache> cfields = new ArrayList<>(fieldCount);
+        for (int i = 0; i < fieldCount; i++) {
+            cfields.add(new JFieldCache(clazz, cfgStore, readAttributes(in)));
         }
+        
+        clazz.setMethods(cmethods);
+        clazz.setFields(cfields);
+        return clazz;
     }
     
-    @Override
-    public void endElement(String uri, String name, String qname) throws SAXException {
-        if (qname.equals(BytecodeCacheManager.ClassElem)) {
-            clazz.setMethods(cmethods);
-            clazz.setFields(cfields);
-            cfgStore.getJInfoStore().registerJClassCache(clazz);
-            
-            clazz = null;
-            cmethods.clear();
-            cfields.clear();
+    private Map<String, String> readAttributes(ByteBuffer in) {
+        int count = readCount(in);
+        Map<String, String> attrs = new HashMap<>();
+        for (int i = 0; i < count; i++) {
+            String key = getString(readVarint(in));
+            attrs.put(key, getString(readVarint(in)));
+        }
+        return attrs;
+    }
+    
+    private String[] readFields(ByteBuffer in) {
+        String[] fields = new String[readCount(in)];
+        for (int i = 0; i < fields.length; i++) {
+            fields[i] = getString(readVarint(in));
+        }
+        return fields;
+    }
+    
+    /*
+     * Every element counted in a record takes at least one byte, so a count larger than the rest of the record is broken.
+     */
+    private int readCount(ByteBuffer in) {
+        int count = readVarint(in);
+        if (count < 0 || count > in.remaining()) {
+            throw new IllegalStateException("broken count " + count);
         }
+        return count;
     }
     
-    private Map<String, String> attributes(Attributes attrs) {
-        Map<String, String> map = new HashMap<>();
-        for (int i = 0; i < attrs.getLength(); i++) {
-            map.put(attrs.getQName(i), attrs.getValue(i));
+    private int readVarint(ByteBuffer in) {
+        int value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            if (shift > 28) {
+                throw new IllegalStateException("broken integer");
+            }
+            b = in.get();
+            value = value | ((b & 0x7f) << shift);
+            shift = shift + 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+    
+    private String getString(int id) {
+        if (id < 0 || id >= strings.length) {
+            throw new IllegalStateException("broken string id " + id);
+        }
+        if (strings[id] == null) {
+            int pos = stringIndexPos + id * 8;
+            int start = buffer.getInt(pos);
+            int length = buffer.getInt(pos + 4);
+            if (start < BytecodeCacheManager.HEADER_SIZE || length < 0 || (long)start + length > buffer.capacity()) {
+                throw new IllegalStateException("broken string " + id);
+            }
+            byte[] bytes = new byte[length];
+            ByteBuffer in = buffer.duplicate();
+            in.position(start);
+            in.get(bytes);
+            strings[id] = new String(bytes, StandardCharsets.UTF_8);
         }
-        return map;
+        return strings[id];
     }
 }
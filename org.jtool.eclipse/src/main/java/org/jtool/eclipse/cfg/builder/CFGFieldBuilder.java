@@ -19,8 +19,6 @@ import org.eclipse.jdt.core.dom.Expression;
 import org.eclipse.jdt.core.dom.VariableDeclarationFragment;
 import org.eclipse.jdt.core.dom.EnumConstantDeclaration;
 import org.eclipse.jdt.core.dom.IVariableBinding;
-import java.util.Set;
-import java.util.HashSet;
 
 /**
  * Builds a CFG that corresponds to a field.
@@ -34,17 +32,10 @@ public class CFGFieldBuilder {
         if (jfield.getVariableBinding() == null) {
             return null;
         }
-        return build(jfield, infoStore, new HashSet<>());
+        return build(jfield, jfield.getVariableBinding(), infoStore);
     }
     
-    public static CFG build(JavaField jfield, JInfoStore infoStore, Set<JMethod> visited) {
-        if (jfield.getVariableBinding() == null) {
-            return null;
-        }
-        return build(jfield, jfield.getVariableBinding(), infoStore, visited);
-    }
-    
-    private static CFG build(JavaField jfield, IVariableBinding vbinding, JInfoStore infoStore, Set<JMethod> visited) {
+    private static CFG build(JavaField jfield, IVariableBinding vbinding, JInfoStore infoStore) {
         CFG cfg = new CFG();
         
         CFGFieldEntry entry;
@@ -71,7 +62,7 @@ public class CFGFieldBuilder {
         if (vbinding.isEnumConstant()) {
             EnumConstantDeclaration decl = (EnumConstantDeclaration)jfield.getASTNode();
             if (decl.resolveConstructorBinding() != null) {
-                ExpressionVisitor visitor = new ExpressionVisitor(cfg, declNode, infoStore, visited);
+                ExpressionVisitor visitor = new ExpressionVisitor(cfg, declNode, infoStore);
                 decl.accept(visitor);
                 curNode = visitor.getExitNode();
             }
@@ -79,7 +70,7 @@ public class CFGFieldBuilder {
             VariableDeclarationFragment decl = (VariableDeclarationFragment)jfield.getASTNode();
             Expression initializer = decl.getInitializer();
             if (initializer != null) {
-                ExpressionVisitor visitor = new ExpressionVisitor(cfg, declNode, infoStore, visited);
+                ExpressionVisitor visitor = new ExpressionVisitor(cfg, declNode, infoStore);
                 initializer.accept(visitor);
                 curNode = visitor.getExitNode();
             }
@@ -42,11 +42,11 @@ public class CFGMethodBuilder {
         if (jmethod.getMethodBinding() == null) {
             return null;
         }
-        return build(jmethod, infoStore, new HashSet<>());
+        return buildCFG(jmethod, infoStore);
     }
     
     @SuppressWarnings("unchecked")
-    public static CFG build(JavaMethod jmethod, JInfoStore infoStore, Set<JMethod> visited) {
+    static CFG buildCFG(JavaMethod jmethod, JInfoStore infoStore) {
         List<VariableDeclaration> params;
         if (!jmethod.isInitializer()) {
             if (jmethod.isLambda()) {
@@ -59,11 +59,11 @@ public class CFGMethodBuilder {
         } else {
             params = new ArrayList<>();
         }
-        return build(jmethod, jmethod.getMethodBinding(), params, infoStore, visited);
+        return build(jmethod, jmethod.getMethodBinding(), params, infoStore);
     }
     
     private static CFG build(JavaMethod jmethod, IMethodBinding mbinding, List<VariableDeclaration> params,
-                             JInfoStore infoStore, Set<JMethod> visited) {
+                             JInfoStore infoStore) {
         CFG cfg = new CFG();
         
         CFGMethodEntry entry;
@@ -92,7 +92,7 @@ public class CFGMethodBuilder {
         entryEdge.setTrue();
         cfg.add(entryEdge);
         
-        StatementVisitor visitor = new StatementVisitor(cfg, finalFormalInNode, nextNode, infoStore, visited);
+        StatementVisitor visitor = new StatementVisitor(cfg, finalFormalInNode, nextNode, infoStore);
         jmethod.getASTNode().accept(visitor);
         nextNode = visitor.getNextCFGNode();
         
@@ -158,8 +158,7 @@ public class CFGMethodBuilder {
             nodes.add(exceptionNode);
         }
         
-        ExceptionTypeCollector collector = new ExceptionTypeCollector(infoStore.getJavaProject());
-        for (ITypeBinding tbinding : collector.getExceptions(jmethod)) {
+        for (ITypeBinding tbinding : infoStore.getExceptionTypes(jmethod)) {
             CFGCatch exceptionNode = createExceptionNode(entry, cfg, tbinding);
             nodes.add(exceptionNode);
         }
@@ -188,9 +187,8 @@ public class CFGMethodBuilder {
             formalInNode.setDefVariable(def);
             
             JReference use = new JSpecialVarReference(param.getName(),
-                    "$" + String.valueOf(ExpressionVisitor.temporaryVariableId), def.getType(), def.isPrimitiveType());
+                    "$" + String.valueOf(ExpressionVisitor.temporaryVariableId.getAndIncrement()), def.getType(), def.isPrimitiveType());
             formalInNode.setUseVariable(use);
-            ExpressionVisitor.temporaryVariableId++;
             
             ControlFlow edge = new ControlFlow(prevNode, formalInNode);
             edge.setTrue();
@@ -214,9 +212,8 @@ public class CFGMethodBuilder {
             formalOutNode.setUseVariable(use);
             
             JReference def = new JSpecialVarReference(param.getName(),
-                    "$" + String.valueOf(ExpressionVisitor.temporaryVariableId), use.getType(), use.isPrimitiveType());
+                    "$" + String.valueOf(ExpressionVisitor.temporaryVariableId.getAndIncrement()), use.getType(), use.isPrimitiveType());
             formalOutNode.setDefVariable(def);
-            ExpressionVisitor.temporaryVariableId++;
             
             replace(cfg, nextNode, formalOutNode);
             ControlFlow edge = new ControlFlow(formalOutNode, nextNode);
@@ -236,9 +233,8 @@ public class CFGMethodBuilder {
         String returnType = entry.getJavaMethod().getReturnType();
         boolean isPrimitiveType = entry.getJavaMethod().isPrimitiveReturnType();
         
-        JReference def = new JSpecialVarReference(node, "$" + String.valueOf(ExpressionVisitor.temporaryVariableId), returnType, isPrimitiveType);
+        JReference def = new JSpecialVarReference(node, "$" + String.valueOf(ExpressionVisitor.temporaryVariableId.getAndIncrement()), returnType, isPrimitiveType);
         formalOutNode.addDefVariable(def);
-        ExpressionVisitor.temporaryVariableId++;
         
         JReference use = new JSpecialVarReference(node, "$_", returnType, isPrimitiveType);
         formalOutNode.addUseVariable(use);
@@ -9,18 +9,28 @@ package org.jtool.eclipse.cfg.builder;
 import org.jtool.eclipse.javamodel.builder.ModelBuilder;
 import org.jtool.eclipse.javamodel.JavaProject;
 import org.jtool.eclipse.javamodel.JavaClass;
+import org.jtool.eclipse.javamodel.JavaElement;
 import org.jtool.eclipse.javamodel.JavaField;
 import org.jtool.eclipse.javamodel.JavaMethod;
+import org.jtool.eclipse.javamodel.SymbolTable;
 import org.jtool.eclipse.cfg.CCFG;
 import org.jtool.eclipse.cfg.CFG;
 import org.jtool.eclipse.cfg.CFGNode;
+import org.jtool.eclipse.cfg.CFGStatement;
+import org.jtool.eclipse.cfg.CFGMethodCall;
+import org.jtool.eclipse.cfg.CommonCFG;
 import java.util.Map;
-import java.util.HashMap;
 import java.util.Set;
-import java.util.HashSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
 
 /**
  * An object that stores information on CFGs in the project.
+ * CFGs can be requested from multiple threads, and each of them is built only once per name
+ * while requests for other names proceed in parallel.
+ * The CFGs of changed classes are discarded by name and rebuilt on demand.
+ * CFGs are keyed by the symbol identifiers of their names, and the names in a built CFG are interned.
  * All methods of this class are not intended to be directly called by clients.
  * 
  * @author Katsuhisa Maruyama
@@ -29,8 +39,9 @@ public class CFGStore {
     
     private JInfoStore infoStore;
     
-    private Map<String, CFG> cfgMap = new HashMap<>();
-    private Map<String, CCFG> ccfgMap = new HashMap<>();
+    private Map<Integer, CFG> cfgMap = new ConcurrentHashMap<>();
+    private Map<Integer, CCFG> ccfgMap = new ConcurrentHashMap<>();
+    private Map<Integer, ReentrantLock> locks = new ConcurrentHashMap<>();
     
     public CFGStore() {
         infoStore = new JInfoStore();
@@ -44,6 +55,8 @@ public class CFGStore {
     public void destroy() {
         infoStore.destory();
         cfgMap.clear();
+        ccfgMap.clear();
+        locks.clear();
     }
     
     public void resetId() {
@@ -58,76 +71,158 @@ public class CFGStore {
         return infoStore.getJavaProject();
     }
     
+    private SymbolTable getSymbolTable() {
+        return infoStore.getJavaProject().getSymbolTable();
+    }
+    
     private void addCFG(CFG cfg) {
-        cfgMap.put(cfg.getQualifiedName(), cfg);
+        cfgMap.put(cfg.getSymbolId(), cfg);
     }
     
     private void addCCFG(CCFG ccfg) {
-        ccfgMap.put(ccfg.getQualifiedName(), ccfg);
+        ccfgMap.put(ccfg.getSymbolId(), ccfg);
+    }
+    
+    public void update(Set<String> classNames) {
+        infoStore.unregisterInternalClasses();
+        SymbolTable symbols = getSymbolTable();
+        ccfgMap.keySet().removeIf(id -> classNames.contains(symbols.getSymbol(id)));
+        cfgMap.keySet().removeIf(id -> classNames.contains(getClassName(symbols.getSymbol(id))));
+    }
+    
+    private String getClassName(String fqn) {
+        int index = fqn.indexOf(JavaElement.QualifiedNameSeparator);
+        return index != -1 ? fqn.substring(0, index) : fqn;
     }
     
     public CFG findCFG(String fqn) {
-        return cfgMap.get(fqn);
+        return cfgMap.get(getSymbolTable().findId(fqn));
     }
     
     public CCFG findCCFG(String fqn) {
-        return ccfgMap.get(fqn);
+        return ccfgMap.get(getSymbolTable().findId(fqn));
     }
     
     public CFG getCFG(JavaMethod jmethod, boolean force) {
-        return getCFG(jmethod, new HashSet<>(), force);
+        return getOrBuild(cfgMap, jmethod.getSymbolId(), force,
+                () -> buildCFG(jmethod, true));
     }
     
     public CFG getCFG(JavaField jfield, boolean force) {
-        return getCFG(jfield, new HashSet<>(), force);
+        return getOrBuild(cfgMap, jfield.getSymbolId(), force,
+                () -> buildCFG(jfield));
     }
     
     public CCFG getCCFG(JavaClass jclass, boolean force) {
+        return getOrBuild(ccfgMap, jclass.getSymbolId(), force,
+                () -> buildCCFG(jclass, force));
+    }
+    
+    private <T> T getOrBuild(Map<Integer, T> map, int id, boolean force, Supplier<T> builder) {
         if (!force) {
-            CCFG ccfg = ccfgMap.get(jclass.getQualifiedName());
-            if (ccfg != null) {
-                return ccfg;
+            T graph = map.get(id);
+            if (graph != null) {
+                return graph;
             }
         }
         
+        ReentrantLock lock = getLock(id);
+        lock.lock();
+        try {
+            return getOrBuildLocked(map, id, force, builder);
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    private <T> T getOrBuildLocked(Map<Integer, T> map, int id, boolean force, Supplier<T> builder) {
+        if (!force) {
+            T graph = map.get(id);
+            if (graph != null) {
+                return graph;
+            }
+        }
+        return builder.get();
+    }
+    
+    private ReentrantLock getLock(int id) {
+        return locks.computeIfAbsent(id, key -> new ReentrantLock());
+    }
+    
+    private CCFG buildCCFG(JavaClass jclass, boolean force) {
         CCFG ccfg = CCFGBuilder.build(jclass, force, infoStore);
+        ccfg.freeze();
+        SymbolTable symbols = getSymbolTable();
+        internSymbols(ccfg, symbols);
         addCCFG(ccfg);
         
         ccfg.getEntryNode().getMethods().forEach(cfg -> addCFG(cfg));
         ccfg.getEntryNode().getFields().forEach(cfg -> addCFG(cfg));
         ccfg.getEntryNode().getTypes().forEach(ccfg2 -> {
+            internSymbols(ccfg2, symbols);
             addCCFG(ccfg2);
             ccfg2.getCFGs().forEach(cfg -> addCFG(cfg));
         });
         return ccfg;
     }
     
-    CFG getCFG(JavaMethod jmethod, Set<JMethod> visited, boolean force) {
-        if (!force) {
-            CFG cfg = cfgMap.get(jmethod.getQualifiedName());
-            if (cfg != null) {
-                return cfg;
-            }
-        }
-        CFG cfg = CFGMethodBuilder.build(jmethod, infoStore, visited);
+    /*
+     * Called while def-use fields are being collected under the lock of the information store,
+     * so this does not wait for a CFG being built by another thread, which might wait for that lock.
+     * The CFG is built and stored under its own lock when the lock is free, like CFGs requested by clients.
+     * Otherwise, or when the CFG is being built further up on this thread, a private CFG is built and not stored.
+     * A CFG built before the def-use fields of all its callees are decided is not stored either.
+     */
+    CFG findOrBuildCFG(JavaMethod jmethod, boolean store) {
+        int id = jmethod.getSymbolId();
+        CFG cfg = cfgMap.get(id);
         if (cfg != null) {
-            addCFG(cfg);
+            return cfg;
+        }
+        
+        ReentrantLock lock = getLock(id);
+        if (!store || lock.isHeldByCurrentThread() || !lock.tryLock()) {
+            return buildCFG(jmethod, false);
+        }
+        try {
+            return getOrBuildLocked(cfgMap, id, false, () -> buildCFG(jmethod, true));
+        } finally {
+            lock.unlock();
         }
-        return cfg;
     }
     
-    CFG getCFG(JavaField jfield, Set<JMethod> visited, boolean force) {
-        if (!force) {
-            CFG cfg = cfgMap.get(jfield.getQualifiedName());
-            if (cfg != null) {
-                return cfg;
+    private CFG buildCFG(JavaMethod jmethod, boolean store) {
+        CFG cfg = CFGMethodBuilder.buildCFG(jmethod, infoStore);
+        if (cfg != null) {
+            cfg.freeze();
+            internSymbols(cfg, getSymbolTable());
+            if (store) {
+                addCFG(cfg);
             }
         }
-        
-        CFG cfg = CFGFieldBuilder.build(jfield, infoStore, visited);
+        return cfg;
+    }
+    
+    private CFG buildCFG(JavaField jfield) {
+        CFG cfg = CFGFieldBuilder.build(jfield, infoStore);
         if (cfg != null) {
+            cfg.freeze();
+            internSymbols(cfg, getSymbolTable());
             addCFG(cfg);
         }
         return cfg;
     }
+    
+    private void internSymbols(CommonCFG cfg, SymbolTable symbols) {
+        for (CFGNode node : cfg.getNodes()) {
+            if (node.isStatement()) {
+                CFGStatement stnode = (CFGStatement)node;
+                stnode.getDefVariables().forEach(jvar -> jvar.intern(symbols));
+                stnode.getUseVariables().forEach(jvar -> jvar.intern(symbols));
+                if (node.isMethodCall()) {
+                    ((CFGMethodCall)node).getMethodCall().intern(symbols);
+                }
+            }
+        }
+    }
 }
@@ -13,12 +13,14 @@ import org.jtool.eclipse.cfg.CFGStatement;
 import org.jtool.eclipse.cfg.JReference;
 import org.jtool.eclipse.cfg.ControlFlow;
 import org.jtool.eclipse.cfg.CallGraph;
+import org.jtool.eclipse.javamodel.ClassHierarchy;
 import org.jtool.eclipse.javamodel.JavaProject;
 import org.jtool.eclipse.javamodel.JavaClass;
 import org.jtool.eclipse.javamodel.JavaMethod;
 
 /**
  * Builds a call graph that corresponds to a method, a class, or a project.
+ * A virtual method call has edges to the methods that may be dispatched by class hierarchy analysis.
  * All methods of this class are not intended to be directly called by clients.
  * 
  * @author Katsuhisa Maruyama
@@ -28,17 +30,20 @@ public class CallGraphBuilder {
     public static CallGraph getCallGraph(JavaProject jproject) {
         CallGraph callGraph = new CallGraph(jproject.getName());
         jproject.getClasses().forEach(jclass -> callGraph.append(getCallGraph(jclass)));
+        callGraph.freeze();
         return callGraph;
     }
     
     public static CallGraph getCallGraph(JavaClass jclass) {
         CallGraph callGraph = new CallGraph(jclass.getQualifiedName());
         jclass.getMethods().forEach(jmethod -> callGraph.append(getCallGraph(jmethod)));
+        callGraph.freeze();
         return callGraph;
     }
     
     public static CallGraph getCallGraph(JavaMethod jmethod) {
         CFGStore cfgStore = jmethod.getJavaProject().getCFGStore();
+        ClassHierarchy hierarchy = jmethod.getJavaProject().getClassHierarchy();
         CallGraph callGraph = new CallGraph(jmethod.getQualifiedName());
         CFG cfg = cfgStore.findCFG(jmethod.getQualifiedName());
         if (cfg == null) {
@@ -53,6 +58,13 @@ public class CallGraphBuilder {
                     ControlFlow flow = new ControlFlow(cfg.getEntryNode(), methodCFG.getEntryNode());
                     callGraph.add(flow);
                 }
+                for (JavaMethod jm : hierarchy.getCHATargets(call.getDeclaringClassName(), call.getSignature())) {
+                    CFG targetCFG = cfgStore.findCFG(jm.getQualifiedName());
+                    if (targetCFG != null && targetCFG != methodCFG) {
+                        ControlFlow flow = new ControlFlow(cfg.getEntryNode(), targetCFG.getEntryNode());
+                        callGraph.add(flow);
+                    }
+                }
             } else if (cfgNode.isStatement()) {
                 CFGStatement statement = (CFGStatement)cfgNode;
                 for (JReference def : statement.getDefVariables()) {
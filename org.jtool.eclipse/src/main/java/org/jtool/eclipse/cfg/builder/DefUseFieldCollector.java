@@ -0,0 +1,314 @@
+/*
+ *  Copyright 2020
+ *  Software Science and Technology Lab.
+ *  Department of Computer Science, Ritsumeikan University
+ */
+
+package org.jtool.eclipse.cfg.builder;
+
+import java.util.Set;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.HashMap;
+import java.util.List;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.Deque;
+import java.util.ArrayDeque;
+import java.util.BitSet;
+
+/**
+ * Collects fields that are defined and used in methods, including those in the methods they call.
+ * The fields of methods are summarized bottom-up over strongly connected components of the call graph,
+ * so that the methods in a component share the same fields regardless of the order of the analysis.
+ * Fields are represented by bit sets over the fields interned in this collector.
+ * All methods of this class are not intended to be directly called by clients.
+ * 
+ * A method outside the project summarizes the fields of methods it calls only in one level,
+ * which include the fields of their overriding methods.
+ * Its summary in the classpath never includes methods in the project, so that it can be shared by projects.
+ * The methods in the project that override the interface methods it calls are added to its summary in the project.
+ * 
+ * @author Katsuhisa Maruyama
+ */
+class DefUseFieldCollector {
+    
+    private enum Level {
+        SHALLOW, CLASS_PATH, PROJECT;
+    }
+    
+    private List<DefOrUseField> fields = new ArrayList<>();
+    private Map<DefOrUseField, Integer> fieldIds = new HashMap<>();
+    
+    private Map<JMethod, Summary> summaries = new HashMap<>();
+    private Map<JMethod, Summary> classPathSummaries = new HashMap<>();
+    private Map<JMethod, Summary> shallowSummaries = new HashMap<>();
+    
+    synchronized void collect(JMethod method) {
+        if (!method.defuseDecided()) {
+            ComponentFinder finder = new ComponentFinder();
+            finder.find(getSummary(method, Level.PROJECT));
+        }
+    }
+    
+    /*
+     * The fields of a method outside the project may include those of methods in the project,
+     * so they are collected again from its fields in the classpath.
+     */
+    synchronized void clear() {
+        for (JMethod method : summaries.keySet()) {
+            if (!method.isInProject() && method.classPathDefUseDecided()) {
+                method.setDefUseFields(null, null);
+            }
+        }
+        fields.clear();
+        fieldIds.clear();
+        summaries.clear();
+        classPathSummaries.clear();
+        shallowSummaries.clear();
+    }
+    
+    private Summary getSummary(JMethod method, Level level) {
+        if (method.isInProject()) {
+            level = Level.PROJECT;
+        } else if (method.isCache() && !method.classPathDefUseDecided()) {
+            level = Level.PROJECT;
+        } else if (method.isCache() && level == Level.SHALLOW) {
+            level = Level.CLASS_PATH;
+        }
+        
+        Map<JMethod, Summary> map = getSummaries(level);
+        Summary summary = map.get(method);
+        if (summary == null) {
+            summary = new Summary(method, level);
+            if (level == Level.PROJECT && method.defuseDecided()) {
+                summary.defs = toBitSet(method.getDefFields());
+                summary.uses = toBitSet(method.getUseFields());
+                summary.decided = true;
+            } else if (level == Level.CLASS_PATH && method.classPathDefUseDecided()) {
+                summary.defs = toBitSet(method.getClassPathDefFields());
+                summary.uses = toBitSet(method.getClassPathUseFields());
+                summary.decided = true;
+            }
+            map.put(method, summary);
+        }
+        return summary;
+    }
+    
+    private Map<JMethod, Summary> getSummaries(Level level) {
+        if (level == Level.PROJECT) {
+            return summaries;
+        } else if (level == Level.CLASS_PATH) {
+            return classPathSummaries;
+        }
+        return shallowSummaries;
+    }
+    
+    private List<Summary> getCallees(Summary summary) {
+        List<Summary> callees = new ArrayList<>();
+        JMethod method = summary.method;
+        if (summary.level == Level.PROJECT) {
+            if (method.isInProject()) {
+                for (JMethod m : method.getOverridingMethods()) {
+                    callees.add(getSummary(m, Level.PROJECT));
+                }
+                for (JMethod m : method.getAccessedMethods()) {
+                    callees.add(getSummary(m, Level.PROJECT));
+                }
+            } else {
+                callees.add(getSummary(method, Level.CLASS_PATH));
+                for (JMethod m : method.getOverridingMethodsInProject()) {
+                    callees.add(getSummary(m, Level.PROJECT));
+                }
+            }
+            return callees;
+        }
+        
+        if (method.isCache()) {
+            return callees;
+        }
+        for (JMethod m : method.getOverridingMethods()) {
+            if (!m.isInProject()) {
+                callees.add(getSummary(m, Level.SHALLOW));
+            }
+        }
+        if (summary.level == Level.CLASS_PATH) {
+            for (JMethod m : method.getAccessedMethods()) {
+                if (!m.isInProject()) {
+                    callees.add(getSummary(m, Level.SHALLOW));
+                }
+            }
+        }
+        return callees;
+    }
+    
+    private void setDefUseFields(Summary summary, Set<DefOrUseField> defs, Set<DefOrUseField> uses) {
+        if (summary.level == Level.PROJECT) {
+            summary.method.setDefUseFields(defs, uses);
+        } else if (summary.level == Level.CLASS_PATH) {
+            summary.method.setClassPathDefUseFields(defs, uses);
+        }
+    }
+    
+    private int getFieldId(DefOrUseField field) {
+        Integer id = fieldIds.get(field);
+        if (id == null) {
+            id = fields.size();
+            fields.add(field);
+            fieldIds.put(field, id);
+        }
+        return id;
+    }
+    
+    private BitSet toBitSet(Set<DefOrUseField> fieldSet) {
+        BitSet bits = new BitSet();
+        if (fieldSet != null) {
+            for (DefOrUseField field : fieldSet) {
+                bits.set(getFieldId(field));
+            }
+        }
+        return bits;
+    }
+    
+    private Set<DefOrUseField> toFieldSet(BitSet bits) {
+        Set<DefOrUseField> fieldSet = new HashSet<>();
+        for (int id = bits.nextSetBit(0); id >= 0; id = bits.nextSetBit(id + 1)) {
+            fieldSet.add(fields.get(id));
+        }
+        return fieldSet;
+    }
+    
+    private class Summary {
+        
+        private JMethod method;
+        private Level level;
+        
+        private BitSet defs = new BitSet();
+        private BitSet uses = new BitSet();
+        private boolean decided = false;
+        private boolean inProgress = false;
+        
+        Summary(JMethod method, Level level) {
+            this.method = method;
+            this.level = level;
+        }
+    }
+    
+    /*
+     * Finds strongly connected components of the call graph in Tarjan's algorithm without recursion.
+     * A method whose fields are being collected by another finder is regarded as one with the fields found so far,
+     * and then the CFGs of methods calling it are not stored.
+     */
+    private class ComponentFinder {
+        
+        private Map<Summary, Integer> indexes = new HashMap<>();
+        private Map<Summary, Integer> lowlinks = new HashMap<>();
+        private Map<Summary, List<Summary>> calleeMap = new HashMap<>();
+        private Deque<Summary> stack = new ArrayDeque<>();
+        private Set<Summary> summariesOnStack = new HashSet<>();
+        private Deque<Frame> frames = new ArrayDeque<>();
+        
+        void find(Summary root) {
+            visit(root);
+            while (!frames.isEmpty()) {
+                Frame frame = frames.peek();
+                if (frame.callees.hasNext()) {
+                    Summary callee = frame.callees.next();
+                    if (callee.decided || (callee.inProgress && !indexes.containsKey(callee))) {
+                        continue;
+                    }
+                    
+                    if (!indexes.containsKey(callee)) {
+                        visit(callee);
+                    } else if (summariesOnStack.contains(callee)) {
+                        lowlinks.put(frame.summary, Math.min(lowlinks.get(frame.summary), indexes.get(callee)));
+                    }
+                
+                } else {
+                    frames.pop();
+                    if (!frames.isEmpty()) {
+                        Summary caller = frames.peek().summary;
+                        lowlinks.put(caller, Math.min(lowlinks.get(caller), lowlinks.get(frame.summary)));
+                    }
+                    if (lowlinks.get(frame.summary).equals(indexes.get(frame.summary))) {
+                        summarize(frame.summary);
+                    }
+                }
+            }
+        }
+        
+        private void visit(Summary summary) {
+            summary.inProgress = true;
+            setDefUseFields(summary, new HashSet<>(), new HashSet<>());
+            
+            indexes.put(summary, indexes.size());
+            lowlinks.put(summary, indexes.get(summary));
+            stack.push(summary);
+            summariesOnStack.add(summary);
+            
+            List<Summary> callees = getCallees(summary);
+            calleeMap.put(summary, callees);
+            frames.push(new Frame(summary, callees.iterator()));
+        }
+        
+        private void summarize(Summary root) {
+            Set<Summary> component = new HashSet<>();
+            Summary s;
+            do {
+                s = stack.pop();
+                summariesOnStack.remove(s);
+                component.add(s);
+            } while (s != root);
+            
+            boolean inCycle = component.size() > 1 || calleeMap.get(root).contains(root);
+            BitSet defs = new BitSet();
+            BitSet uses = new BitSet();
+            for (Summary summary : component) {
+                for (Summary callee : calleeMap.get(summary)) {
+                    if (!component.contains(callee)) {
+                        inCycle = inCycle || !callee.decided;
+                        defs.or(callee.defs);
+                        uses.or(callee.uses);
+                    }
+                }
+            }
+            
+            Set<JMethod> analyzed = new HashSet<>();
+            for (Summary summary : component) {
+                if (isAnalyzed(summary) && analyzed.add(summary.method)) {
+                    Set<DefOrUseField> defSet = new HashSet<>();
+                    Set<DefOrUseField> useSet = new HashSet<>();
+                    summary.method.findDefUseFieldsInThisMethod(defSet, useSet, inCycle);
+                    defs.or(toBitSet(defSet));
+                    uses.or(toBitSet(useSet));
+                }
+            }
+            
+            for (Summary summary : component) {
+                summary.defs = defs;
+                summary.uses = uses;
+                summary.decided = true;
+                summary.inProgress = false;
+                setDefUseFields(summary, toFieldSet(defs), toFieldSet(uses));
+            }
+        }
+        
+        /*
+         * The fields directly accessed in a method outside the project are included in its summary in the classpath.
+         */
+        private boolean isAnalyzed(Summary summary) {
+            return summary.level != Level.PROJECT || summary.method.isInProject();
+        }
+    }
+    
+    private class Frame {
+        
+        private Summary summary;
+        private Iterator<Summary> callees;
+        
+        Frame(Summary summary, Iterator<Summary> callees) {
+            this.summary = summary;
+            this.callees = callees;
+        }
+    }
+}
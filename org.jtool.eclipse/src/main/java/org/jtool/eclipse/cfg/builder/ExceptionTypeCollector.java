@@ -20,9 +20,18 @@ import org.eclipse.jdt.core.dom.ITypeBinding;
 import org.eclipse.jdt.core.dom.IMethodBinding;
 import java.util.Set;
 import java.util.HashSet;
+import java.util.Map;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Deque;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
- * Parses Java source code and stores information on possible exceptions when calling methods and constructors.
+ * Collects possible exceptions when calling methods and constructors.
+ * The exception types of each method are summarized once in the project and shared by all CFGs.
+ * Methods that call each other are summarized together as a strongly connected component of the call graph.
  * All methods of this class are not intended to be directly called by clients.
  * 
  * @see org.eclipse.jdt.core.dom.Expression
@@ -40,34 +49,126 @@ class ExceptionTypeCollector {
     
     private JavaProject jproject;
     
-    private Set<ITypeBinding> exceptionTypes = new HashSet<>();
+    private Map<JavaMethod, Set<ITypeBinding>> summaries = new ConcurrentHashMap<>();
     
-    public ExceptionTypeCollector(JavaProject jproject) {
+    ExceptionTypeCollector(JavaProject jproject) {
         this.jproject = jproject;
     }
     
     Set<ITypeBinding> getExceptions(JavaMethod jmethod) {
-        Set<JavaMethod> methods = new HashSet<JavaMethod>();
-        collectCalledMethods(jmethod, methods);
+        Set<ITypeBinding> exceptionTypes = summaries.get(jmethod);
+        if (exceptionTypes == null) {
+            exceptionTypes = summarize(jmethod);
+        }
         return exceptionTypes;
     }
     
-    private void collectCalledMethods(JavaMethod jmethod, Set<JavaMethod> methods) {
-        if (methods.contains(jmethod)) {
-            return;
+    void clear() {
+        summaries.clear();
+    }
+    
+    private synchronized Set<ITypeBinding> summarize(JavaMethod jmethod) {
+        if (!summaries.containsKey(jmethod)) {
+            ComponentFinder finder = new ComponentFinder();
+            finder.find(jmethod);
         }
+        return summaries.get(jmethod);
+    }
+    
+    /*
+     * Finds strongly connected components of the call graph in Tarjan's algorithm without recursion.
+     * Every component is summarized after all the components called from it.
+     */
+    private class ComponentFinder {
+        
+        private Map<JavaMethod, MethodCallVisitor> visitors = new HashMap<>();
+        private Map<JavaMethod, Integer> indexes = new HashMap<>();
+        private Map<JavaMethod, Integer> lowlinks = new HashMap<>();
+        private Deque<JavaMethod> stack = new ArrayDeque<>();
+        private Set<JavaMethod> methodsOnStack = new HashSet<>();
+        private Deque<Frame> frames = new ArrayDeque<>();
+        
+        void find(JavaMethod root) {
+            visit(root);
+            while (!frames.isEmpty()) {
+                Frame frame = frames.peek();
+                if (frame.callees.hasNext()) {
+                    JavaMethod jm = frame.callees.next();
+                    if (summaries.containsKey(jm)) {
+                        continue;
+                    }
+                    
+                    if (!indexes.containsKey(jm)) {
+                        visit(jm);
+                    } else if (methodsOnStack.contains(jm)) {
+                        lowlinks.put(frame.jmethod, Math.min(lowlinks.get(frame.jmethod), indexes.get(jm)));
+                    }
+                    
+                } else {
+                    frames.pop();
+                    if (!frames.isEmpty()) {
+                        JavaMethod caller = frames.peek().jmethod;
+                        lowlinks.put(caller, Math.min(lowlinks.get(caller), lowlinks.get(frame.jmethod)));
+                    }
+                    if (lowlinks.get(frame.jmethod).equals(indexes.get(frame.jmethod))) {
+                        summarize(frame.jmethod);
+                    }
+                }
+            }
+        }
+        
+        private void visit(JavaMethod jmethod) {
+            MethodCallVisitor visitor = new MethodCallVisitor();
+            if (jmethod.getASTNode() != null) {
+                jmethod.getASTNode().accept(visitor);
+            }
+            visitors.put(jmethod, visitor);
+            indexes.put(jmethod, indexes.size());
+            lowlinks.put(jmethod, indexes.get(jmethod));
+            stack.push(jmethod);
+            methodsOnStack.add(jmethod);
+            frames.push(new Frame(jmethod, visitor.calledMethods.iterator()));
+        }
+        
+        private void summarize(JavaMethod jmethod) {
+            Set<JavaMethod> methods = new HashSet<>();
+            JavaMethod jm;
+            do {
+                jm = stack.pop();
+                methodsOnStack.remove(jm);
+                methods.add(jm);
+            } while (!jm.equals(jmethod));
+            
+            Set<ITypeBinding> exceptionTypes = new HashSet<>();
+            for (JavaMethod m : methods) {
+                MethodCallVisitor visitor = visitors.get(m);
+                exceptionTypes.addAll(visitor.exceptionTypes);
+                for (JavaMethod callee : visitor.calledMethods) {
+                    if (!methods.contains(callee)) {
+                        exceptionTypes.addAll(summaries.get(callee));
+                    }
+                }
+            }
+            
+            Set<ITypeBinding> summary = Collections.unmodifiableSet(exceptionTypes);
+            for (JavaMethod m : methods) {
+                summaries.put(m, summary);
+            }
+        }
+    }
+    
+    private class Frame {
         
-        methods.add(jmethod);
+        private JavaMethod jmethod;
+        private Iterator<JavaMethod> callees;
         
-        MethodCallVositor visitor = new MethodCallVositor();
-        jmethod.getASTNode().accept(visitor);
-        exceptionTypes.addAll(visitor.exceptionTypes);
-        for (JavaMethod jm : visitor.calledMethods) {
-            collectCalledMethods(jm, methods);
+        Frame(JavaMethod jmethod, Iterator<JavaMethod> callees) {
+            this.jmethod = jmethod;
+            this.callees = callees;
         }
     }
     
-    private class MethodCallVositor extends ASTVisitor {
+    private class MethodCallVisitor extends ASTVisitor {
         
         private static final String EXCEPTION_NAME = "java.lang.Exception";
         private static final String RUNTIME_EXCEPTION_NAME = "java.lang.RuntimeException";
@@ -60,6 +60,7 @@ import java.util.List;
 import java.util.Set;
 import java.util.HashSet;
 import java.util.Stack;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Visits AST nodes within an expression.
@@ -117,7 +118,7 @@ public class ExpressionVisitor extends ASTVisitor {
     protected CFGStatement curNode;
     protected CFGStatement entryNode;
     
-    protected static int temporaryVariableId = 1;
+    protected static final AtomicInteger temporaryVariableId = new AtomicInteger(1);
     
     private Stack<AnalysisMode> analysisMode = new Stack<>();
     private enum AnalysisMode {
@@ -126,17 +127,14 @@ public class ExpressionVisitor extends ASTVisitor {
     
     private JInfoStore infoStore;
     
-    private Set<JMethod> visited;
-    
-    protected ExpressionVisitor(CFG cfg, CFGStatement node, JInfoStore infoStore, Set<JMethod> visited) {
-        this(null, cfg, node, infoStore, visited);
+    protected ExpressionVisitor(CFG cfg, CFGStatement node, JInfoStore infoStore) {
+        this(null, cfg, node, infoStore);
     }
     
-    protected ExpressionVisitor(StatementVisitor visitor, CFG cfg, CFGStatement node, JInfoStore infoStore, Set<JMethod> visited) {
+    protected ExpressionVisitor(StatementVisitor visitor, CFG cfg, CFGStatement node, JInfoStore infoStore) {
         this.statementVisitor = visitor;
         this.cfg = cfg;
         this.infoStore = infoStore;
-        this.visited = visited;
         
         curNode = node;
         entryNode = node;
@@ -282,7 +280,7 @@ public class ExpressionVisitor extends ASTVisitor {
             receiverNode.addUseVariables(curNode.getUseVariables());
             
             if (receiverNode.isMethodRef()) {
-                JReference receiverVar = new JSpecialVarReference(receiver, "$" + String.valueOf(temporaryVariableId),
+                JReference receiverVar = new JSpecialVarReference(receiver, "$" + String.valueOf(temporaryVariableId.get()),
                         receiverNode.getType(), false);
                 receiverNode.setDefVariable(receiverVar);
                 filedAccessNode.addUseVariable(receiverVar);
@@ -509,19 +507,21 @@ public class ExpressionVisitor extends ASTVisitor {
         ASTNode node = callNode.getASTNode();
         String type = jcall.getDeclaringClassName();
         
-        Set<JMethod> methods = setDefUseFieldsInCalledMethod(jcall);
-        for (JMethod method : methods) {
-            for (DefOrUseField def : method.getDefFields()) {
-                JReference ref = createFieldReference(node, def, type, receiverName);
-                callNode.addDefVariable(ref);
-                if (receiverNode != null) {
-                    receiverNode.addUseVariable(ref);
+        synchronized (infoStore) {
+            Set<JMethod> methods = setDefUseFieldsInCalledMethod(jcall);
+            for (JMethod method : methods) {
+                for (DefOrUseField def : method.getDefFields()) {
+                    JReference ref = createFieldReference(node, def, type, receiverName);
+                    callNode.addDefVariable(ref);
+                    if (receiverNode != null) {
+                        receiverNode.addUseVariable(ref);
+                    }
+                }
+                
+                for (DefOrUseField use : method.getUseFields()) {
+                    JReference ref = createFieldReference(node, use, type, receiverName);
+                    callNode.addUseVariable(ref);
                 }
-            }
-            
-            for (DefOrUseField use : method.getUseFields()) {
-                JReference ref = createFieldReference(node, use, type, receiverName);
-                callNode.addUseVariable(ref);
             }
         }
     }
@@ -541,10 +541,7 @@ public class ExpressionVisitor extends ASTVisitor {
         Set<JMethod> methods = new HashSet<>();
         JMethod method = infoStore.getJMethod(jcall.getDeclaringClassName(), jcall.getSignature());
         if (method != null) {
-            if (!method.defuseDecided() && visited != null && !visited.contains(method)) {
-                method.findDefUseFields(visited, true);
-                visited.add(method);
-            }
+            infoStore.collectDefUseFields(method);
             methods.add(method);
         }
         return methods;
@@ -587,10 +584,9 @@ public class ExpressionVisitor extends ASTVisitor {
         String type = callNode.getMethodCall().getArgumentType(ordinal);
         boolean primitive = callNode.getMethodCall().getArgumentPrimitiveType(ordinal);
         JReference actualIn = new JSpecialVarReference(node,
-                "$" + String.valueOf(temporaryVariableId), type, primitive);
+                "$" + String.valueOf(temporaryVariableId.getAndIncrement()), type, primitive);
         
         actualInNode.addDefVariable(actualIn);
-        temporaryVariableId++;
         
         insertBeforeCurrentNode(actualInNode);
         
@@ -637,13 +633,11 @@ public class ExpressionVisitor extends ASTVisitor {
         
         String type = callNode.getReturnType();
         boolean primitive = callNode.isPrimitiveType();
-        JReference actualIn = new JSpecialVarReference(callNode.getASTNode(),
-                "$" + String.valueOf(temporaryVariableId), type, primitive);
-        JReference actualOut = new JSpecialVarReference(callNode.getASTNode(),
-                "$" + String.valueOf(temporaryVariableId), type, primitive);
+        String name = "$" + String.valueOf(temporaryVariableId.getAndIncrement());
+        JReference actualIn = new JSpecialVarReference(callNode.getASTNode(), name, type, primitive);
+        JReference actualOut = new JSpecialVarReference(callNode.getASTNode(), name, type, primitive);
         actualOutNodeForReturn.addDefVariable(actualIn);
         actualOutNodeForReturn.addUseVariable(actualOut);
-        temporaryVariableId++;
         
         insertBeforeCurrentNode(actualOutNodeForReturn);
         
@@ -668,11 +662,10 @@ public class ExpressionVisitor extends ASTVisitor {
             type = callNode.getQualifiedName();
         }
         boolean primitive = callNode.isPrimitiveType();
-        String name = "$" + String.valueOf(temporaryVariableId);
+        String name = "$" + String.valueOf(temporaryVariableId.getAndIncrement());
         JReference jvar = new JSpecialVarReference(callNode.getASTNode(), name, type, primitive);
         
         callNode.addDefVariable(jvar);
-        temporaryVariableId++;
     }
     
     private void setExceptionFlow(CFGMethodCall callNode, JMethodReference jcall) {
@@ -685,8 +678,7 @@ public class ExpressionVisitor extends ASTVisitor {
             if (jclass != null) {
                 JavaMethod jmethod = jclass.getMethod(jcall.getSignature());
                 if (jmethod != null) {
-                    ExceptionTypeCollector collector = new ExceptionTypeCollector(infoStore.getJavaProject());
-                    for (ITypeBinding type : collector.getExceptions(jmethod)) {
+                    for (ITypeBinding type : infoStore.getExceptionTypes(jmethod)) {
                         statementVisitor.setExceptionFlowOnMethodCall(callNode, type);
                     }
                 }
@@ -30,6 +30,11 @@ class JClassCache extends JClass {
         fields = cfields.toArray(new JFieldCache[cfields.size()]);
     }
     
+    @Override
+    protected JClass[] findDescendants() {
+        return cfgStore.getJInfoStore().findExternalDescendants(getQualifiedName());
+    }
+    
     @Override
     protected boolean isCache() {
         return true;
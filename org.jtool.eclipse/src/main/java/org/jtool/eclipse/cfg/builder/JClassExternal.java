@@ -6,7 +6,6 @@
 
 package org.jtool.eclipse.cfg.builder;
 
-import org.jtool.eclipse.javamodel.JavaClass;
 import org.jtool.eclipse.javamodel.builder.BytecodeClassStore;
 import javassist.CtClass;
 import javassist.CtField;
@@ -64,6 +63,10 @@ public class JClassExternal extends JClass {
         }
     }
     
+    CtClass getCtClass() {
+        return ctClass;
+    }
+    
     @Override
     public boolean isInProject() {
         return false;
@@ -98,26 +101,6 @@ public class JClassExternal extends JClass {
     
     @Override
     protected JClass[] findDescendants() {
-        List<JClass> classes = new ArrayList<>();
-        BytecodeClassStore bytecodeClassStore = cfgStore.getJavaProject().getBytecodeClassStore();
-        if (bytecodeClassStore == null) {
-            return emptyClassArray;
-        }
-        
-        String cname = BytecodeClassStore.getCanonicalClassName(ctClass);
-        for (CtClass cc : bytecodeClassStore.getDescendants(cfgStore.getJavaProject(), cname)) {
-            JClass clazz = cfgStore.getJInfoStore().getJClass(BytecodeClassStore.getCanonicalClassName(cc));
-            if (clazz != null) {
-                classes.add(clazz);
-            }
-        }
-        
-        for (JavaClass jc : bytecodeClassStore.getJavaDescendants(cfgStore.getJavaProject(), cname)) {
-            JClass clazz = cfgStore.getJInfoStore().getJClass(jc.getQualifiedName());
-            if (clazz != null) {
-                classes.add(clazz);
-            }
-        }
-        return classes.toArray(new JClass[classes.size()]);
+        return cfgStore.getJInfoStore().findExternalDescendants(BytecodeClassStore.getCanonicalClassName(ctClass));
     }
 }
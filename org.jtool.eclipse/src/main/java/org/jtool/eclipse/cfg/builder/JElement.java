@@ -6,6 +6,7 @@
 
 package org.jtool.eclipse.cfg.builder;
 
+import org.jtool.eclipse.javamodel.SymbolTable;
 import java.util.Map;
 
 /**
@@ -26,9 +27,11 @@ abstract class JElement {
     protected static final String UseAttr = "use";
     protected static final String TypeAttr = "type";
     protected static final String isPrimitiveAttr = "prim";
+    protected static final String InterfaceMethodAttr = "intf";
     
     protected CFGStore cfgStore;
     protected String fqn;
+    protected int symbolId;
     protected Map<String, String> cacheData;
     
     protected static JClass[] emptyClassArray = new JClass[0];
@@ -36,14 +39,24 @@ abstract class JElement {
     protected static JField[] emptyFieldArray = new JField[0];
     
     protected JElement(String fqn, CFGStore cfgStore) {
-        this.fqn = fqn;
         this.cfgStore = cfgStore;
+        SymbolTable symbols = cfgStore.getJavaProject().getSymbolTable();
+        this.symbolId = symbols.getId(fqn);
+        this.fqn = symbols.getSymbol(symbolId);
     }
     
     protected String getQualifiedName() {
         return fqn;
     }
     
+    protected int getSymbolId() {
+        return symbolId;
+    }
+    
+    protected String intern(String symbol) {
+        return cfgStore.getJavaProject().getSymbolTable().intern(symbol);
+    }
+    
     protected void cache() {
     }
     
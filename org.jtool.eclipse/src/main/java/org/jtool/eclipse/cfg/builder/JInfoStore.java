@@ -8,11 +8,16 @@ package org.jtool.eclipse.cfg.builder;
 
 import org.jtool.eclipse.javamodel.JavaProject;
 import org.jtool.eclipse.javamodel.JavaClass;
+import org.jtool.eclipse.javamodel.JavaMethod;
 import org.jtool.eclipse.javamodel.builder.BytecodeClassStore;
 import org.jtool.eclipse.javamodel.builder.ModelBuilder;
+import org.eclipse.jdt.core.dom.ITypeBinding;
 import javassist.CtClass;
 import java.util.Map;
-import java.util.HashMap;
+import java.util.Set;
+import java.util.List;
+import java.util.ArrayList;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * An object that stores information on internal and external classes in the project.
@@ -24,32 +29,53 @@ class JInfoStore {
     
     private CFGStore cfgStore;
     private JavaProject jproject;
-    private int analysisLevel;
+    private volatile int analysisLevel;
     
-    private Map<String, JClass> internalClassStore = new HashMap<>();
-    private Map<String, JClass> externalClassStore = new HashMap<>();
+    private Map<String, JClass> internalClassStore = new ConcurrentHashMap<>();
+    private Map<String, JClass> externalClassStore = new ConcurrentHashMap<>();
+    
+    private ExceptionTypeCollector exceptionTypeCollector;
+    private DefUseFieldCollector defUseFieldCollector;
+    
+    private CacheReader cacheReader = null;
+    private SharedBytecodeCache sharedCache = null;
     
     void create(CFGStore cfgStore, JavaProject jproject, ModelBuilder builder) {
         this.cfgStore = cfgStore;
         this.jproject = jproject;
+        exceptionTypeCollector = new ExceptionTypeCollector(jproject);
+        defUseFieldCollector = new DefUseFieldCollector();
         analysisLevel = 0;
         
         if (builder.isAnalyzingBytecode()) {
             analysisLevel = 1;
             if (builder.useBytecodeCache()) {
-                BytecodeCacheManager.loadCache(jproject, cfgStore);
+                cacheReader = BytecodeCacheManager.loadCache(jproject, cfgStore);
+                if (builder.getSharedBytecodeCacheDir() != null) {
+                    sharedCache = new SharedBytecodeCache(cfgStore, builder.getSharedBytecodeCacheDir());
+                }
                 analysisLevel = 2;
             }
         }
     }
     
     void destory() {
-        if (analysisLevel > 1) {
+        if (analysisLevel > 1 && externalClassStore.values().stream().anyMatch(clazz -> !clazz.isCache())) {
+            if (sharedCache != null) {
+                sharedCache.writeCache(externalClassStore.values());
+            }
+            if (cacheReader != null) {
+                cacheReader.readAll().forEach(clazz -> registerJClassCache(clazz));
+            }
             BytecodeCacheManager.writeCache(jproject, externalClassStore.values());
         }
         
+        cacheReader = null;
+        sharedCache = null;
         internalClassStore.clear();
         externalClassStore.clear();
+        exceptionTypeCollector.clear();
+        defUseFieldCollector.clear();
         jproject = null;
     }
     
@@ -65,7 +91,7 @@ class JInfoStore {
         return analysisLevel;
     }
     
-    JClass getJClass(String className) {
+    synchronized JClass getJClass(String className) {
         JClass clazz = internalClassStore.get(className);
         if (clazz == null) {
             clazz = registerInternalClass(className);
@@ -75,13 +101,16 @@ class JInfoStore {
         }
         
         clazz = externalClassStore.get(className);
+        if (clazz == null) {
+            clazz = registerCachedClass(className);
+        }
         if (clazz == null) {
             clazz = registerExternalClass(className);
         }
         return clazz;
     }
     
-    JMethod getJMethod(String className, String signature) {
+    synchronized JMethod getJMethod(String className, String signature) {
         JClass clazz = getJClass(className);
         if (clazz != null) {
             return clazz.getMethod(signature);
@@ -89,7 +118,7 @@ class JInfoStore {
         return null;
     }
     
-    JField getJField(String className, String name) {
+    synchronized JField getJField(String className, String name) {
         JClass clazz = getJClass(className);
         if (clazz != null) {
             return clazz.getField(name);
@@ -97,6 +126,24 @@ class JInfoStore {
         return null;
     }
     
+    synchronized void collectDefUseFields(JMethod method) {
+        defUseFieldCollector.collect(method);
+    }
+    
+    Set<ITypeBinding> getExceptionTypes(JavaMethod jmethod) {
+        return exceptionTypeCollector.getExceptions(jmethod);
+    }
+    
+    /*
+     * Field and exception summaries of an internal class may refer to any changed class through its callees,
+     * so all of the internal classes are re-registered and summarized on demand.
+     */
+    synchronized void unregisterInternalClasses() {
+        internalClassStore.clear();
+        exceptionTypeCollector.clear();
+        defUseFieldCollector.clear();
+    }
+    
     JClass findInternalClass(String fqn) {
         return internalClassStore.get(fqn);
     }
@@ -105,6 +152,32 @@ class JInfoStore {
         return externalClassStore.get(fqn);
     }
     
+    /*
+     * Finds descendants of a class outside the project by its name, which works for a cached class without its bytecode.
+     */
+    JClass[] findExternalDescendants(String fqn) {
+        List<JClass> classes = new ArrayList<>();
+        BytecodeClassStore bytecodeClassStore = jproject.getBytecodeClassStore();
+        if (bytecodeClassStore == null) {
+            return new JClass[0];
+        }
+        
+        for (CtClass cc : bytecodeClassStore.getDescendants(jproject, fqn)) {
+            JClass clazz = getJClass(BytecodeClassStore.getCanonicalClassName(cc));
+            if (clazz != null) {
+                classes.add(clazz);
+            }
+        }
+        
+        for (JavaClass jc : bytecodeClassStore.getJavaDescendants(jproject, fqn)) {
+            JClass clazz = getJClass(jc.getQualifiedName());
+            if (clazz != null) {
+                classes.add(clazz);
+            }
+        }
+        return classes.toArray(new JClass[classes.size()]);
+    }
+    
     private JClass registerInternalClass(String fqn) {
         JavaClass jclass = jproject.getClass(fqn);
         if (jclass != null) {
@@ -124,6 +197,14 @@ class JInfoStore {
         
         CtClass ctClass = bytecodeClassStore.getCtClassByCanonicalClassName(jproject, fqn);
         if (ctClass != null) {
+            if (sharedCache != null) {
+                JClassCache cached = sharedCache.read(ctClass);
+                if (cached != null) {
+                    registerJClassCache(cached);
+                    return cached;
+                }
+            }
+            
             JClassExternal clazz = new JClassExternal(ctClass, cfgStore);
             externalClassStore.put(clazz.getQualifiedName(), clazz);
             return clazz;
@@ -131,6 +212,17 @@ class JInfoStore {
         return null;
     }
     
+    private JClass registerCachedClass(String fqn) {
+        if (cacheReader != null) {
+            JClassCache clazz = cacheReader.read(fqn);
+            if (clazz != null) {
+                registerJClassCache(clazz);
+                return clazz;
+            }
+        }
+        return null;
+    }
+    
     void registerJClassCache(JClassCache clazz) {
         externalClassStore.put(clazz.getQualifiedName(), clazz);
     }
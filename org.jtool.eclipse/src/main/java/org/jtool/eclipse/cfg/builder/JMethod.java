@@ -6,11 +6,13 @@
 
 package org.jtool.eclipse.cfg.builder;
 
+import static org.jtool.eclipse.javamodel.JavaElement.QualifiedNameSeparator;
 import org.eclipse.jdt.core.dom.Modifier;
 import java.util.Set;
-import java.util.HashSet;
 import java.util.Map;
 import java.util.HashMap;
+import java.util.List;
+import java.util.ArrayList;
 
 /**
  * An abstract class that provides concise information on a method.
@@ -37,25 +39,31 @@ abstract class JMethod extends JElement {
     protected Set<DefOrUseField> defFields = null;
     protected Set<DefOrUseField> useFields = null;
     
-    private static int MaxNumberOfVisitedMethods = 1000000;
+    /*
+     * Fields of a method outside the project that are found only in the classpath, which are stored in the shared cache.
+     * Those of the methods in the project that override the interface methods it calls are excluded.
+     */
+    protected Set<DefOrUseField> classPathDefFields = null;
+    protected Set<DefOrUseField> classPathUseFields = null;
+    protected String[] interfaceMethods = null;
     
     protected JMethod(String fqn, String className, String signature,
                       int modifiers, String returnType, boolean isPrimitive, CFGStore cfgStore) {
         super(fqn, cfgStore);
-        this.className = className;
-        this.signature = signature;
+        this.className = intern(className);
+        this.signature = intern(signature);
         this.modifiers = modifiers;
-        this.returnType = returnType;
+        this.returnType = intern(returnType);
         this.isPrimitive = isPrimitive;
     }
     
     protected JMethod(CFGStore cfgStore, Map<String, String> cacheData) {
         super(cacheData.get(FqnAttr), cfgStore);
         try {
-            this.className = cacheData.get(ClassNameAttr);
-            this.signature = cacheData.get(SignatureAttr);
+            this.className = intern(cacheData.get(ClassNameAttr));
+            this.signature = intern(cacheData.get(SignatureAttr));
             this.modifiers = Integer.parseInt(cacheData.get(ModifierAttr));
-            this.returnType = cacheData.get(TypeAttr);
+            this.returnType = intern(cacheData.get(TypeAttr));
             this.isPrimitive = Boolean.parseBoolean(cacheData.get(isPrimitiveAttr));
         } catch (NumberFormatException e) {
             System.err.println("Please remove the file \".bytecode.info\" whose format is obsolete.");
@@ -73,6 +81,9 @@ abstract class JMethod extends JElement {
         cacheData.put(TypeAttr, returnType);
         cacheData.put(DefAttr, convert(defFields));
         cacheData.put(UseAttr, convert(useFields));
+        if (interfaceMethods != null) {
+            cacheData.put(InterfaceMethodAttr, String.join(";", interfaceMethods));
+        }
     }
     
     protected String getClassName() {
@@ -143,6 +154,13 @@ abstract class JMethod extends JElement {
         return overriddenMethods;
     }
     
+    protected String[] getInterfaceMethods() {
+        if (interfaceMethods == null) {
+            interfaceMethods = findInterfaceMethods();
+        }
+        return interfaceMethods;
+    }
+    
     protected JMethod[] findAccessedMethods() {
         return emptyMethodArray;
     }
@@ -159,6 +177,34 @@ abstract class JMethod extends JElement {
         return emptyMethodArray;
     }
     
+    protected String[] findInterfaceMethods() {
+        return new String[0];
+    }
+    
+    /*
+     * Collects methods in the project that override the interface methods this method calls.
+     */
+    protected JMethod[] getOverridingMethodsInProject() {
+        List<JMethod> methods = new ArrayList<>();
+        for (String name : getInterfaceMethods()) {
+            int index = name.indexOf(QualifiedNameSeparator);
+            if (index == -1) {
+                continue;
+            }
+            
+            JMethod method = cfgStore.getJInfoStore().getJMethod(name.substring(0, index), name.substring(index + 1));
+            if (method != null && !method.isPrivate()) {
+                for (JClass clazz : method.getDeclaringClass().getDescendants()) {
+                    JMethod m = clazz.isInProject() ? clazz.getMethod(method.getSignature()) : null;
+                    if (m != null) {
+                        methods.add(m);
+                    }
+                }
+            }
+        }
+        return methods.toArray(new JMethod[methods.size()]);
+    }
+    
     protected String convert(Set<DefOrUseField> fields) {
         if (fields == null) {
             return "";
@@ -174,20 +220,9 @@ abstract class JMethod extends JElement {
         return defFields != null;
     }
     
-    protected void addDefField(DefOrUseField field) {
-        defFields.add(field);
-    }
-    
-    protected void addUseField(DefOrUseField field) {
-        useFields.add(field);
-    }
-    
-    protected void addDefFields(Set<DefOrUseField> fields) {
-        defFields.addAll(fields);
-    }
-    
-    protected void addUseFields(Set<DefOrUseField> fields) {
-        useFields.addAll(fields);
+    protected void setDefUseFields(Set<DefOrUseField> defs, Set<DefOrUseField> uses) {
+        defFields = defs;
+        useFields = uses;
     }
     
     protected Set<DefOrUseField> getDefFields() {
@@ -198,30 +233,28 @@ abstract class JMethod extends JElement {
         return useFields;
     }
     
-    protected void findDefUseFields(Set<JMethod> visited, boolean recursivelyCollect) {
-        if (defFields == null) {
-            defFields = new HashSet<>();
-            useFields = new HashSet<>();
-        }
-        
-        if (visited.contains(this)) {
-            return;
-        }
-        
-        if (visited.size() > MaxNumberOfVisitedMethods) {
-            addDefField(DefOrUseField.UNKNOWN);
-            addUseField(DefOrUseField.UNKNOWN);
-            return;
-        }
-        
-        findDefUseFieldsInThisMethod(visited, recursivelyCollect);
-        findDefUseFieldsInAccessedMethods(visited, recursivelyCollect);
+    protected boolean classPathDefUseDecided() {
+        return classPathDefFields != null;
+    }
+    
+    protected void setClassPathDefUseFields(Set<DefOrUseField> defs, Set<DefOrUseField> uses) {
+        classPathDefFields = defs;
+        classPathUseFields = uses;
+    }
+    
+    protected Set<DefOrUseField> getClassPathDefFields() {
+        return classPathDefFields;
     }
     
-    protected void findDefUseFieldsInThisMethod(Set<JMethod> visited, boolean recursivelyCollect) {
+    protected Set<DefOrUseField> getClassPathUseFields() {
+        return classPathUseFields;
     }
     
-    protected void findDefUseFieldsInAccessedMethods(Set<JMethod> visited, boolean recursivelyCollect) {
+    /*
+     * Collects fields that are directly defined and used in this method.
+     * A method in a cycle of calls is analyzed before the fields of its callees are decided.
+     */
+    protected void findDefUseFieldsInThisMethod(Set<DefOrUseField> defs, Set<DefOrUseField> uses, boolean inCycle) {
     }
     
     protected boolean equals(JMethod method) {
@@ -8,6 +8,7 @@ package org.jtool.eclipse.cfg.builder;
 
 import static org.jtool.eclipse.javamodel.JavaElement.QualifiedNameSeparator;
 import java.util.Map;
+import java.util.Set;
 import java.util.HashSet;
 
 /**
@@ -20,28 +21,30 @@ class JMethodCache extends JMethod {
     
     protected static final char QualifiedNameSeparatorChar = QualifiedNameSeparator.charAt(0);
     
-    protected JMethodCache(JClass declaringClass, CFGStore cfgStore, Map<String, String> cacheData) {
+    protected JMethodCache(JClass declaringClass, CFGStore cfgStore, Map<String, String> cacheData,
+                           String[] defs, String[] uses, boolean inClassPath) {
         super(cfgStore, cacheData);
         this.declaringClass = declaringClass;
         this.cacheData = cacheData;
         
-        defFields = new HashSet<>();
-        for (String str : collectFields(cacheData.get(DefAttr))) {
-            if (!DefOrUseField.isUnknown(str)) {
-                defFields.add(DefOrUseField.instance(str));
-            }
-        }
+        String names = cacheData.get(InterfaceMethodAttr);
+        interfaceMethods = (names != null && names.length() > 0) ? names.split(";") : new String[0];
         
-        useFields = new HashSet<>();
-        for (String str : collectFields(cacheData.get(UseAttr))) {
-            if (!DefOrUseField.isUnknown(str)) {
-                useFields.add(DefOrUseField.instance(str));
-            }
+        if (inClassPath) {
+            setClassPathDefUseFields(toFields(defs), toFields(uses));
+        } else {
+            setDefUseFields(toFields(defs), toFields(uses));
         }
     }
     
-    protected String[] collectFields(String str) {
-        return (str == null || str.indexOf(';') == -1) ? new String[0] : str.split(";", 0);
+    private static Set<DefOrUseField> toFields(String[] strs) {
+        Set<DefOrUseField> fields = new HashSet<>();
+        for (String str : strs) {
+            if (!DefOrUseField.isUnknown(str)) {
+                fields.add(DefOrUseField.instance(str));
+            }
+        }
+        return fields;
     }
     
     @Override
@@ -205,8 +205,25 @@ public class JMethodExternal extends JMethod {
         return methods.toArray(new JMethod[methods.size()]);
     }
     
+    /*
+     * Interface methods of this method and those it calls may be overridden in the project.
+     */
     @Override
-    protected void findDefUseFieldsInThisMethod(Set<JMethod> visited, boolean recursivelyCollect) {
+    protected String[] findInterfaceMethods() {
+        List<String> names = new ArrayList<>();
+        if (declaringClass.isInterface()) {
+            names.add(fqn);
+        }
+        for (JMethod method : getAccessedMethods()) {
+            if (!method.isInProject() && method.getDeclaringClass().isInterface()) {
+                names.add(method.getQualifiedName());
+            }
+        }
+        return names.toArray(new String[names.size()]);
+    }
+    
+    @Override
+    protected void findDefUseFieldsInThisMethod(Set<DefOrUseField> defs, Set<DefOrUseField> uses, boolean inCycle) {
         try {
             ctMethod.instrument(new ExprEditor() {
                 
@@ -214,58 +231,22 @@ public class JMethodExternal extends JMethod {
                 public void edit(FieldAccess cf) throws CannotCompileException {
                     if (cf.isWriter()) {
                         try {
-                            addDefField(new DefOrUseField(cf.getClassName(), cf.getFieldName(),
+                            defs.add(new DefOrUseField(cf.getClassName(), cf.getFieldName(),
                                     cf.getField().getType().isPrimitive(), cf.getField().getModifiers()));
                         } catch (NotFoundException e) {
-                            addDefField(DefOrUseField.UNKNOWN);
+                            defs.add(DefOrUseField.UNKNOWN);
                         }
                     }
                     if (cf.isReader()) {
                         try {
-                            addUseField(new DefOrUseField(cf.getClassName(), cf.getFieldName(),
+                            uses.add(new DefOrUseField(cf.getClassName(), cf.getFieldName(),
                                     cf.getField().getType().isPrimitive(), cf.getField().getModifiers()));
                         } catch (NotFoundException e) {
-                            addDefField(DefOrUseField.UNKNOWN);
+                            defs.add(DefOrUseField.UNKNOWN);
                         }
                     }
                 }
             });
         } catch (CannotCompileException e) { /* empty */ }
     }
-    
-    @Override
-    protected void findDefUseFieldsInAccessedMethods(Set<JMethod> visited, boolean recursivelyCollect) {
-        Set<JMethod> current = new HashSet<>(visited);
-        
-        for (JMethod method : getOverridingMethods()) {
-            if (!visited.contains(method)) {
-                method.findDefUseFields(visited, false);
-                visited.add(method);
-            }
-        }
-        
-        if (!recursivelyCollect) {
-            for (JMethod method : visited) {
-                if (!current.contains(method)) {
-                    addDefFields(method.getDefFields());
-                    addUseFields(method.getUseFields());
-                }
-            }
-            return;
-        }
-        
-        for (JMethod method : getAccessedMethods()) {
-            if (!visited.contains(method)) {
-                method.findDefUseFields(visited, false);
-                visited.add(method);
-            }
-        }
-        
-        for (JMethod method : visited) {
-            if (!current.contains(method)) {
-                addDefFields(method.getDefFields());
-                addUseFields(method.getUseFields());
-            }
-        }
-    }
 }
@@ -10,6 +10,7 @@ import org.jtool.eclipse.cfg.JReference;
 import org.jtool.eclipse.cfg.CFG;
 import org.jtool.eclipse.cfg.CFGNode;
 import org.jtool.eclipse.cfg.CFGStatement;
+import org.jtool.eclipse.javamodel.ClassHierarchy;
 import org.jtool.eclipse.javamodel.JavaMethod;
 import org.jtool.eclipse.javamodel.JavaField;
 import java.util.List;
@@ -72,7 +73,8 @@ public class JMethodInternal extends JMethod {
     @Override
     protected JMethod[] findOverridingMethods() {
         List<JMethod> methods = new ArrayList<>();
-        for (JavaMethod jm : jmethod.getOverridingMethods()) {
+        ClassHierarchy hierarchy = jmethod.getJavaProject().getClassHierarchy();
+        for (JavaMethod jm : hierarchy.getOverridingMethods(jmethod)) {
             JClass clazz = cfgStore.getJInfoStore().getJClass(jm.getDeclaringClass().getQualifiedName());
             if (clazz != null) {
                 JMethod method = clazz.getMethod(jm.getSignature());
@@ -87,7 +89,8 @@ public class JMethodInternal extends JMethod {
     @Override
     protected JMethod[] findOverriddenMethods() {
         List<JMethod> methods = new ArrayList<>();
-        for (JavaMethod jm : jmethod.getOverriddenMethods()) {
+        ClassHierarchy hierarchy = jmethod.getJavaProject().getClassHierarchy();
+        for (JavaMethod jm : hierarchy.getOverriddenMethods(jmethod)) {
             JClass clazz = cfgStore.getJInfoStore().getJClass(jm.getDeclaringClass().getQualifiedName());
             if (clazz != null) {
                 JMethod method = clazz.getMethod(jm.getSignature());
@@ -100,53 +103,28 @@ public class JMethodInternal extends JMethod {
     }
     
     @Override
-    protected void findDefUseFieldsInThisMethod(Set<JMethod> visited, boolean recursivelyCollect) {
-        Set<JMethod> current = new HashSet<>(visited);
+    protected void findDefUseFieldsInThisMethod(Set<DefOrUseField> defs, Set<DefOrUseField> uses, boolean inCycle) {
+        CFG cfg = cfgStore.findOrBuildCFG(jmethod, !inCycle);
+        if (cfg == null) {
+            return;
+        }
         
-        CFG cfg = cfgStore.getCFG(jmethod, visited, false);
         for (CFGNode node : cfg.getNodes()) {
             if (node instanceof CFGStatement) {
                 CFGStatement stNode = (CFGStatement)node;
                 for (JReference var : stNode.getDefVariables()) {
                     if (var.isFieldAccess()) {
-                        addDefField(new DefOrUseField(var.getDeclaringClassName(), var.getName(),
+                        defs.add(new DefOrUseField(var.getDeclaringClassName(), var.getName(),
                                 var.isPrimitiveType(), var.getModifiers()));
                     }
                 }
                 for (JReference var : stNode.getUseVariables()) {
                     if (var.isFieldAccess()) {
-                        addUseField(new DefOrUseField(var.getDeclaringClassName(), var.getName(),
+                        uses.add(new DefOrUseField(var.getDeclaringClassName(), var.getName(),
                                 var.isPrimitiveType(), var.getModifiers()));
                     }
                 }
             }
         }
-        
-        if (recursivelyCollect) {
-            for (JMethod method : visited) {
-                if (!current.contains(method)) {
-                    addDefFields(method.getDefFields());
-                    addUseFields(method.getUseFields());
-                }
-            }
-        }
-    }
-    
-    @Override
-    protected void findDefUseFieldsInAccessedMethods(Set<JMethod> visited, boolean recursivelyCollect) {
-        Set<JMethod> current = new HashSet<>(visited);
-        
-        for (JMethod method : getOverridingMethods()) {
-            if (!visited.contains(method)) {
-                method.findDefUseFields(visited, true);
-            }
-        }
-        
-        for (JMethod method : visited) {
-            if (!current.contains(method)) {
-                addDefFields(method.getDefFields());
-                addUseFields(method.getUseFields());
-            }
-        }
     }
 }
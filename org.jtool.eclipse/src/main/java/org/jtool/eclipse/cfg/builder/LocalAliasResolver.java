@@ -12,8 +12,9 @@ import org.jtool.eclipse.cfg.CFGStatement;
 import org.jtool.eclipse.cfg.ControlFlow;
 import org.jtool.eclipse.cfg.JReference;
 import org.jtool.eclipse.cfg.JLocalVarReference;
-import java.util.Set;
-import java.util.HashSet;
+import org.jtool.eclipse.graph.GraphTraversal;
+import org.jtool.eclipse.graph.GraphTraversal.Direction;
+import java.util.Collections;
 
 /**
  * Resolves the alias relation for local variables.
@@ -24,10 +25,15 @@ import java.util.HashSet;
 class LocalAliasResolver {
     
     static void resolve(CFG cfg) {
+        GraphTraversal<CFGNode, ControlFlow> traversal = null;
         for (CFGNode node : cfg.getNodes()) {
             Alias alias = getAliasRelation(node);
             if (alias != null) {
-                walkForward(node, alias);
+                if (traversal == null) {
+                    traversal = new GraphTraversal<>(cfg.getCompactGraph(), Direction.FORWARD);
+                    traversal.setStopCondition(n -> getAliasRelation(n) != null);
+                }
+                walkForward(traversal, node, alias);
             }
         }
     }
@@ -62,42 +68,20 @@ class LocalAliasResolver {
         return new Alias((JLocalVarReference)def, use);
     }
     
-    private static void walkForward(CFGNode node, Alias alias) {
-        Set<CFGNode> track = new HashSet<>();
-        track.add(node);
-        for (ControlFlow flow : node.getOutgoingFlows()) {
-            CFGNode succ = flow.getDstNode();
-            if (!track.contains(succ)) {
-                walkForward(succ, alias, track);
+    private static void walkForward(GraphTraversal<CFGNode, ControlFlow> traversal, CFGNode node, Alias alias) {
+        traversal.traverse(Collections.singleton(node), n -> {
+            if (n != node && n.isStatement()) {
+                CFGStatement stNode = (CFGStatement)n;
+                if (stNode.defineVariable(alias.newName)) {
+                    stNode.addDefVariable(alias.origName);
+                } else if (stNode.defineVariable(alias.origName)) {
+                    stNode.addDefVariable(alias.newName);
+                }
             }
-        }
-    }
-    
-    private static void walkForward(CFGNode node, Alias alias, Set<CFGNode> track) {
-        Alias newAlias = getAliasRelation(node);
-        if (newAlias != null) {
-            return;
-        }
-        
-        if (node.isStatement()) {
-            CFGStatement stNode = (CFGStatement)node;
-            if (stNode.defineVariable(alias.newName)) {
-                stNode.addDefVariable(alias.origName);
-            } else if (stNode.defineVariable(alias.origName)) {
-                stNode.addDefVariable(alias.newName);
-            }
-        }
-        track.add(node);
-        
-        for (ControlFlow flow : node.getOutgoingFlows()) {
-            CFGNode succ = flow.getDstNode();
-            if (!track.contains(succ)) {
-                walkForward(succ, alias, track);
-            }
-        }
+        });
     }
 }
-
+    
 class Alias {
     
     JLocalVarReference newName;
@@ -29,8 +29,6 @@ import java.io.File;
  */
 class MethodSignature {
     
-    private static int comsumed_chars_length;
-    
     static final String INVALID_SIGNATURE = "!";
     
     protected static String methodSignatureToString(String signature, CFGStore cfgStore) {
@@ -46,7 +44,7 @@ class MethodSignature {
             String type = variableTypeToString(signature.substring(index), cfgStore);
             buf.append(" ");
             buf.append(type);
-            index = index + comsumed_chars_length;
+            index = index + consumedLength(signature.substring(index));
         }
         buf.append(" )");
         
@@ -71,7 +69,6 @@ class MethodSignature {
     }
     
     private static String variableTypeToString(String signature, CFGStore cfgStore) {
-        comsumed_chars_length = 1;
         switch (signature.charAt(0)) {
             case 'B':
                 return "byte";
@@ -95,7 +92,6 @@ class MethodSignature {
                 if (index < 0) {
                     return INVALID_SIGNATURE;
                 }
-                comsumed_chars_length = index + 1;
                 String className = signature.substring(1, index).replace(File.separatorChar, '.');
                 return getCanonicalClassName(className, cfgStore);
                 
@@ -106,7 +102,6 @@ class MethodSignature {
                     brackets.append("[]");
                 }
                 String type = fieldSignatureToString(signature.substring(count), cfgStore);
-                comsumed_chars_length = comsumed_chars_length + count;
                 return type + brackets.toString();
                 
             default:
@@ -114,6 +109,20 @@ class MethodSignature {
         }
     }
     
+    private static int consumedLength(String signature) {
+        int count = 0;
+        while (signature.charAt(count) == '[') {
+            count++;
+        }
+        if (signature.charAt(count) == 'L') {
+            int index = signature.indexOf(';', count);
+            if (index >= 0) {
+                return index + 1;
+            }
+        }
+        return count + 1;
+    }
+    
     private static String getCanonicalClassName(String className, CFGStore cfgStore) {
         BytecodeClassStore bytecodeClassStore = cfgStore.getJavaProject().getBytecodeClassStore();
         if (bytecodeClassStore != null) {
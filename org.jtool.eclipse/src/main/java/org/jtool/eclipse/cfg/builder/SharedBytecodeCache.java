@@ -0,0 +1,284 @@
+/*
+ *  Copyright 2020
+ *  Software Science and Technology Lab.
+ *  Department of Computer Science, Ritsumeikan University
+ */
+
+package org.jtool.eclipse.cfg.builder;
+
+import org.jtool.eclipse.javamodel.JavaProject;
+import org.jtool.eclipse.javamodel.JavaClass;
+import org.jtool.eclipse.javamodel.builder.BytecodeClassStore;
+import javassist.CtClass;
+import javassist.NotFoundException;
+import java.util.Collection;
+import java.util.Map;
+import java.util.HashMap;
+import java.util.Set;
+import java.util.HashSet;
+import java.util.List;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.concurrent.ConcurrentHashMap;
+import java.io.File;
+import java.io.InputStream;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Manages the cache of bytecode classes shared by projects, which is stored in a global cache directory.
+ * The classes in a jar file are stored in a file named after the SHA-256 digest of the jar file,
+ * and the classes in the system modules in a file named after the version of the running JDK.
+ * The cache stores def-use fields of methods found only in the classpath, which exclude methods in a project.
+ * Since they include those of methods in other jar files and directories of the classpath,
+ * the name also has a digest of the running JDK and the contents of the classpath, except for classes in the project.
+ * Projects with the same classpath therefore share a cache file regardless of their locations,
+ * and a cache file is no longer used once the contents of its jar file, JDK, or classpath change.
+ * All methods of this class are not intended to be directly called by clients.
+ * 
+ * @author Katsuhisa Maruyama
+ */
+class SharedBytecodeCache {
+    
+    private static final String CACHE_FILE_EXTENSION = ".bytecode.info";
+    private static final String CLASS_FILE_EXTENSION = ".class";
+    
+    private static Map<String, String> digests = new ConcurrentHashMap<>();
+    
+    private CFGStore cfgStore;
+    private File cacheDir;
+    private String contextKey = null;
+    
+    private Map<String, CacheReader> readers = new HashMap<>();
+    private Map<String, List<JClass>> readClasses = new HashMap<>();
+    
+    SharedBytecodeCache(CFGStore cfgStore, String dir) {
+        this.cfgStore = cfgStore;
+        this.cacheDir = new File(dir);
+    }
+    
+    synchronized JClassCache read(CtClass ctClass) {
+        String key = getKey(ctClass);
+        if (key == null) {
+            return null;
+        }
+        
+        CacheReader reader = getReader(key);
+        if (reader == null) {
+            return null;
+        }
+        
+        JClassCache clazz = reader.read(BytecodeClassStore.getCanonicalClassName(ctClass));
+        if (clazz != null) {
+            readClasses.computeIfAbsent(key, k -> new ArrayList<>()).add(clazz);
+        }
+        return clazz;
+    }
+    
+    synchronized void writeCache(Collection<JClass> classes) {
+        Map<String, List<JClass>> newClasses = new HashMap<>();
+        for (JClass clazz : classes) {
+            if (clazz instanceof JClassExternal) {
+                String key = getKey(((JClassExternal)clazz).getCtClass());
+                if (key != null) {
+                    newClasses.computeIfAbsent(key, k -> new ArrayList<>()).add(clazz);
+                }
+            }
+        }
+        
+        if (!newClasses.isEmpty() && !cacheDir.exists() && !cacheDir.mkdirs()) {
+            System.err.println("Cannot create the cache directory " + cacheDir.getPath());
+            return;
+        }
+        
+        for (String key : newClasses.keySet()) {
+            List<JClass> allClasses = new ArrayList<>(newClasses.get(key));
+            allClasses.addAll(readClasses.getOrDefault(key, new ArrayList<>()));
+            CacheReader reader = getReader(key);
+            if (reader != null) {
+                allClasses.addAll(reader.readAll());
+            }
+            
+            try {
+                CacheWriter writer = new CacheWriter(true);
+                writer.write(getCacheFile(key), key, allClasses);
+            } catch (IOException e) {
+                System.err.println("IO error " + e.getMessage());
+            }
+        }
+        readers.clear();
+        readClasses.clear();
+    }
+    
+    private CacheReader getReader(String key) {
+        if (readers.containsKey(key)) {
+            return readers.get(key);
+        }
+        
+        CacheReader reader = null;
+        File file = getCacheFile(key);
+        if (file.canRead()) {
+            try {
+                reader = new CacheReader(file, cfgStore, true);
+            } catch (IOException | RuntimeException e) { /* empty */ }
+        }
+        readers.put(key, reader);
+        return reader;
+    }
+    
+    private File getCacheFile(String key) {
+        return new File(cacheDir, key + CACHE_FILE_EXTENSION);
+    }
+    
+    private String getKey(CtClass ctClass) {
+        String key = getOriginKey(ctClass);
+        if (contextKey == null) {
+            contextKey = getContextKey(cfgStore.getJavaProject());
+        }
+        if (key == null || contextKey.length() == 0) {
+            return null;
+        }
+        return key + "-" + contextKey;
+    }
+    
+    private static String getOriginKey(CtClass ctClass) {
+        try {
+            URL url = ctClass.getURL();
+            if (url.getProtocol().equals("jar")) {
+                String path = url.getPath();
+                int index = path.indexOf("!/");
+                if (index != -1) {
+                    File jar = new File(new URL(path.substring(0, index)).toURI());
+                    return getJarKey(jar);
+                }
+            } else if (url.getProtocol().equals("jrt")) {
+                return getJDKKey();
+            }
+        } catch (NotFoundException | IOException | URISyntaxException | IllegalArgumentException e) { /* empty */ }
+        return null;
+    }
+    
+    /*
+     * Returns an empty string if the classpath cannot be read, so as not to use the cache.
+     */
+    private static String getContextKey(JavaProject jproject) {
+        try {
+            Set<String> classNames = new HashSet<>();
+            for (JavaClass jclass : jproject.getClasses()) {
+                classNames.add(jclass.getQualifiedName());
+            }
+            
+            List<String> entries = new ArrayList<>();
+            if (jproject.getClassPath() != null) {
+                for (String path : jproject.getClassPath()) {
+                    File file = new File(path);
+                    String key = file.isFile() ? getJarKey(file) : getDirectoryKey(file, classNames);
+                    if (key == null) {
+                        return "";
+                    }
+                    if (key.length() > 0) {
+                        entries.add(key);
+                    }
+                }
+            }
+            Collections.sort(entries);
+            
+            StringBuilder buf = new StringBuilder();
+            buf.append(getJDKKey());
+            for (String entry : entries) {
+                buf.append(File.pathSeparator);
+                buf.append(entry);
+            }
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return toHexString(digest.digest(buf.toString().getBytes("UTF-8"))).substring(0, 16);
+        } catch (IOException | NoSuchAlgorithmException e) {
+            return "";
+        }
+    }
+    
+    /*
+     * A directory is represented by the names, sizes, and modification times of its class files,
+     * except for those of classes in the project, which are never summarized in the classpath.
+     */
+    private static String getDirectoryKey(File dir, Set<String> classNames) throws IOException, NoSuchAlgorithmException {
+        List<String> entries = new ArrayList<>();
+        collectClassFiles(dir, "", classNames, entries);
+        if (entries.isEmpty()) {
+            return "";
+        }
+        
+        Collections.sort(entries);
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        return toHexString(digest.digest(String.join(File.pathSeparator, entries).getBytes("UTF-8")));
+    }
+    
+    private static void collectClassFiles(File dir, String pkg, Set<String> classNames, List<String> entries) {
+        File[] files = dir.listFiles();
+        if (files == null) {
+            return;
+        }
+        
+        for (File file : files) {
+            if (file.isDirectory()) {
+                collectClassFiles(file, pkg + file.getName() + ".", classNames, entries);
+            } else if (file.getName().endsWith(CLASS_FILE_EXTENSION)) {
+                String name = pkg + file.getName().substring(0, file.getName().length() - CLASS_FILE_EXTENSION.length());
+                int index = name.indexOf('$');
+                if (!classNames.contains(index == -1 ? name : name.substring(0, index))) {
+                    entries.add(name + File.pathSeparator + file.length() + File.pathSeparator + file.lastModified());
+                }
+            }
+        }
+    }
+    
+    private static String getJarKey(File jar) throws IOException {
+        String id = jar.getCanonicalPath() + File.pathSeparator + jar.length() + File.pathSeparator + jar.lastModified();
+        String key = digests.get(id);
+        if (key == null) {
+            try (InputStream in = Files.newInputStream(jar.toPath())) {
+                MessageDigest digest = MessageDigest.getInstance("SHA-256");
+                byte[] buf = new byte[65536];
+                int len;
+                while ((len = in.read(buf)) != -1) {
+                    digest.update(buf, 0, len);
+                }
+                key = toHexString(digest.digest());
+                digests.put(id, key);
+            } catch (NoSuchAlgorithmException e) {
+                return null;
+            }
+        }
+        return key;
+    }
+    
+    private static String getJDKKey() throws IOException {
+        String home = System.getProperty("java.home");
+        File image = Paths.get(home, "lib", "modules").toFile();
+        String id = System.getProperty("java.vm.vendor") + File.pathSeparator + Runtime.version() +
+                File.pathSeparator + home + File.pathSeparator + image.length() + File.pathSeparator + image.lastModified();
+        String key = digests.get(id);
+        if (key == null) {
+            try {
+                MessageDigest digest = MessageDigest.getInstance("SHA-256");
+                key = "jdk-" + Runtime.version().feature() + "-" + toHexString(digest.digest(id.getBytes("UTF-8")));
+                digests.put(id, key);
+            } catch (NoSuchAlgorithmException e) {
+                return null;
+            }
+        }
+        return key;
+    }
+    
+    private static String toHexString(byte[] bytes) {
+        StringBuilder buf = new StringBuilder();
+        for (byte b : bytes) {
+            buf.append(String.format("%02x", b));
+        }
+        return buf.toString();
+    }
+}
@@ -108,16 +108,12 @@ public class StatementVisitor extends ASTVisitor {
     
     private JInfoStore infoStore;
     
-    private Set<JMethod> visited;
-    
-    protected StatementVisitor(CFG cfg, CFGNode prevNode, CFGNode nextNode, JInfoStore infoStore, Set<JMethod> visited) {
+    protected StatementVisitor(CFG cfg, CFGNode prevNode, CFGNode nextNode, JInfoStore infoStore) {
          this.cfg = cfg;
          this.infoStore = infoStore;
          
          this.prevNode = prevNode;
          this.nextNode = nextNode;
-         
-         this.visited = visited;
     }
     
     protected JInfoStore getInfoStore() {
@@ -175,7 +171,7 @@ public class StatementVisitor extends ASTVisitor {
         reconnect(expNode);
         
         Expression expression = node.getExpression();
-        ExpressionVisitor exprVisitor = new ExpressionVisitor(this, cfg, expNode, infoStore, visited);
+        ExpressionVisitor exprVisitor = new ExpressionVisitor(this, cfg, expNode, infoStore);
         expression.accept(exprVisitor);
         CFGNode curNode = exprVisitor.getExitNode();
         
@@ -203,7 +199,7 @@ public class StatementVisitor extends ASTVisitor {
             CFGStatement declNode = new CFGStatement(node, CFGNode.Kind.assignment);
             reconnect(declNode);
             
-            ExpressionVisitor exprVisitor = new ExpressionVisitor(this, cfg, declNode, infoStore, visited);
+            ExpressionVisitor exprVisitor = new ExpressionVisitor(this, cfg, declNode, infoStore);
             frag.accept(exprVisitor);
             CFGNode curNode = exprVisitor.getExitNode();
             
@@ -217,7 +213,7 @@ public class StatementVisitor extends ASTVisitor {
         CFGStatement invNode = new CFGStatement(node, CFGNode.Kind.assignment);
         reconnect(invNode);
         
-        ExpressionVisitor prefixVisitor = new ExpressionVisitor(this, cfg, invNode, infoStore, visited);
+        ExpressionVisitor prefixVisitor = new ExpressionVisitor(this, cfg, invNode, infoStore);
         node.accept(prefixVisitor);
         CFGNode curNode = prefixVisitor.getExitNode();
         
@@ -231,7 +227,7 @@ public class StatementVisitor extends ASTVisitor {
         CFGStatement invNode = new CFGStatement(node, CFGNode.Kind.assignment);
         reconnect(invNode);
         
-        ExpressionVisitor prefixVisitor = new ExpressionVisitor(this, cfg, invNode, infoStore, visited);
+        ExpressionVisitor prefixVisitor = new ExpressionVisitor(this, cfg, invNode, infoStore);
         node.accept(prefixVisitor);
         CFGNode curNode = prefixVisitor.getExitNode();
         
@@ -246,7 +242,7 @@ public class StatementVisitor extends ASTVisitor {
         reconnect(ifNode);
         
         Expression condition = node.getExpression();
-        ExpressionVisitor condVisitor = new ExpressionVisitor(this, cfg, ifNode, infoStore, visited);
+        ExpressionVisitor condVisitor = new ExpressionVisitor(this, cfg, ifNode, infoStore);
         condition.accept(condVisitor);
         CFGNode curNode = condVisitor.getExitNode();
         ifNode.setKind(CFGNode.Kind.ifSt);
@@ -283,7 +279,7 @@ public class StatementVisitor extends ASTVisitor {
         reconnect(switchNode);
         
         Expression condition = node.getExpression();
-        ExpressionVisitor condVisitor = new ExpressionVisitor(this, cfg, switchNode, infoStore, visited);
+        ExpressionVisitor condVisitor = new ExpressionVisitor(this, cfg, switchNode, infoStore);
         condition.accept(condVisitor);
         CFGNode curNode = condVisitor.getExitNode();
         
@@ -357,7 +353,7 @@ public class StatementVisitor extends ASTVisitor {
             caseNode = new CFGStatement(node, CFGNode.Kind.switchCaseSt);
             reconnect(caseNode);
             
-            ExpressionVisitor condVisitor = new ExpressionVisitor(this, cfg, caseNode, infoStore, visited);
+            ExpressionVisitor condVisitor = new ExpressionVisitor(this, cfg, caseNode, infoStore);
             Expression condition = node.getExpression();
             condition.accept(condVisitor);
             
@@ -395,7 +391,7 @@ public class StatementVisitor extends ASTVisitor {
         reconnect(whileNode);
         
         Expression condition = node.getExpression();
-        ExpressionVisitor condVisitor = new ExpressionVisitor(this, cfg, whileNode, infoStore, visited);
+        ExpressionVisitor condVisitor = new ExpressionVisitor(this, cfg, whileNode, infoStore);
         condition.accept(condVisitor);
         CFGNode curNode = condVisitor.getExitNode();
         
@@ -441,7 +437,7 @@ public class StatementVisitor extends ASTVisitor {
         reconnect(doNode);
         
         Expression condition = node.getExpression();
-        ExpressionVisitor condVisitor = new ExpressionVisitor(this, cfg, doNode, infoStore, visited);
+        ExpressionVisitor condVisitor = new ExpressionVisitor(this, cfg, doNode, infoStore);
         condition.accept(condVisitor);
         CFGNode curNode = condVisitor.getExitNode();
         
@@ -466,7 +462,7 @@ public class StatementVisitor extends ASTVisitor {
                 initializer.accept(this);
             } else {
                 CFGStatement initNode = new CFGStatement(node, CFGNode.Kind.assignment);
-                ExpressionVisitor initVisitor = new ExpressionVisitor(this, cfg, initNode, infoStore, visited);
+                ExpressionVisitor initVisitor = new ExpressionVisitor(this, cfg, initNode, infoStore);
                 initializer.accept(initVisitor);
                 CFGNode curNode = initVisitor.getExitNode();
                 reconnect(initNode);
@@ -480,7 +476,7 @@ public class StatementVisitor extends ASTVisitor {
         CFGNode entryNode;
         Expression condition = node.getExpression();
         if (condition != null) {
-            ExpressionVisitor condVisitor = new ExpressionVisitor(this, cfg, forNode, infoStore, visited);
+            ExpressionVisitor condVisitor = new ExpressionVisitor(this, cfg, forNode, infoStore);
             condition.accept(condVisitor);
             CFGNode curNode = condVisitor.getExitNode();
             reconnect(forNode);
@@ -503,7 +499,7 @@ public class StatementVisitor extends ASTVisitor {
         body.accept(this);
         for (Expression update : (List<Expression>)node.updaters()) {
             CFGStatement updateNode = new CFGStatement(update, CFGNode.Kind.assignment);
-            ExpressionVisitor updateVisitor = new ExpressionVisitor(this, cfg, updateNode, infoStore, visited);
+            ExpressionVisitor updateVisitor = new ExpressionVisitor(this, cfg, updateNode, infoStore);
             update.accept(updateVisitor);
             CFGNode curNode = updateVisitor.getExitNode();
             reconnect(updateNode);
@@ -534,10 +530,10 @@ public class StatementVisitor extends ASTVisitor {
         reconnect(forNode);
         
         SingleVariableDeclaration parameter = node.getParameter();
-        ExpressionVisitor paramVisitor = new ExpressionVisitor(this, cfg, forNode, infoStore, visited);
+        ExpressionVisitor paramVisitor = new ExpressionVisitor(this, cfg, forNode, infoStore);
         parameter.accept(paramVisitor);
         Expression expression = node.getExpression();
-        ExpressionVisitor exprVisitor = new ExpressionVisitor(this, cfg, forNode, infoStore, visited);
+        ExpressionVisitor exprVisitor = new ExpressionVisitor(this, cfg, forNode, infoStore);
         expression.accept(exprVisitor);
         CFGNode curNode = exprVisitor.getExitNode();
         
@@ -618,7 +614,7 @@ public class StatementVisitor extends ASTVisitor {
         CFGNode curNode = returnNode;
         Expression expression = node.getExpression();
         if (expression != null) {
-            ExpressionVisitor exprVisitor = new ExpressionVisitor(this, cfg, returnNode, infoStore, visited);
+            ExpressionVisitor exprVisitor = new ExpressionVisitor(this, cfg, returnNode, infoStore);
             expression.accept(exprVisitor);
             
             CFGMethodEntry methodNode = (CFGMethodEntry)cfg.getEntryNode();
@@ -644,12 +640,12 @@ public class StatementVisitor extends ASTVisitor {
         reconnect(assertNode);
         
         Expression expression = node.getExpression();
-        ExpressionVisitor exprVisitor = new ExpressionVisitor(this, cfg, assertNode, infoStore, visited);
+        ExpressionVisitor exprVisitor = new ExpressionVisitor(this, cfg, assertNode, infoStore);
         expression.accept(exprVisitor);
         CFGNode curNode = exprVisitor.getExitNode();
         Expression message = node.getMessage();
         if (message != null) {
-            ExpressionVisitor mesgVisitor = new ExpressionVisitor(this, cfg, assertNode, infoStore, visited);
+            ExpressionVisitor mesgVisitor = new ExpressionVisitor(this, cfg, assertNode, infoStore);
             message.accept(mesgVisitor);
             curNode = mesgVisitor.getExitNode();
         }
@@ -683,7 +679,7 @@ public class StatementVisitor extends ASTVisitor {
         reconnect(syncNode);
         
         Expression expression = node.getExpression();
-        ExpressionVisitor exprVisitor = new ExpressionVisitor(this, cfg, syncNode, infoStore, visited);
+        ExpressionVisitor exprVisitor = new ExpressionVisitor(this, cfg, syncNode, infoStore);
         expression.accept(exprVisitor);
         CFGNode curNode = exprVisitor.getExitNode();
         
@@ -701,7 +697,7 @@ public class StatementVisitor extends ASTVisitor {
         reconnect(throwNode);
         
         Expression expression = node.getExpression();
-        ExpressionVisitor exprVisitor = new ExpressionVisitor(this, cfg, throwNode, infoStore, visited);
+        ExpressionVisitor exprVisitor = new ExpressionVisitor(this, cfg, throwNode, infoStore);
         expression.accept(exprVisitor);
         CFGNode curNode = exprVisitor.getExitNode();
         
@@ -734,7 +730,7 @@ public class StatementVisitor extends ASTVisitor {
             CFGStatement resourceNode = new CFGStatement(node, CFGNode.Kind.assignment);
             reconnect(resourceNode);
             
-            ExpressionVisitor resourceVisitor = new ExpressionVisitor(this, cfg, resourceNode, infoStore, visited);
+            ExpressionVisitor resourceVisitor = new ExpressionVisitor(this, cfg, resourceNode, infoStore);
             resource.accept(resourceVisitor);
             CFGNode curNode = resourceVisitor.getExitNode();
             
@@ -48,7 +48,7 @@ public class ASTNodeOnCFGCollector extends ASTVisitor {
         return String.valueOf(node.getStartPosition() + "-" + node.getLength());
     }
     
-    private boolean isCFGNode(ASTNode node) {
+    public static boolean isCFGNode(ASTNode node) {
         return node instanceof BodyDeclaration ||
                StatementVisitor.isCFGNode(node) ||
                ExpressionVisitor.isCFGNode(node) ||
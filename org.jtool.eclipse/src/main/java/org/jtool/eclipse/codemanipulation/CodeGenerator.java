@@ -41,12 +41,14 @@ import java.util.HashMap;
 public class CodeGenerator {
     
     private Map<String, String> options = null;
+    private CodeFormatter codeFormatter = null;
     
     public CodeGenerator() {
     }
     
     public void setOptions(Map<String, String> options) {
         this.options = options;
+        codeFormatter = null;
     }
     
     public String generate(ASTNode node, String contents) {
@@ -54,10 +56,14 @@ public class CodeGenerator {
     }
     
     public String generate(ASTNode node, String contents, Set<ASTNode> nodes) {
-        Set<Comment> comments = null;
         ASTNode root = node.getRoot();
-        if (root instanceof CompilationUnit) {
-            CommentVisitor commentVistor = new CommentVisitor((CompilationUnit)root, nodes);
+        return generate(node, contents, nodes, root instanceof CompilationUnit ? (CompilationUnit)root : null);
+    }
+    
+    public String generate(ASTNode node, String contents, Set<ASTNode> nodes, CompilationUnit cu) {
+        Set<Comment> comments = null;
+        if (cu != null) {
+            CommentVisitor commentVistor = new CommentVisitor(cu, nodes);
             comments = commentVistor.collect();
         } else {
             comments = new HashSet<Comment>();
@@ -83,19 +89,10 @@ public class CodeGenerator {
     private String format(String code, int kind) {
         try {
             IDocument document = new Document(code);
-            if (options == null) {
-                options = new HashMap<>();
-                options.put(DefaultCodeFormatterConstants.FORMATTER_TAB_CHAR, JavaCore.SPACE);
-                options.put(DefaultCodeFormatterConstants.FORMATTER_INDENTATION_SIZE, "4");
-                options.put(DefaultCodeFormatterConstants.FORMATTER_BLANK_LINES_AFTER_PACKAGE, "1");
-                options.put(DefaultCodeFormatterConstants.FORMATTER_BLANK_LINES_AFTER_IMPORTS, "1");
-                options.put(DefaultCodeFormatterConstants.FORMATTER_BLANK_LINES_BEFORE_MEMBER_TYPE, "1");
-                options.put(DefaultCodeFormatterConstants.FORMATTER_BLANK_LINES_BEFORE_FIRST_CLASS_BODY_DECLARATION, "1");
-                options.put(DefaultCodeFormatterConstants.FORMATTER_BLANK_LINES_BEFORE_METHOD, "1");
-                options.put(DefaultCodeFormatterConstants.FORMATTER_BLANK_LINES_BEFORE_FIELD, "1");
+            if (codeFormatter == null) {
+                codeFormatter = createCodeFormatter();
             }
             
-            CodeFormatter codeFormatter = ToolFactory.createCodeFormatter(options, ToolFactory.M_FORMAT_NEW);
             TextEdit edit = codeFormatter.format(kind | CodeFormatter.F_INCLUDE_COMMENTS, code, 0, code.length(), 0, null);
             edit.apply(document);
             return document.get();
@@ -105,6 +102,21 @@ public class CodeGenerator {
         return code;
     }
     
+    private CodeFormatter createCodeFormatter() {
+        if (options == null) {
+            options = new HashMap<>();
+            options.put(DefaultCodeFormatterConstants.FORMATTER_TAB_CHAR, JavaCore.SPACE);
+            options.put(DefaultCodeFormatterConstants.FORMATTER_INDENTATION_SIZE, "4");
+            options.put(DefaultCodeFormatterConstants.FORMATTER_BLANK_LINES_AFTER_PACKAGE, "1");
+            options.put(DefaultCodeFormatterConstants.FORMATTER_BLANK_LINES_AFTER_IMPORTS, "1");
+            options.put(DefaultCodeFormatterConstants.FORMATTER_BLANK_LINES_BEFORE_MEMBER_TYPE, "1");
+            options.put(DefaultCodeFormatterConstants.FORMATTER_BLANK_LINES_BEFORE_FIRST_CLASS_BODY_DECLARATION, "1");
+            options.put(DefaultCodeFormatterConstants.FORMATTER_BLANK_LINES_BEFORE_METHOD, "1");
+            options.put(DefaultCodeFormatterConstants.FORMATTER_BLANK_LINES_BEFORE_FIELD, "1");
+        }
+        return ToolFactory.createCodeFormatter(options, ToolFactory.M_FORMAT_NEW);
+    }
+    
     class CommentVisitor extends ASTVisitor {
         
         private CompilationUnit compilationUnit;
@@ -0,0 +1,144 @@
+/*
+ *  Copyright 2020
+ *  Software Science and Technology Lab.
+ *  Department of Computer Science, Ritsumeikan University
+ */
+
+package org.jtool.eclipse.graph;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+
+/**
+ * A read-only snapshot of a graph in which nodes and edges are numbered densely from zero
+ * and the adjacency of each node is stored in compressed sparse row (CSR) form.
+ * Nodes are numbered in ascending order of their identification numbers.
+ * @author Katsuhsa Maruyama
+ */
+public class CompactGraph<N extends GraphNode, E extends GraphEdge> implements IndexedGraph {
+    
+    private final GraphNode[] nodes;
+    private final long[] ids;
+    private final GraphEdge[] edges;
+    private final int[] edgeSrc;
+    private final int[] edgeDst;
+    
+    private final int[] outOffsets;
+    private final int[] outEdges;
+    private final int[] inOffsets;
+    private final int[] inEdges;
+    
+    public CompactGraph(Collection<? extends N> nodeSet, Collection<? extends E> edgeSet) {
+        nodes = nodeSet.toArray(new GraphNode[nodeSet.size()]);
+        Arrays.sort(nodes, Comparator.comparingLong(GraphNode::getId));
+        ids = new long[nodes.length];
+        for (int i = 0; i < nodes.length; i++) {
+            ids[i] = nodes[i].getId();
+        }
+        
+        GraphEdge[] candidates = edgeSet.toArray(new GraphEdge[edgeSet.size()]);
+        int[] src = new int[candidates.length];
+        int[] dst = new int[candidates.length];
+        int num = 0;
+        for (GraphEdge edge : candidates) {
+            int s = indexOf(edge.getSrcNode());
+            int d = indexOf(edge.getDstNode());
+            if (s >= 0 && d >= 0) {
+                candidates[num] = edge;
+                src[num] = s;
+                dst[num] = d;
+                num++;
+            }
+        }
+        edges = Arrays.copyOf(candidates, num);
+        edgeSrc = Arrays.copyOf(src, num);
+        edgeDst = Arrays.copyOf(dst, num);
+        
+        outOffsets = new int[nodes.length + 1];
+        inOffsets = new int[nodes.length + 1];
+        outEdges = new int[num];
+        inEdges = new int[num];
+        fill(edgeSrc, outOffsets, outEdges);
+        fill(edgeDst, inOffsets, inEdges);
+    }
+    
+    private void fill(int[] endpoints, int[] offsets, int[] adjacency) {
+        for (int endpoint : endpoints) {
+            offsets[endpoint + 1]++;
+        }
+        for (int i = 0; i < nodes.length; i++) {
+            offsets[i + 1] += offsets[i];
+        }
+        int[] next = Arrays.copyOf(offsets, nodes.length);
+        for (int e = 0; e < endpoints.length; e++) {
+            adjacency[next[endpoints[e]]++] = e;
+        }
+    }
+    
+    @Override
+    public int size() {
+        return nodes.length;
+    }
+    
+    @Override
+    public int numberOfEdges() {
+        return edges.length;
+    }
+    
+    @SuppressWarnings("unchecked")
+    public N getNode(int index) {
+        return (N)nodes[index];
+    }
+    
+    @SuppressWarnings("unchecked")
+    public E getEdge(int index) {
+        return (E)edges[index];
+    }
+    
+    public int indexOf(GraphNode node) {
+        if (node == null) {
+            return -1;
+        }
+        int index = Arrays.binarySearch(ids, node.getId());
+        return index >= 0 ? index : -1;
+    }
+    
+    @Override
+    public int getSrcIndex(int edge) {
+        return edgeSrc[edge];
+    }
+    
+    @Override
+    public int getDstIndex(int edge) {
+        return edgeDst[edge];
+    }
+    
+    @Override
+    public int outDegree(int node) {
+        return outOffsets[node + 1] - outOffsets[node];
+    }
+    
+    @Override
+    public int inDegree(int node) {
+        return inOffsets[node + 1] - inOffsets[node];
+    }
+    
+    @Override
+    public int getOutgoingEdge(int node, int k) {
+        return outEdges[outOffsets[node] + k];
+    }
+    
+    @Override
+    public int getIncomingEdge(int node, int k) {
+        return inEdges[inOffsets[node] + k];
+    }
+    
+    public int getSuccessor(int node, int k) {
+        return edgeDst[outEdges[outOffsets[node] + k]];
+    }
+    
+    public int getPredecessor(int node, int k) {
+        return edgeSrc[inEdges[inOffsets[node] + k]];
+    }
+}
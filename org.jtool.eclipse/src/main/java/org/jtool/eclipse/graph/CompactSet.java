@@ -0,0 +1,127 @@
+/*
+ *  Copyright 2020
+ *  Software Science and Technology Lab.
+ *  Department of Computer Science, Ritsumeikan University
+ */
+
+package org.jtool.eclipse.graph;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * An unmodifiable set stored in a plain array, which replaces a hash set of a frozen graph.
+ * Elements are kept in the order of their hash codes so that a lookup in a large set is a binary search.
+ * @author Katsuhsa Maruyama
+ */
+final class CompactSet<T> extends AbstractSet<T> {
+    
+    private static final int LINEAR_SCAN_LIMIT = 8;
+    
+    private static final Object[] EMPTY_ELEMENTS = new Object[0];
+    private static final int[] EMPTY_HASHES = new int[0];
+    
+    private final Object[] elements;
+    private final int[] hashes;
+    
+    private CompactSet(Object[] elements, int[] hashes) {
+        this.elements = elements;
+        this.hashes = hashes;
+    }
+    
+    static <T> CompactSet<T> of(Collection<? extends T> co) {
+        if (co instanceof CompactSet) {
+            @SuppressWarnings("unchecked")
+            CompactSet<T> set = (CompactSet<T>)co;
+            return set;
+        }
+        if (co.isEmpty()) {
+            return new CompactSet<>(EMPTY_ELEMENTS, EMPTY_HASHES);
+        }
+        
+        Object[] elems = co.toArray();
+        if (elems.length <= LINEAR_SCAN_LIMIT) {
+            return new CompactSet<>(elems, EMPTY_HASHES);
+        }
+        
+        long[] keys = new long[elems.length];
+        for (int i = 0; i < elems.length; i++) {
+            keys[i] = ((long)elems[i].hashCode() << 32) | i;
+        }
+        Arrays.sort(keys);
+        
+        Object[] sorted = new Object[elems.length];
+        int[] hashes = new int[elems.length];
+        for (int i = 0; i < keys.length; i++) {
+            sorted[i] = elems[(int)keys[i]];
+            hashes[i] = (int)(keys[i] >> 32);
+        }
+        return new CompactSet<>(sorted, hashes);
+    }
+    
+    @Override
+    public int size() {
+        return elements.length;
+    }
+    
+    @Override
+    public boolean contains(Object obj) {
+        if (obj == null) {
+            return false;
+        }
+        
+        if (hashes.length == 0) {
+            for (Object elem : elements) {
+                if (elem.equals(obj)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        
+        int hash = obj.hashCode();
+        int index = Arrays.binarySearch(hashes, hash);
+        if (index < 0) {
+            return false;
+        }
+        while (index > 0 && hashes[index - 1] == hash) {
+            index--;
+        }
+        for ( ; index < hashes.length && hashes[index] == hash; index++) {
+            if (elements[index].equals(obj)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    @Override
+    public Iterator<T> iterator() {
+        return new Iterator<T>() {
+            
+            private int index = 0;
+            
+            @Override
+            public boolean hasNext() {
+                return index < elements.length;
+            }
+            
+            @Override
+            @SuppressWarnings("unchecked")
+            public T next() {
+                if (index >= elements.length) {
+                    throw new NoSuchElementException();
+                }
+                return (T)elements[index++];
+            }
+        };
+    }
+    
+    @Override
+    public Object[] toArray() {
+        return Arrays.copyOf(elements, elements.length);
+    }
+}
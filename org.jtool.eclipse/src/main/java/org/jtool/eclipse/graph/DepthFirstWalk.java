@@ -0,0 +1,52 @@
+/*
+ *  Copyright 2020
+ *  Software Science and Technology Lab.
+ *  Department of Computer Science, Ritsumeikan University
+ */
+
+package org.jtool.eclipse.graph;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Walks an arbitrary graph in depth-first order, keeping the pending neighbors of each node on an explicit stack.
+ * Nodes are visited exactly in the order of a recursive walk. The neighbors of a node are requested when it is visited,
+ * and the next neighbor is taken only after the walk from the previous one has finished,
+ * so the iterator may decide lazily on the basis of what has been visited so far.
+ * @author Katsuhsa Maruyama
+ */
+public final class DepthFirstWalk {
+    
+    private DepthFirstWalk() {
+    }
+    
+    /**
+     * Walks from a start node. A node is visited when it is added to the given set for the first time.
+     * @param start the start node
+     * @param visited the set of visited nodes, which collects the nodes reached by this walk
+     * @param neighbors the function that is called when a node is visited and returns the nodes to be walked next
+     */
+    public static <T> void walk(T start, Set<T> visited, Function<? super T, ? extends Iterator<? extends T>> neighbors) {
+        if (!visited.add(start)) {
+            return;
+        }
+        
+        Deque<Iterator<? extends T>> stack = new ArrayDeque<>();
+        stack.push(neighbors.apply(start));
+        while (!stack.isEmpty()) {
+            Iterator<? extends T> it = stack.peek();
+            if (it.hasNext()) {
+                T next = it.next();
+                if (visited.add(next)) {
+                    stack.push(neighbors.apply(next));
+                }
+            } else {
+                stack.pop();
+            }
+        }
+    }
+}
@@ -8,6 +8,7 @@ package org.jtool.eclipse.graph;
 
 import java.util.Set;
 import java.util.HashSet;
+import java.util.Collection;
 
 /**
  * A graph object which is either a CFG or PDG.
@@ -18,12 +19,17 @@ public class Graph<N extends GraphNode, E extends GraphEdge> {
     private Set<N> nodes = new HashSet<>();
     private Set<E> edges = new HashSet<>();
     
+    private CompactGraph<N, E> compactGraph = null;
+    private long compactGraphVersion = -1;
+    private long version = 0;
+    
     public Graph() {
         super();
     }
     
     public void setNodes(Set<N> set) {
         nodes = set;
+        changed();
     }
     
     public Set<N> getNodes() {
@@ -32,6 +38,7 @@ public class Graph<N extends GraphNode, E extends GraphEdge> {
     
     public void setEdges(Set<E> set) {
         edges = set;
+        changed();
     }
     
     public Set<E> getEdges() {
@@ -39,19 +46,28 @@ public class Graph<N extends GraphNode, E extends GraphEdge> {
     }
     
     public void clear() {
+        thawSets();
         nodes.clear();
         edges.clear();
     }
     
     public void add(N node) {
+        thawSets();
         nodes.add(node);
     }
     
     public void add(E edge) {
+        thawSets();
         edges.add(edge);
     }
     
+    public void addEdges(Collection<? extends E> edges) {
+        thawSets();
+        this.edges.addAll(edges);
+    }
+    
     public void remove(N node) {
+        thawSets();
         nodes.remove(node);
         new HashSet<E>(getEdges()).stream()
                                   .filter(edge -> edge.getSrcNode().equals(node) || edge.getDstNode().equals(node))
@@ -59,11 +75,61 @@ public class Graph<N extends GraphNode, E extends GraphEdge> {
     }
     
     public void remove(E edge) {
+        thawSets();
         edges.remove(edge);
         edge.getSrcNode().removeOutgoingEdge(edge);
         edge.getDstNode().removeIncomingEdge(edge);
     }
     
+    public void freeze() {
+        nodes = CompactSet.of(nodes);
+        edges = CompactSet.of(edges);
+        nodes.forEach(node -> node.freeze());
+        changed();
+    }
+    
+    public boolean isFrozen() {
+        return nodes instanceof CompactSet;
+    }
+    
+    public void thaw() {
+        thawSets();
+        nodes.forEach(node -> node.thaw());
+    }
+    
+    private void thawSets() {
+        if (nodes instanceof CompactSet) {
+            nodes = new HashSet<>(nodes);
+            edges = new HashSet<>(edges);
+        }
+        changed();
+    }
+    
+    protected void changed() {
+        version++;
+        compactGraph = null;
+    }
+    
+    public long getVersion() {
+        return version;
+    }
+    
+    public CompactGraph<N, E> getCompactGraph() {
+        return getCompactGraph(version);
+    }
+    
+    /*
+     * The compact graph is rebuilt only when the version differs from that of the last one.
+     * Versions never decrease, so a graph consisting of member graphs passes its version plus the sum of theirs.
+     */
+    protected CompactGraph<N, E> getCompactGraph(long version) {
+        if (compactGraph == null || compactGraphVersion != version) {
+            compactGraph = new CompactGraph<>(getNodes(), getEdges());
+            compactGraphVersion = version;
+        }
+        return compactGraph;
+    }
+    
     public boolean contains(N node) {
         return nodes.contains(node);
     }
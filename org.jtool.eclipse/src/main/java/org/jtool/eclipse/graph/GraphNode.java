@@ -32,10 +32,43 @@ public abstract class GraphNode extends GraphElement {
     }
     
     public void clear() {
+        thawIncoming();
+        thawOutgoing();
         incomingEdges.clear();
         outgoingEdges.clear();
         srcNodes.clear();
         dstNodes.clear();
+        adjacencyChanged();
+    }
+    
+    public void freeze() {
+        incomingEdges = CompactSet.of(incomingEdges);
+        outgoingEdges = CompactSet.of(outgoingEdges);
+        srcNodes = CompactSet.of(srcNodes);
+        dstNodes = CompactSet.of(dstNodes);
+    }
+    
+    public boolean isFrozen() {
+        return incomingEdges instanceof CompactSet && outgoingEdges instanceof CompactSet;
+    }
+    
+    public void thaw() {
+        thawIncoming();
+        thawOutgoing();
+    }
+    
+    private void thawIncoming() {
+        if (incomingEdges instanceof CompactSet) {
+            incomingEdges = new HashSet<>(incomingEdges);
+            srcNodes = new HashSet<>(srcNodes);
+        }
+    }
+    
+    private void thawOutgoing() {
+        if (outgoingEdges instanceof CompactSet) {
+            outgoingEdges = new HashSet<>(outgoingEdges);
+            dstNodes = new HashSet<>(dstNodes);
+        }
     }
     
     public void setId(long id) {
@@ -47,14 +80,18 @@ public abstract class GraphNode extends GraphElement {
     }
     
     public void addIncomingEdge(GraphEdge edge) {
+        thawIncoming();
         if (incomingEdges.add(edge)) {
             srcNodes.add(edge.getSrcNode());
+            adjacencyChanged();
         }
     }
     
     public void addOutgoingEdge(GraphEdge edge) {
+        thawOutgoing();
         if (outgoingEdges.add(edge)) {
             dstNodes.add(edge.getDstNode());
+            adjacencyChanged();
         }
     }
     
@@ -67,29 +104,46 @@ public abstract class GraphNode extends GraphElement {
     }
     
     public void removeIncomingEdge(GraphEdge edge) {
+        thawIncoming();
         incomingEdges.remove(edge);
         srcNodes.remove(edge.getSrcNode());
+        adjacencyChanged();
     }
     
     public void removeOutgoingEdge(GraphEdge edge) {
+        thawOutgoing();
         outgoingEdges.remove(edge);
         dstNodes.remove(edge.getDstNode());
+        adjacencyChanged();
     }
     
     public void clearIncomingEdges() {
+        thawIncoming();
         incomingEdges.clear();
+        adjacencyChanged();
     }
     
     public void clearOutgoingEdges() {
+        thawOutgoing();
         outgoingEdges.clear();
+        adjacencyChanged();
     }
     
     public void setIncomingEdges(Set<GraphEdge> edges) {
         incomingEdges = edges;
+        adjacencyChanged();
     }
     
     public void setOutgoingEdges(Set<GraphEdge> edges) {
         outgoingEdges = edges;
+        adjacencyChanged();
+    }
+    
+    /**
+     * Called whenever incoming or outgoing edges of this node are changed.
+     * Subclasses that keep views of the adjacency of this node discard them here.
+     */
+    protected void adjacencyChanged() {
     }
     
     public Set<GraphEdge> getIncomingEdges() {
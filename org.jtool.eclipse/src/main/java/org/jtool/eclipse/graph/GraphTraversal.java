@@ -0,0 +1,137 @@
+/*
+ *  Copyright 2020
+ *  Software Science and Technology Lab.
+ *  Department of Computer Science, Ritsumeikan University
+ */
+
+package org.jtool.eclipse.graph;
+
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Traverses a compact graph in depth-first or breadth-first order without recursion.
+ * Nodes to be traversed are kept on an array of node indexes and visited nodes are recorded in a bit set.
+ * Every node is put on the array at most once, so the traversal never overflows regardless of the depth of the graph.
+ * @author Katsuhsa Maruyama
+ */
+public class GraphTraversal<N extends GraphNode, E extends GraphEdge> {
+    
+    public enum Direction {
+        FORWARD, BACKWARD;
+    }
+    
+    public enum Order {
+        DEPTH_FIRST, BREADTH_FIRST;
+    }
+    
+    private final CompactGraph<N, E> graph;
+    private final boolean forward;
+    
+    private boolean breadthFirst = false;
+    private Predicate<? super E> edgeFilter = null;
+    private Predicate<? super N> stopCondition = null;
+    
+    private final BitSet visited;
+    private final BitSet stopped;
+    private final int[] work;
+    
+    public GraphTraversal(CompactGraph<N, E> graph, Direction direction) {
+        this.graph = graph;
+        this.forward = direction == Direction.FORWARD;
+        visited = new BitSet(graph.size());
+        stopped = new BitSet(graph.size());
+        work = new int[graph.size()];
+    }
+    
+    public GraphTraversal<N, E> setOrder(Order order) {
+        breadthFirst = order == Order.BREADTH_FIRST;
+        return this;
+    }
+    
+    /**
+     * Sets a condition on edges to be followed. Edges that do not satisfy it are ignored.
+     */
+    public GraphTraversal<N, E> setEdgeFilter(Predicate<? super E> filter) {
+        edgeFilter = filter;
+        return this;
+    }
+    
+    /**
+     * Sets a condition on nodes at which the traversal stops. Such nodes are neither visited nor expanded.
+     * The condition is tested at most once for each node and is never tested for the start nodes.
+     */
+    public GraphTraversal<N, E> setStopCondition(Predicate<? super N> condition) {
+        stopCondition = condition;
+        return this;
+    }
+    
+    public CompactGraph<N, E> getGraph() {
+        return graph;
+    }
+    
+    public BitSet traverse(N start) {
+        return traverse(Collections.singleton(start), null);
+    }
+    
+    /**
+     * Visits all the nodes reachable from the start nodes. Start nodes not contained in the graph are ignored.
+     * The returned bit set holds the indexes of the visited nodes and is reused by the next traversal.
+     */
+    public BitSet traverse(Collection<? extends N> starts, Consumer<? super N> visitor) {
+        visited.clear();
+        stopped.clear();
+        int head = 0;
+        int tail = 0;
+        for (N start : starts) {
+            int index = graph.indexOf(start);
+            if (index >= 0 && !visited.get(index)) {
+                visited.set(index);
+                work[tail++] = index;
+            }
+        }
+        
+        while (head < tail) {
+            int node = breadthFirst ? work[head++] : work[--tail];
+            if (visitor != null) {
+                visitor.accept(graph.getNode(node));
+            }
+            
+            int degree = forward ? graph.outDegree(node) : graph.inDegree(node);
+            for (int k = 0; k < degree; k++) {
+                int edge = forward ? graph.getOutgoingEdge(node, k) : graph.getIncomingEdge(node, k);
+                int next = forward ? graph.getDstIndex(edge) : graph.getSrcIndex(edge);
+                if (visited.get(next) || stopped.get(next)) {
+                    continue;
+                }
+                if (edgeFilter != null && !edgeFilter.test(graph.getEdge(edge))) {
+                    continue;
+                }
+                if (stopCondition != null && stopCondition.test(graph.getNode(next))) {
+                    stopped.set(next);
+                    continue;
+                }
+                visited.set(next);
+                work[tail++] = next;
+            }
+        }
+        return visited;
+    }
+    
+    public Set<N> reachableNodes(N start) {
+        return getNodes(traverse(start));
+    }
+    
+    public Set<N> getNodes(BitSet indexes) {
+        Set<N> nodes = new HashSet<>();
+        for (int index = indexes.nextSetBit(0); index >= 0; index = indexes.nextSetBit(index + 1)) {
+            nodes.add(graph.getNode(index));
+        }
+        return nodes;
+    }
+}
@@ -0,0 +1,30 @@
+/*
+ *  Copyright 2020
+ *  Software Science and Technology Lab.
+ *  Department of Computer Science, Ritsumeikan University
+ */
+
+package org.jtool.eclipse.graph;
+
+/**
+ * A graph in which nodes and edges are numbered densely from zero, so that it is traversed by indexes only.
+ * @author Katsuhsa Maruyama
+ */
+public interface IndexedGraph {
+    
+    public int size();
+    
+    public int numberOfEdges();
+    
+    public int getSrcIndex(int edge);
+    
+    public int getDstIndex(int edge);
+    
+    public int outDegree(int node);
+    
+    public int inDegree(int node);
+    
+    public int getOutgoingEdge(int node, int k);
+    
+    public int getIncomingEdge(int node, int k);
+}
@@ -0,0 +1,426 @@
+/*
+ *  Copyright 2020
+ *  Software Science and Technology Lab.
+ *  Department of Computer Science, Ritsumeikan University
+ */
+
+package org.jtool.eclipse.javamodel;
+
+import org.eclipse.jdt.core.dom.ASTVisitor;
+import org.eclipse.jdt.core.dom.AnonymousClassDeclaration;
+import org.eclipse.jdt.core.dom.ClassInstanceCreation;
+import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.eclipse.jdt.core.dom.CreationReference;
+import org.eclipse.jdt.core.dom.EnumConstantDeclaration;
+import org.eclipse.jdt.core.dom.ITypeBinding;
+import java.util.Set;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.HashMap;
+import java.util.BitSet;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.ArrayDeque;
+
+/**
+ * An index of the class hierarchy of a project, which answers queries on subtypes, overriding methods,
+ * and targets of virtual method calls with hash lookups instead of scanning classes and their methods.
+ * Classes in the project and their ancestors outside the project are numbered, and the supertypes and subtypes
+ * of each class are stored in arrays of the numbers. Method calls are resolved by class hierarchy analysis (CHA)
+ * or rapid type analysis (RTA), which considers only classes instantiated somewhere in the project.
+ * 
+ * The index is built at once from the classes when it is created, so it is discarded whenever a class is added to
+ * or removed from the project. It is never modified after the creation and can be shared among multiple threads.
+ * 
+ * @author Katsuhisa Maruyama
+ */
+public class ClassHierarchy {
+    
+    private JavaProject jproject;
+    
+    private Map<String, Integer> ids = new HashMap<>();
+    private List<JavaClass> classes = new ArrayList<>();
+    
+    private int[] superclasses;
+    private int[][] supertypes;
+    private int[][] subtypes;
+    private int[][] ancestors;
+    private int[][] descendants;
+    
+    private List<Map<String, JavaMethod>> methodTables = new ArrayList<>();
+    private Map<String, int[]> declaringClasses = new HashMap<>();
+    
+    private Map<JavaMethod, Set<JavaMethod>> overriddenMethods = new HashMap<>();
+    private Map<JavaMethod, Set<JavaMethod>> overridingMethods = new HashMap<>();
+    
+    private volatile BitSet instantiatedClasses = null;
+    
+    public ClassHierarchy(JavaProject jproject) {
+        this.jproject = jproject;
+        
+        for (JavaClass jclass : jproject.getClasses()) {
+            register(jclass);
+        }
+        
+        int size = classes.size();
+        superclasses = new int[size];
+        supertypes = new int[size][];
+        for (int id = 0; id < size; id++) {
+            JavaClass jclass = classes.get(id);
+            superclasses[id] = getId(jclass.getSuperClass());
+            Set<Integer> parents = new LinkedHashSet<>();
+            if (superclasses[id] >= 0) {
+                parents.add(superclasses[id]);
+            }
+            for (JavaClass jc : jclass.getSuperInterfaces()) {
+                if (getId(jc) >= 0) {
+                    parents.add(getId(jc));
+                }
+            }
+            supertypes[id] = parents.stream().mapToInt(i -> i).toArray();
+        }
+        subtypes = invert(supertypes);
+        ancestors = close(supertypes);
+        descendants = close(subtypes);
+        
+        createMethodTables();
+        findOverridingMethods();
+    }
+    
+    private void register(JavaClass jclass) {
+        Deque<JavaClass> stack = new ArrayDeque<>();
+        stack.push(jclass);
+        while (!stack.isEmpty()) {
+            JavaClass jc = stack.pop();
+            if (!ids.containsKey(jc.getQualifiedName())) {
+                ids.put(jc.getQualifiedName(), classes.size());
+                classes.add(jc);
+                
+                if (jc.getSuperClass() != null) {
+                    stack.push(jc.getSuperClass());
+                }
+                for (JavaClass parent : jc.getSuperInterfaces()) {
+                    if (parent != null) {
+                        stack.push(parent);
+                    }
+                }
+            }
+        }
+    }
+    
+    private int getId(JavaClass jclass) {
+        if (jclass != null) {
+            Integer id = ids.get(jclass.getQualifiedName());
+            if (id != null) {
+                return id;
+            }
+        }
+        return -1;
+    }
+    
+    private int[][] invert(int[][] relation) {
+        int[] sizes = new int[relation.length];
+        for (int[] targets : relation) {
+            for (int target : targets) {
+                sizes[target]++;
+            }
+        }
+        int[][] inverse = new int[relation.length][];
+        for (int id = 0; id < relation.length; id++) {
+            inverse[id] = new int[sizes[id]];
+            sizes[id] = 0;
+        }
+        for (int id = 0; id < relation.length; id++) {
+            for (int target : relation[id]) {
+                inverse[target][sizes[target]++] = id;
+            }
+        }
+        return inverse;
+    }
+    
+    private int[][] close(int[][] relation) {
+        int[][] closure = new int[relation.length][];
+        BitSet visited = new BitSet(relation.length);
+        Deque<Integer> stack = new ArrayDeque<>();
+        for (int id = 0; id < relation.length; id++) {
+            visited.clear();
+            stack.push(id);
+            while (!stack.isEmpty()) {
+                for (int target : relation[stack.pop()]) {
+                    if (!visited.get(target)) {
+                        visited.set(target);
+                        stack.push(target);
+                    }
+                }
+            }
+            visited.clear(id);
+            closure[id] = visited.stream().toArray();
+        }
+        return closure;
+    }
+    
+    private void createMethodTables() {
+        Map<String, List<Integer>> declarations = new HashMap<>();
+        for (int id = 0; id < classes.size(); id++) {
+            Map<String, JavaMethod> table = new HashMap<>();
+            for (JavaMethod jmethod : getMethods(classes.get(id))) {
+                table.put(jmethod.getSignature(), jmethod);
+                List<Integer> declared = declarations.computeIfAbsent(jmethod.getSignature(), sig -> new ArrayList<>());
+                if (declared.isEmpty() || declared.get(declared.size() - 1) != id) {
+                    declared.add(id);
+                }
+            }
+            methodTables.add(table);
+        }
+        for (Map.Entry<String, List<Integer>> entry : declarations.entrySet()) {
+            declaringClasses.put(entry.getKey(), entry.getValue().stream().mapToInt(i -> i).toArray());
+        }
+    }
+    
+    private List<JavaMethod> getMethods(JavaClass jclass) {
+        synchronized (jclass) {
+            return new ArrayList<>(jclass.getMethods());
+        }
+    }
+    
+    private void findOverridingMethods() {
+        for (int id = 0; id < classes.size(); id++) {
+            if (!classes.get(id).isInProject()) {
+                continue;
+            }
+            
+            for (JavaMethod jmethod : classes.get(id).getMethods()) {
+                for (int ancestor : ancestors[id]) {
+                    JavaMethod jm = methodTables.get(ancestor).get(jmethod.getSignature());
+                    if (jm != null && jmethod.hasSameSigantureAndModifier(jm)) {
+                        overriddenMethods.computeIfAbsent(jmethod, m -> new HashSet<>()).add(jm);
+                        overridingMethods.computeIfAbsent(jm, m -> new HashSet<>()).add(jmethod);
+                    }
+                }
+            }
+        }
+    }
+    
+    public JavaProject getJavaProject() {
+        return jproject;
+    }
+    
+    public boolean contains(String fqn) {
+        return ids.containsKey(fqn);
+    }
+    
+    public List<JavaClass> getSupertypes(JavaClass jclass) {
+        return getClasses(supertypes, jclass);
+    }
+    
+    public List<JavaClass> getSubtypes(JavaClass jclass) {
+        return getClasses(subtypes, jclass);
+    }
+    
+    public List<JavaClass> getAncestors(JavaClass jclass) {
+        return getClasses(ancestors, jclass);
+    }
+    
+    public List<JavaClass> getDescendants(JavaClass jclass) {
+        return getClasses(descendants, jclass);
+    }
+    
+    private List<JavaClass> getClasses(int[][] relation, JavaClass jclass) {
+        List<JavaClass> jclasses = new ArrayList<>();
+        int id = getId(jclass);
+        if (id >= 0) {
+            for (int target : relation[id]) {
+                jclasses.add(classes.get(target));
+            }
+        }
+        return jclasses;
+    }
+    
+    public Set<JavaMethod> getOverriddenMethods(JavaMethod jmethod) {
+        Set<JavaMethod> methods = overriddenMethods.get(jmethod);
+        return methods != null ? Collections.unmodifiableSet(methods) : Collections.emptySet();
+    }
+    
+    public Set<JavaMethod> getOverridingMethods(JavaMethod jmethod) {
+        Set<JavaMethod> methods = overridingMethods.get(jmethod);
+        return methods != null ? Collections.unmodifiableSet(methods) : Collections.emptySet();
+    }
+    
+    public Set<JavaMethod> getCHATargets(String className, String signature) {
+        Set<JavaMethod> targets = new LinkedHashSet<>();
+        Integer id = ids.get(className);
+        if (id == null) {
+            return targets;
+        }
+        
+        JavaMethod jmethod = findMethod(id, signature);
+        if (jmethod != null) {
+            targets.add(jmethod);
+            if (!isVirtual(jmethod)) {
+                return targets;
+            }
+        }
+        
+        int[] declarations = declaringClasses.get(signature);
+        if (declarations != null) {
+            int[] subclasses = descendants[id];
+            if (declarations.length < subclasses.length) {
+                for (int declaration : declarations) {
+                    if (Arrays.binarySearch(subclasses, declaration) >= 0) {
+                        targets.add(methodTables.get(declaration).get(signature));
+                    }
+                }
+            } else {
+                for (int subclass : subclasses) {
+                    if (Arrays.binarySearch(declarations, subclass) >= 0) {
+                        targets.add(methodTables.get(subclass).get(signature));
+                    }
+                }
+            }
+        }
+        return targets;
+    }
+    
+    public Set<JavaMethod> getRTATargets(String className, String signature) {
+        Set<JavaMethod> targets = new LinkedHashSet<>();
+        Integer id = ids.get(className);
+        if (id == null) {
+            return targets;
+        }
+        
+        JavaMethod jmethod = findMethod(id, signature);
+        if (jmethod != null && !isVirtual(jmethod)) {
+            targets.add(jmethod);
+            return targets;
+        }
+        
+        BitSet instantiated = getInstantiatedClasses();
+        if (instantiated.get(id)) {
+            addTarget(targets, dispatch(id, signature));
+        }
+        for (int subclass : descendants[id]) {
+            if (instantiated.get(subclass)) {
+                addTarget(targets, dispatch(subclass, signature));
+            }
+        }
+        return targets;
+    }
+    
+    private void addTarget(Set<JavaMethod> targets, JavaMethod jmethod) {
+        if (jmethod != null) {
+            targets.add(jmethod);
+        }
+    }
+    
+    private boolean isVirtual(JavaMethod jmethod) {
+        return !jmethod.isStatic() && !jmethod.isPrivate() && !jmethod.isConstructor() && !jmethod.isInitializer();
+    }
+    
+    private JavaMethod findMethod(int id, String signature) {
+        JavaMethod jmethod = methodTables.get(id).get(signature);
+        if (jmethod != null) {
+            return jmethod;
+        }
+        for (int ancestor : ancestors[id]) {
+            jmethod = methodTables.get(ancestor).get(signature);
+            if (jmethod != null) {
+                return jmethod;
+            }
+        }
+        return null;
+    }
+    
+    private JavaMethod dispatch(int id, String signature) {
+        for (int c = id; c >= 0; c = superclasses[c]) {
+            JavaMethod jmethod = methodTables.get(c).get(signature);
+            if (jmethod != null && !jmethod.isAbstract()) {
+                return jmethod;
+            }
+        }
+        for (int ancestor : ancestors[id]) {
+            JavaMethod jmethod = methodTables.get(ancestor).get(signature);
+            if (jmethod != null && !jmethod.isAbstract()) {
+                return jmethod;
+            }
+        }
+        return null;
+    }
+    
+    public boolean isInstantiated(JavaClass jclass) {
+        int id = getId(jclass);
+        return id >= 0 && getInstantiatedClasses().get(id);
+    }
+    
+    private BitSet getInstantiatedClasses() {
+        if (instantiatedClasses == null) {
+            synchronized (this) {
+                if (instantiatedClasses == null) {
+                    instantiatedClasses = collectInstantiatedClasses();
+                }
+            }
+        }
+        return instantiatedClasses;
+    }
+    
+    private BitSet collectInstantiatedClasses() {
+        BitSet instantiated = new BitSet(classes.size());
+        for (int id = 0; id < classes.size(); id++) {
+            JavaClass jclass = classes.get(id);
+            if (jclass.isInProject() && (jclass.isEnum() || jclass.isLambda())) {
+                instantiated.set(id);
+            }
+        }
+        
+        InstantiationCollector visitor = new InstantiationCollector(instantiated);
+        for (JavaFile jfile : jproject.getFiles()) {
+            CompilationUnit cu = jfile.getCompilationUnit();
+            if (cu != null) {
+                cu.accept(visitor);
+            }
+        }
+        return instantiated;
+    }
+    
+    private class InstantiationCollector extends ASTVisitor {
+        
+        private BitSet instantiated;
+        
+        InstantiationCollector(BitSet instantiated) {
+            this.instantiated = instantiated;
+        }
+        
+        @Override
+        public boolean visit(ClassInstanceCreation node) {
+            setInstantiated(node.resolveTypeBinding());
+            return true;
+        }
+        
+        @Override
+        public boolean visit(CreationReference node) {
+            setInstantiated(node.getType().resolveBinding());
+            return true;
+        }
+        
+        @Override
+        public boolean visit(EnumConstantDeclaration node) {
+            AnonymousClassDeclaration anonymousClass = node.getAnonymousClassDeclaration();
+            if (anonymousClass != null) {
+                setInstantiated(anonymousClass.resolveBinding());
+            }
+            return true;
+        }
+        
+        private void setInstantiated(ITypeBinding tbinding) {
+            if (tbinding != null) {
+                Integer id = ids.get(JavaElement.retrieveQualifiedName(tbinding.getTypeDeclaration()));
+                if (id != null) {
+                    instantiated.set(id);
+                }
+            }
+        }
+    }
+}
@@ -20,6 +20,7 @@ import java.util.List;
 import java.util.ArrayList;
 import java.util.Set;
 import java.util.HashSet;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 /**
@@ -427,11 +428,11 @@ public class JavaClass extends JavaElement {
                 .collect(Collectors.toList());
     }
     
-    protected boolean resolved = false;
+    protected volatile boolean resolved = false;
     protected JavaClass superClass = null;
     protected Set<JavaClass> superInterfaces = new HashSet<>();
     protected Set<JavaClass> usedClasses = new HashSet<>();
-    protected Set<JavaClass> afferentClasses = new HashSet<>();
+    protected Set<JavaClass> afferentClasses = ConcurrentHashMap.newKeySet();
     protected Set<JavaClass> efferentClasses = new HashSet<>();
     
     protected void collectInfo() {
@@ -439,6 +440,14 @@ public class JavaClass extends JavaElement {
             return;
         }
         
+        synchronized (this) {
+            if (!resolved) {
+                collectInfoOnce();
+            }
+        }
+    }
+    
+    private void collectInfoOnce() {
         boolean resolveOk = true;
         if (binding != null) {
             if (!binding.isTopLevel()) {
@@ -532,7 +541,7 @@ public class JavaClass extends JavaElement {
             efferentClasses = new HashSet<>();
         }
         if (afferentClasses == null) {
-            afferentClasses = new HashSet<>();
+            afferentClasses = ConcurrentHashMap.newKeySet();
         }
         for (JavaClass jclass : usedClasses) {
             if (!jclass.equals(this)) {
@@ -577,7 +586,7 @@ public class JavaClass extends JavaElement {
     }
     
     private void addAfferentClass(JavaClass jclass) {
-        if (jclass != null && !afferentClasses.contains(jclass)) {
+        if (jclass != null) {
             afferentClasses.add(jclass);
         }
     }
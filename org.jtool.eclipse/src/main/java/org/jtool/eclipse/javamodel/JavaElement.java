@@ -27,6 +27,8 @@ public abstract class JavaElement {
     
     protected CodeRange codeRange;
     
+    protected int symbolId = SymbolTable.NO_SYMBOL;
+    
     public static final String QualifiedNameSeparator = "#";
     
     public abstract String getQualifiedName();
@@ -47,6 +49,17 @@ public abstract class JavaElement {
         return jfile.getProject();
     }
     
+    public int getSymbolId() {
+        if (symbolId == SymbolTable.NO_SYMBOL && jfile != null) {
+            symbolId = jfile.getProject().getSymbolTable().getId(getQualifiedName());
+        }
+        return symbolId;
+    }
+    
+    protected void setSymbolId(JavaProject jproject) {
+        symbolId = jproject.getSymbolTable().getId(getQualifiedName());
+    }
+    
     protected JavaElement(ASTNode node, JavaFile jfile) {
         this.astNode = node;
         this.jfile = jfile;
@@ -126,12 +139,15 @@ public abstract class JavaElement {
                 if (tbinding.isFromSource()) {
                     return jproject.getClass(fqn);
                 } else {
-                    JavaClass jclass = jproject.getExternalClass(fqn);
-                    if (jclass == null) {
-                        jclass = new JavaClass(tbinding, false);
-                        jproject.addExternalClass(jclass);
+                    synchronized (jproject) {
+                        JavaClass jclass = jproject.getExternalClass(fqn);
+                        if (jclass == null) {
+                            jclass = new JavaClass(tbinding, false);
+                            jclass.setSymbolId(jproject);
+                            jproject.addExternalClass(jclass);
+                        }
+                        return jclass;
                     }
-                    return jclass;
                 }
             }
         }
@@ -147,11 +163,14 @@ public abstract class JavaElement {
                     return jclass.getMethod(JavaMethod.getSignature(mbinding));
                     
                 } else {
-                    JavaMethod jmethod = jclass.getMethod(JavaMethod.getSignature(mbinding));
-                    if (jmethod == null) {
-                        jmethod = new JavaMethod(mbinding, jclass, false);
+                    synchronized (jclass) {
+                        JavaMethod jmethod = jclass.getMethod(JavaMethod.getSignature(mbinding));
+                        if (jmethod == null) {
+                            jmethod = new JavaMethod(mbinding, jclass, false);
+                            jmethod.setSymbolId(jproject);
+                        }
+                        return jmethod;
                     }
-                    return jmethod;
                 }
             }
         }
@@ -167,19 +186,25 @@ public abstract class JavaElement {
                     return jclass.getField(vbinding.getName());
                     
                 } else {
+                    synchronized (jclass) {
+                        JavaField jfield = jclass.getField(vbinding.getName());
+                        if (jfield == null) {
+                            jfield = new JavaField(vbinding, jclass, false);
+                            jfield.setSymbolId(jproject);
+                        }
+                        return jfield;
+                    }
+                }
+            } else {
+                jclass = getArrayClass(jproject);
+                synchronized (jclass) {
                     JavaField jfield = jclass.getField(vbinding.getName());
                     if (jfield == null) {
                         jfield = new JavaField(vbinding, jclass, false);
+                        jfield.setSymbolId(jproject);
                     }
                     return jfield;
                 }
-            } else {
-                jclass = getArrayClass(jproject);
-                JavaField jfield = jclass.getField(vbinding.getName());
-                if (jfield == null) {
-                    jfield = new JavaField(vbinding, jclass, false);
-                }
-                return jfield;
             }
         }
         return null;
@@ -187,12 +212,15 @@ public abstract class JavaElement {
     
     private static JavaClass getArrayClass(JavaProject jproject) {
         String fqn = JavaClass.ArrayClassFqn;
-        JavaClass jclass = jproject.getExternalClass(fqn);
-        if (jclass == null) {
-            jclass = new JavaClass(fqn, false);
-            jproject.addExternalClass(jclass);
+        synchronized (jproject) {
+            JavaClass jclass = jproject.getExternalClass(fqn);
+            if (jclass == null) {
+                jclass = new JavaClass(fqn, false);
+                jclass.setSymbolId(jproject);
+                jproject.addExternalClass(jclass);
+            }
+            return jclass;
         }
-        return jclass;
     }
     
     public static ASTNode getAncestor(ASTNode node, int sort) {
@@ -16,6 +16,7 @@ import org.eclipse.jdt.core.dom.VariableDeclaration;
 import org.eclipse.jdt.core.dom.VariableDeclarationFragment;
 import java.util.Set;
 import java.util.HashSet;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 /**
@@ -124,17 +125,25 @@ public class JavaField extends JavaVariable {
         return buf.toString();
     }
     
-    protected boolean resolved = false;
+    protected volatile boolean resolved = false;
     protected Set<JavaMethod> calledMethods = new HashSet<>();
-    protected Set<JavaMethod> accessingMethods = new HashSet<>();
+    protected Set<JavaMethod> accessingMethods = ConcurrentHashMap.newKeySet();
     protected Set<JavaField> accessedFields = new HashSet<>();
-    protected Set<JavaField> accessingFields = new HashSet<>();
+    protected Set<JavaField> accessingFields = ConcurrentHashMap.newKeySet();
     
     protected void collectInfo() {
         if (!inProject || resolved) {
             return;
         }
         
+        synchronized (this) {
+            if (!resolved) {
+                collectInfoOnce();
+            }
+        }
+    }
+    
+    private void collectInfoOnce() {
         boolean resolveOk = true;
         if (binding != null) {
             resolveOk = resolveOk && findCalledMethods();
@@ -25,6 +25,7 @@ import java.util.List;
 import java.util.ArrayList;
 import java.util.Set;
 import java.util.HashSet;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.Map;
 import java.util.HashMap;
 import java.util.stream.Collectors;
@@ -454,12 +455,12 @@ public class JavaMethod extends JavaElement {
         return buf.toString();
     }
     
-    protected boolean resolved = false;
+    protected volatile boolean resolved = false;
     protected Set<JavaClass> exceptions = new HashSet<>();
     protected Set<JavaMethod> calledMethods = new HashSet<>();
-    protected Set<JavaMethod> callingMethods = new HashSet<>();
+    protected Set<JavaMethod> callingMethods = ConcurrentHashMap.newKeySet();
     protected Set<JavaField> accessedFields = new HashSet<>();
-    protected Set<JavaField> accessingFields = new HashSet<>();
+    protected Set<JavaField> accessingFields = ConcurrentHashMap.newKeySet();
     protected Set<JavaMethod> overriddenMethods = null;
     protected Set<JavaMethod> overridingMethods = null;
     protected StatementCollector statementCollector = null;
@@ -469,6 +470,14 @@ public class JavaMethod extends JavaElement {
             return;
         }
         
+        synchronized (this) {
+            if (!resolved) {
+                collectInfoOnce();
+            }
+        }
+    }
+    
+    private void collectInfoOnce() {
         boolean resolveOk = true;
         if (!isInitializer()) {
             if (binding != null) {
@@ -621,6 +630,9 @@ public class JavaMethod extends JavaElement {
     
     public Set<JavaMethod> getOverriddenMethods() {
         collectInfo();
+        if (inProject) {
+            return getJavaProject().getClassHierarchy().getOverriddenMethods(this);
+        }
         if (overriddenMethods == null) {
             findOverriddenMethods();
         }
@@ -632,6 +644,9 @@ public class JavaMethod extends JavaElement {
     
     public Set<JavaMethod> getOverridingMethods() {
         collectInfo();
+        if (inProject) {
+            return getJavaProject().getClassHierarchy().getOverridingMethods(this);
+        }
         if (overridingMethods == null) {
             findOverriddenMethods();
         }
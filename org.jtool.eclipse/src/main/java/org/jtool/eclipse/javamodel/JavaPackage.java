@@ -10,6 +10,7 @@ import org.eclipse.jdt.core.dom.PackageDeclaration;
 import org.eclipse.jdt.core.dom.IPackageBinding;
 import java.util.Set;
 import java.util.HashSet;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * An object representing a package.
@@ -20,7 +21,7 @@ public class JavaPackage extends JavaElement {
     
     protected String name;
     
-    protected Set<JavaClass> classes = new HashSet<>();
+    protected Set<JavaClass> classes = ConcurrentHashMap.newKeySet();
     
     private static final String DEFAUL_PACKAGE_NAME = "(default)";
     
@@ -44,14 +45,17 @@ public class JavaPackage extends JavaElement {
             name = DEFAUL_PACKAGE_NAME;
         }
         
-        JavaPackage jpackage = jfile.getProject().getPackage(name);
-        if (jpackage != null) {
+        JavaProject jproject = jfile.getProject();
+        synchronized (jproject) {
+            JavaPackage jpackage = jproject.getPackage(name);
+            if (jpackage != null) {
+                return jpackage;
+            }
+            
+            jpackage = new JavaPackage(node, jfile, name);
+            jproject.addPackage(jpackage);
             return jpackage;
         }
-        
-        jpackage = new JavaPackage(node, jfile, name);
-        jfile.getProject().addPackage(jpackage);
-        return jpackage;
     }
     
     @Override
@@ -17,7 +17,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.ArrayList;
 import java.util.Map;
-import java.util.HashMap;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
@@ -33,11 +33,11 @@ public class JavaProject {
     protected String path;
     protected String dir;
     
-    protected Map<String, JavaFile> fileStore = new HashMap<>();
-    protected Map<String, JavaPackage> packageStore = new HashMap<>();
-    protected Map<String, JavaClass> classStore = new HashMap<>();
+    protected Map<String, JavaFile> fileStore = new ConcurrentHashMap<>();
+    protected Map<String, JavaPackage> packageStore = new ConcurrentHashMap<>();
+    protected Map<String, JavaClass> classStore = new ConcurrentHashMap<>();
     
-    private Map<String, JavaClass> externalClasseStore = new HashMap<>();
+    private Map<String, JavaClass> externalClasseStore = new ConcurrentHashMap<>();
     
     private String[] classPath;
     private String[] sourcePath;
@@ -48,6 +48,11 @@ public class JavaProject {
     
     private ModelBuilder modelBuilder;
     
+    private volatile ClassHierarchy classHierarchy = null;
+    private Object classHierarchyLock = new Object();
+    
+    private SymbolTable symbolTable = new SymbolTable();
+    
     public JavaProject(String name, String path, String dir) {
         this.name = name;
         this.path = path;
@@ -76,6 +81,8 @@ public class JavaProject {
     public void clear() {
         cfgStore.destroy();
         pdgStore.destroy();
+        classHierarchy = null;
+        symbolTable.clear();
         
         this.name = null;
         this.path = null;
@@ -176,10 +183,20 @@ public class JavaProject {
     
     protected void addClass(JavaClass jclass) {
         classStore.put(jclass.getQualifiedName(), jclass);
+        classHierarchy = null;
     }
     
     public void removeClass(JavaClass jclass) {
         classStore.remove(jclass.getQualifiedName());
+        classHierarchy = null;
+        if (jclass.getFile() != null && jclass.getPackage() != null) {
+            jclass.getPackage().removeClass(jclass);
+        }
+        if (jclass.efferentClasses != null) {
+            for (JavaClass jc : jclass.efferentClasses) {
+                jc.afferentClasses.remove(jclass);
+            }
+        }
         jclass.dispose();
     }
     
@@ -198,6 +215,24 @@ public class JavaProject {
         return null;
     }
     
+    public ClassHierarchy getClassHierarchy() {
+        ClassHierarchy hierarchy = classHierarchy;
+        if (hierarchy == null) {
+            synchronized (classHierarchyLock) {
+                hierarchy = classHierarchy;
+                if (hierarchy == null) {
+                    hierarchy = new ClassHierarchy(this);
+                    classHierarchy = hierarchy;
+                }
+            }
+        }
+        return hierarchy;
+    }
+    
+    public SymbolTable getSymbolTable() {
+        return symbolTable;
+    }
+    
     public BytecodeClassStore getBytecodeClassStore() {
         return modelBuilder.getBytecodeClassStore();
     }
@@ -226,12 +261,14 @@ public class JavaProject {
     private void collectDanglingClasses(JavaClass jclass, Set<JavaClass> classes) {
         if (jclass != null && getClass(jclass.getQualifiedName()) != null) {
             for (JavaClass jc : jclass.getDescendants()) {
-                classes.add(jc);
-                collectDanglingClasses(jc, classes);
+                if (classes.add(jc)) {
+                    collectDanglingClasses(jc, classes);
+                }
             }
             for (JavaClass jc: jclass.getAfferentClassesInProject()) {
-                classes.add(jc);
-                collectDanglingClasses(jc, classes);
+                if (classes.add(jc)) {
+                    collectDanglingClasses(jc, classes);
+                }
             }
         }
     }
@@ -0,0 +1,77 @@
+/*
+ *  Copyright 2020
+ *  Software Science and Technology Lab.
+ *  Department of Computer Science, Ritsumeikan University
+ */
+
+package org.jtool.eclipse.javamodel;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * An object that maps qualified names and signatures in a project to compact integer identifiers.
+ * Every name is stored only once, so elements holding the same name share its canonical string.
+ * Identifiers are dense and valid only within the project that owns this table.
+ * 
+ * @author Katsuhisa Maruyama
+ */
+public class SymbolTable {
+    
+    public static final int NO_SYMBOL = -1;
+    
+    private Map<String, Integer> ids = new ConcurrentHashMap<>();
+    private volatile String[] symbols = new String[1024];
+    private int size = 0;
+    
+    public SymbolTable() {
+    }
+    
+    public int getId(String symbol) {
+        Integer id = ids.get(symbol);
+        if (id != null) {
+            return id;
+        }
+        
+        synchronized (this) {
+            id = ids.get(symbol);
+            if (id == null) {
+                if (size == symbols.length) {
+                    symbols = Arrays.copyOf(symbols, size * 2);
+                }
+                id = size;
+                symbols[size] = symbol;
+                size++;
+                ids.put(symbol, id);
+            }
+            return id;
+        }
+    }
+    
+    public int findId(String symbol) {
+        Integer id = ids.get(symbol);
+        return id != null ? id : NO_SYMBOL;
+    }
+    
+    public String getSymbol(int id) {
+        return symbols[id];
+    }
+    
+    public String intern(String symbol) {
+        if (symbol == null) {
+            return null;
+        }
+        return getSymbol(getId(symbol));
+    }
+    
+    public int size() {
+        return ids.size();
+    }
+    
+    public synchronized void clear() {
+        ids.clear();
+        symbols = new String[1024];
+        size = 0;
+    }
+}
@@ -26,8 +26,8 @@ class BytecodeClassInfo {
     private Set<BytecodeClassInfo> parents = new HashSet<>();
     private Set<BytecodeClassInfo> children = new HashSet<>();
     
-    private Set<CtClass> ancestors = new HashSet<>();
-    private Set<CtClass> descendants = new HashSet<>();
+    private Set<CtClass> ancestors = null;
+    private Set<CtClass> descendants = null;
     
     BytecodeClassInfo(CtClass ctClass) {
         this.ctClass = ctClass;
@@ -64,24 +64,41 @@ class BytecodeClassInfo {
     }
     
     Set<CtClass> getAncestors() {
+        if (ancestors == null) {
+            ancestors = new HashSet<>();
+            collectAncestors(this);
+        }
         return ancestors;
     }
     
-    void setAncestors(BytecodeClassInfo classInfo) {
+    private void collectAncestors(BytecodeClassInfo classInfo) {
         for (BytecodeClassInfo parent : classInfo.getParents()) {
             ancestors.add(parent.getCtClass());
-            setAncestors(parent);
+            collectAncestors(parent);
         }
     }
     
+    boolean hasDescendants() {
+        return descendants != null;
+    }
+    
     Set<CtClass> getDescendants() {
-        return descendants;
+        return descendants != null ? descendants : new HashSet<>();
+    }
+    
+    void setDescendants(Set<CtClass> classes) {
+        descendants = classes;
     }
     
     void setDescendants(BytecodeClassInfo classInfo) {
+        descendants = new HashSet<>();
+        collectDescendants(classInfo);
+    }
+    
+    private void collectDescendants(BytecodeClassInfo classInfo) {
         for (BytecodeClassInfo child : classInfo.getChildren()) {
             descendants.add(child.getCtClass());
-            setDescendants(child);
+            collectDescendants(child);
         }
     }
 }
@@ -31,6 +31,8 @@ import java.lang.module.ModuleReference;
 /**
  * An object that stores classes restored from its byte-code.
  * This class uses Javassit modules.
+ * In the lazy mode, only the names of classes are indexed in advance, and each class is restored on demand.
+ * Its descendants are found with an index of subtypes built from the headers of class files.
  * 
  * All methods of this class are not intended to be directly called by clients.
  * 
@@ -42,6 +44,10 @@ public class BytecodeClassStore {
     
     private Map<String, Map<String, BytecodeClassInfo>> bytecodeClassInfo = new HashMap<>();
     
+    private Map<String, List<String>> classPathsMap = new HashMap<>();
+    private Map<String, Map<String, String>> classNameIndex = new HashMap<>();
+    private Map<String, BytecodeSupertypeIndex> supertypeIndex = new HashMap<>();
+    
     public BytecodeClassStore() {
     }
     
@@ -59,6 +65,10 @@ public class BytecodeClassStore {
                 classpool.insertClassPath(path);
             }
             
+            List<String> allClassPaths = new ArrayList<>(commonLibraryClassPaths);
+            allClassPaths.addAll(classPaths);
+            classPathsMap.put(jproject.getPath(), allClassPaths);
+            
             Set<String> classNames = collectBytecodeClassNames();
             classNames.addAll(commonLibraryClassPaths
                     .stream()
@@ -74,6 +84,24 @@ public class BytecodeClassStore {
         }
     }
     
+    public int createBytecodeClassIndex(JavaProject jproject) {
+        Set<String> names = createBytecodeClassStore(jproject);
+        Map<String, String> index = new HashMap<>();
+        for (String name : names) {
+            index.putIfAbsent(getIndexKey(name), name);
+        }
+        classNameIndex.put(jproject.getPath(), index);
+        return names.size();
+    }
+    
+    private static String getIndexKey(String className) {
+        return className.replace('$', '.');
+    }
+    
+    private boolean isIndexedLazily(JavaProject jproject) {
+        return classNameIndex.containsKey(jproject.getPath());
+    }
+    
     private List<String> getClassPath(JavaProject jproject) {
         String[] projectClassPath = jproject.getClassPath();
         List<String> classpaths = new ArrayList<>();
@@ -184,27 +212,56 @@ public class BytecodeClassStore {
     }
     
     public Set<CtClass> getAncestors(JavaProject jproject, String fqn) {
-        Map<String, BytecodeClassInfo> classInfoMap = bytecodeClassInfo.get(jproject.getPath());
-        if (classInfoMap != null) {
-            BytecodeClassInfo classInfo = classInfoMap.get(fqn);
-            if (classInfo != null) {
-                return classInfo.getAncestors();
-            }
+        BytecodeClassInfo classInfo = getBytecodeClassInfo(jproject, fqn);
+        if (classInfo != null) {
+            return classInfo.getAncestors();
         }
         return new HashSet<CtClass>();
     }
     
     public Set<CtClass> getDescendants(JavaProject jproject, String fqn) {
-        Map<String, BytecodeClassInfo> classInfoMap = bytecodeClassInfo.get(jproject.getPath());
-        if (classInfoMap != null) {
-            BytecodeClassInfo classInfo = classInfoMap.get(fqn);
-            if (classInfo != null) {
-                return classInfo.getDescendants();
+        BytecodeClassInfo classInfo = getBytecodeClassInfo(jproject, fqn);
+        if (classInfo != null) {
+            if (!classInfo.hasDescendants() && isIndexedLazily(jproject)) {
+                classInfo.setDescendants(collectDescendants(jproject, classInfo));
             }
+            return classInfo.getDescendants();
         }
         return new HashSet<CtClass>();
     }
     
+    private BytecodeClassInfo getBytecodeClassInfo(JavaProject jproject, String fqn) {
+        Map<String, BytecodeClassInfo> classInfoMap = bytecodeClassInfo.get(jproject.getPath());
+        if (classInfoMap == null) {
+            return null;
+        }
+        
+        BytecodeClassInfo classInfo = classInfoMap.get(fqn);
+        if (classInfo == null && isIndexedLazily(jproject)) {
+            registerBytecodeClass(jproject, fqn);
+            classInfo = classInfoMap.get(fqn);
+        }
+        return classInfo;
+    }
+    
+    private Set<CtClass> collectDescendants(JavaProject jproject, BytecodeClassInfo classInfo) {
+        BytecodeSupertypeIndex index = supertypeIndex.get(jproject.getPath());
+        if (index == null) {
+            index = new BytecodeSupertypeIndex(classPathsMap.get(jproject.getPath()));
+            supertypeIndex.put(jproject.getPath(), index);
+        }
+        
+        Set<CtClass> classes = new HashSet<>();
+        ClassPool classPool = classPools.get(jproject.getPath());
+        for (String name : index.getAllSubtypes(classInfo.getName())) {
+            CtClass ctClass = classPool.getOrNull(name);
+            if (ctClass != null && isRegistrable(ctClass)) {
+                classes.add(ctClass);
+            }
+        }
+        return classes;
+    }
+    
     public Set<JavaClass> getJavaDescendants(JavaProject jproject, String fqn) {
         Map<String, BytecodeClassInfo> classInfoMap = bytecodeClassInfo.get(jproject.getPath());
         if (classInfoMap != null) {
@@ -281,24 +338,35 @@ public class BytecodeClassStore {
             }
             ClassPool classPool = classPools.get(jproject.getPath());
             if (classPool != null) {
-                CtClass ctClass = classPool.get(className);
-                
-                if (!ctClass.getName().startsWith("META-INF.")) { // javassist does not support multi-release JARs
-                    
-                    if (ctClass.isInterface() || ctClass.getModifiers() != Modifier.PRIVATE) {
-                        BytecodeClassInfo classInfo = new BytecodeClassInfo(ctClass);
-                        classInfoMap.put(getCanonicalClassName(ctClass), classInfo);
+                Map<String, String> index = classNameIndex.get(jproject.getPath());
+                if (index != null) {
+                    className = index.get(getIndexKey(className));
+                    if (className == null) {
+                        return;
                     }
                 }
+                
+                CtClass ctClass = classPool.get(className);
+                if (isRegistrable(ctClass)) {
+                    BytecodeClassInfo classInfo = new BytecodeClassInfo(ctClass);
+                    classInfoMap.put(getCanonicalClassName(ctClass), classInfo);
+                }
             }
         } catch (NotFoundException e) { /* empty */ }
     }
     
+    private boolean isRegistrable(CtClass ctClass) {
+        if (ctClass.getName().startsWith("META-INF.")) { // javassist does not support multi-release JARs
+            return false;
+        }
+        return ctClass.isInterface() || ctClass.getModifiers() != Modifier.PRIVATE;
+    }
+    
     public void collectBytecodeClassInfo(JavaProject jproject) {
         Map<String, BytecodeClassInfo> classInfoMap = bytecodeClassInfo.get(jproject.getPath());
         for (BytecodeClassInfo classInfo : classInfoMap.values()) {
             for (BytecodeClassInfo parent : classInfo.getParents()) {
-                BytecodeClassInfo parentInfo = classInfoMap.get(parent.getName());
+                BytecodeClassInfo parentInfo = classInfoMap.get(getCanonicalClassName(parent.getCtClass()));
                 if (parentInfo != null) {
                     parentInfo.addChild(classInfo);
                 }
@@ -306,7 +374,6 @@ public class BytecodeClassStore {
         }
         
         for (BytecodeClassInfo classInfo : classInfoMap.values()) {
-            classInfo.setAncestors(classInfo);
             classInfo.setDescendants(classInfo);
         }
     }
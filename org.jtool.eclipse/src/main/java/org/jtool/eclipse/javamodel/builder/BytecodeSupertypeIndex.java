@@ -0,0 +1,212 @@
+/*
+ *  Copyright 2020
+ *  Software Science and Technology Lab.
+ *  Department of Computer Science, Ritsumeikan University
+ */
+
+package org.jtool.eclipse.javamodel.builder;
+
+import java.io.File;
+import java.io.InputStream;
+import java.io.FileInputStream;
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.util.Map;
+import java.util.HashMap;
+import java.util.Set;
+import java.util.HashSet;
+import java.util.List;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.ArrayDeque;
+import java.util.Enumeration;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipEntry;
+import java.lang.module.ModuleFinder;
+import java.lang.module.ModuleReader;
+import java.lang.module.ModuleReference;
+
+/**
+ * An index from each class to its direct subclasses and sub-interfaces.
+ * The index is built from the headers of class files without Javassist,
+ * reading only the constant pool, the super class, and the interfaces of each class file.
+ * Class names are binary names delimited by dots.
+ * 
+ * All methods of this class are not intended to be directly called by clients.
+ * 
+ * @author Katsuhisa Maruyama
+ */
+class BytecodeSupertypeIndex {
+    
+    private static final int CLASS_FILE_MAGIC = 0xcafebabe;
+    private static final String[] emptyNames = new String[0];
+    
+    private Map<String, String[]> subtypes = new HashMap<>();
+    
+    BytecodeSupertypeIndex(List<String> classPaths) {
+        Map<String, List<String>> index = new HashMap<>();
+        indexSystemModules(index);
+        for (String path : classPaths) {
+            File file = new File(path);
+            if (file.isDirectory()) {
+                indexClassFiles(index, file);
+            } else if (file.isFile() && (path.endsWith(".jar") || path.endsWith(".zip"))) {
+                indexClassFilesInJar(index, file);
+            }
+        }
+        
+        for (Map.Entry<String, List<String>> entry : index.entrySet()) {
+            List<String> names = entry.getValue();
+            subtypes.put(entry.getKey(), names.toArray(new String[names.size()]));
+        }
+    }
+    
+    String[] getSubtypes(String className) {
+        return subtypes.getOrDefault(className, emptyNames);
+    }
+    
+    Set<String> getAllSubtypes(String className) {
+        Set<String> names = new HashSet<>();
+        Deque<String> stack = new ArrayDeque<>();
+        stack.push(className);
+        while (!stack.isEmpty()) {
+            for (String name : getSubtypes(stack.pop())) {
+                if (names.add(name)) {
+                    stack.push(name);
+                }
+            }
+        }
+        return names;
+    }
+    
+    int size() {
+        return subtypes.size();
+    }
+    
+    private void indexSystemModules(Map<String, List<String>> index) {
+        ModuleFinder finder = ModuleFinder.ofSystem();
+        for (Module module : ModuleLayer.boot().modules()) {
+            Optional<ModuleReference> modref = finder.find(module.getName());
+            if (modref.isPresent()) {
+                try (ModuleReader reader = modref.get().open()) {
+                    List<String> names = reader.list()
+                            .filter(name -> name.endsWith(".class"))
+                            .collect(Collectors.toList());
+                    for (String name : names) {
+                        Optional<InputStream> in = reader.open(name);
+                        if (in.isPresent()) {
+                            indexClassFile(index, in.get());
+                        }
+                    }
+                } catch (IOException e) { /* empty */ }
+            }
+        }
+    }
+    
+    private void indexClassFiles(Map<String, List<String>> index, File dir) {
+        Deque<File> stack = new ArrayDeque<>();
+        stack.push(dir);
+        while (!stack.isEmpty()) {
+            File file = stack.pop();
+            if (file.isDirectory()) {
+                File[] files = file.listFiles();
+                if (files != null) {
+                    for (File f : files) {
+                        stack.push(f);
+                    }
+                }
+            } else if (file.getName().endsWith(".class")) {
+                try {
+                    indexClassFile(index, new FileInputStream(file));
+                } catch (IOException e) { /* empty */ }
+            }
+        }
+    }
+    
+    private void indexClassFilesInJar(Map<String, List<String>> index, File file) {
+        try (ZipFile zipFile = new ZipFile(file)) {
+            for (Enumeration<? extends ZipEntry> entries = zipFile.entries(); entries.hasMoreElements(); ) {
+                ZipEntry entry = entries.nextElement();
+                if (entry.getName().endsWith(".class") && !entry.getName().startsWith("META-INF/")) {
+                    indexClassFile(index, zipFile.getInputStream(entry));
+                }
+            }
+        } catch (IOException e) { /* empty */ }
+    }
+    
+    private void indexClassFile(Map<String, List<String>> index, InputStream stream) {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(stream))) {
+            String[] names = readSupertypes(in);
+            if (names != null) {
+                for (int i = 1; i < names.length; i++) {
+                    if (names[i] != null) {
+                        index.computeIfAbsent(names[i], k -> new ArrayList<>()).add(names[0]);
+                    }
+                }
+            }
+        } catch (IOException e) { /* empty */ }
+    }
+    
+    /*
+     * Returns the name of the class, its super class, and its interfaces in this order.
+     */
+    static String[] readSupertypes(DataInputStream in) throws IOException {
+        if (in.readInt() != CLASS_FILE_MAGIC) {
+            return null;
+        }
+        in.readUnsignedShort();
+        in.readUnsignedShort();
+        
+        int count = in.readUnsignedShort();
+        String[] utf8s = new String[count];
+        int[] classes = new int[count];
+        for (int i = 1; i < count; i++) {
+            int tag = in.readUnsignedByte();
+            switch (tag) {
+                case 1:
+                    utf8s[i] = in.readUTF();
+                    break;
+                case 7:
+                    classes[i] = in.readUnsignedShort();
+                    break;
+                case 8: case 16: case 19: case 20:
+                    in.skipBytes(2);
+                    break;
+                case 15:
+                    in.skipBytes(3);
+                    break;
+                case 3: case 4: case 9: case 10: case 11: case 12: case 17: case 18:
+                    in.skipBytes(4);
+                    break;
+                case 5: case 6:
+                    in.skipBytes(8);
+                    i++;
+                    break;
+                default:
+                    return null;
+            }
+        }
+        
+        in.readUnsignedShort();
+        int thisClass = in.readUnsignedShort();
+        int superClass = in.readUnsignedShort();
+        int interfaceCount = in.readUnsignedShort();
+        String[] names = new String[interfaceCount + 2];
+        names[0] = getClassName(utf8s, classes, thisClass);
+        names[1] = getClassName(utf8s, classes, superClass);
+        for (int i = 0; i < interfaceCount; i++) {
+            names[i + 2] = getClassName(utf8s, classes, in.readUnsignedShort());
+        }
+        return names[0] != null ? names : null;
+    }
+    
+    private static String getClassName(String[] utf8s, int[] classes, int index) {
+        if (index <= 0 || index >= classes.length || utf8s[classes[index]] == null) {
+            return null;
+        }
+        return utf8s[classes[index]].replace('/', '.');
+    }
+}
@@ -18,6 +18,7 @@ import org.jtool.eclipse.cfg.builder.CallGraphBuilder;
 import org.jtool.eclipse.pdg.ClDG;
 import org.jtool.eclipse.pdg.PDG;
 import org.jtool.eclipse.pdg.SDG;
+import org.jtool.eclipse.graph.DepthFirstWalk;
 import org.jtool.eclipse.util.Logger;
 import org.eclipse.jdt.core.JavaCore;
 import org.eclipse.jdt.core.compiler.IProblem;
@@ -35,14 +36,19 @@ import java.util.HashSet;
  */
 public abstract class ModelBuilder {
     
+    public static final String SharedBytecodeCacheDirProperty = "jxplatform.bytecode.cache.dir";
+    
     protected BytecodeClassStore bytecodeClassStore;
     
     protected boolean analyzingBytecode;
     protected boolean useBytecodeCache;
+    protected String sharedBytecodeCacheDir;
+    protected boolean lazyBytecodeIndexing = false;
     
     protected ModelBuilder(boolean analyzingBytecode, boolean useBytecodeCache) {
         this.analyzingBytecode = analyzingBytecode;
         this.useBytecodeCache = useBytecodeCache;
+        this.sharedBytecodeCacheDir = System.getProperty(SharedBytecodeCacheDirProperty);
         bytecodeClassStore = new BytecodeClassStore();
     }
     
@@ -72,6 +78,22 @@ public abstract class ModelBuilder {
         return useBytecodeCache;
     }
     
+    public void setLazyBytecodeIndexing(boolean bool) {
+        lazyBytecodeIndexing = bool;
+    }
+    
+    public boolean isLazyBytecodeIndexing() {
+        return lazyBytecodeIndexing;
+    }
+    
+    public void setSharedBytecodeCacheDir(String dir) {
+        sharedBytecodeCacheDir = dir;
+    }
+    
+    public String getSharedBytecodeCacheDir() {
+        return sharedBytecodeCacheDir;
+    }
+    
     public void unbuild() {
         ProjectStore.getInstance().clear();
     }
@@ -174,38 +196,16 @@ public abstract class ModelBuilder {
     
     public Set<JavaMethod> getAllMethodsForward(JavaMethod jmethod) {
         Set<JavaMethod> methods = new HashSet<>();
-        collectAllMethodsForward(jmethod, methods);
+        DepthFirstWalk.walk(jmethod, methods, jm -> jm.getCalledMethods().iterator());
         return methods;
     }
     
-    private void collectAllMethodsForward(JavaMethod jmethod, Set<JavaMethod> methods) {
-        if (methods.contains(jmethod)) {
-            return;
-        }
-        methods.add(jmethod);
-        
-        for (JavaMethod jm : jmethod.getCalledMethods()) {
-            collectAllMethodsForward(jm, methods);
-        }
-    }
-    
     public Set<JavaMethod> getAllMethodsBackward(JavaMethod jmethod) {
         Set<JavaMethod> methods = new HashSet<>();
-        collectAllMethodsBackward(jmethod, methods);
+        DepthFirstWalk.walk(jmethod, methods, jm -> jm.getCallingMethods().iterator());
         return methods;
     }
     
-    private void collectAllMethodsBackward(JavaMethod jmethod, Set<JavaMethod> methods) {
-        if (methods.contains(jmethod)) {
-            return;
-        }
-        methods.add(jmethod);
-        
-        for (JavaMethod jm : jmethod.getCallingMethods()) {
-            collectAllMethodsBackward(jm, methods);
-        }
-    }
-    
     public CFG findCFG(JavaProject jproject, String fqn) {
         return jproject.getCFGStore().findCFG(fqn);
     }
@@ -18,23 +18,23 @@ public class CD extends Dependence {
     }
     
     public void setTrue() {
-        kind = Kind.trueControlDependence;
+        setKind(Kind.trueControlDependence);
     }
     
     public void setFalse() {
-        kind = Kind.falseControlDependence;
+        setKind(Kind.falseControlDependence);
     }
     
     public void setFallThrough() {
-        kind = Kind.fallThroughControlDependence;
+        setKind(Kind.fallThroughControlDependence);
     }
     
     public void setDeclaration() {
-        kind = Kind.declarationDependence;
+        setKind(Kind.declarationDependence);
     }
     
     public void setExceptionCatch() {
-        kind = Kind.exceptionCatchDependence;
+        setKind(Kind.exceptionCatchDependence);
     }
     
     @Override
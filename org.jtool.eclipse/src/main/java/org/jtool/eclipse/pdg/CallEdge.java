@@ -18,7 +18,7 @@ public class CallEdge extends Dependence {
     }
     
     public void setCall() {
-        kind = Kind.call;
+        setKind(Kind.call);
     }
     
     @Override
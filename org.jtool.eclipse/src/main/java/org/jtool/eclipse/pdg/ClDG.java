@@ -9,6 +9,7 @@ package org.jtool.eclipse.pdg;
 import org.jtool.eclipse.cfg.CCFG;
 import org.jtool.eclipse.cfg.CFGEntry;
 import org.jtool.eclipse.cfg.CommonCFG;
+import org.jtool.eclipse.graph.CompactGraph;
 import java.util.Map;
 import java.util.HashMap;
 import java.util.Set;
@@ -39,6 +40,7 @@ public class ClDG extends CommonPDG {
     public void add(PDG pdg) {
         if (!pdgs.values().contains(pdg)) {
             pdgs.put(pdg.getQualifiedName(), pdg);
+            changed();
         }
     }
     
@@ -71,6 +73,28 @@ public class ClDG extends CommonPDG {
                 .collect(Collectors.toSet());
     }
     
+    @Override
+    public void freeze() {
+        super.freeze();
+        pdgs.values().forEach(pdg -> pdg.freeze());
+    }
+    
+    @Override
+    public void thaw() {
+        super.thaw();
+        pdgs.values().forEach(pdg -> pdg.thaw());
+    }
+    
+    @Override
+    public boolean isFrozen() {
+        return pdgs.values().stream().allMatch(pdg -> pdg.isFrozen());
+    }
+    
+    @Override
+    public CompactGraph<PDGNode, Dependence> getCompactGraph() {
+        return getCompactGraph(getVersion() + pdgs.values().stream().mapToLong(pdg -> pdg.getVersion()).sum());
+    }
+    
     @Override
     public String toString() {
         StringBuilder buf = new StringBuilder();
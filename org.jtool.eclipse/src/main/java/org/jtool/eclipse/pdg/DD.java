@@ -57,39 +57,39 @@ public class DD extends Dependence {
     }
     
     public void setLIDD() {
-        kind = Kind.loopIndependentDefUseDependence;
+        setKind(Kind.loopIndependentDefUseDependence);
     }
     
     public void setLCDD() {
-        kind = Kind.loopCarriedDefUseDependence;
+        setKind(Kind.loopCarriedDefUseDependence);
     }
     
     public void setDefOrder() {
-        kind = Kind.defOrderDependence;
+        setKind(Kind.defOrderDependence);
     }
     
     public void setOutput() {
-        kind = Kind.outputDependence;
+        setKind(Kind.outputDependence);
     }
     
     public void setAnti() {
-        kind = Kind.antiDependence;
+        setKind(Kind.antiDependence);
     }
     
     public void setParameterIn() {
-        kind = Kind.parameterIn;
+        setKind(Kind.parameterIn);
     }
     
     public void setParameterOut() {
-        kind = Kind.parameterOut;
+        setKind(Kind.parameterOut);
     }
     
     public void setFieldAccess() {
-        kind = Kind.fieldAccess;
+        setKind(Kind.fieldAccess);
     }
     
     public void setSummary() {
-        kind = Kind.summary;
+        setKind(Kind.summary);
     }
     
     @Override
@@ -45,7 +45,27 @@ public class Dependence extends GraphEdge {
         classMember,                     // Connection between a class and its members
         call,                            // Connection between a caller and its callee
         
-        undefined,
+        undefined;
+        
+        public boolean isCD() {
+            return this == trueControlDependence ||
+                   this == falseControlDependence ||
+                   this == fallThroughControlDependence ||
+                   this == declarationDependence ||
+                   this == exceptionCatchDependence;
+        }
+        
+        public boolean isDD() {
+            return this == loopIndependentDefUseDependence ||
+                   this == loopCarriedDefUseDependence ||
+                   this == defOrderDependence ||
+                   this == outputDependence ||
+                   this == antiDependence ||
+                   this == parameterIn ||
+                   this == parameterOut ||
+                   this == fieldAccess ||
+                   this == summary;
+        }
     }
     
     protected Dependence(PDGNode src, PDGNode dst) {
@@ -54,26 +74,20 @@ public class Dependence extends GraphEdge {
     
     public void setKind(Kind kind) {
         this.kind = kind;
+        getSrcNode().adjacencyChanged();
+        getDstNode().adjacencyChanged();
+    }
+    
+    public Kind getKind() {
+        return kind;
     }
     
     public boolean isCD() {
-        return kind == Kind.trueControlDependence ||
-               kind == Kind.falseControlDependence ||
-               kind == Kind.fallThroughControlDependence ||
-               kind == Kind.declarationDependence ||
-               kind == Kind.exceptionCatchDependence;
+        return kind.isCD();
     }
     
     public boolean isDD() {
-        return kind == Kind.loopIndependentDefUseDependence ||
-               kind == Kind.loopCarriedDefUseDependence ||
-               kind == Kind.defOrderDependence ||
-               kind == Kind.outputDependence ||
-               kind == Kind.antiDependence ||
-               kind == Kind.parameterIn ||
-               kind == Kind.parameterOut ||
-               kind == Kind.fieldAccess ||
-               kind == Kind.summary;
+        return kind.isDD();
     }
     
     public boolean isTrue() {
@@ -8,13 +8,14 @@ package org.jtool.eclipse.pdg;
 
 import org.jtool.eclipse.cfg.CFGNode;
 import org.jtool.eclipse.graph.GraphNode;
+import org.jtool.eclipse.graph.GraphEdge;
 import java.util.Set;
+import java.util.HashSet;
 import java.util.List;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
-import java.util.stream.Collectors;
 
 /**
  * A node of PDGs, ClDGs, and SDG.
@@ -24,6 +25,7 @@ import java.util.stream.Collectors;
 public class PDGNode extends GraphNode {
     
     protected CFGNode cfgnode;
+    private volatile Adjacency adjacency = null;
     
     protected PDGNode(CFGNode node) {
         super(node.getId());
@@ -52,75 +54,184 @@ public class PDGNode extends GraphNode {
     }
     
     public Set<Dependence> getIncomingDependeceEdges() {
-        return getIncomingEdges()
-                .stream()
-                .map(edge -> (Dependence)edge)
-                .collect(Collectors.toSet());
+        return toSet(getAdjacency().incoming);
     }
     
     public Set<Dependence> getOutgoingDependeceEdges() {
-        return getOutgoingEdges()
-                .stream()
-                .map(edge -> (Dependence)edge)
-                .collect(Collectors.toSet());
+        return toSet(getAdjacency().outgoing);
     }
     
     public Set<CD> getIncomingCDEdges() {
-        return getIncomingEdges()
-                .stream()
-                .map(edge -> (Dependence)edge)
-                .filter(edge -> edge.isCD())
-                .map(edge -> (CD)edge)
-                .collect(Collectors.toSet());
+        return toSet(getAdjacency().incomingCDs);
     }
     
     public Set<CD> getOutgoingCDEdges() {
-        return getOutgoingEdges()
-                .stream()
-                .map(edge -> (Dependence)edge)
-                .filter(edge -> edge.isCD())
-                .map(edge -> (CD)edge)
-                .collect(Collectors.toSet());
+        return toSet(getAdjacency().outgoingCDs);
     }
     
     public Set<DD> getIncomingDDEdges() {
-        return getIncomingEdges()
-                .stream()
-                .map(edge -> (Dependence)edge)
-                .filter(edge -> edge.isDD())
-                .map(edge -> (DD)edge)
-                .collect(Collectors.toSet());
+        return toSet(getAdjacency().incomingDDs);
     }
     
     public Set<DD> getOutgoingDDEdges() {
-        return getOutgoingEdges()
-                .stream()
-                .map(edge -> (Dependence)edge)
-                .filter(edge -> edge.isDD())
-                .map(edge -> (DD)edge)
-                .collect(Collectors.toSet());
+        return toSet(getAdjacency().outgoingDDs);
+    }
+    
+    /*
+     * The following methods return read-only views partitioned by the kind of edges.
+     * They are shared until the edges of this node or their kinds change,
+     * so that traversals can iterate over them by index without creating any object.
+     */
+    
+    public List<Dependence> getIncomingDependenceList() {
+        return getAdjacency().incoming;
+    }
+    
+    public List<Dependence> getOutgoingDependenceList() {
+        return getAdjacency().outgoing;
+    }
+    
+    public List<CD> getIncomingCDList() {
+        return getAdjacency().incomingCDs;
+    }
+    
+    public List<CD> getOutgoingCDList() {
+        return getAdjacency().outgoingCDs;
+    }
+    
+    public List<DD> getIncomingDDList() {
+        return getAdjacency().incomingDDs;
+    }
+    
+    public List<DD> getOutgoingDDList() {
+        return getAdjacency().outgoingDDs;
+    }
+    
+    public List<Dependence> getIncomingCallList() {
+        return getAdjacency().incomingCalls;
+    }
+    
+    public List<Dependence> getOutgoingCallList() {
+        return getAdjacency().outgoingCalls;
     }
     
     public boolean isDominated() {
-        return !getIncomingCDEdges().isEmpty();
+        return !getIncomingCDList().isEmpty();
     }
     
     public boolean isTrueDominated() {
-        return getIncomingCDEdges()
-                .stream()
-                .anyMatch(cd -> cd.isTrue());
+        List<CD> cds = getIncomingCDList();
+        for (int i = 0; i < cds.size(); i++) {
+            if (cds.get(i).isTrue()) {
+                return true;
+            }
+        }
+        return false;
     }
     
     public boolean isFalseDominated() {
-        return getIncomingCDEdges()
-                .stream()
-                .anyMatch(cd -> cd.isFalse());
+        List<CD> cds = getIncomingCDList();
+        for (int i = 0; i < cds.size(); i++) {
+            if (cds.get(i).isFalse()) {
+                return true;
+            }
+        }
+        return false;
     }
     
     public int getNumOfIncomingTrueFalseCDs() {
-        return (int)getIncomingCDEdges()
-                .stream()
-                .filter(cd -> cd.isTrue() || cd.isFalse()).count();
+        int count = 0;
+        List<CD> cds = getIncomingCDList();
+        for (int i = 0; i < cds.size(); i++) {
+            if (cds.get(i).isTrue() || cds.get(i).isFalse()) {
+                count++;
+            }
+        }
+        return count;
+    }
+    
+    private static <T> Set<T> toSet(List<T> elems) {
+        Set<T> set = new HashSet<>();
+        elems.forEach(elem -> set.add(elem));
+        return set;
+    }
+    
+    private Adjacency getAdjacency() {
+        Adjacency adj = adjacency;
+        if (adj == null) {
+            adj = new Adjacency(this);
+            adjacency = adj;
+        }
+        return adj;
+    }
+    
+    @Override
+    protected void adjacencyChanged() {
+        adjacency = null;
+    }
+    
+    private static class Adjacency {
+        
+        final List<Dependence> incoming;
+        final List<Dependence> outgoing;
+        final List<CD> incomingCDs;
+        final List<CD> outgoingCDs;
+        final List<DD> incomingDDs;
+        final List<DD> outgoingDDs;
+        final List<Dependence> incomingCalls;
+        final List<Dependence> outgoingCalls;
+        
+        /*
+         * The kind of an edge can change after it is added to a node, which may make it equal to another edge of the node.
+         * The edges are made distinct once for each direction and then sorted into the lists in a single pass.
+         */
+        Adjacency(PDGNode node) {
+            Collection<GraphEdge> inEdges = distinct(node.getIncomingEdges());
+            ArrayList<Dependence> in = new ArrayList<>(inEdges.size());
+            ArrayList<CD> inCDs = new ArrayList<>();
+            ArrayList<DD> inDDs = new ArrayList<>();
+            ArrayList<Dependence> inCalls = new ArrayList<>();
+            inEdges.forEach(edge -> add((Dependence)edge, in, inCDs, inDDs, inCalls));
+            
+            Collection<GraphEdge> outEdges = distinct(node.getOutgoingEdges());
+            ArrayList<Dependence> out = new ArrayList<>(outEdges.size());
+            ArrayList<CD> outCDs = new ArrayList<>();
+            ArrayList<DD> outDDs = new ArrayList<>();
+            ArrayList<Dependence> outCalls = new ArrayList<>();
+            outEdges.forEach(edge -> add((Dependence)edge, out, outCDs, outDDs, outCalls));
+            
+            incoming = view(in);
+            outgoing = view(out);
+            incomingCDs = view(inCDs);
+            outgoingCDs = view(outCDs);
+            incomingDDs = view(inDDs);
+            outgoingDDs = view(outDDs);
+            incomingCalls = view(inCalls);
+            outgoingCalls = view(outCalls);
+        }
+        
+        private static Collection<GraphEdge> distinct(Set<GraphEdge> edges) {
+            return edges.size() > 1 ? new HashSet<>(edges) : edges;
+        }
+        
+        private static <T> List<T> view(ArrayList<T> elems) {
+            if (elems.isEmpty()) {
+                return Collections.emptyList();
+            }
+            elems.trimToSize();
+            return Collections.unmodifiableList(elems);
+        }
+        
+        private static void add(Dependence edge, List<Dependence> all, List<CD> cds, List<DD> dds, List<Dependence> calls) {
+            all.add(edge);
+            if (edge.isCD() && edge instanceof CD) {
+                cds.add((CD)edge);
+            } else if (edge.isDD() && edge instanceof DD) {
+                dds.add((DD)edge);
+            } else if (edge.isCall()) {
+                calls.add(edge);
+            }
+        }
     }
     
     public boolean equals(PDGNode node) {
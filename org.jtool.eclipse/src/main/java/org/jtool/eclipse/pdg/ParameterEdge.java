@@ -25,7 +25,7 @@ public class ParameterEdge extends DD {
     
     @Override
     public void setParameterIn() {
-        kind = Kind.parameterIn;
+        setKind(Kind.parameterIn);
     }
     
     @Override
@@ -35,7 +35,7 @@ public class ParameterEdge extends DD {
     
     @Override
     public void setParameterOut() {
-        kind = Kind.parameterOut;
+        setKind(Kind.parameterOut);
     }
     
     @Override
@@ -8,6 +8,7 @@ package org.jtool.eclipse.pdg;
 
 import org.jtool.eclipse.cfg.CommonCFG;
 import org.jtool.eclipse.javamodel.JavaClass;
+import org.jtool.eclipse.graph.CompactGraph;
 import java.util.Map;
 import java.util.HashMap;
 import java.util.Set;
@@ -52,6 +53,13 @@ public class SDG extends CommonPDG {
     public void add(ClDG cldg) {
         cldgs.put(cldg.getQualifiedName(), cldg);
         cldg.getPDGs().forEach(pdg -> pdgs.put(pdg.getQualifiedName(), pdg));
+        changed();
+    }
+    
+    public void remove(ClDG cldg) {
+        cldgs.remove(cldg.getQualifiedName());
+        cldg.getPDGs().forEach(pdg -> pdgs.remove(pdg.getQualifiedName()));
+        changed();
     }
     
     public Set<ClDG> getClDGs() {
@@ -95,6 +103,28 @@ public class SDG extends CommonPDG {
                 .collect(Collectors.toSet());
     }
     
+    @Override
+    public void freeze() {
+        super.freeze();
+        pdgs.values().forEach(pdg -> pdg.freeze());
+    }
+    
+    @Override
+    public void thaw() {
+        super.thaw();
+        pdgs.values().forEach(pdg -> pdg.thaw());
+    }
+    
+    @Override
+    public boolean isFrozen() {
+        return pdgs.values().stream().allMatch(pdg -> pdg.isFrozen());
+    }
+    
+    @Override
+    public CompactGraph<PDGNode, Dependence> getCompactGraph() {
+        return getCompactGraph(getVersion() + pdgs.values().stream().mapToLong(pdg -> pdg.getVersion()).sum());
+    }
+    
     @Override
     public String toString() {
         StringBuilder buf = new StringBuilder();
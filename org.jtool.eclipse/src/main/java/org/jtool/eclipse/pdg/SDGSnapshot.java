@@ -0,0 +1,692 @@
+/*
+ *  Copyright 2020
+ *  Software Science and Technology Lab.
+ *  Department of Computer Science, Ritsumeikan University
+ */
+
+package org.jtool.eclipse.pdg;
+
+import org.jtool.eclipse.cfg.CFGNode;
+import org.jtool.eclipse.cfg.CFGEntry;
+import org.jtool.eclipse.cfg.CFGMethodEntry;
+import org.jtool.eclipse.cfg.CFGFieldEntry;
+import org.jtool.eclipse.cfg.CFGStatement;
+import org.jtool.eclipse.cfg.JReference;
+import org.jtool.eclipse.javamodel.JavaClass;
+import org.jtool.eclipse.javamodel.JavaFile;
+import org.jtool.eclipse.util.TimeInfo;
+import org.jtool.eclipse.graph.IndexedGraph;
+import org.eclipse.jdt.core.dom.ASTNode;
+import org.eclipse.jdt.core.dom.CompilationUnit;
+import java.util.Map;
+import java.util.HashMap;
+import java.util.Set;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * A read-only snapshot of an SDG stored in a binary file, which is memory-mapped when loaded.
+ * The snapshot keeps the kinds and source positions of nodes, the names of variables they define and use,
+ * and the kinds of dependence edges, so that PDGs are found and sliced without parsing source files.
+ * Nodes and edges are identified by their indexes in the snapshot.
+ * Control flow edges of CFGs are not stored, since slicing traverses only dependence edges
+ * and the exit and merge nodes of CFGs have no PDG nodes to which such edges could be connected.
+ * A CFG is rebuilt from source files when control flow is needed.
+ * 
+ * A snapshot is rejected when its version differs from that of this class, it is truncated or corrupt,
+ * or any source file from which it was built has been changed.
+ * The version must be incremented whenever the kinds of nodes or edges change,
+ * since they are stored as their ordinals.
+ * 
+ * @author Katsuhisa Maruyama
+ */
+public class SDGSnapshot implements IndexedGraph {
+    
+    static final int MAGIC = 0x4a585344;
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 64;
+    static final int FILE_RECORD_SIZE = 36;
+    static final int PDG_RECORD_SIZE = 16;
+    static final int NODE_RECORD_SIZE = 32;
+    static final int EDGE_RECORD_SIZE = 16;
+    
+    private MappedByteBuffer buffer;
+    private String[] strings;
+    private Map<String, Integer> pdgIndexes = new HashMap<>();
+    
+    private int numOfPDGs;
+    private int numOfNodes;
+    private int numOfEdges;
+    private int stringIndexPos;
+    private int pdgPos;
+    private int nodePos;
+    private int edgePos;
+    private int outPos;
+    private int inPos;
+    private int inEdgePos;
+    
+    public static void write(SDG sdg, File file) throws IOException {
+        SnapshotWriter writer = new SnapshotWriter();
+        writer.write(sdg, file);
+    }
+    
+    public static SDGSnapshot load(File file) {
+        if (!file.canRead()) {
+            return null;
+        }
+        
+        try {
+            SDGSnapshot snapshot = new SDGSnapshot(file);
+            return snapshot.isUpToDate() ? snapshot : null;
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+    
+    private SDGSnapshot(File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            throw new IOException("obsolete format of " + file.getName());
+        }
+        
+        numOfPDGs = buffer.getInt(16);
+        numOfNodes = buffer.getInt(20);
+        numOfEdges = buffer.getInt(24);
+        stringIndexPos = buffer.getInt(28);
+        pdgPos = buffer.getInt(36);
+        nodePos = buffer.getInt(40);
+        edgePos = buffer.getInt(44);
+        outPos = buffer.getInt(48);
+        inPos = buffer.getInt(52);
+        inEdgePos = buffer.getInt(56);
+        validate(file);
+        
+        for (int pdg = 0; pdg < numOfPDGs; pdg++) {
+            pdgIndexes.put(getQualifiedName(pdg), pdg);
+        }
+    }
+    
+    /*
+     * Checks that all sections lie within the file and that all indexes stored in records are in range,
+     * so that a truncated or corrupt snapshot is rejected here rather than failing in later queries.
+     */
+    private void validate(File file) throws IOException {
+        int size = buffer.capacity();
+        int numOfStrings = buffer.getInt(8);
+        int numOfFiles = buffer.getInt(12);
+        int filePos = buffer.getInt(32);
+        if (!isInFile(stringIndexPos, numOfStrings, 8, size) ||
+            !isInFile(filePos, numOfFiles, FILE_RECORD_SIZE, size) ||
+            !isInFile(pdgPos, numOfPDGs, PDG_RECORD_SIZE, size) ||
+            !isInFile(nodePos, numOfNodes, NODE_RECORD_SIZE, size) ||
+            !isInFile(edgePos, numOfEdges, EDGE_RECORD_SIZE, size) ||
+            !isInFile(outPos, numOfNodes + 1L, 4, size) ||
+            !isInFile(inPos, numOfNodes + 1L, 4, size) ||
+            !isInFile(inEdgePos, numOfEdges, 4, size)) {
+            throw new IOException("truncated " + file.getName());
+        }
+        strings = new String[numOfStrings];
+        
+        for (int id = 0; id < numOfStrings; id++) {
+            int pos = buffer.getInt(stringIndexPos + id * 8);
+            int length = buffer.getInt(stringIndexPos + id * 8 + 4);
+            if (!isInFile(pos, length, 1, stringIndexPos)) {
+                throw corrupt(file);
+            }
+        }
+        if (!isIndex(buffer.getInt(60), numOfStrings)) {
+            throw corrupt(file);
+        }
+        for (int i = 0; i < numOfFiles; i++) {
+            if (!isIndex(buffer.getInt(filePos + i * FILE_RECORD_SIZE), numOfStrings)) {
+                throw corrupt(file);
+            }
+        }
+        for (int pdg = 0; pdg < numOfPDGs; pdg++) {
+            int pos = pdgPos + pdg * PDG_RECORD_SIZE;
+            int fileIndex = buffer.getInt(pos + 4);
+            if (!isIndex(buffer.getInt(pos), numOfStrings) || (fileIndex != -1 && !isIndex(fileIndex, numOfFiles)) ||
+                !isInFile(buffer.getInt(pos + 8), buffer.getInt(pos + 12), 1, numOfNodes)) {
+                throw corrupt(file);
+            }
+        }
+        int numOfNodeKinds = CFGNode.Kind.values().length;
+        for (int node = 0; node < numOfNodes; node++) {
+            int pos = nodePos + node * NODE_RECORD_SIZE;
+            int variablePos = buffer.getInt(pos + 28);
+            if (!isIndex(buffer.getInt(pos + 8), numOfNodeKinds) || !isIndex(buffer.getInt(pos + 12), numOfPDGs) ||
+                variablePos < HEADER_SIZE || variablePos >= stringIndexPos) {
+                throw corrupt(file);
+            }
+        }
+        int numOfEdgeKinds = Dependence.Kind.values().length;
+        for (int edge = 0; edge < numOfEdges; edge++) {
+            int pos = edgePos + edge * EDGE_RECORD_SIZE;
+            int variable = buffer.getInt(pos + 12);
+            if (!isIndex(buffer.getInt(pos), numOfNodes) || !isIndex(buffer.getInt(pos + 4), numOfNodes) ||
+                !isIndex(buffer.getInt(pos + 8), numOfEdgeKinds) || (variable != -1 && !isIndex(variable, numOfStrings)) ||
+                !isIndex(buffer.getInt(inEdgePos + edge * 4), numOfEdges)) {
+                throw corrupt(file);
+            }
+        }
+        if (!isOffsets(outPos, numOfEdges) || !isOffsets(inPos, numOfEdges)) {
+            throw corrupt(file);
+        }
+    }
+    
+    private boolean isInFile(int pos, long count, int recordSize, int size) {
+        return pos >= 0 && count >= 0 && pos + count * recordSize <= size;
+    }
+    
+    private boolean isIndex(int index, int count) {
+        return index >= 0 && index < count;
+    }
+    
+    private boolean isOffsets(int pos, int count) {
+        int prev = 0;
+        for (int node = 0; node <= numOfNodes; node++) {
+            int offset = buffer.getInt(pos + node * 4);
+            if (offset < prev) {
+                return false;
+            }
+            prev = offset;
+        }
+        return buffer.getInt(pos) == 0 && prev == count;
+    }
+    
+    private IOException corrupt(File file) {
+        return new IOException("corrupt " + file.getName());
+    }
+    
+    private boolean isUpToDate() {
+        int numOfFiles = buffer.getInt(12);
+        int filePos = buffer.getInt(32);
+        for (int i = 0; i < numOfFiles; i++) {
+            int pos = filePos + i * FILE_RECORD_SIZE;
+            File file = new File(getString(buffer.getInt(pos)));
+            byte[] digest = new byte[32];
+            ByteBuffer in = buffer.duplicate();
+            in.position(pos + 4);
+            in.get(digest);
+            
+            try {
+                String code = new String(Files.readAllBytes(file.toPath()), Charset.defaultCharset());
+                if (!Arrays.equals(digest, getDigest(code))) {
+                    return false;
+                }
+            } catch (IOException e) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    static byte[] getDigest(String code) throws IOException {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return digest.digest(code.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IOException(e.getMessage());
+        }
+    }
+    
+    public String getCreationTime() {
+        return getString(buffer.getInt(60));
+    }
+    
+    public int numberOfPDGs() {
+        return numOfPDGs;
+    }
+    
+    @Override
+    public int size() {
+        return numOfNodes;
+    }
+    
+    @Override
+    public int numberOfEdges() {
+        return numOfEdges;
+    }
+    
+    public int findPDG(String fqn) {
+        return pdgIndexes.getOrDefault(fqn, -1);
+    }
+    
+    public String getQualifiedName(int pdg) {
+        return getString(buffer.getInt(pdgPos + pdg * PDG_RECORD_SIZE));
+    }
+    
+    public String getSourcePath(int pdg) {
+        int file = buffer.getInt(pdgPos + pdg * PDG_RECORD_SIZE + 4);
+        if (file < 0) {
+            return null;
+        }
+        return getString(buffer.getInt(buffer.getInt(32) + file * FILE_RECORD_SIZE));
+    }
+    
+    public int getEntryNode(int pdg) {
+        return buffer.getInt(pdgPos + pdg * PDG_RECORD_SIZE + 8);
+    }
+    
+    public int getNumberOfNodes(int pdg) {
+        return buffer.getInt(pdgPos + pdg * PDG_RECORD_SIZE + 12);
+    }
+    
+    public List<Integer> findNodes(int pdg, int lineNumber) {
+        List<Integer> nodes = new ArrayList<>();
+        int first = getEntryNode(pdg);
+        for (int node = first; node < first + getNumberOfNodes(pdg); node++) {
+            if (getLineNumber(node) == lineNumber) {
+                nodes.add(node);
+            }
+        }
+        return nodes;
+    }
+    
+    public long getId(int node) {
+        return buffer.getLong(nodePos + node * NODE_RECORD_SIZE);
+    }
+    
+    public CFGNode.Kind getKind(int node) {
+        return CFGNode.Kind.values()[buffer.getInt(nodePos + node * NODE_RECORD_SIZE + 8)];
+    }
+    
+    public int getPDG(int node) {
+        return buffer.getInt(nodePos + node * NODE_RECORD_SIZE + 12);
+    }
+    
+    public int getStartPosition(int node) {
+        return buffer.getInt(nodePos + node * NODE_RECORD_SIZE + 16);
+    }
+    
+    public int getLength(int node) {
+        return buffer.getInt(nodePos + node * NODE_RECORD_SIZE + 20);
+    }
+    
+    public int getLineNumber(int node) {
+        return buffer.getInt(nodePos + node * NODE_RECORD_SIZE + 24);
+    }
+    
+    public List<String> getDefVariables(int node) {
+        return readVariables(node, true);
+    }
+    
+    public List<String> getUseVariables(int node) {
+        return readVariables(node, false);
+    }
+    
+    private List<String> readVariables(int node, boolean def) {
+        ByteBuffer in = buffer.duplicate();
+        in.position(buffer.getInt(nodePos + node * NODE_RECORD_SIZE + 28));
+        int count = readCount(in);
+        if (!def) {
+            for (int i = 0; i < count; i++) {
+                readVarint(in);
+            }
+            count = readCount(in);
+        }
+        
+        List<String> names = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            names.add(getString(readVarint(in)));
+        }
+        return names;
+    }
+    
+    @Override
+    public int getSrcIndex(int edge) {
+        return buffer.getInt(edgePos + edge * EDGE_RECORD_SIZE);
+    }
+    
+    @Override
+    public int getDstIndex(int edge) {
+        return buffer.getInt(edgePos + edge * EDGE_RECORD_SIZE + 4);
+    }
+    
+    public Dependence.Kind getEdgeKind(int edge) {
+        return Dependence.Kind.values()[buffer.getInt(edgePos + edge * EDGE_RECORD_SIZE + 8)];
+    }
+    
+    public String getVariable(int edge) {
+        int id = buffer.getInt(edgePos + edge * EDGE_RECORD_SIZE + 12);
+        return id >= 0 ? getString(id) : null;
+    }
+    
+    @Override
+    public int outDegree(int node) {
+        return buffer.getInt(outPos + (node + 1) * 4) - buffer.getInt(outPos + node * 4);
+    }
+    
+    @Override
+    public int inDegree(int node) {
+        return buffer.getInt(inPos + (node + 1) * 4) - buffer.getInt(inPos + node * 4);
+    }
+    
+    @Override
+    public int getOutgoingEdge(int node, int k) {
+        return buffer.getInt(outPos + node * 4) + k;
+    }
+    
+    @Override
+    public int getIncomingEdge(int node, int k) {
+        return buffer.getInt(inEdgePos + (buffer.getInt(inPos + node * 4) + k) * 4);
+    }
+    
+    private int readCount(ByteBuffer in) {
+        int count = readVarint(in);
+        if (count < 0 || count > in.remaining()) {
+            throw new IllegalStateException("corrupt variables");
+        }
+        return count;
+    }
+    
+    private int readVarint(ByteBuffer in) {
+        int value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            if (shift > 28) {
+                throw new IllegalStateException("corrupt variables");
+            }
+            b = in.get();
+            value = value | ((b & 0x7f) << shift);
+            shift = shift + 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+    
+    private synchronized String getString(int id) {
+        if (id < 0 || id >= strings.length) {
+            throw new IllegalStateException("corrupt string " + id);
+        }
+        if (strings[id] == null) {
+            int pos = stringIndexPos + id * 8;
+            byte[] bytes = new byte[buffer.getInt(pos + 4)];
+            ByteBuffer in = buffer.duplicate();
+            in.position(buffer.getInt(pos));
+            in.get(bytes);
+            strings[id] = new String(bytes, StandardCharsets.UTF_8);
+        }
+        return strings[id];
+    }
+}
+    
+/*
+ * Layout of the snapshot file, where all integers except variable-length ones are four bytes long:
+ *   header       : magic, version, number of strings, number of files, number of PDGs, number of nodes,
+ *                  number of edges, positions of the string index, files, PDGs, nodes, edges,
+ *                  outgoing edge offsets, incoming edge offsets, and incoming edges, and creation time
+ *   variables    : variable-length numbers and identifiers of strings for variables defined and used at each node
+ *   string data  : UTF-8 bytes of all strings
+ *   string index : position and length of each string
+ *   files        : path and SHA-256 digest of the source code of each file
+ *   PDGs         : name, file, first node, and number of nodes of each PDG, whose nodes are contiguous
+ *   nodes        : identifier (eight bytes), kind, PDG, start position, length, line number, and position of variables
+ *   edges        : source node, destination node, kind, and variable (or -1), sorted by source nodes
+ *   offsets      : the first outgoing edge of each node and the first incoming edge of each node
+ *   in-edges     : edges sorted by destination nodes
+ * Only dependence edges between PDG nodes are written, and control flow edges of CFGs are left out.
+ */
+class SnapshotWriter {
+    
+    private Map<String, Integer> stringIds = new HashMap<>();
+    private List<String> strings = new ArrayList<>();
+    private ByteArrayOutputStream variables = new ByteArrayOutputStream();
+    
+    private List<JavaFile> files = new ArrayList<>();
+    private Map<JavaFile, Integer> fileIndexes = new HashMap<>();
+    private Map<PDGNode, Integer> nodeIndexes = new HashMap<>();
+    
+    void write(SDG sdg, File file) throws IOException {
+        int timeId = getStringId(TimeInfo.getTimeAsISOString(TimeInfo.getCurrentTime()));
+        
+        List<PDG> pdgs = new ArrayList<>(sdg.getPDGs());
+        pdgs.sort((pdg1, pdg2) -> pdg1.getQualifiedName().compareTo(pdg2.getQualifiedName()));
+        List<PDGNode> nodes = new ArrayList<>();
+        List<Integer> nodePDGs = new ArrayList<>();
+        int[][] pdgRecords = new int[pdgs.size()][];
+        for (int i = 0; i < pdgs.size(); i++) {
+            PDG pdg = pdgs.get(i);
+            int first = nodes.size();
+            nodes.add(pdg.getEntryNode());
+            for (PDGNode node : PDGNode.sortPDGNodes(pdg.getNodes())) {
+                if (node != pdg.getEntryNode() && !nodeIndexes.containsKey(node)) {
+                    nodes.add(node);
+                }
+            }
+            for (int index = first; index < nodes.size(); index++) {
+                nodeIndexes.put(nodes.get(index), index);
+                nodePDGs.add(i);
+            }
+            pdgRecords[i] = new int[] { getStringId(pdg.getQualifiedName()), getFileIndex(pdg), first, nodes.size() - first };
+        }
+        
+        Set<Dependence> edgeSet = new LinkedHashSet<>();
+        for (PDG pdg : pdgs) {
+            for (Dependence edge : pdg.getEdges()) {
+                if (nodeIndexes.containsKey(edge.getSrcNode()) && nodeIndexes.containsKey(edge.getDstNode())) {
+                    edgeSet.add(edge);
+                }
+            }
+        }
+        List<Dependence> edges = new ArrayList<>(edgeSet);
+        edges.sort((edge1, edge2) -> {
+            int src1 = nodeIndexes.get(edge1.getSrcNode());
+            int src2 = nodeIndexes.get(edge2.getSrcNode());
+            return src1 != src2 ? Integer.compare(src1, src2) :
+                Integer.compare(nodeIndexes.get(edge1.getDstNode()), nodeIndexes.get(edge2.getDstNode()));
+        });
+        
+        int[] variablePositions = new int[nodes.size()];
+        for (int index = 0; index < nodes.size(); index++) {
+            variablePositions[index] = SDGSnapshot.HEADER_SIZE + variables.size();
+            writeVariables(nodes.get(index).getCFGNode());
+        }
+        
+        int[] outOffsets = new int[nodes.size() + 1];
+        int[] inOffsets = new int[nodes.size() + 1];
+        for (Dependence edge : edges) {
+            outOffsets[nodeIndexes.get(edge.getSrcNode()) + 1]++;
+            inOffsets[nodeIndexes.get(edge.getDstNode()) + 1]++;
+        }
+        for (int index = 0; index < nodes.size(); index++) {
+            outOffsets[index + 1] = outOffsets[index + 1] + outOffsets[index];
+            inOffsets[index + 1] = inOffsets[index + 1] + inOffsets[index];
+        }
+        int[] inEdges = new int[edges.size()];
+        int[] fill = Arrays.copyOf(inOffsets, nodes.size());
+        for (int e = 0; e < edges.size(); e++) {
+            inEdges[fill[nodeIndexes.get(edges.get(e).getDstNode())]++] = e;
+        }
+        
+        byte[][] digests = new byte[files.size()][];
+        for (int i = 0; i < files.size(); i++) {
+            getStringId(files.get(i).getPath());
+            digests[i] = SDGSnapshot.getDigest(files.get(i).getCode());
+        }
+        for (Dependence edge : edges) {
+            if (edge instanceof DD && ((DD)edge).getVariable() != null) {
+                getStringId(((DD)edge).getVariable().getReferenceName());
+            }
+        }
+        
+        byte[][] bytes = new byte[strings.size()][];
+        int stringIndexPos = SDGSnapshot.HEADER_SIZE + variables.size();
+        for (int id = 0; id < strings.size(); id++) {
+            bytes[id] = strings.get(id).getBytes(StandardCharsets.UTF_8);
+            stringIndexPos = stringIndexPos + bytes[id].length;
+        }
+        int filePos = stringIndexPos + strings.size() * 8;
+        int pdgPos = filePos + files.size() * SDGSnapshot.FILE_RECORD_SIZE;
+        int nodePos = pdgPos + pdgs.size() * SDGSnapshot.PDG_RECORD_SIZE;
+        int edgePos = nodePos + nodes.size() * SDGSnapshot.NODE_RECORD_SIZE;
+        int outPos = edgePos + edges.size() * SDGSnapshot.EDGE_RECORD_SIZE;
+        int inPos = outPos + (nodes.size() + 1) * 4;
+        int inEdgePos = inPos + (nodes.size() + 1) * 4;
+        
+        File tmpfile = Files.createTempFile(file.getAbsoluteFile().getParentFile().toPath(), file.getName(), ".tmp").toFile();
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmpfile)))) {
+            out.writeInt(SDGSnapshot.MAGIC);
+            out.writeInt(SDGSnapshot.VERSION);
+            out.writeInt(strings.size());
+            out.writeInt(files.size());
+            out.writeInt(pdgs.size());
+            out.writeInt(nodes.size());
+            out.writeInt(edges.size());
+            out.writeInt(stringIndexPos);
+            out.writeInt(filePos);
+            out.writeInt(pdgPos);
+            out.writeInt(nodePos);
+            out.writeInt(edgePos);
+            out.writeInt(outPos);
+            out.writeInt(inPos);
+            out.writeInt(inEdgePos);
+            out.writeInt(timeId);
+            variables.writeTo(out);
+            
+            for (byte[] b : bytes) {
+                out.write(b);
+            }
+            int pos = SDGSnapshot.HEADER_SIZE + variables.size();
+            for (byte[] b : bytes) {
+                out.writeInt(pos);
+                out.writeInt(b.length);
+                pos = pos + b.length;
+            }
+            
+            for (int i = 0; i < files.size(); i++) {
+                out.writeInt(getStringId(files.get(i).getPath()));
+                out.write(digests[i]);
+            }
+            for (int[] record : pdgRecords) {
+                for (int value : record) {
+                    out.writeInt(value);
+                }
+            }
+            for (int index = 0; index < nodes.size(); index++) {
+                writeNode(out, nodes.get(index), nodePDGs.get(index), variablePositions[index]);
+            }
+            for (Dependence edge : edges) {
+                out.writeInt(nodeIndexes.get(edge.getSrcNode()));
+                out.writeInt(nodeIndexes.get(edge.getDstNode()));
+                out.writeInt(edge.kind.ordinal());
+                if (edge instanceof DD && ((DD)edge).getVariable() != null) {
+                    out.writeInt(getStringId(((DD)edge).getVariable().getReferenceName()));
+                } else {
+                    out.writeInt(-1);
+                }
+            }
+            for (int offset : outOffsets) {
+                out.writeInt(offset);
+            }
+            for (int offset : inOffsets) {
+                out.writeInt(offset);
+            }
+            for (int edge : inEdges) {
+                out.writeInt(edge);
+            }
+        }
+        Files.move(tmpfile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+    
+    private int getFileIndex(PDG pdg) {
+        JavaClass jclass = null;
+        CFGEntry entry = pdg.getEntryNode().getCFGEntry();
+        if (entry instanceof CFGMethodEntry) {
+            jclass = ((CFGMethodEntry)entry).getJavaMethod().getDeclaringClass();
+        } else if (entry instanceof CFGFieldEntry) {
+            jclass = ((CFGFieldEntry)entry).getJavaField().getDeclaringClass();
+        }
+        if (jclass == null || jclass.getFile() == null) {
+            return -1;
+        }
+        
+        JavaFile jfile = jclass.getFile();
+        Integer index = fileIndexes.get(jfile);
+        if (index == null) {
+            index = files.size();
+            files.add(jfile);
+            fileIndexes.put(jfile, index);
+        }
+        return index;
+    }
+    
+    private void writeNode(DataOutputStream out, PDGNode node, int pdg, int variablePosition) throws IOException {
+        CFGNode cfgnode = node.getCFGNode();
+        ASTNode astNode = cfgnode.getASTNode();
+        int start = -1;
+        int length = 0;
+        int lineNumber = -1;
+        if (astNode != null) {
+            start = astNode.getStartPosition();
+            length = astNode.getLength();
+            if (astNode.getRoot() instanceof CompilationUnit) {
+                lineNumber = ((CompilationUnit)astNode.getRoot()).getLineNumber(start);
+            }
+        }
+        
+        out.writeLong(node.getId());
+        out.writeInt(cfgnode.getKind().ordinal());
+        out.writeInt(pdg);
+        out.writeInt(start);
+        out.writeInt(length);
+        out.writeInt(lineNumber);
+        out.writeInt(variablePosition);
+    }
+    
+    private void writeVariables(CFGNode cfgnode) {
+        if (cfgnode.isStatement()) {
+            CFGStatement stnode = (CFGStatement)cfgnode;
+            writeReferences(stnode.getDefVariables());
+            writeReferences(stnode.getUseVariables());
+        } else {
+            writeVarint(0);
+            writeVarint(0);
+        }
+    }
+    
+    private void writeReferences(List<JReference> jvars) {
+        writeVarint(jvars.size());
+        for (JReference jvar : jvars) {
+            writeVarint(getStringId(jvar.getReferenceName()));
+        }
+    }
+    
+    private void writeVarint(int value) {
+        while ((value & ~0x7f) != 0) {
+            variables.write((value & 0x7f) | 0x80);
+            value = value >>> 7;
+        }
+        variables.write(value);
+    }
+    
+    private int getStringId(String str) {
+        Integer id = stringIds.get(str);
+        if (id == null) {
+            id = strings.size();
+            stringIds.put(str, id);
+            strings.add(str);
+        }
+        return id;
+    }
+}
@@ -15,10 +15,12 @@ import org.jtool.eclipse.cfg.CFGNode;
 import org.jtool.eclipse.cfg.CFGParameter;
 import org.jtool.eclipse.cfg.CFGStatement;
 import org.jtool.eclipse.cfg.ControlFlow;
+import org.jtool.eclipse.cfg.PostDominatorTree;
 import org.jtool.eclipse.cfg.JReference;
 import org.jtool.eclipse.cfg.StopConditionOnReachablePath;
 import java.util.Set;
 import java.util.HashSet;
+import java.util.List;
 
 /**
  * Finds control dependences in a PDG.
@@ -36,9 +38,10 @@ public class CDFinder {
     }
     
     private static void findCDs(PDG pdg, CFG cfg) {
+        PostDominatorTree tree = cfg.getPostDominatorTree();
         for (CFGNode cfgnode : cfg.getNodes()) {
             if (cfgnode.isBranch()) {
-                findCDs(pdg, cfg, cfgnode);
+                findCDs(pdg, tree, cfgnode);
             }
             if (cfgnode.isMethodCall()) {
                 findCDsOnParameters(pdg, (CFGMethodCall)cfgnode);
@@ -46,16 +49,13 @@ public class CDFinder {
         }
     }
     
-    private static void findCDs(PDG pdg, CFG cfg, CFGNode branchNode) {
-        Set<CFGNode> postDominator = cfg.postDominator(branchNode);
-        for (ControlFlow branch : branchNode.getOutgoingFlows()) {
-            CFGNode branchDstNode = branch.getDstNode();
-            Set<CFGNode> postDominatorForBranch = cfg.postDominator(branchDstNode);
-            postDominatorForBranch.add(branchDstNode);
-            
-            for (CFGNode cfgnode : postDominatorForBranch) {
-                if (cfgnode.isStatementNotParameter() && !cfgnode.isReceiver() &&
-                  !branchNode.equals(cfgnode) && !postDominator.contains(cfgnode)) {
+    private static void findCDs(PDG pdg, PostDominatorTree tree, CFGNode branchNode) {
+        CFGNode ipdom = tree.getImmediatePostDominator(branchNode);
+        List<ControlFlow> branches = branchNode.getOutgoingFlowList();
+        for (int i = 0; i < branches.size(); i++) {
+            ControlFlow branch = branches.get(i);
+            for (CFGNode cfgnode : tree.getPostDominatorPath(branch.getDstNode(), ipdom)) {
+                if (cfgnode.isStatementNotParameter() && !cfgnode.isReceiver() && !branchNode.equals(cfgnode)) {
                     CD edge = new CD(branchNode.getPDGNode(), cfgnode.getPDGNode());
                     if (branch.isTrue()) {
                         edge.setTrue();
@@ -102,7 +102,7 @@ public class CDFinder {
     
     private static void findCDsFromEntry(PDG pdg, CFG cfg) {
         CFGNode entryNode = cfg.getEntryNode();
-        Set<CFGNode> postDominator = cfg.postDominator(entryNode);
+        Set<CFGNode> postDominator = cfg.getPostDominatorTree().getPostDominators(entryNode);
         for (CFGNode cfgnode : postDominator) {
             if ((cfgnode.isStatementNotParameter() && !cfgnode.isReceiver()) || cfgnode.isFormal()) {
                 CD edge = new CD(entryNode.getPDGNode(), cfgnode.getPDGNode());
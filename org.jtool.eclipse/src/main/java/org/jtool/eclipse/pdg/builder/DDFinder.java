@@ -13,156 +13,77 @@ import org.jtool.eclipse.pdg.PDG;
 import org.jtool.eclipse.pdg.PDGNode;
 import org.jtool.eclipse.cfg.CFG;
 import org.jtool.eclipse.cfg.CFGNode;
-import org.jtool.eclipse.cfg.CFGStatement;
 import org.jtool.eclipse.cfg.ControlFlow;
-import org.jtool.eclipse.cfg.JReference;
+import org.jtool.eclipse.cfg.DominatorTree;
 import java.util.List;
-import java.util.ArrayList;
-import java.util.Map;
-import java.util.HashMap;
 import java.util.Set;
 import java.util.HashSet;
 
 /**
  * Finds data dependences of a PDG from its CFG.
- * This class does not guarantee a loop carried node to be correct if a given PDG contains no control dependence.
+ * Def-use and output dependences are derived from reaching definitions of the CFG.
+ * A loop carried node is the loop statement of the innermost natural loop containing both ends of a dependence.
  * All methods of this class are not intended to be directly called by clients.
  * 
  * @author Katsuhisa Maruyama
  */
 public class DDFinder {
     
-    private static Map<PDGNode, List<PDGNode>> dominatorMap = new HashMap<>();
-    
     public static void find(PDG pdg, CFG cfg) {
-        dominatorMap.clear();
-        
         findDDs(pdg, cfg);
         findDefOrderDDs(pdg, cfg);
     }
     
     private static void findDDs(PDG pdg, CFG cfg) {
-        for (CFGNode cfgnode : cfg.getNodes()) {
-            if (cfgnode.isStatement() && cfgnode.hasDefVariable()) {
-                findDDs(pdg, cfg, (CFGStatement)cfgnode);
-            }
-        }
-    }
-    
-    private static void findDDs(PDG pdg, CFG cfg, CFGStatement anchor) {
-        for (JReference jvar : anchor.getDefVariables()) {
-            findDDs(pdg, cfg, anchor, jvar);
-        }
-    }
-    
-    private static void findDDs(PDG pdg, CFG cfg, CFGStatement anchor, JReference jvar) {
-        for (ControlFlow flow : anchor.getOutgoingFlows()) {
-            if (!flow.isFallThrough()) {
-                Set<CFGNode> track = new HashSet<>();
-                CFGNode cfgnode = (CFGNode)flow.getDstNode();
-                findDD(pdg, cfg, anchor, cfgnode, jvar, track);
-            }
-        }
-    }
-    
-    private static void findDD(PDG pdg, CFG cfg, CFGNode anchor, CFGNode node, JReference jvar, Set<CFGNode> track) {
-        track.add(node);
-        if (node.hasUseVariable()) {
-            CFGStatement candidate = (CFGStatement)node;
-            if (candidate.useVariable(jvar)) {
-                DD edge;
-                if (anchor.isFormalIn()) {
-                    edge = new DD(anchor.getPDGNode(), candidate.getPDGNode(), jvar);
-                    edge.setLIDD();
-                
-                } else if (candidate.isFormalOut()) {
-                    edge = new DD(anchor.getPDGNode(), candidate.getPDGNode(), jvar);
-                    edge.setLIDD();
-                
+        DominatorTree tree = cfg.getDominatorTree();
+        ReachingDefinitions rd = new ReachingDefinitions(cfg);
+        rd.findUses((anchor, jvar, candidate, loopIndependent) -> {
+            DD edge = new DD(anchor.getPDGNode(), candidate.getPDGNode(), jvar);
+            if (anchor.isFormalIn() || candidate.isFormalOut()) {
+                edge.setLIDD();
+            } else {
+                PDGNode lc = loopIndependent ? null : getLoopCarried(tree, anchor, candidate);
+                if (lc != null) {
+                    edge.setLCDD();
+                    edge.setLoopCarriedNode(lc);
                 } else {
-                    PDGNode lc = getLoopCarried(pdg, cfg, anchor, candidate);
-                    edge = new DD(anchor.getPDGNode(), candidate.getPDGNode(), jvar);
-                    if (lc != null && track.contains(lc.getCFGNode())) {
-                        edge.setLCDD();
-                        edge.setLoopCarriedNode(lc);
-                    } else {
-                        edge.setLIDD();
-                    }
-                }
-                pdg.add(edge);
-            }
-        }
-        
-        if (node.hasDefVariable()) {
-            CFGStatement candidate = (CFGStatement)node;
-            if (candidate.defineVariable(jvar)) {
-                if (!candidate.useVariable(jvar)) {
-                    DD edge = new DD(anchor.getPDGNode(), candidate.getPDGNode(), jvar);
-                    edge.setOutput();
-                    pdg.add(edge);
+                    edge.setLIDD();
                 }
-                return;
             }
-        }
+            pdg.add(edge);
+        });
         
-        for (ControlFlow flow : node.getOutgoingFlows()) {
-            if (!flow.isFallThrough()) {
-                CFGNode succ = (CFGNode)flow.getDstNode();
-                if (!track.contains(succ)) {
-                    findDD(pdg, cfg, anchor, succ, jvar, track);
-                }
-            }
-        } 
+        rd.findRedefinitions((anchor, jvar, candidate, loopIndependent) -> {
+            DD edge = new DD(anchor.getPDGNode(), candidate.getPDGNode(), jvar);
+            edge.setOutput();
+            pdg.add(edge);
+        });
     }
     
-    private static PDGNode getLoopCarried(PDG pdg, CFG cfg, CFGNode def, CFGNode use) {
-        List<PDGNode> dtrack = findDominators(def.getPDGNode());
-        if (dtrack.isEmpty()) {
-            return null;
-        }
-        
-        List<PDGNode> utrack = findDominators(use.getPDGNode());
-        if (utrack.isEmpty()) {
-            return null;
-        }
-        
-        Set<CFGNode> reachanbleNodes = cfg.constrainedReachableNodes(def, use);
-        for (PDGNode pdgnode : dtrack) {
-            CFGNode cfgnode = pdgnode.getCFGNode();
-            if (utrack.contains(pdgnode) && reachanbleNodes.contains(cfgnode)) {
-                return pdgnode;
+    private static PDGNode getLoopCarried(DominatorTree tree, CFGNode def, CFGNode use) {
+        for (CFGNode header : tree.getEnclosingLoopHeaders(def)) {
+            if (tree.isInNaturalLoop(header, use)) {
+                CFGNode loop = getLoopStatement(header);
+                if (loop != null) {
+                    return loop.getPDGNode();
+                }
             }
         }
         return null;
     }
     
-    private static List<PDGNode> findDominators(PDGNode pdgnode) {
-        Set<PDGNode> track = new HashSet<>();
-        List<PDGNode> dominators = new ArrayList<>();
-        findDominators(pdgnode, dominators, track);
-        return dominators;
-    }
-    
-    private static void findDominators(PDGNode pdgnode, List<PDGNode> dominators, Set<PDGNode> track) {
-        List<PDGNode> nodes = dominatorMap.get(pdgnode);
-        if (nodes != null) {
-            dominators.addAll(nodes);
-            return;
-        }
-        
-        track.add(pdgnode);
-        if (pdgnode.isLoop()) {
-            dominators.add(pdgnode);
+    private static CFGNode getLoopStatement(CFGNode header) {
+        if (header.isLoop()) {
+            return header;
         }
-        
-        for (CD edge : pdgnode.getIncomingCDEdges()) {
-            PDGNode src = edge.getSrcNode();
-            if (!track.contains(src)) {
-                findDominators(src, dominators, track);
+        List<ControlFlow> flows = header.getIncomingFlowList();
+        for (int i = 0; i < flows.size(); i++) {
+            ControlFlow flow = flows.get(i);
+            if (flow.isLoopBack() && flow.getLoopBack().isLoop()) {
+                return flow.getLoopBack();
             }
         }
-        
-        dominatorMap.put(pdgnode, dominators);
+        return null;
     }
     
     private static void findDefOrderDDs(PDG pdg, CFG cfg) {
@@ -179,15 +100,17 @@ public class DDFinder {
     private static boolean isDefOrder(DD dd) {
         PDGNode src = dd.getSrcNode();
         PDGNode dst = dd.getDstNode();
-        CD[] srcCDs = src.getIncomingCDEdges().toArray(new CD[0]);
-        CD[] dstCDs = dst.getIncomingCDEdges().toArray(new CD[0]);
-        if (!srcCDs[0].getSrcNode().equals(dstCDs[0].getSrcNode())) {
+        if (!getControlParents(src).equals(getControlParents(dst))) {
             return false;
         }
         
-        for (DD srcDD : src.getOutgoingDDEdges()) {
+        List<DD> srcDDs = src.getOutgoingDDList();
+        for (int i = 0; i < srcDDs.size(); i++) {
+            DD srcDD = srcDDs.get(i);
             if (srcDD.isLCDD() || srcDD.isLIDD()) {
-                for (DD dstDD : dst.getOutgoingDDEdges()) {
+                List<DD> dstDDs = dst.getOutgoingDDList();
+                for (int j = 0; j < dstDDs.size(); j++) {
+                    DD dstDD = dstDDs.get(j);
                     if (dstDD.isLCDD() || dstDD.isLIDD()) {
                         if (srcDD.getDstNode().equals(dstDD.getDstNode())) {
                             return true;
@@ -198,4 +121,13 @@ public class DDFinder {
         }
         return false;
     }
+    
+    private static Set<PDGNode> getControlParents(PDGNode node) {
+        Set<PDGNode> parents = new HashSet<>();
+        List<CD> cds = node.getIncomingCDList();
+        for (int i = 0; i < cds.size(); i++) {
+            parents.add(cds.get(i).getSrcNode());
+        }
+        return parents;
+    }
 }
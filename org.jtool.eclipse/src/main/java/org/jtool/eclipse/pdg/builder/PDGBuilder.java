@@ -33,11 +33,20 @@ import org.jtool.eclipse.cfg.CFGCatch;
 import org.jtool.eclipse.cfg.ControlFlow;
 import org.jtool.eclipse.cfg.JReference;
 import org.jtool.eclipse.cfg.JFieldReference;
-import org.jtool.eclipse.javamodel.JavaClass;
+import org.jtool.eclipse.javamodel.ClassHierarchy;
+import org.jtool.eclipse.javamodel.JavaProject;
 import org.jtool.eclipse.javamodel.JavaMethod;
 import org.eclipse.jdt.core.dom.ITypeBinding;
 import java.util.Set;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Map;
+import java.util.HashMap;
+import java.util.Deque;
+import java.util.ArrayDeque;
 import java.util.stream.Collectors;
 
 /**
@@ -48,11 +57,13 @@ import java.util.stream.Collectors;
 public class PDGBuilder {
     
     public static PDG buildPDG(CFG cfg) {
-        PDG pdg = new PDG();
-        createNodes(pdg, cfg);
-        CDFinder.find(pdg, cfg);
-        DDFinder.find(pdg, cfg);
-        return pdg;
+        synchronized (cfg) {
+            PDG pdg = new PDG();
+            createNodes(pdg, cfg);
+            CDFinder.find(pdg, cfg);
+            DDFinder.find(pdg, cfg);
+            return pdg;
+        }
     }
     
     private static void createNodes(PDG pdg, CFG cfg) {
@@ -67,13 +78,13 @@ public class PDGBuilder {
             PDGClassEntry pdgNode = new PDGClassEntry((CFGClassEntry)node);
             pdg.setEntryNode(pdgNode);
             return pdgNode;
-            
+        
         } else if (node.isMethodEntry() || node.isConstructorEntry() || node.isInitializerEntry() ||
                    node.isFieldEntry() || node.isEnumConstantEntry()) {
             PDGEntry pdgNode = new PDGEntry((CFGEntry)node);
             pdg.setEntryNode(pdgNode);
             return pdgNode;
-            
+        
         } else if (node.isStatement()) {
             PDGStatement pdgNode = new PDGStatement((CFGStatement)node);
             return pdgNode;
@@ -99,60 +110,100 @@ public class PDGBuilder {
     }
     
     public static void connectFieldAccesses(SDG sdg) {
-        Set<CFGFieldEntry> fieldEntries = sdg.getPDGs()
-                .stream()
+        Set<PDG> pdgs = sdg.getPDGs();
+        connectFieldAccesses(pdgs, collectFieldEntries(pdgs));
+    }
+    
+    public static void connectFieldAccesses(SDG sdg, Set<PDG> pdgs) {
+        Set<PDG> others = sdg.getPDGs();
+        others.removeAll(pdgs);
+        connectFieldAccesses(pdgs, collectFieldEntries(sdg.getPDGs()));
+        connectFieldAccesses(others, collectFieldEntries(pdgs));
+    }
+    
+    private static Map<Integer, List<CFGFieldEntry>> collectFieldEntries(Set<PDG> pdgs) {
+        return pdgs.stream()
                 .map(pdg -> pdg.getCFG())
                 .filter(cfg -> cfg.isField())
                 .map(cfg -> (CFGFieldEntry)cfg.getEntryNode())
-                .collect(Collectors.toSet());
+                .distinct()
+                .collect(Collectors.groupingBy(entry -> entry.getSymbolId()));
+    }
+    
+    private static void connectFieldAccesses(Set<PDG> pdgs, Map<Integer, List<CFGFieldEntry>> fieldEntries) {
+        if (fieldEntries.isEmpty()) {
+            return;
+        }
         
-        for (PDG pdg : sdg.getPDGs()) {
-            CFG cfg = pdg.getCFG();
-            for (CFGNode node : cfg.getNodes()) {
-                if (node.isStatement()) {
-                    CFGStatement stNode = (CFGStatement)node;
-                    
-                    for (JReference var : stNode.getDefVariables()) {
-                        if (var.isFieldAccess()) {
-                            JFieldReference fvar = (JFieldReference)var;
-                            
-                            for (CFGFieldEntry fieldEntry : fieldEntries) {
-                                if (fieldEntry.getQualifiedName().equals(fvar.getQualifiedName())) {
-                                    DD edge = new DD(node.getPDGNode(), fieldEntry.getDeclarationNode().getPDGNode(), fvar);
-                                    edge.setFieldAccess();
-                                    pdg.add(edge);
-                                    
-                                    if (cfg.isMethod()) {
-                                        CFGMethodEntry cfgEntry = (CFGMethodEntry)cfg.getEntryNode();
-                                        if (cfgEntry.isConstructorEntry()) {
-                                            CFGParameter foutForInstance = cfgEntry.getFormalOutForReturn();
-                                            
-                                            DD instanceCreationEdge = new DD(fieldEntry.getDeclarationNode().getPDGNode(), foutForInstance.getPDGNode(), fvar);
-                                            instanceCreationEdge.setFieldAccess();
-                                            pdg.add(instanceCreationEdge);
-                                        }
-                                    }
-                                }
+        Map<PDG, List<FieldAccess>> accesses = pdgs.parallelStream()
+                .collect(Collectors.toMap(pdg -> pdg, pdg -> findFieldAccesses(pdg, fieldEntries)));
+        
+        for (PDG pdg : pdgs) {
+            List<Dependence> edges = new ArrayList<>();
+            for (FieldAccess access : accesses.get(pdg)) {
+                DD edge = new DD(access.src, access.dst, access.fvar);
+                edge.setFieldAccess();
+                edges.add(edge);
+            }
+            pdg.addEdges(edges);
+        }
+    }
+    
+    private static List<FieldAccess> findFieldAccesses(PDG pdg, Map<Integer, List<CFGFieldEntry>> fieldEntries) {
+        List<FieldAccess> accesses = new ArrayList<>();
+        CFG cfg = pdg.getCFG();
+        CFGParameter foutForInstance = null;
+        if (cfg.isMethod() && ((CFGMethodEntry)cfg.getEntryNode()).isConstructorEntry()) {
+            foutForInstance = ((CFGMethodEntry)cfg.getEntryNode()).getFormalOutForReturn();
+        }
+        
+        for (CFGNode node : cfg.getNodes()) {
+            if (node.isStatement()) {
+                CFGStatement stNode = (CFGStatement)node;
+                
+                for (JReference var : stNode.getDefVariables()) {
+                    if (var.isFieldAccess()) {
+                        JFieldReference fvar = (JFieldReference)var;
+                        
+                        for (CFGFieldEntry fieldEntry : fieldEntries.getOrDefault(fvar.getSymbolId(), Collections.emptyList())) {
+                            PDGNode declNode = fieldEntry.getDeclarationNode().getPDGNode();
+                            accesses.add(new FieldAccess(node.getPDGNode(), declNode, fvar));
+                            if (foutForInstance != null) {
+                                accesses.add(new FieldAccess(declNode, foutForInstance.getPDGNode(), fvar));
                             }
                         }
                     }
-                    
-                    for (JReference var : stNode.getUseVariables()) {
-                        if (var.isFieldAccess()) {
-                            JFieldReference fvar = (JFieldReference)var;
-                            
-                            for (CFGFieldEntry fieldEntry : fieldEntries) {
-                                if (fieldEntry.getQualifiedName().equals(fvar.getQualifiedName())) {
-                                    DD edge = new DD(fieldEntry.getDeclarationNode().getPDGNode(), node.getPDGNode(), fvar);
-                                    edge.setFieldAccess();
-                                    pdg.add(edge);
-                                }
-                            }
+                }
+                
+                for (JReference var : stNode.getUseVariables()) {
+                    if (var.isFieldAccess()) {
+                        JFieldReference fvar = (JFieldReference)var;
+                        
+                        for (CFGFieldEntry fieldEntry : fieldEntries.getOrDefault(fvar.getSymbolId(), Collections.emptyList())) {
+                            accesses.add(new FieldAccess(fieldEntry.getDeclarationNode().getPDGNode(), node.getPDGNode(), fvar));
                         }
                     }
                 }
             }
         }
+        return accesses;
+    }
+    
+    /*
+     * An access to a field, which is found in parallel and becomes a DD edge afterward
+     * since creating an edge modifies the nodes at its both ends.
+     */
+    private static class FieldAccess {
+        
+        private PDGNode src;
+        private PDGNode dst;
+        private JFieldReference fvar;
+        
+        FieldAccess(PDGNode src, PDGNode dst, JFieldReference fvar) {
+            this.src = src;
+            this.dst = dst;
+            this.fvar = fvar;
+        }
     }
     
     public static void connectMethodCalls(ClDG cldg) {
@@ -173,19 +224,23 @@ public class PDGBuilder {
                 }
             }
         }
-        for (PDG pdg : cldg.getPDGs()) {
-            SummaryEdgeFinder.find(pdg);
-        }
+        SummaryEdgeFinder.find(cldg.getPDGs());
     }
     
-    public static void connectMethodCalls(Set<JavaClass> classes, SDG sdg) {
-        for (PDG pdg : sdg.getPDGs()) {
+    public static void connectMethodCalls(JavaProject jproject, SDG sdg) {
+        Set<PDG> pdgs = sdg.getPDGs();
+        connectMethodCalls(jproject, sdg, pdgs);
+        SummaryEdgeFinder.find(pdgs);
+    }
+    
+    public static void connectMethodCalls(JavaProject jproject, SDG sdg, Set<PDG> pdgs) {
+        ClassHierarchy hierarchy = jproject.getClassHierarchy();
+        for (PDG pdg : pdgs) {
             CFG cfg = pdg.getCFG();
             for (CFGNode node : cfg.getNodes()) {
                 if (node.isMethodCall()) {
                     CFGMethodCall callnode = (CFGMethodCall)node;
-                    PDG callee = sdg.getPDG(callnode.getQualifiedName());
-                    if (callee != null) {
+                    for (PDG callee : findCallees(hierarchy, sdg, callnode)) {
                         CallEdge edge = new CallEdge(callnode.getPDGNode(), callee.getEntryNode());
                         edge.setCall();
                         pdg.add(edge);
@@ -193,36 +248,83 @@ public class PDGBuilder {
                         connectParameters(pdg, callnode, (CFGMethodEntry)callee.getCFG().getEntryNode());
                         connectExceptionCatch(pdg, callnode, (CFGMethodEntry)callee.getCFG().getEntryNode());
                     }
-                    for (JavaMethod jm : findOverrindingMethods(classes, callnode)) {
-                        PDG callee2 = sdg.getPDG(jm.getQualifiedName());
-                        if (callee2 != null) {
-                            CallEdge edge = new CallEdge(callnode.getPDGNode(), callee2.getEntryNode());
-                            edge.setCall();
-                            pdg.add(edge);
-                            
-                            connectParameters(pdg, callnode, (CFGMethodEntry)callee2.getCFG().getEntryNode());
-                            connectExceptionCatch(pdg, callnode, (CFGMethodEntry)callee.getCFG().getEntryNode());
-                        }
-                    }
                 }
             }
         }
+    }
+    
+    private static Set<PDG> findCallees(ClassHierarchy hierarchy, SDG sdg, CFGMethodCall callnode) {
+        Set<PDG> callees = new LinkedHashSet<>();
+        PDG callee = sdg.getPDG(callnode.getQualifiedName());
+        if (callee != null) {
+            callees.add(callee);
+        }
+        for (JavaMethod jm : hierarchy.getCHATargets(callnode.getDeclaringClassName(), callnode.getSignature())) {
+            callee = sdg.getPDG(jm.getQualifiedName());
+            if (callee != null) {
+                callees.add(callee);
+            }
+        }
+        return callees;
+    }
+    
+    public static Set<PDG> disconnect(SDG sdg, Set<PDG> pdgs) {
+        Set<PDGNode> nodes = pdgs.stream()
+                .flatMap(pdg -> pdg.getNodes().stream())
+                .collect(Collectors.toSet());
+        
+        for (PDG pdg : pdgs) {
+            for (Dependence edge : new HashSet<>(pdg.getEdges())) {
+                if (!nodes.contains(edge.getSrcNode()) || !nodes.contains(edge.getDstNode())) {
+                    pdg.remove(edge);
+                }
+            }
+        }
+        
+        Set<PDG> disconnected = new HashSet<>();
         for (PDG pdg : sdg.getPDGs()) {
-            SummaryEdgeFinder.find(pdg);
+            for (Dependence edge : new HashSet<>(pdg.getEdges())) {
+                if (nodes.contains(edge.getSrcNode()) || nodes.contains(edge.getDstNode())) {
+                    pdg.remove(edge);
+                    disconnected.add(pdg);
+                }
+            }
+        }
+        return disconnected;
+    }
+    
+    public static void updateSummaryEdges(SDG sdg, Set<PDG> pdgs) {
+        Set<PDG> callers = collectCallers(sdg, pdgs);
+        for (PDG pdg : callers) {
+            for (Dependence edge : new HashSet<>(pdg.getEdges())) {
+                if (edge.isSummary()) {
+                    pdg.remove(edge);
+                }
+            }
         }
+        SummaryEdgeFinder.find(sdg.getPDGs(), callers);
     }
     
-    private static Set<JavaMethod> findOverrindingMethods(Set<JavaClass> classes, CFGMethodCall callnode) {
-        String className = callnode.getMethodCall().getDeclaringClassName();
-        for (JavaClass jclass : classes) {
-            if (jclass.getQualifiedName().endsWith(className)) {
-                JavaMethod jmethod = jclass.getMethod(callnode.getSignature());
-                if (jmethod != null) {
-                    return jmethod.getOverridingMethods();
+    private static Set<PDG> collectCallers(SDG sdg, Set<PDG> pdgs) {
+        Map<PDGNode, PDG> owners = new HashMap<>();
+        for (PDG pdg : sdg.getPDGs()) {
+            pdg.getNodes().forEach(node -> owners.put(node, pdg));
+        }
+        
+        Set<PDG> callers = new HashSet<>(pdgs);
+        Deque<PDG> stack = new ArrayDeque<>(pdgs);
+        while (!stack.isEmpty()) {
+            PDG pdg = stack.pop();
+            for (Dependence edge : pdg.getEntryNode().getIncomingDependeceEdges()) {
+                if (edge.isCall()) {
+                    PDG caller = owners.get(edge.getSrcNode());
+                    if (caller != null && callers.add(caller)) {
+                        stack.push(caller);
+                    }
                 }
             }
         }
-        return new HashSet<>();
+        return callers;
     }
     
     private static void connectParameters(PDG pdg, CFGMethodCall caller, CFGMethodEntry callee) {
@@ -9,20 +9,34 @@ package org.jtool.eclipse.pdg.builder;
 import org.jtool.eclipse.pdg.ClDG;
 import org.jtool.eclipse.pdg.PDG;
 import org.jtool.eclipse.pdg.SDG;
+import org.jtool.eclipse.pdg.SDGSnapshot;
 import org.jtool.eclipse.cfg.CCFG;
 import org.jtool.eclipse.cfg.CFG;
 import org.jtool.eclipse.cfg.builder.CFGStore;
 import org.jtool.eclipse.javamodel.JavaClass;
+import org.jtool.eclipse.javamodel.JavaElement;
 import org.jtool.eclipse.javamodel.JavaField;
 import org.jtool.eclipse.javamodel.JavaMethod;
 import java.util.Map;
-import java.util.HashMap;
 import java.util.Set;
 import java.util.HashSet;
+import java.util.List;
+import java.util.ArrayList;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
+import java.io.File;
+import java.io.IOException;
 
 /**
  * An object that stores information on PDGs in the project.
+ * PDGs can be requested from multiple threads, and each of them is built only once per name.
+ * The ClDGs of an SDG are built in parallel before they are connected to each other.
+ * Their CCFGs are built one by one in a fixed order, since node identifiers follow the order of building
+ * and the field accesses of calls within a class are copied from the called CFGs in the order of their nodes.
+ * Built graphs are shared, so they are connected to each other and frozen only under the lock of this store.
+ * When classes are changed, only their ClDGs are rebuilt and reconnected to the current SDG.
+ * The current SDG can be written into a snapshot file, which is loaded by SDGSnapshot without parsing.
  * 
  * @author Katsuhisa Maruyama
  */
@@ -30,10 +44,11 @@ public class PDGStore {
     
     private CFGStore cfgStore;
     
-    private Map<String, PDG> pdgMap = new HashMap<>();
-    private Map<String, ClDG> cldgMap = new HashMap<>();
+    private Map<String, PDG> pdgMap = new ConcurrentHashMap<>();
+    private Map<String, ClDG> cldgMap = new ConcurrentHashMap<>();
+    private Map<String, Object> locks = new ConcurrentHashMap<>();
     
-    private SDG currentSDG;
+    private volatile SDG currentSDG;
     
     public PDGStore(CFGStore cfgStore) {
         this.cfgStore = cfgStore;
@@ -41,6 +56,9 @@ public class PDGStore {
     
     public void destroy() {
         pdgMap.clear();
+        cldgMap.clear();
+        locks.clear();
+        currentSDG = null;
         cfgStore = null;
     }
     
@@ -65,8 +83,14 @@ public class PDGStore {
     }
     
     public PDG getPDG(CFG cfg, boolean force) {
-        PDG pdg = getPDGCore(cfg, force);
-        PDGBuilder.connectMethodCallsConservatively(pdg);
+        PDG pdg;
+        synchronized (getLock(cfg.getQualifiedName())) {
+            pdg = getPDGCore(cfg, force);
+        }
+        synchronized (this) {
+            PDGBuilder.connectMethodCallsConservatively(pdg);
+            pdg.freeze();
+        }
         return pdg;
     }
     
@@ -94,7 +118,10 @@ public class PDGStore {
     
     public ClDG getClDG(CCFG ccfg, boolean force) {
         ClDG cldg = getClDGCore(ccfg, force);
-        PDGBuilder.connectMethodCalls(cldg);
+        synchronized (this) {
+            PDGBuilder.connectMethodCalls(cldg);
+            cldg.freeze();
+        }
         return cldg;
     }
     
@@ -104,14 +131,16 @@ public class PDGStore {
     }
     
     private ClDG getClDGCore(CCFG ccfg, boolean force) {
-        if (!force) {
-            ClDG cldg = cldgMap.get(ccfg.getQualifiedName());
-            if (cldg != null) {
-                return cldg;
+        synchronized (getLock(ccfg.getQualifiedName())) {
+            if (!force) {
+                ClDG cldg = cldgMap.get(ccfg.getQualifiedName());
+                if (cldg != null) {
+                    return cldg;
+                }
             }
+            ClDG cldg = PDGBuilder.buildClDG(ccfg);
+            return cldg;
         }
-        ClDG cldg = PDGBuilder.buildClDG(ccfg);
-        return cldg;
     }
     
     public SDG getSDG(JavaClass jclass, boolean force) {
@@ -120,7 +149,7 @@ public class PDGStore {
         return getSDG(classes, force);
     }
     
-    public SDG getSDG(Set<JavaClass> classes, boolean force) {
+    public synchronized SDG getSDG(Set<JavaClass> classes, boolean force) {
         Set<JavaClass> allClasses = new HashSet<>();
         for (JavaClass jc : classes) {
             collectEfferentClasses(jc, allClasses);
@@ -130,7 +159,7 @@ public class PDGStore {
         return sdg;
     }
     
-    public SDG getSDG(boolean force) {
+    public synchronized SDG getSDG(boolean force) {
         if (!force && currentSDG != null) {
             return currentSDG;
         }
@@ -139,23 +168,82 @@ public class PDGStore {
         return currentSDG;
     }
     
-    public SDG getSDGForClasses(Set<JavaClass> classes, boolean force) {
-        SDG sdg = new SDG();
+    public synchronized SDG getSDGForClasses(Set<JavaClass> classes, boolean force) {
+        List<CCFG> ccfgs = new ArrayList<>();
         for (JavaClass jc : classes) {
-            CCFG ccfg = cfgStore.getCCFG(jc, force);
-            ClDG cldg = getClDGCore(ccfg, force);
-            
+            ccfgs.add(cfgStore.getCCFG(jc, force));
+        }
+        List<ClDG> cldgs = ccfgs.parallelStream()
+                                .map(ccfg -> getClDGCore(ccfg, force))
+                                .collect(Collectors.toList());
+        
+        SDG sdg = new SDG();
+        for (ClDG cldg : cldgs) {
             sdg.add(cldg);
             addClDG(cldg);
         }
         for (PDG pdg : sdg.getPDGs()) {
             addPDG(pdg);
         }
-        PDGBuilder.connectMethodCalls(classes, sdg);
+        PDGBuilder.connectMethodCalls(cfgStore.getJavaProject(), sdg);
         PDGBuilder.connectFieldAccesses(sdg);
+        sdg.freeze();
+        return sdg;
+    }
+    
+    public synchronized SDG update(Set<String> classNames) {
+        pdgMap.keySet().removeIf(fqn -> classNames.contains(getClassName(fqn)));
+        cldgMap.keySet().removeIf(fqn -> classNames.contains(fqn));
+        if (currentSDG == null) {
+            return null;
+        }
+        
+        SDG sdg = currentSDG;
+        Set<PDG> removedPDGs = new HashSet<>();
+        for (String fqn : classNames) {
+            ClDG cldg = sdg.getClDG(fqn);
+            if (cldg != null) {
+                removedPDGs.addAll(cldg.getPDGs());
+                sdg.remove(cldg);
+            }
+        }
+        Set<PDG> pdgs = PDGBuilder.disconnect(sdg, removedPDGs);
+        
+        List<CCFG> ccfgs = new ArrayList<>();
+        for (String fqn : new TreeSet<>(classNames)) {
+            JavaClass jclass = cfgStore.getJavaProject().getClass(fqn);
+            if (jclass != null) {
+                ccfgs.add(cfgStore.getCCFG(jclass, false));
+            }
+        }
+        List<ClDG> cldgs = ccfgs.parallelStream()
+                                .map(ccfg -> getClDGCore(ccfg, true))
+                                .collect(Collectors.toList());
+        
+        for (ClDG cldg : cldgs) {
+            sdg.add(cldg);
+            addClDG(cldg);
+            for (PDG pdg : cldg.getPDGs()) {
+                addPDG(pdg);
+                pdgs.add(pdg);
+            }
+        }
+        PDGBuilder.connectMethodCalls(cfgStore.getJavaProject(), sdg, pdgs);
+        PDGBuilder.connectFieldAccesses(sdg, pdgs);
+        PDGBuilder.updateSummaryEdges(sdg, pdgs);
+        sdg.freeze();
         return sdg;
     }
     
+    private String getClassName(String fqn) {
+        int index = fqn.indexOf(JavaElement.QualifiedNameSeparator);
+        return index != -1 ? fqn.substring(0, index) : fqn;
+    }
+    
+    public void writeSnapshot(File file) throws IOException {
+        SDGSnapshot.write(getSDG(false), file);
+    }
+    
     public PDG getPDGWithinSDG(JavaMethod jmethod, boolean force) {
         getSDG(jmethod.getDeclaringClass(), force);
         return pdgMap.get(jmethod.getQualifiedName());
@@ -171,6 +259,10 @@ public class PDGStore {
         return cldgMap.get(jclass.getQualifiedName());
     }
     
+    private Object getLock(String fqn) {
+        return locks.computeIfAbsent(fqn, key -> new Object());
+    }
+    
     private void collectEfferentClasses(JavaClass jclass, Set<JavaClass> classes) {
         if (classes.contains(jclass)) {
             return;
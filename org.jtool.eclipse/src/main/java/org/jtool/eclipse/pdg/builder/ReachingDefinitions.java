@@ -0,0 +1,357 @@
+/*
+ *  Copyright 2020
+ *  Software Science and Technology Lab.
+ *  Department of Computer Science, Ritsumeikan University
+ */
+
+package org.jtool.eclipse.pdg.builder;
+
+import org.jtool.eclipse.cfg.CFG;
+import org.jtool.eclipse.cfg.CFGNode;
+import org.jtool.eclipse.cfg.CFGStatement;
+import org.jtool.eclipse.cfg.ControlFlow;
+import org.jtool.eclipse.cfg.DominatorTree;
+import org.jtool.eclipse.cfg.JReference;
+import org.jtool.eclipse.graph.CompactGraph;
+import java.util.List;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.HashMap;
+import java.util.Arrays;
+
+/**
+ * Solves reaching definitions of a CFG with a worklist over its basic blocks.
+ * Each definition site, a pair of a statement and a variable defined there, occupies one bit of a bit vector.
+ * Definitions are solved twice, with and without back edges, to tell loop-independent reaches from loop-carried ones.
+ * Fall-through flows are ignored, as is the case in the data dependence analysis.
+ * All methods of this class are not intended to be directly called by clients.
+ * 
+ * @author Katsuhisa Maruyama
+ */
+public class ReachingDefinitions {
+    
+    private final CompactGraph<CFGNode, ControlFlow> graph;
+    
+    private CFGStatement[] defNodes;
+    private JReference[] defVars;
+    private int words;
+    
+    private long[][] varMasks;
+    private int[][] useVarIds;
+    private int[][] defVarIds;
+    private int[][] genSites;
+    
+    private int[][] blocks;
+    private int[][] blockSuccs;
+    private boolean[][] backEdges;
+    private long[][] gens;
+    private long[][] kills;
+    
+    private long[][] inAll;
+    private long[][] inAcyclic;
+    
+    public interface ReachHandler {
+        void reach(CFGStatement def, JReference jvar, CFGStatement node, boolean loopIndependent);
+    }
+    
+    public ReachingDefinitions(CFG cfg) {
+        DominatorTree tree = cfg.getDominatorTree();
+        graph = tree.getCompactGraph();
+        
+        collectDefinitionSites();
+        collectBasicBlocks(tree);
+        inAll = solve(true);
+        inAcyclic = solve(false);
+    }
+    
+    public int numberOfDefinitionSites() {
+        return defNodes.length;
+    }
+    
+    public int numberOfBasicBlocks() {
+        return blocks.length;
+    }
+    
+    private void collectDefinitionSites() {
+        int size = graph.size();
+        Map<String, Integer> varIds = new HashMap<>();
+        List<CFGStatement> nodes = new ArrayList<>();
+        List<JReference> vars = new ArrayList<>();
+        List<Integer> siteVarIds = new ArrayList<>();
+        
+        defVarIds = new int[size][];
+        genSites = new int[size][];
+        for (int n = 0; n < size; n++) {
+            CFGNode node = graph.getNode(n);
+            if (node.isStatement() && node.hasDefVariable()) {
+                List<JReference> jvars = ((CFGStatement)node).getDefVariables();
+                defVarIds[n] = new int[jvars.size()];
+                genSites[n] = new int[jvars.size()];
+                for (int i = 0; i < jvars.size(); i++) {
+                    JReference jvar = jvars.get(i);
+                    Integer id = varIds.get(jvar.getReferenceName());
+                    if (id == null) {
+                        id = varIds.size();
+                        varIds.put(jvar.getReferenceName(), id);
+                    }
+                    defVarIds[n][i] = id;
+                    genSites[n][i] = nodes.size();
+                    nodes.add((CFGStatement)node);
+                    vars.add(jvar);
+                    siteVarIds.add(id);
+                }
+            } else {
+                defVarIds[n] = new int[0];
+                genSites[n] = new int[0];
+            }
+        }
+        
+        defNodes = nodes.toArray(new CFGStatement[nodes.size()]);
+        defVars = vars.toArray(new JReference[vars.size()]);
+        words = (defNodes.length + 63) >>> 6;
+        
+        varMasks = new long[varIds.size()][words];
+        for (int s = 0; s < defNodes.length; s++) {
+            set(varMasks[siteVarIds.get(s)], s);
+        }
+        
+        useVarIds = new int[size][];
+        for (int n = 0; n < size; n++) {
+            CFGNode node = graph.getNode(n);
+            if (node.hasUseVariable()) {
+                List<JReference> jvars = ((CFGStatement)node).getUseVariables();
+                int[] ids = new int[jvars.size()];
+                int num = 0;
+                for (JReference jvar : jvars) {
+                    Integer id = varIds.get(jvar.getReferenceName());
+                    if (id != null && !contains(ids, num, id)) {
+                        ids[num++] = id;
+                    }
+                }
+                useVarIds[n] = Arrays.copyOf(ids, num);
+            } else {
+                useVarIds[n] = new int[0];
+            }
+        }
+    }
+    
+    private void collectBasicBlocks(DominatorTree tree) {
+        int size = graph.size();
+        int[] inDegree = new int[size];
+        int[] outDegree = new int[size];
+        int[] uniquePred = new int[size];
+        for (int e = 0; e < graph.numberOfEdges(); e++) {
+            if (isFlow(e)) {
+                outDegree[graph.getSrcIndex(e)]++;
+                inDegree[graph.getDstIndex(e)]++;
+                uniquePred[graph.getDstIndex(e)] = graph.getSrcIndex(e);
+            }
+        }
+        
+        boolean[] leader = new boolean[size];
+        for (int n = 0; n < size; n++) {
+            leader[n] = inDegree[n] != 1 || outDegree[uniquePred[n]] != 1 || uniquePred[n] == n;
+        }
+        
+        int[] blockOf = new int[size];
+        Arrays.fill(blockOf, -1);
+        List<int[]> blockList = new ArrayList<>();
+        for (int n = 0; n < size; n++) {
+            if (leader[n]) {
+                blockList.add(collectNodesInBlock(n, blockList.size(), leader, outDegree, blockOf));
+            }
+        }
+        for (int n = 0; n < size; n++) {
+            if (blockOf[n] == -1) {
+                leader[n] = true;
+                blockList.add(collectNodesInBlock(n, blockList.size(), leader, outDegree, blockOf));
+            }
+        }
+        blocks = blockList.toArray(new int[blockList.size()][]);
+        
+        blockSuccs = new int[blocks.length][];
+        backEdges = new boolean[blocks.length][];
+        gens = new long[blocks.length][];
+        kills = new long[blocks.length][];
+        for (int b = 0; b < blocks.length; b++) {
+            int last = blocks[b][blocks[b].length - 1];
+            blockSuccs[b] = new int[outDegree[last]];
+            backEdges[b] = new boolean[outDegree[last]];
+            int num = 0;
+            for (int k = 0; k < graph.outDegree(last); k++) {
+                int e = graph.getOutgoingEdge(last, k);
+                if (isFlow(e)) {
+                    ControlFlow flow = graph.getEdge(e);
+                    blockSuccs[b][num] = blockOf[graph.getDstIndex(e)];
+                    backEdges[b][num] = tree.isBackEdge(flow);
+                    num++;
+                }
+            }
+            
+            long[] gen = new long[words];
+            long[] kill = new long[words];
+            for (int node : blocks[b]) {
+                for (int v : defVarIds[node]) {
+                    andNot(gen, varMasks[v]);
+                    or(kill, varMasks[v]);
+                }
+                for (int s : genSites[node]) {
+                    set(gen, s);
+                }
+            }
+            gens[b] = gen;
+            kills[b] = kill;
+        }
+    }
+    
+    private int[] collectNodesInBlock(int start, int block, boolean[] leader, int[] outDegree, int[] blockOf) {
+        List<Integer> nodes = new ArrayList<>();
+        int node = start;
+        while (true) {
+            nodes.add(node);
+            blockOf[node] = block;
+            int succ = getUniqueSuccessor(node, outDegree);
+            if (succ == -1 || leader[succ] || blockOf[succ] != -1) {
+                break;
+            }
+            node = succ;
+        }
+        return nodes.stream().mapToInt(Integer::intValue).toArray();
+    }
+    
+    private boolean isFlow(int edge) {
+        return !graph.getEdge(edge).isFallThrough();
+    }
+    
+    private int getUniqueSuccessor(int node, int[] outDegree) {
+        if (outDegree[node] != 1) {
+            return -1;
+        }
+        for (int k = 0; k < graph.outDegree(node); k++) {
+            int e = graph.getOutgoingEdge(node, k);
+            if (isFlow(e)) {
+                return graph.getDstIndex(e);
+            }
+        }
+        return -1;
+    }
+    
+    private long[][] solve(boolean withBackEdges) {
+        long[][] in = new long[blocks.length][words];
+        long[] out = new long[words];
+        
+        int[] queue = new int[blocks.length];
+        boolean[] queued = new boolean[blocks.length];
+        for (int b = 0; b < blocks.length; b++) {
+            queue[b] = b;
+            queued[b] = true;
+        }
+        int head = 0;
+        int count = blocks.length;
+        while (count > 0) {
+            int b = queue[head];
+            head = (head + 1) % blocks.length;
+            count--;
+            queued[b] = false;
+            
+            for (int w = 0; w < words; w++) {
+                out[w] = gens[b][w] | (in[b][w] & ~kills[b][w]);
+            }
+            for (int k = 0; k < blockSuccs[b].length; k++) {
+                if (!withBackEdges && backEdges[b][k]) {
+                    continue;
+                }
+                int succ = blockSuccs[b][k];
+                if (or(in[succ], out) && !queued[succ]) {
+                    queue[(head + count) % blocks.length] = succ;
+                    queued[succ] = true;
+                    count++;
+                }
+            }
+        }
+        return in;
+    }
+    
+    public void findUses(ReachHandler handler) {
+        walk(handler, true);
+    }
+    
+    public void findRedefinitions(ReachHandler handler) {
+        walk(handler, false);
+    }
+    
+    private void walk(ReachHandler handler, boolean uses) {
+        long[] cur = new long[words];
+        long[] curAcyclic = new long[words];
+        for (int b = 0; b < blocks.length; b++) {
+            System.arraycopy(inAll[b], 0, cur, 0, words);
+            System.arraycopy(inAcyclic[b], 0, curAcyclic, 0, words);
+            for (int node : blocks[b]) {
+                if (uses) {
+                    for (int v : useVarIds[node]) {
+                        report(handler, node, v, cur, curAcyclic);
+                    }
+                } else {
+                    for (int v : defVarIds[node]) {
+                        if (!contains(useVarIds[node], useVarIds[node].length, v)) {
+                            report(handler, node, v, cur, curAcyclic);
+                        }
+                    }
+                }
+                
+                for (int v : defVarIds[node]) {
+                    andNot(cur, varMasks[v]);
+                    andNot(curAcyclic, varMasks[v]);
+                }
+                for (int s : genSites[node]) {
+                    set(cur, s);
+                    set(curAcyclic, s);
+                }
+            }
+        }
+    }
+    
+    private void report(ReachHandler handler, int node, int var, long[] cur, long[] curAcyclic) {
+        long[] mask = varMasks[var];
+        CFGStatement candidate = (CFGStatement)graph.getNode(node);
+        for (int w = 0; w < words; w++) {
+            long bits = cur[w] & mask[w];
+            while (bits != 0) {
+                int s = (w << 6) + Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+                handler.reach(defNodes[s], defVars[s], candidate, (curAcyclic[w] & (1L << s)) != 0);
+            }
+        }
+    }
+    
+    private static void set(long[] bits, int index) {
+        bits[index >>> 6] |= 1L << index;
+    }
+    
+    private static boolean or(long[] bits, long[] other) {
+        boolean changed = false;
+        for (int w = 0; w < bits.length; w++) {
+            long value = bits[w] | other[w];
+            if (value != bits[w]) {
+                bits[w] = value;
+                changed = true;
+            }
+        }
+        return changed;
+    }
+    
+    private static void andNot(long[] bits, long[] other) {
+        for (int w = 0; w < bits.length; w++) {
+            bits[w] &= ~other[w];
+        }
+    }
+    
+    private static boolean contains(int[] ids, int num, int id) {
+        for (int i = 0; i < num; i++) {
+            if (ids[i] == id) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
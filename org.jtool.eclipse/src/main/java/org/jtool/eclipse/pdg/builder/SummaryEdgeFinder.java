@@ -7,56 +7,167 @@
 package org.jtool.eclipse.pdg.builder;
 
 import org.jtool.eclipse.pdg.PDG;
+import org.jtool.eclipse.pdg.PDGNode;
 import org.jtool.eclipse.pdg.PDGStatement;
+import org.jtool.eclipse.pdg.Dependence;
 import org.jtool.eclipse.pdg.ParameterEdge;
-import org.jtool.eclipse.cfg.CFGMethodCall;
+import org.jtool.eclipse.cfg.CFGNode;
+import org.jtool.eclipse.cfg.CFGParameter;
 import org.jtool.eclipse.cfg.JReference;
 import java.util.Set;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.HashMap;
+import java.util.Deque;
+import java.util.ArrayDeque;
 
 /**
- * Finds summary edges for data dependences between actual-in nodes and actual-out nodes in a PDG.
+ * Finds summary edges for data dependences between actual-in nodes and actual-out nodes in PDGs.
+ * Summary edges are computed in the worklist algorithm of Reps, Horwitz, Sagiv, and Rosay,
+ * which finds same-level paths from formal-in nodes to formal-out nodes once for each method
+ * and instantiates them at every call site of the method.
+ * A same-level path follows both control and data dependences within a PDG.
  * All methods of this class are not intended to be directly called by clients.
  * 
  * @author Katsuhisa Maruyama
  */
 public class SummaryEdgeFinder {
     
-    public static void find(PDG pdg) {
-        pdg.getNodes().stream()
-                      .map(pdgnode -> pdgnode.getCFGNode())
-                      .filter(cfgnode -> cfgnode.isMethodCall())
-                      .forEach(cfgnode -> {
-                          CFGMethodCall callnode = (CFGMethodCall)cfgnode;
-                          Set<PDGStatement> ains = PDGBuilder.findActualIns(callnode);
-                          Set<PDGStatement> aouts = PDGBuilder.findActualOuts(callnode);
-                          
-                          Set<PDGStatement> nodes = new HashSet<>();
-                          for (PDGStatement aout : aouts) {
-                              traverseBackward(nodes, aout, ains);
-                              
-                              for (PDGStatement ain : ains) {
-                                  if (nodes.contains(ain)) {
-                                      JReference jvar = ain.getDefVariables().get(0);
-                                      ParameterEdge edge = new ParameterEdge(ain, aout, jvar);
-                                      edge.setSummary();
-                                      pdg.add(edge);
-                                  }
-                              }
-                          }
-                      });
-    }
-    
-    private static void traverseBackward(Set<PDGStatement> nodes, PDGStatement anchor, Set<PDGStatement> ains) {
-        nodes.add(anchor);
-        anchor.getIncomingDDEdges().stream()
-              .map(edge -> (PDGStatement)edge.getSrcNode())
-              .forEach(node -> {
-                  if (ains.contains(node)) {
-                      nodes.add(node);
-                  } else if (!nodes.contains(node)) {
-                      traverseBackward(nodes, node, ains);
-                  }
-              });
+    private Map<PDGNode, PDG> owners = new HashMap<>();
+    private Map<PDGNode, Set<PDGNode>> pathEdges = new HashMap<>();
+    private Map<PDGNode, Set<PDGNode>> summaryEdges = new HashMap<>();
+    private Deque<PathEdge> worklist = new ArrayDeque<>();
+    
+    public static void find(Set<PDG> pdgs) {
+        find(pdgs, pdgs);
+    }
+    
+    public static void find(Set<PDG> pdgs, Set<PDG> callers) {
+        SummaryEdgeFinder finder = new SummaryEdgeFinder(pdgs);
+        finder.findPathEdges(finder.collectCallees(callers));
+        finder.addSummaryEdges(callers);
+    }
+    
+    private SummaryEdgeFinder(Set<PDG> pdgs) {
+        for (PDG pdg : pdgs) {
+            pdg.getNodes().forEach(node -> owners.put(node, pdg));
+        }
+    }
+    
+    private Set<PDG> collectCallees(Set<PDG> callers) {
+        Set<PDG> callees = new HashSet<>(callers);
+        Deque<PDG> stack = new ArrayDeque<>(callers);
+        while (!stack.isEmpty()) {
+            PDG pdg = stack.pop();
+            for (PDGNode node : pdg.getNodes()) {
+                if (node.getCFGNode().isMethodCall()) {
+                    List<Dependence> edges = node.getOutgoingDependenceList();
+                    for (int i = 0; i < edges.size(); i++) {
+                        Dependence edge = edges.get(i);
+                        PDG callee = owners.get(edge.getDstNode());
+                        if (edge.isCall() && callee != null && callees.add(callee)) {
+                            stack.push(callee);
+                        }
+                    }
+                }
+            }
+        }
+        return callees;
+    }
+    
+    private void findPathEdges(Set<PDG> pdgs) {
+        for (PDG pdg : pdgs) {
+            for (PDGNode node : pdg.getNodes()) {
+                if (node.getCFGNode().isFormalOut()) {
+                    propagate(node, node);
+                }
+            }
+        }
+        
+        while (!worklist.isEmpty()) {
+            PathEdge pathEdge = worklist.pop();
+            PDGNode node = pathEdge.node;
+            if (node.getCFGNode().isFormalIn()) {
+                List<Dependence> inEdges = node.getIncomingDependenceList();
+                for (int i = 0; i < inEdges.size(); i++) {
+                    Dependence inEdge = inEdges.get(i);
+                    if (inEdge.isParameterIn()) {
+                        findSummaryEdges(inEdge.getSrcNode(), pathEdge.formalOut);
+                    }
+                }
+            } else {
+                List<Dependence> edges = node.getIncomingDependenceList();
+                for (int i = 0; i < edges.size(); i++) {
+                    Dependence edge = edges.get(i);
+                    if (isIntraDependence(edge)) {
+                        propagate(edge.getSrcNode(), pathEdge.formalOut);
+                    }
+                }
+                for (PDGNode ain : summaryEdges.getOrDefault(node, new HashSet<>())) {
+                    propagate(ain, pathEdge.formalOut);
+                }
+            }
+        }
+    }
+    
+    private void findSummaryEdges(PDGNode ain, PDGNode formalOut) {
+        CFGNode callnode = ((CFGParameter)ain.getCFGNode()).getParent();
+        List<Dependence> outEdges = formalOut.getOutgoingDependenceList();
+        for (int i = 0; i < outEdges.size(); i++) {
+            Dependence outEdge = outEdges.get(i);
+            PDGNode aout = outEdge.getDstNode();
+            if (outEdge.isParameterOut() && ((CFGParameter)aout.getCFGNode()).getParent() == callnode) {
+                Set<PDGNode> ains = summaryEdges.computeIfAbsent(aout, k -> new HashSet<>());
+                if (ains.add(ain)) {
+                    for (PDGNode fout : new HashSet<>(pathEdges.getOrDefault(aout, new HashSet<>()))) {
+                        propagate(ain, fout);
+                    }
+                }
+            }
+        }
+    }
+    
+    private boolean isIntraDependence(Dependence edge) {
+        if (edge.isDD()) {
+            if (edge.isParameterIn() || edge.isParameterOut() || edge.isSummary()) {
+                return false;
+            }
+        } else if (!edge.isCD()) {
+            return false;
+        }
+        PDG pdg = owners.get(edge.getSrcNode());
+        return pdg != null && pdg == owners.get(edge.getDstNode());
+    }
+    
+    private void propagate(PDGNode node, PDGNode formalOut) {
+        if (pathEdges.computeIfAbsent(node, k -> new HashSet<>()).add(formalOut)) {
+            worklist.push(new PathEdge(node, formalOut));
+        }
+    }
+    
+    private void addSummaryEdges(Set<PDG> callers) {
+        for (PDGNode aout : summaryEdges.keySet()) {
+            PDG pdg = owners.get(aout);
+            if (callers.contains(pdg)) {
+                for (PDGNode ain : summaryEdges.get(aout)) {
+                    JReference jvar = ((PDGStatement)ain).getDefVariables().get(0);
+                    ParameterEdge edge = new ParameterEdge(ain, aout, jvar);
+                    edge.setSummary();
+                    pdg.add(edge);
+                }
+            }
+        }
+    }
+    
+    private class PathEdge {
+        
+        private PDGNode node;
+        private PDGNode formalOut;
+        
+        PathEdge(PDGNode node, PDGNode formalOut) {
+            this.node = node;
+            this.formalOut = formalOut;
+        }
     }
 }
@@ -373,6 +373,11 @@ public class ModelBuilderPlugin extends ModelBuilder {
     
     @Override
     public void resisterBytecodeClasses(JavaProject jproject) {
+        if (lazyBytecodeIndexing) {
+            bytecodeClassStore.createBytecodeClassIndex(jproject);
+            return;
+        }
+        
         try {
             IWorkbenchWindow workbenchWindow = Activator.getPlugin().getWorkbenchWindow();
             workbenchWindow.run(true, true, new IRunnableWithProgress() {
@@ -7,11 +7,17 @@
 package org.jtool.eclipse.slice;
 
 import org.jtool.eclipse.pdg.PDGNode;
+import org.jtool.eclipse.pdg.CD;
 import java.util.List;
 import java.util.ArrayList;
+import java.util.Set;
+import java.util.HashSet;
+import java.util.Deque;
+import java.util.ArrayDeque;
 
 /**
  * An object storing information about a closure created by traversing only the control dependence.
+ * Nodes in a closure are listed in the order they are visited.
  * 
  * @author Katsuhisa Maruyama
  */
@@ -19,37 +25,36 @@ public class CDClosure {
     
     public static List<PDGNode> getForwardCDClosure(PDGNode anchor) {
         List<PDGNode> nodes = new ArrayList<>();
-        traverseForwardCD(anchor, nodes);
+        traverseCD(anchor, nodes, true);
         return nodes;
     }
     
-    private static void traverseForwardCD(PDGNode node, List<PDGNode> nodes) {
-        if (nodes.contains(node)) {
-            return;
-        }
-        nodes.add(node);
-        
-        node.getOutgoingCDEdges().forEach(edge -> {
-            PDGNode next = edge.getSrcNode();
-            traverseForwardCD(next, nodes);
-        });
-    }
-    
     public static List<PDGNode> getBackwardCDClosure(PDGNode anchor) {
         List<PDGNode> nodes = new ArrayList<>();
-        traverseBackwardCD(anchor, nodes);
+        traverseCD(anchor, nodes, false);
         return nodes;
     }
     
-    private static void traverseBackwardCD(PDGNode node, List<PDGNode> nodes) {
-        if (nodes.contains(node)) {
-            return;
+    private static void traverseCD(PDGNode anchor, List<PDGNode> nodes, boolean forward) {
+        Set<PDGNode> visited = new HashSet<>();
+        Deque<PDGNode> stack = new ArrayDeque<>();
+        stack.push(anchor);
+        while (!stack.isEmpty()) {
+            PDGNode node = stack.pop();
+            if (visited.add(node)) {
+                nodes.add(node);
+                if (forward) {
+                    List<CD> edges = node.getOutgoingCDList();
+                    for (int i = 0; i < edges.size(); i++) {
+                        stack.push(edges.get(i).getDstNode());
+                    }
+                } else {
+                    List<CD> edges = node.getIncomingCDList();
+                    for (int i = 0; i < edges.size(); i++) {
+                        stack.push(edges.get(i).getSrcNode());
+                    }
+                }
+            }
         }
-        nodes.add(node);
-        
-        node.getIncomingCDEdges().forEach(edge -> {
-            PDGNode next = edge.getSrcNode();
-            traverseBackwardCD(next, nodes);
-        });
     }
 }
@@ -11,57 +11,67 @@ import org.jtool.eclipse.pdg.DD;
 import org.jtool.eclipse.cfg.JReference;
 import java.util.List;
 import java.util.ArrayList;
+import java.util.Set;
+import java.util.HashSet;
+import java.util.Deque;
+import java.util.ArrayDeque;
 
 /**
  * An object storing information about a closure created by traversing only the data dependence.
+ * Nodes in a closure are listed in the order they are visited.
  * 
  * @author Katsuhisa Maruyama
  */
 public class DDClosure {
     
     public static List<PDGNode> getForwardCDClosure(PDGNode anchor, JReference jv) {
-        List<PDGNode> nodes = new ArrayList<>();
-        for (DD edge : anchor.getOutgoingDDEdges()) {
+        Deque<PDGNode> stack = new ArrayDeque<>();
+        List<DD> edges = anchor.getOutgoingDDList();
+        for (int i = 0; i < edges.size(); i++) {
+            DD edge = edges.get(i);
             if (edge.getVariable().equals(jv)) {
-                PDGNode next = edge.getSrcNode();
-                traverseForwardDD(next, nodes);
+                stack.push(edge.getDstNode());
             }
         }
-        return nodes;
-    }
-    
-    private static void traverseForwardDD(PDGNode node, List<PDGNode> nodes) {
-        if (nodes.contains(node)) {
-            return;
-        }
-        nodes.add(node);
         
-        node.getOutgoingDDEdges().forEach(edge -> {
-            PDGNode next = edge.getSrcNode();
-            traverseForwardDD(next, nodes);
-        });
+        List<PDGNode> nodes = new ArrayList<>();
+        traverseDD(stack, nodes, true);
+        return nodes;
     }
     
     public static List<PDGNode> getBackwardCDClosure(PDGNode anchor, JReference jv) {
-        List<PDGNode> nodes = new ArrayList<>();
-        for (DD edge : anchor.getIncomingDDEdges()) {
+        Deque<PDGNode> stack = new ArrayDeque<>();
+        List<DD> edges = anchor.getIncomingDDList();
+        for (int i = 0; i < edges.size(); i++) {
+            DD edge = edges.get(i);
             if (edge.getVariable().equals(jv)) {
-                PDGNode next = edge.getSrcNode();
-                traverseBackwardDD(next, nodes);
+                stack.push(edge.getSrcNode());
             }
         }
+        
+        List<PDGNode> nodes = new ArrayList<>();
+        traverseDD(stack, nodes, false);
         return nodes;
     }
     
-    private static void traverseBackwardDD(PDGNode node, List<PDGNode> nodes) {
-        if (nodes.contains(node)) {
-            return;
+    private static void traverseDD(Deque<PDGNode> stack, List<PDGNode> nodes, boolean forward) {
+        Set<PDGNode> visited = new HashSet<>();
+        while (!stack.isEmpty()) {
+            PDGNode node = stack.pop();
+            if (visited.add(node)) {
+                nodes.add(node);
+                if (forward) {
+                    List<DD> edges = node.getOutgoingDDList();
+                    for (int i = 0; i < edges.size(); i++) {
+                        stack.push(edges.get(i).getDstNode());
+                    }
+                } else {
+                    List<DD> edges = node.getIncomingDDList();
+                    for (int i = 0; i < edges.size(); i++) {
+                        stack.push(edges.get(i).getSrcNode());
+                    }
+                }
+            }
         }
-        nodes.add(node);
-        
-        node.getIncomingDDEdges().forEach(edge -> {
-            PDGNode next = edge.getSrcNode();
-            traverseBackwardDD(next, nodes);
-        });
     }
 }
@@ -21,9 +21,13 @@ import org.jtool.eclipse.cfg.CFGStatement;
 import org.jtool.eclipse.cfg.CFGMethodCall;
 import org.jtool.eclipse.cfg.JReference;
 import org.jtool.eclipse.cfg.StopConditionOnReachablePath;
+import org.jtool.eclipse.graph.DepthFirstWalk;
 import org.jtool.eclipse.graph.GraphNode;
 import java.util.Set;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
 
 /**
  * An object storing information about a program slice.
@@ -130,14 +134,14 @@ public class Slice {
     }
     
     private void traverseBackward(PDGNode node) {
-        if (nodesInSlice.contains(node)) {
-            return;
-        }
-        
-        nodesInSlice.add(node);
-        
+        DepthFirstWalk.walk(node, nodesInSlice, n -> visit(n));
+    }
+    
+    private Iterator<PDGNode> visit(PDGNode node) {
+        List<Dependence> edges = node.getIncomingDependenceList();
         if (node.getCFGNode().isCatch()) {
-            for (Dependence edge : node.getIncomingDependeceEdges()) {
+            for (int i = 0; i < edges.size(); i++) {
+                Dependence edge = edges.get(i);
                 PDGNode src = edge.getSrcNode();
                 if (src.getCFGNode().isMethodCall()) {
                     callNodes.add(src);
@@ -150,7 +154,8 @@ public class Slice {
             callNodes.add(callNode);
         }
         
-        for (Dependence edge : node.getIncomingDependeceEdges()) {
+        for (int i = 0; i < edges.size(); i++) {
+            Dependence edge = edges.get(i);
             PDGNode src = edge.getSrcNode();
             if (edge.isFieldAccess() && src.getCFGNode().isMethodCall()) {
                 DD dd = (DD)edge;
@@ -161,47 +166,98 @@ public class Slice {
                 }
             }
         }
+        return new TraversableNodes(node, edges);
+    }
+    
+    /**
+     * Enumerates the nodes to which the slice is extended along the incoming dependences of a node.
+     * Each edge is examined only after the traversal from the nodes of the preceding edges has finished,
+     * since that traversal may add call nodes.
+     */
+    private class TraversableNodes implements Iterator<PDGNode> {
+        
+        private PDGNode node;
+        private List<Dependence> edges;
+        private int index = 0;
+        
+        private List<Dependence> outEdges = null;
+        private int outIndex = 0;
+        
+        private PDGNode next = null;
+        
+        TraversableNodes(PDGNode node, List<Dependence> edges) {
+            this.node = node;
+            this.edges = edges;
+        }
+        
+        @Override
+        public boolean hasNext() {
+            while (next == null) {
+                if (outEdges != null && outIndex < outEdges.size()) {
+                    Dependence e = outEdges.get(outIndex++);
+                    if (e.isExceptionCatch()) {
+                        next = e.getDstNode();
+                    }
+                } else if (index < edges.size()) {
+                    outEdges = null;
+                    next = getTraversableNode(edges.get(index++));
+                } else {
+                    return false;
+                }
+            }
+            return true;
+        }
         
-        for (Dependence edge : node.getIncomingDependeceEdges()) {
+        @Override
+        public PDGNode next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            PDGNode n = next;
+            next = null;
+            return n;
+        }
+        
+        private PDGNode getTraversableNode(Dependence edge) {
             PDGNode src = edge.getSrcNode();
             if (edge.isCD()) {
                 if (src.getCFGNode().isMethodCall()) {
                     if (callNodes.contains(src)) {
-                        traverseBackward(src);
+                        return src;
                     }
                 } else {
-                    traverseBackward(src);
+                    return src;
                 }
-                    
+                
             } else if (edge.isLIDD() || edge.isLCDD()) {
                 if (src.getCFGNode().isMethodCall() && node.getCFGNode().isReceiver()) {
                     PDGNode callNode = getDominantNode(src);
                     if (callNodes.contains(callNode)) {
-                        traverseBackward(src);
+                        return src;
                     }
                 } else {
-                    traverseBackward(src);
+                    return src;
                 }
                 
             } else if (edge.isFieldAccess()) {
                 DD dd = (DD)edge;
                 if (src.getCFGNode().isMethodCall()) {
                     if (callNodes.contains(src)) {
-                        traverseBackward(src);
+                        return src;
                     }
                 } else if (src.getCFGNode().isReceiver()) {
                     if (callNodes.contains(src)) {
-                        traverseBackward(src);
+                        return src;
                     }
                 } else {
                     PDGNode domNode = getDominantNode(src);
                     if (domNode.getCFGNode().isFieldEntry()) {
-                        traverseBackward(src);
+                        return src;
                     } else {
                         callNodes.addAll(getTraversableMethodCalls(src, dd.getVariable()));
                         for (PDGNode callnode : getMethodCalls(domNode)) {
                             if (callNodes.contains(callnode)) {
-                                traverseBackward(src);
+                                return src;
                             }
                         }
                     }
@@ -210,28 +266,26 @@ public class Slice {
             } else if (edge.isParameterIn()) {
                 PDGNode callnode = getDominantNode(src);
                 if (callNodes.contains(callnode)) {
-                    traverseBackward(src);
+                    return src;
                 }
                 
             } else if (edge.isParameterOut()) {
-                traverseBackward(src);
+                return src;
                 
             } else if (edge.isSummary()) {
                 PDGNode ainOn = getDominantNode(src);
                 PDGNode aoutOn = getDominantNode(node);
                 if (ainOn.equals(aoutOn)) {
-                    traverseBackward(src);
+                    return src;
                 }
                 
             } else if (edge.isCall()) {
                 if (callNodes.contains(src)) {
-                    for (Dependence e : src.getOutgoingDependeceEdges()) {
-                        if (e.isExceptionCatch()) {
-                            traverseBackward(e.getDstNode());
-                        }
-                    }
+                    outEdges = src.getOutgoingDependenceList();
+                    outIndex = 0;
                 }
             }
+            return null;
         }
     }
     
@@ -245,7 +299,9 @@ public class Slice {
             }
         }
         
-        for (DD edge : node.getIncomingDDEdges()) {
+        List<DD> edges = node.getIncomingDDList();
+        for (int i = 0; i < edges.size(); i++) {
+            DD edge = edges.get(i);
             if (edge.getVariable().equals(jv)) {
                 pdgnodes.add(edge.getSrcNode());
             }
@@ -273,7 +329,9 @@ public class Slice {
     }
     
     private PDGNode getDominantNode(PDGNode node) {
-        for (CD edge : node.getIncomingCDEdges()) {
+        List<CD> edges = node.getIncomingCDList();
+        for (int i = 0; i < edges.size(); i++) {
+            CD edge = edges.get(i);
             if (edge.isTrue() || edge.isFalse()) {
                 return edge.getSrcNode();
             }
@@ -293,7 +351,9 @@ public class Slice {
     
     private Set<PDGNode> getMethodCalls(PDGNode node) {
         Set<PDGNode> nodes = new HashSet<>();
-        for (Dependence edge : node.getIncomingDependeceEdges()) {
+        List<Dependence> edges = node.getIncomingDependenceList();
+        for (int i = 0; i < edges.size(); i++) {
+            Dependence edge = edges.get(i);
             if (edge.isCall()) {
                 nodes.add(edge.getSrcNode());
             }
@@ -321,7 +381,9 @@ public class Slice {
             return false;
         }
         
-        for (DD edge : callNode.getOutgoingDDEdges()) {
+        List<DD> edges = callNode.getOutgoingDDList();
+        for (int i = 0; i < edges.size(); i++) {
+            DD edge = edges.get(i);
             if (edge.isOutput() &&
                     jv.getQualifiedName().equals(edge.getVariable().getQualifiedName()) &&
                     reachable(edge.getDstNode())) {
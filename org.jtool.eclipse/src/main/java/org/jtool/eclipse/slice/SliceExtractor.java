@@ -20,6 +20,7 @@ import org.jtool.eclipse.codemanipulation.MethodInvocationCollector;
 import org.jtool.eclipse.codemanipulation.CodeGenerator;
 import org.eclipse.jdt.core.dom.ASTVisitor;
 import org.eclipse.jdt.core.dom.ASTNode;
+import org.eclipse.jdt.core.dom.CompilationUnit;
 import org.eclipse.jdt.core.dom.MethodDeclaration;
 import org.eclipse.jdt.core.dom.Initializer;
 import org.eclipse.jdt.core.dom.LambdaExpression;
@@ -64,6 +65,8 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.ArrayList;
 import java.util.Map;
+import java.util.HashMap;
+import java.util.Arrays;
 
 /**
  * Extracts a slice and returns Java source code corresponding to the slice.
@@ -76,15 +79,24 @@ public class SliceExtractor extends ASTVisitor {
     protected Set<ASTNode> sliceNodes = new HashSet<>();
     protected ASTNode astNode;
     
+    private long[] sliceKeys;
+    private long[] subtreeKeys;
+    
+    private ASTNode originalNode;
+    private Map<Long, MethodInvocation> originalInvocations;
+    
     public SliceExtractor(ModelBuilder builder, Slice slice, JavaClass jclass) {
         this(builder, slice.getNodes(), jclass);
     }
     
     public SliceExtractor(ModelBuilder builder, Set<PDGNode> nodes, JavaClass jclass) {
-        JavaFile jfile = builder.copyJavaFile(jclass.getFile());
+        this(nodes, builder.copyJavaFile(jclass.getFile()), jclass);
+    }
+    
+    public SliceExtractor(Set<PDGNode> nodes, JavaFile jfile, JavaClass jclass) {
         for (JavaClass jc : jfile.getClasses()) {
             if (jc.getQualifiedName().equals(jclass.getQualifiedName())) {
-                createSliceExtractor(nodes, jfile, jc.getASTNode());
+                createSliceExtractor(nodes, jfile, jc.getASTNode(), new ASTNodeOnCFGCollector(jfile.getCompilationUnit()));
             }
         }
     }
@@ -94,12 +106,15 @@ public class SliceExtractor extends ASTVisitor {
     }
     
     public SliceExtractor(ModelBuilder builder, Set<PDGNode> nodes, JavaMethod jmethod) {
-        JavaFile jfile = builder.copyJavaFile(jmethod.getDeclaringClass().getFile());
+        this(nodes, builder.copyJavaFile(jmethod.getDeclaringClass().getFile()), jmethod);
+    }
+    
+    public SliceExtractor(Set<PDGNode> nodes, JavaFile jfile, JavaMethod jmethod) {
         for (JavaClass jc : jfile.getClasses()) {
             if (jc.getQualifiedName().equals(jmethod.getDeclaringClass().getQualifiedName())) {
                 for (JavaMethod jm : jc.getMethods()) {
                     if (jm.getQualifiedName().equals(jmethod.getQualifiedName())) {
-                        createSliceExtractor(nodes, jfile, jm.getASTNode());
+                        createSliceExtractor(nodes, jfile, jm.getASTNode(), new ASTNodeOnCFGCollector(jfile.getCompilationUnit()));
                     }
                 }
             }
@@ -111,20 +126,31 @@ public class SliceExtractor extends ASTVisitor {
     }
     
     public SliceExtractor(ModelBuilder builder, Set<PDGNode> nodes, JavaField jfield) {
-        JavaFile jfile = builder.copyJavaFile(jfield.getDeclaringClass().getFile());
+        this(nodes, builder.copyJavaFile(jfield.getDeclaringClass().getFile()), jfield);
+    }
+    
+    public SliceExtractor(Set<PDGNode> nodes, JavaFile jfile, JavaField jfield) {
         for (JavaClass jc : jfile.getClasses()) {
             if (jc.getQualifiedName().equals(jfield.getDeclaringClass().getQualifiedName())) {
                 for (JavaField jf : jc.getFields()) {
                     if (jf.getQualifiedName().equals(jfield.getQualifiedName())) {
-                        createSliceExtractor(nodes, jfile, jf.getASTNode());
+                        createSliceExtractor(nodes, jfile, jf.getASTNode(), new ASTNodeOnCFGCollector(jfile.getCompilationUnit()));
                     }
                 }
             }
         }
     }
     
-    private void createSliceExtractor(Set<PDGNode> nodes, JavaFile jfile, ASTNode astNode) {
-        ASTNodeOnCFGCollector collector = new ASTNodeOnCFGCollector(jfile.getCompilationUnit());
+    /*
+     * Extracts a slice from a detached copy of an AST node of the declaration in the parsed file.
+     * The copy lacks bindings, which are taken from the original AST node instead.
+     */
+    SliceExtractor(Set<PDGNode> nodes, JavaFile jfile, ASTNode astNode, ASTNode originalNode, ASTNodeOnCFGCollector collector) {
+        createSliceExtractor(nodes, jfile, astNode, collector);
+        this.originalNode = originalNode;
+    }
+    
+    private void createSliceExtractor(Set<PDGNode> nodes, JavaFile jfile, ASTNode astNode, ASTNodeOnCFGCollector collector) {
         sliceNodes.add(astNode);
         for (PDGNode pdfnode : nodes) {
             registerASTNode(pdfnode.getCFGNode().getASTNode(), collector);
@@ -148,33 +174,100 @@ public class SliceExtractor extends ASTVisitor {
     }
     
     public ASTNode extractAST() {
+        markSliceNodes();
         astNode.accept(this);
         return astNode;
     }
     
     public String extract() {
-        return extract(null);
+        return extract(new CodeGenerator());
     }
     
     public String extract(Map<String, String> options) {
-        astNode.accept(this);
-        
         CodeGenerator codeGenerator = new CodeGenerator();
         codeGenerator.setOptions(options);
+        return extract(codeGenerator);
+    }
+    
+    String extract(CodeGenerator codeGenerator) {
+        markSliceNodes();
+        astNode.accept(this);
         
-        String code = codeGenerator.generate(astNode, jfile.getCode(), sliceNodes);
+        CompilationUnit cu = jfile.getCompilationUnit();
+        String code = codeGenerator.generate(astNode, jfile.getCode(), sliceNodes, cu);
         return code;
     }
     
+    private static long key(ASTNode node) {
+        return ((long)node.getStartPosition() << 32) | (node.getLength() & 0xffffffffL);
+    }
+    
+    private static long[] toSortedKeys(long[] keys, int size) {
+        long[] sorted = Arrays.copyOf(keys, size);
+        Arrays.sort(sorted);
+        int num = 0;
+        for (int i = 0; i < sorted.length; i++) {
+            if (num == 0 || sorted[num - 1] != sorted[i]) {
+                sorted[num++] = sorted[i];
+            }
+        }
+        return Arrays.copyOf(sorted, num);
+    }
+    
+    /*
+     * Marks in one bottom-up pass the AST nodes whose subtrees contain AST nodes on a CFG that are in the slice.
+     * Both kinds of nodes are identified by their positions and lengths,
+     * so that copies of AST nodes created while extracting the slice are found as well.
+     */
+    private void markSliceNodes() {
+        long[] keys = new long[sliceNodes.size()];
+        int size = 0;
+        for (ASTNode node : sliceNodes) {
+            keys[size++] = key(node);
+        }
+        sliceKeys = toSortedKeys(keys, size);
+        
+        SubtreeMarker marker = new SubtreeMarker();
+        astNode.accept(marker);
+        subtreeKeys = toSortedKeys(marker.keys, marker.size);
+    }
+    
+    private class SubtreeMarker extends ASTVisitor {
+        
+        private long[] keys = new long[16];
+        private int size = 0;
+        private boolean[] marks = new boolean[16];
+        private int depth = 0;
+        
+        @Override
+        public void preVisit(ASTNode node) {
+            if (depth == marks.length) {
+                marks = Arrays.copyOf(marks, depth * 2);
+            }
+            marks[depth++] = false;
+        }
+        
+        @Override
+        public void postVisit(ASTNode node) {
+            depth--;
+            if (marks[depth] || (ASTNodeOnCFGCollector.isCFGNode(node) && contains(node))) {
+                if (size == keys.length) {
+                    keys = Arrays.copyOf(keys, size * 2);
+                }
+                keys[size++] = key(node);
+                if (depth > 0) {
+                    marks[depth - 1] = true;
+                }
+            }
+        }
+    }
+    
     protected boolean contains(ASTNode node) {
         if (node == null) {
             return false;
         }
         
-        return sliceNodes
-                .stream()
-                .anyMatch(n -> node.getStartPosition() == n.getStartPosition() &&
-                               node.getLength() == n.getLength());
+        return Arrays.binarySearch(sliceKeys, key(node)) >= 0;
     }
     
     protected boolean containsAnyInSubTree(ASTNode node) {
@@ -182,6 +275,10 @@ public class SliceExtractor extends ASTVisitor {
             return false;
         }
         
+        if (node.getStartPosition() >= 0) {
+            return Arrays.binarySearch(subtreeKeys, key(node)) >= 0;
+        }
+        
         ASTNodeOnCFGCollector collector = new ASTNodeOnCFGCollector(node);
         for (ASTNode n : collector.getNodeSet()) {
             if (contains(n)) {
@@ -487,15 +584,37 @@ public class SliceExtractor extends ASTVisitor {
     }
     
     protected void removeMethodCallArgument(MethodInvocation node, List<Expression> arguments) {
-        if (node.resolveMethodBinding() != null) {
-            String declaringClassName = node.resolveMethodBinding().getDeclaringClass().getQualifiedName();
-            String enclosingClassName = findEnclosingClass(node);
+        MethodInvocation target = getOriginalInvocation(node);
+        if (target.resolveMethodBinding() != null) {
+            String declaringClassName = target.resolveMethodBinding().getDeclaringClass().getQualifiedName();
+            String enclosingClassName = findEnclosingClass(target);
             if (declaringClassName.equals(enclosingClassName)) {
                 removeMethodCallArgument(arguments);
             }
         }
     }
     
+    private MethodInvocation getOriginalInvocation(MethodInvocation node) {
+        if (originalNode == null) {
+            return node;
+        }
+        
+        if (originalInvocations == null) {
+            originalInvocations = new HashMap<>();
+            originalNode.accept(new InvocationIndexer());
+        }
+        return originalInvocations.getOrDefault(key(node), node);
+    }
+    
+    private class InvocationIndexer extends ASTVisitor {
+        
+        @Override
+        public boolean visit(MethodInvocation node) {
+            originalInvocations.put(key(node), node);
+            return true;
+        }
+    }
+    
     protected void removeMethodCallArgument(List<Expression> arguments) {
         List<Expression> removeNodes = new ArrayList<>();
         for (Expression expr : arguments) {
@@ -0,0 +1,253 @@
+/*
+ *  Copyright 2020
+ *  Software Science and Technology Lab.
+ *  Department of Computer Science, Ritsumeikan University
+ */
+
+package org.jtool.eclipse.slice;
+
+import org.jtool.eclipse.pdg.SDG;
+import org.jtool.eclipse.pdg.PDGNode;
+import org.jtool.eclipse.pdg.PDGStatement;
+import org.jtool.eclipse.pdg.Dependence;
+import org.jtool.eclipse.pdg.CD;
+import org.jtool.eclipse.pdg.DD;
+import org.jtool.eclipse.cfg.JReference;
+import org.jtool.eclipse.graph.CompactGraph;
+import org.jtool.eclipse.graph.IndexedGraph;
+import java.util.Set;
+import java.util.HashSet;
+import java.util.List;
+import java.util.BitSet;
+import java.util.stream.Collectors;
+
+/**
+ * Answers slicing queries on an SDG in the two-phase algorithm of Horwitz, Reps, and Binkley.
+ * The backward slice first ascends to the callers of the criterion without descending into callees,
+ * and then descends into callees from every node found without ascending to their callers.
+ * The forward slice traverses dependences in the opposite direction in the same two phases.
+ * A chop consists of the nodes in both the forward slice from a source and the backward slice from a sink.
+ * Summary edges let the first phase pass over method calls.
+ * 
+ * The engine takes a snapshot of the SDG when it is created, so it must be re-created after the SDG changes.
+ * A single engine can answer queries from multiple threads at the same time.
+ * 
+ * @author Katsuhisa Maruyama
+ */
+public class SlicingEngine {
+    
+    static final byte INTRA = 1;
+    static final byte ENTER = 2;
+    static final byte EXIT = 4;
+    
+    private CompactGraph<PDGNode, Dependence> graph;
+    private byte[] edgeKinds;
+    
+    private ThreadLocal<Workspace> workspaces;
+    
+    public SlicingEngine(SDG sdg) {
+        graph = sdg.getCompactGraph();
+        edgeKinds = new byte[graph.numberOfEdges()];
+        for (int e = 0; e < edgeKinds.length; e++) {
+            edgeKinds[e] = getEdgeKind(graph.getEdge(e).getKind());
+        }
+        workspaces = ThreadLocal.withInitial(() -> new Workspace(graph.size()));
+    }
+    
+    /*
+     * Classifies a dependence by the phases in which it is traversed.
+     */
+    static byte getEdgeKind(Dependence.Kind kind) {
+        switch (kind) {
+            case parameterIn:
+            case call:
+                return ENTER;
+            case parameterOut:
+                return EXIT;
+            case trueControlDependence:
+            case falseControlDependence:
+            case fallThroughControlDependence:
+            case declarationDependence:
+            case exceptionCatchDependence:
+            case loopIndependentDefUseDependence:
+            case loopCarriedDefUseDependence:
+            case fieldAccess:
+            case summary:
+                return INTRA;
+            default:
+                return 0;
+        }
+    }
+    
+    public Set<PDGNode> backwardSlice(SliceCriterion criterion) {
+        Workspace ws = workspaces.get();
+        traverseBackward(ws, criterion);
+        return getNodes(ws.visited);
+    }
+    
+    public Set<PDGNode> forwardSlice(SliceCriterion criterion) {
+        Workspace ws = workspaces.get();
+        traverseForward(ws, criterion);
+        return getNodes(ws.visited);
+    }
+    
+    public Set<PDGNode> chop(SliceCriterion source, SliceCriterion sink) {
+        Workspace ws = workspaces.get();
+        traverseForward(ws, source);
+        ws.marked.clear();
+        ws.marked.or(ws.visited);
+        traverseBackward(ws, sink);
+        ws.visited.and(ws.marked);
+        return getNodes(ws.visited);
+    }
+    
+    public List<Set<PDGNode>> backwardSlices(List<SliceCriterion> criteria) {
+        return criteria.parallelStream()
+                       .map(criterion -> backwardSlice(criterion))
+                       .collect(Collectors.toList());
+    }
+    
+    public List<Set<PDGNode>> forwardSlices(List<SliceCriterion> criteria) {
+        return criteria.parallelStream()
+                       .map(criterion -> forwardSlice(criterion))
+                       .collect(Collectors.toList());
+    }
+    
+    private void traverseBackward(Workspace ws, SliceCriterion criterion) {
+        ws.clear();
+        for (JReference jv : criterion.getnVariables()) {
+            pushBackwardStartNodes(ws, criterion.getNode(), jv);
+        }
+        PDGNode node = criterion.getNode();
+        if (node.getCFGNode().isActual()) {
+            List<CD> edges = node.getIncomingCDList();
+            for (int i = 0; i < edges.size(); i++) {
+                pushConditions(ws, edges.get(i).getSrcNode());
+            }
+        } else {
+            pushConditions(ws, node);
+        }
+        if (ws.top == 0) {
+            ws.push(graph.indexOf(node));
+        }
+        
+        traverseBackward(graph, edgeKinds, ws);
+    }
+    
+    private void traverseForward(Workspace ws, SliceCriterion criterion) {
+        ws.clear();
+        ws.push(graph.indexOf(criterion.getNode()));
+        
+        traverseForward(graph, edgeKinds, ws);
+    }
+    
+    /*
+     * Pushes the nodes on which a node is control dependent through branches, as Slice starts from them.
+     * The declaration dependence of a node on itself is excluded, so that a node that only uses a variable is not put in its slice.
+     */
+    private void pushConditions(Workspace ws, PDGNode node) {
+        List<CD> edges = node.getIncomingCDList();
+        for (int i = 0; i < edges.size(); i++) {
+            CD edge = edges.get(i);
+            if (isCondition(edge.getKind())) {
+                ws.push(graph.indexOf(edge.getSrcNode()));
+            }
+        }
+    }
+    
+    static boolean isCondition(Dependence.Kind kind) {
+        return kind == Dependence.Kind.trueControlDependence ||
+               kind == Dependence.Kind.falseControlDependence ||
+               kind == Dependence.Kind.fallThroughControlDependence;
+    }
+    
+    private void pushBackwardStartNodes(Workspace ws, PDGNode node, JReference jv) {
+        if (node.isStatement() && ((PDGStatement)node).definesVariable(jv)) {
+            ws.push(graph.indexOf(node));
+            return;
+        }
+        
+        List<DD> edges = node.getIncomingDDList();
+        for (int i = 0; i < edges.size(); i++) {
+            DD edge = edges.get(i);
+            if (edge.getVariable().equals(jv)) {
+                ws.push(graph.indexOf(edge.getSrcNode()));
+            }
+        }
+    }
+    
+    /*
+     * Traverses a graph from the nodes on the stack of a workspace in the two phases of the backward slice.
+     */
+    static void traverseBackward(IndexedGraph graph, byte[] edgeKinds, Workspace ws) {
+        traverse(graph, edgeKinds, ws, false, INTRA | ENTER);
+        ws.pushAll();
+        traverse(graph, edgeKinds, ws, false, INTRA | EXIT);
+    }
+    
+    /*
+     * Traverses a graph from the nodes on the stack of a workspace in the two phases of the forward slice.
+     */
+    static void traverseForward(IndexedGraph graph, byte[] edgeKinds, Workspace ws) {
+        traverse(graph, edgeKinds, ws, true, INTRA | EXIT);
+        ws.pushAll();
+        traverse(graph, edgeKinds, ws, true, INTRA | ENTER);
+    }
+    
+    private static void traverse(IndexedGraph graph, byte[] edgeKinds, Workspace ws, boolean forward, int mask) {
+        while (ws.top > 0) {
+            int node = ws.stack[--ws.top];
+            int degree = forward ? graph.outDegree(node) : graph.inDegree(node);
+            for (int k = 0; k < degree; k++) {
+                int edge = forward ? graph.getOutgoingEdge(node, k) : graph.getIncomingEdge(node, k);
+                if ((edgeKinds[edge] & mask) != 0) {
+                    ws.push(forward ? graph.getDstIndex(edge) : graph.getSrcIndex(edge));
+                }
+            }
+        }
+    }
+    
+    private Set<PDGNode> getNodes(BitSet indexes) {
+        Set<PDGNode> nodes = new HashSet<>();
+        for (int node = indexes.nextSetBit(0); node >= 0; node = indexes.nextSetBit(node + 1)) {
+            nodes.add(graph.getNode(node));
+        }
+        return nodes;
+    }
+    
+    /*
+     * Holds bit sets of visited and marked nodes and a stack of nodes to be traversed, which are reused by queries in a thread.
+     * A node is pushed on the stack at most once in each phase, so the stack never overflows.
+     */
+    static class Workspace {
+        
+        BitSet visited;
+        BitSet marked;
+        int[] stack;
+        int top = 0;
+        
+        Workspace(int size) {
+            visited = new BitSet(size);
+            marked = new BitSet(size);
+            stack = new int[size];
+        }
+        
+        void clear() {
+            visited.clear();
+            top = 0;
+        }
+        
+        void push(int node) {
+            if (node >= 0 && !visited.get(node)) {
+                visited.set(node);
+                stack[top++] = node;
+            }
+        }
+        
+        void pushAll() {
+            for (int node = visited.nextSetBit(0); node >= 0; node = visited.nextSetBit(node + 1)) {
+                stack[top++] = node;
+            }
+        }
+    }
+}
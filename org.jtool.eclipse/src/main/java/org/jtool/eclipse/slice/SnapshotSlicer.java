@@ -0,0 +1,96 @@
+/*
+ *  Copyright 2020
+ *  Software Science and Technology Lab.
+ *  Department of Computer Science, Ritsumeikan University
+ */
+
+package org.jtool.eclipse.slice;
+
+import org.jtool.eclipse.pdg.SDGSnapshot;
+import org.jtool.eclipse.cfg.CFGNode;
+import java.util.Collection;
+import java.util.BitSet;
+
+/**
+ * Answers slicing queries on a snapshot of an SDG in the same two phases as SlicingEngine does.
+ * Nodes are given by their indexes in the snapshot, and variables by their reference names.
+ * A single slicer can answer queries from multiple threads at the same time.
+ * 
+ * @author Katsuhisa Maruyama
+ */
+public class SnapshotSlicer {
+    
+    private SDGSnapshot snapshot;
+    private byte[] edgeKinds;
+    
+    private ThreadLocal<SlicingEngine.Workspace> workspaces;
+    
+    public SnapshotSlicer(SDGSnapshot snapshot) {
+        this.snapshot = snapshot;
+        edgeKinds = new byte[snapshot.numberOfEdges()];
+        for (int e = 0; e < edgeKinds.length; e++) {
+            edgeKinds[e] = SlicingEngine.getEdgeKind(snapshot.getEdgeKind(e));
+        }
+        workspaces = ThreadLocal.withInitial(() -> new SlicingEngine.Workspace(snapshot.size()));
+    }
+    
+    public BitSet backwardSlice(int node, Collection<String> names) {
+        SlicingEngine.Workspace ws = workspaces.get();
+        ws.clear();
+        for (String name : names) {
+            if (snapshot.getDefVariables(node).contains(name)) {
+                ws.push(node);
+                continue;
+            }
+            for (int k = 0; k < snapshot.inDegree(node); k++) {
+                int edge = snapshot.getIncomingEdge(node, k);
+                if (isDD(edge) && name.equals(snapshot.getVariable(edge))) {
+                    ws.push(snapshot.getSrcIndex(edge));
+                }
+            }
+        }
+        CFGNode.Kind kind = snapshot.getKind(node);
+        if (kind == CFGNode.Kind.actualIn || kind == CFGNode.Kind.actualOut) {
+            for (int k = 0; k < snapshot.inDegree(node); k++) {
+                int edge = snapshot.getIncomingEdge(node, k);
+                if (isCD(edge)) {
+                    pushConditions(ws, snapshot.getSrcIndex(edge));
+                }
+            }
+        } else {
+            pushConditions(ws, node);
+        }
+        if (ws.top == 0) {
+            ws.push(node);
+        }
+        
+        SlicingEngine.traverseBackward(snapshot, edgeKinds, ws);
+        return (BitSet)ws.visited.clone();
+    }
+    
+    public BitSet forwardSlice(int node) {
+        SlicingEngine.Workspace ws = workspaces.get();
+        ws.clear();
+        ws.push(node);
+        
+        SlicingEngine.traverseForward(snapshot, edgeKinds, ws);
+        return (BitSet)ws.visited.clone();
+    }
+    
+    private void pushConditions(SlicingEngine.Workspace ws, int node) {
+        for (int k = 0; k < snapshot.inDegree(node); k++) {
+            int edge = snapshot.getIncomingEdge(node, k);
+            if (SlicingEngine.isCondition(snapshot.getEdgeKind(edge))) {
+                ws.push(snapshot.getSrcIndex(edge));
+            }
+        }
+    }
+    
+    private boolean isCD(int edge) {
+        return snapshot.getEdgeKind(edge).isCD();
+    }
+    
+    private boolean isDD(int edge) {
+        return snapshot.getEdgeKind(edge).isDD();
+    }
+}
@@ -30,7 +30,7 @@ public class ConsoleProgressMonitor {
         }
     }
     
-    public void work(int done) {
+    public synchronized void work(int done) {
         count = count + done;
         if (size <= 100) {
             num++;
@@ -46,7 +46,7 @@ public class Logger {
         }
     }
     
-    public void printMessage(String mesg) {
+    public synchronized void printMessage(String mesg) {
         logMessages.add(mesg);
         
         if (visible) {
@@ -55,11 +55,11 @@ public class Logger {
         }
     }
     
-    public void printLog(String mesg) {
+    public synchronized void printLog(String mesg) {
         logMessages.add(mesg);
     }
     
-    public void printError(String mesg) {
+    public synchronized void printError(String mesg) {
         logMessages.add(mesg);
         
         if (visible) {
@@ -80,7 +80,7 @@ public class Logger {
         }
     }
     
-    public void writeLog() {
+    public synchronized void writeLog() {
         if (logfile == null || logfile.length() == 0) {
             return;
         }
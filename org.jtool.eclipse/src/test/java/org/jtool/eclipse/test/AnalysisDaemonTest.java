@@ -0,0 +1,165 @@
+/*
+ *  Copyright 2020
+ *  Software Science and Technology Lab.
+ *  Department of Computer Science, Ritsumeikan University
+ */
+
+package org.jtool.eclipse.test;
+
+import org.jtool.eclipse.batch.AnalysisDaemon;
+import java.io.File;
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.PrintWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+/**
+ * Tests a class that answers requests for Java models.
+ * 
+ * @author Katsuhisa Maruyama
+ */
+public class AnalysisDaemonTest {
+    
+    private final static String testDirInside = new File(".").getAbsoluteFile().getParent() + "/test_target/";
+    
+    private List<String> serve(AnalysisDaemon daemon, String... requests) throws IOException {
+        StringWriter writer = new StringWriter();
+        daemon.serve(new BufferedReader(new StringReader(String.join("\n", requests))), new PrintWriter(writer));
+        List<String> responses = new ArrayList<>();
+        for (String line : writer.toString().split("\\r?\\n")) {
+            if (line.length() > 0) {
+                responses.add(line.replaceAll(",\"time\":[0-9]+}$", "}"));
+            }
+        }
+        return responses;
+    }
+    
+    private String quote(String str) {
+        return "\"" + str.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+    }
+    
+    private int getInt(String response, String key) {
+        Matcher matcher = Pattern.compile("\"" + key + "\":([0-9]+)").matcher(response);
+        assertTrue(response, matcher.find());
+        return Integer.parseInt(matcher.group(1));
+    }
+    
+    @Test
+    public void testCommands() throws IOException {
+        File dir = Files.createTempDirectory("daemon").toFile();
+        for (File file : new File(testDirInside + "Simple/").listFiles((d, name) -> name.endsWith(".java"))) {
+            Files.copy(file.toPath(), new File(dir, file.getName()).toPath());
+        }
+        String target = quote(dir.getCanonicalPath());
+        
+        AnalysisDaemon daemon = new AnalysisDaemon(1);
+        List<String> responses = serve(daemon,
+                "{\"command\":\"build\",\"target\":" + target + "}",
+                "{\"command\":\"cfg\",\"project\":" + target + ",\"method\":\"Customer#getName( )\"}",
+                "{\"command\":\"pdg\",\"project\":" + target + ",\"class\":\"Customer\"}",
+                "{\"command\":\"slice\",\"project\":" + target + ",\"file\":\"Customer.java\",\"line\":37,\"column\":12}",
+                "{\"command\":\"cfg\",\"project\":" + target + ",\"class\":\"NoSuchClass\"}",
+                "{\"command\":\"slice\",\"project\":" + target + ",\"file\":\"Customer.java\",\"line\":1,\"column\":0}");
+        assertEquals(6, responses.size());
+        
+        String build = responses.get(0);
+        assertTrue(build, build.startsWith("{\"status\":\"ok\",\"project\":" + target + ","));
+        assertEquals(dir.listFiles((d, name) -> name.endsWith(".java")).length, getInt(build, "files"));
+        int classes = getInt(build, "classes");
+        
+        assertTrue(responses.get(1), responses.get(1).startsWith("{\"status\":\"ok\",\"result\":\"----- CFG of Customer#getName( )-----"));
+        assertTrue(responses.get(2), responses.get(2).startsWith("{\"status\":\"ok\",\"result\":\"----- ClDG (from here) -----"));
+        
+        String slice = responses.get(3);
+        assertTrue(slice, slice.startsWith("{\"status\":\"ok\",\"class\":\"Customer\",\"lines\":["));
+        assertTrue(slice, slice.contains("21,") && slice.contains("28,") && slice.contains("37"));
+        assertTrue(slice, slice.contains("totalAmount += thisAmount;"));
+        
+        assertEquals("{\"status\":\"error\",\"message\":\"class not found NoSuchClass\"}", responses.get(4));
+        assertEquals("{\"status\":\"error\",\"message\":\"no slicing criterion at 1:0\"}", responses.get(5));
+        
+        File rental = new File(dir, "Rental.java");
+        String code = new String(Files.readAllBytes(rental.toPath()), StandardCharsets.UTF_8);
+        Files.write(rental.toPath(), code.replace("result += 2;", "result += 3;").getBytes(StandardCharsets.UTF_8));
+        Files.write(new File(dir, "NewMovie.java").toPath(),
+                "class NewMovie extends Movie {\n    NewMovie(String title) {\n        super(title, Movie.NEW_RELEASE);\n    }\n}\n"
+                .getBytes(StandardCharsets.UTF_8));
+        
+        responses = serve(daemon,
+                "{\"command\":\"update\",\"project\":" + target + ",\"files\":[\"Rental.java\",\"NewMovie.java\"]}",
+                "{\"command\":\"cfg\",\"project\":" + target + ",\"method\":\"NewMovie#NewMovie( java.lang.String )\"}",
+                "{\"command\":\"update\",\"project\":" + target + ",\"files\":[\"Missing.java\"]}",
+                "{\"command\":\"update\",\"project\":" + target + ",\"files\":[1]}",
+                "{\"command\":\"close\",\"project\":" + target + "}",
+                "{\"command\":\"cfg\",\"project\":" + target + ",\"class\":\"Customer\"}",
+                "{\"command\":\"exit\"}",
+                "{\"command\":\"build\",\"target\":" + target + "}");
+        assertEquals(7, responses.size());
+        
+        assertTrue(responses.get(0), responses.get(0).startsWith("{\"status\":\"ok\",\"project\":" + target + ","));
+        assertEquals(classes + 1, getInt(responses.get(0), "classes"));
+        assertTrue(responses.get(1), responses.get(1).startsWith("{\"status\":\"ok\",\"result\":\"----- CFG of NewMovie#NewMovie( java.lang.String )-----"));
+        assertEquals("{\"status\":\"error\",\"message\":\"file not found Missing.java\"}", responses.get(2));
+        assertEquals("{\"status\":\"error\",\"message\":\"malformed files\"}", responses.get(3));
+        assertEquals("{\"status\":\"ok\",\"project\":" + target + "}", responses.get(4));
+        assertEquals("{\"status\":\"error\",\"message\":\"project not built " + dir.getCanonicalPath() + "\"}", responses.get(5));
+        assertEquals("{\"status\":\"ok\"}", responses.get(6));
+    }
+    
+    @Test
+    public void testRequests() throws IOException {
+        AnalysisDaemon daemon = new AnalysisDaemon(1);
+        List<String> responses = serve(daemon,
+                "{ \"command\" : \"a\\\"b\\\\c\\/d\\u00e9\\t\\n\" , \"list\" : [1, -2.5e3, true, false, null, {}, []] }",
+                "{\"command\":\"build\"}",
+                "{\"command\":\"update\",\"project\":\"/no/such/project\",\"files\":[]}",
+                "{\"command\":\"slice\",\"project\":1}",
+                "{\"command\":42}",
+                "",
+                "{\"command\":\"exit\"} {}");
+        List<String> expected = Arrays.asList(
+                "{\"status\":\"error\",\"message\":\"unknown command a\\\"b\\\\c/dé\\t\\n\"}",
+                "{\"status\":\"error\",\"message\":\"missing target\"}",
+                "{\"status\":\"error\",\"message\":\"project not built /no/such/project\"}",
+                "{\"status\":\"error\",\"message\":\"missing project\"}",
+                "{\"status\":\"error\",\"message\":\"missing command\"}",
+                "{\"status\":\"error\",\"message\":\"malformed request\"}");
+        assertEquals(expected, responses);
+    }
+    
+    @Test
+    public void testMalformedRequests() throws IOException {
+        String[] requests = {
+            "{\"command\":\"exit",
+            "{\"command\":\"exit\\",
+            "{\"command\":\"ex\\qit\"}",
+            "{\"command\":\"ex\\u00\"}",
+            "{\"command\":\"ex\\u00zzit\"}",
+            "{\"command\":\"ex\tit\"}",
+            "{\"command\":\"exit\",}",
+            "{\"command\" \"exit\"}",
+            "{\"command\":tru}",
+            "{\"command\":-}",
+            "[\"exit\"]",
+            "\"exit\"",
+            "{"
+        };
+        AnalysisDaemon daemon = new AnalysisDaemon(1);
+        List<String> responses = serve(daemon, requests);
+        assertEquals(requests.length, responses.size());
+        for (int i = 0; i < requests.length; i++) {
+            assertEquals(requests[i], "{\"status\":\"error\",\"message\":\"malformed request\"}", responses.get(i));
+        }
+    }
+}
@@ -10,10 +10,34 @@ import org.jtool.eclipse.batch.ModelBuilderBatch;
 import org.jtool.eclipse.javamodel.JavaProject;
 import org.jtool.eclipse.util.TimeInfo;
 import org.jtool.eclipse.javamodel.JavaClass;
+import org.jtool.eclipse.javamodel.JavaMethod;
+import org.jtool.eclipse.javamodel.SymbolTable;
+import org.jtool.eclipse.javamodel.builder.BytecodeClassStore;
+import org.jtool.eclipse.javamodel.builder.ModelBuilder;
 import org.jtool.eclipse.cfg.CCFG;
 import org.jtool.eclipse.cfg.CFG;
+import org.jtool.eclipse.cfg.CFGEntry;
+import org.jtool.eclipse.cfg.CFGNode;
+import org.jtool.eclipse.cfg.CFGStatement;
+import org.jtool.eclipse.cfg.JReference;
+import org.jtool.eclipse.cfg.ControlFlow;
+import org.jtool.eclipse.cfg.DominatorTree;
+import org.jtool.eclipse.cfg.PostDominatorTree;
+import javassist.CtClass;
 import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
 import java.util.List;
+import java.util.ArrayList;
+import java.util.Set;
+import java.util.HashSet;
+import java.util.Arrays;
+import java.util.Collections;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
 import org.junit.Test;
 import java.time.ZonedDateTime;
 import java.time.temporal.ChronoUnit;
@@ -79,6 +103,172 @@ public class CFGModelBuilderTest {
         builder.unbuild();
     }
     
+    @Test
+    public void testTruncatedBytecodeCache() throws IOException {
+        File dir = Files.createTempDirectory("cache").toFile();
+        for (File file : new File(testDirInside + "Simple/").listFiles((d, name) -> name.endsWith(".java"))) {
+            Files.copy(file.toPath(), new File(dir, file.getName()).toPath());
+        }
+        String target = dir.getAbsolutePath() + "/";
+        File cache = new File(dir, ".bytecode.info");
+        
+        String expected = getCFGInfo(target);
+        assertTrue(cache.exists());
+        assertEquals(expected, getCFGInfo(target));
+        
+        try (RandomAccessFile out = new RandomAccessFile(cache, "rw")) {
+            out.setLength(out.length() / 2);
+        }
+        assertEquals(expected, getCFGInfo(target));
+        
+        try (RandomAccessFile out = new RandomAccessFile(cache, "rw")) {
+            out.setLength(20);
+        }
+        assertEquals(expected, getCFGInfo(target));
+    }
+    
+    @Test
+    public void testSharedBytecodeCache() throws IOException {
+        if (System.getProperty(ModelBuilder.SharedBytecodeCacheDirProperty) == null) {
+            assertNull(new ModelBuilderBatch(true, true).getSharedBytecodeCacheDir());
+        }
+        
+        File cacheDir = Files.createTempDirectory("shared").toFile();
+        String[] targets = new String[2];
+        for (int i = 0; i < targets.length; i++) {
+            File dir = Files.createTempDirectory("project").toFile();
+            for (File file : new File(testDirInside + "Simple/").listFiles((d, name) -> name.endsWith(".java"))) {
+                Files.copy(file.toPath(), new File(dir, file.getName()).toPath());
+            }
+            targets[i] = dir.getAbsolutePath() + "/";
+        }
+        
+        String expected = getCFGInfo(targets[0], null);
+        new File(targets[0], ".bytecode.info").delete();
+        assertEquals(expected, getCFGInfo(targets[0], cacheDir.getPath()));
+        Set<String> names = new HashSet<>(Arrays.asList(cacheDir.list()));
+        assertFalse(names.isEmpty());
+        
+        assertEquals(expected, getCFGInfo(targets[1], cacheDir.getPath()));
+        assertEquals(names, new HashSet<>(Arrays.asList(cacheDir.list())));
+    }
+    
+    @Test
+    public void testCFGEquality() {
+        ModelBuilderBatch builder = new ModelBuilderBatch(false);
+        String target1 = testDirInside + "Simple/";
+        String target2 = testDirInside + "Lambda/";
+        JavaProject jproject1 = builder.build(target1, target1, target1, target1, target1);
+        JavaProject jproject2 = builder.build(target2, target2, target2, target2, target2);
+        
+        JavaMethod jmethod = jproject1.getClass("Customer").getMethod("statement( )");
+        CFG cfg = jproject1.getCFGStore().getCFG(jmethod, false);
+        CFG rebuilt = jproject1.getCFGStore().getCFG(jmethod, true);
+        assertTrue(cfg != rebuilt);
+        assertEquals(cfg, rebuilt);
+        assertEquals(cfg.hashCode(), rebuilt.hashCode());
+        
+        // Symbol identifiers of the other project may collide with that of the CFG
+        for (JavaClass jclass : jproject2.getClasses()) {
+            for (JavaMethod jm : jclass.getMethods()) {
+                CFG other = jproject2.getCFGStore().getCFG(jm, false);
+                assertFalse(other.getQualifiedName(), cfg.equals(other));
+            }
+        }
+        for (JavaClass jclass : jproject1.getClasses()) {
+            for (JavaMethod jm : jclass.getMethods()) {
+                CFG other = jproject1.getCFGStore().getCFG(jm, false);
+                assertEquals(other.getQualifiedName(), other.getQualifiedName().equals(cfg.getQualifiedName()), cfg.equals(other));
+            }
+        }
+        builder.unbuild();
+        
+        CFG cfg1 = new CFG();
+        cfg1.setEntryNode(new CFGEntry(null, CFGNode.Kind.methodEntry, "m", "m( )", "A#m( )", SymbolTable.NO_SYMBOL) {});
+        CFG cfg2 = new CFG();
+        cfg2.setEntryNode(new CFGEntry(null, CFGNode.Kind.methodEntry, "m", "m( )", "B#m( )", SymbolTable.NO_SYMBOL) {});
+        CFG cfg3 = new CFG();
+        cfg3.setEntryNode(new CFGEntry(null, CFGNode.Kind.methodEntry, "m", "m( )", "A#m( )", SymbolTable.NO_SYMBOL) {});
+        assertFalse(cfg1.equals(cfg2));
+        assertEquals(cfg1, cfg3);
+        assertEquals(cfg1.hashCode(), cfg3.hashCode());
+    }
+    
+    @Test
+    public void testLazyBytecodeIndexing() {
+        String target = testDirInside + "Simple/";
+        String[] classpath = { target, testDirInside + "junit-4.12.jar", testDirInside + "hamcrest-core-1.3.jar" };
+        String[] types = { "java.util.Enumeration", "org.hamcrest.Matcher", "org.junit.runner.notification.RunListener" };
+        
+        List<List<String>> descendants = new ArrayList<>();
+        List<String> infos = new ArrayList<>();
+        for (boolean lazy : new boolean[] { false, true }) {
+            ModelBuilderBatch builder = new ModelBuilderBatch(true);
+            builder.setLazyBytecodeIndexing(lazy);
+            JavaProject jproject = builder.build(target, target, classpath, new String[] { target }, new String[] { target });
+            infos.add(getCFGInfo(builder, jproject));
+            
+            for (String type : types) {
+                List<String> names = new ArrayList<>();
+                for (CtClass ctClass : jproject.getBytecodeClassStore().getDescendants(jproject, type)) {
+                    names.add(BytecodeClassStore.getCanonicalClassName(ctClass));
+                }
+                Collections.sort(names);
+                descendants.add(names);
+            }
+            builder.unbuild();
+        }
+        
+        for (int i = 0; i < types.length; i++) {
+            assertFalse(descendants.get(i).isEmpty());
+            assertEquals(descendants.get(i), descendants.get(types.length + i));
+        }
+        assertEquals(infos.get(0), infos.get(1));
+    }
+    
+    /*
+     * Collects the def-use variables of all statements, which include the def-use fields of bytecode methods
+     * that are read from the cache. Numbers of temporary variables are ignored since they depend on the build order.
+     */
+    private String getCFGInfo(String target) {
+        return getCFGInfo(target, null);
+    }
+    
+    private String getCFGInfo(String target, String sharedCacheDir) {
+        ModelBuilderBatch builder = new ModelBuilderBatch(true, true);
+        builder.setSharedBytecodeCacheDir(sharedCacheDir);
+        JavaProject jproject = builder.build(target, target, target, target, target);
+        String info = getCFGInfo(builder, jproject);
+        builder.unbuild();
+        return info;
+    }
+    
+    private String getCFGInfo(ModelBuilderBatch builder, JavaProject jproject) {
+        List<String> lines = new ArrayList<>();
+        for (JavaClass jclass : jproject.getClasses()) {
+            for (CFG cfg : builder.getCCFG(jclass).getCFGs()) {
+                for (CFGNode node : cfg.getNodes()) {
+                    if (node.isStatement()) {
+                        CFGStatement stnode = (CFGStatement)node;
+                        lines.add(cfg.getQualifiedName() + " " + node.getKind() +
+                                " D = " + getNames(stnode.getDefVariables()) + " U = " + getNames(stnode.getUseVariables()));
+                    }
+                }
+            }
+        }
+        Collections.sort(lines);
+        return String.join("\n", lines);
+    }
+    
+    private List<String> getNames(List<JReference> jvars) {
+        List<String> names = new ArrayList<>();
+        for (JReference jvar : jvars) {
+            names.add(jvar.getReferenceName().replaceAll("\\$[0-9]+", "\\$"));
+        }
+        Collections.sort(names);
+        return names;
+    }
+    
     @Test
     public void testDrawTool() {
         String target = testDirInside + "DrawTool/";
@@ -130,6 +320,180 @@ public class CFGModelBuilderTest {
         builder.unbuild();
     }
     
+    @Test
+    public void testReachableNodesOnLongPath() {
+        int size = 100000;
+        CFG cfg = new CFG();
+        CFGNode[] nodes = new CFGNode[size];
+        for (int i = 0; i < size; i++) {
+            nodes[i] = new CFGNode(null, CFGNode.Kind.assignment);
+            cfg.add(nodes[i]);
+            if (i > 0) {
+                cfg.add(new ControlFlow(nodes[i - 1], nodes[i]));
+            }
+        }
+        ControlFlow loopback = new ControlFlow(nodes[size - 1], nodes[0]);
+        loopback.setLoopBack(nodes[0]);
+        cfg.add(loopback);
+        
+        assertEquals(size, cfg.forwardReachableNodes(nodes[0], false).size());
+        assertEquals(size / 2 + 1, cfg.backwardReachableNodes(nodes[size / 2], false).size());
+        assertEquals(size, cfg.backwardReachableNodes(nodes[size / 2], true).size());
+        assertEquals(size / 2, cfg.forwardReachableNodes(nodes[0], false, node -> node == nodes[size / 2]).size());
+    }
+    
+    /*
+     * 0 -> 1 -> {2, 3} -> 4 -> 5 -> 6 -> 7 -> 6, 6 -> 8 -> 5, 5 -> 9
+     * Node 0 is the entry node and node 9 is the exit node. Nodes 5 and 6 are the headers of nested loops.
+     */
+    private CFGNode[] buildNestedLoopCFG(CFG cfg) {
+        CFGNode[] nodes = new CFGNode[10];
+        CFGEntry entry = new CFGEntry(null, CFGNode.Kind.methodEntry, "m", "m()", "Test#m()", 0) {};
+        cfg.setEntryNode(entry);
+        nodes[0] = entry;
+        for (int i = 1; i < nodes.length - 1; i++) {
+            nodes[i] = new CFGNode(null, CFGNode.Kind.assignment);
+        }
+        nodes[9] = new CFGNode(null, CFGNode.Kind.methodExit);
+        cfg.setExitNode(nodes[9]);
+        for (CFGNode node : nodes) {
+            cfg.add(node);
+        }
+        int[][] edges = { {0, 1}, {1, 2}, {1, 3}, {2, 4}, {3, 4}, {4, 5}, {5, 6}, {6, 7}, {7, 6}, {6, 8}, {8, 5}, {5, 9} };
+        for (int[] edge : edges) {
+            cfg.add(new ControlFlow(nodes[edge[0]], nodes[edge[1]]));
+        }
+        return nodes;
+    }
+    
+    private static Set<CFGNode> nodesOf(CFGNode[] nodes, int... indexes) {
+        Set<CFGNode> set = new HashSet<>();
+        for (int index : indexes) {
+            set.add(nodes[index]);
+        }
+        return set;
+    }
+    
+    @Test
+    public void testDominatorTree() {
+        CFG cfg = new CFG();
+        CFGNode[] nodes = buildNestedLoopCFG(cfg);
+        DominatorTree tree = cfg.getDominatorTree();
+        
+        int[] idoms = { -1, 0, 1, 1, 1, 4, 5, 6, 6, 5 };
+        for (int i = 0; i < nodes.length; i++) {
+            assertEquals(idoms[i] == -1 ? null : nodes[idoms[i]], tree.getImmediateDominator(nodes[i]));
+        }
+        assertTrue(tree.dominates(nodes[4], nodes[9]));
+        assertTrue(tree.dominates(nodes[5], nodes[8]));
+        assertFalse(tree.dominates(nodes[2], nodes[4]));
+        assertFalse(tree.dominates(nodes[7], nodes[8]));
+        assertEquals(nodesOf(nodes, 0, 1, 4, 5, 6), tree.getDominators(nodes[8]));
+        
+        assertEquals(nodesOf(nodes, 4), tree.getDominanceFrontier(nodes[2]));
+        assertEquals(nodesOf(nodes, 4), tree.getDominanceFrontier(nodes[3]));
+        assertEquals(nodesOf(nodes, 5, 6), tree.getDominanceFrontier(nodes[6]));
+        assertEquals(nodesOf(nodes, 6), tree.getDominanceFrontier(nodes[7]));
+        assertEquals(nodesOf(nodes, 5), tree.getDominanceFrontier(nodes[8]));
+        assertEquals(nodesOf(nodes), tree.getDominanceFrontier(nodes[4]));
+    }
+    
+    @Test
+    public void testNaturalLoops() {
+        CFG cfg = new CFG();
+        CFGNode[] nodes = buildNestedLoopCFG(cfg);
+        DominatorTree tree = cfg.getDominatorTree();
+        
+        assertEquals(nodesOf(nodes, 5, 6), new HashSet<>(tree.getLoopHeaders()));
+        assertEquals(nodesOf(nodes, 5, 6, 7, 8), tree.getNaturalLoop(nodes[5]));
+        assertEquals(nodesOf(nodes, 6, 7), tree.getNaturalLoop(nodes[6]));
+        assertEquals(nodesOf(nodes), tree.getNaturalLoop(nodes[4]));
+        assertTrue(tree.isInNaturalLoop(nodes[5], nodes[7]));
+        assertFalse(tree.isInNaturalLoop(nodes[6], nodes[8]));
+        assertFalse(tree.isInNaturalLoop(nodes[5], nodes[9]));
+        assertEquals(Arrays.asList(nodes[6], nodes[5]), tree.getEnclosingLoopHeaders(nodes[7]));
+        assertEquals(Arrays.asList(nodes[5]), tree.getEnclosingLoopHeaders(nodes[8]));
+        assertEquals(Arrays.asList(), tree.getEnclosingLoopHeaders(nodes[9]));
+        assertTrue(tree.isBackEdge(new ControlFlow(nodes[8], nodes[5])));
+        assertFalse(tree.isBackEdge(new ControlFlow(nodes[5], nodes[6])));
+    }
+    
+    @Test
+    public void testPostDominatorTree() {
+        CFG cfg = new CFG();
+        CFGNode[] nodes = buildNestedLoopCFG(cfg);
+        PostDominatorTree tree = cfg.getPostDominatorTree();
+        
+        int[] ipdoms = { 1, 4, 4, 4, 5, 9, 8, 6, 5, -1 };
+        for (int i = 0; i < nodes.length; i++) {
+            assertEquals(ipdoms[i] == -1 ? null : nodes[ipdoms[i]], tree.getImmediatePostDominator(nodes[i]));
+        }
+        assertTrue(tree.postDominates(nodes[4], nodes[0]));
+        assertTrue(tree.postDominates(nodes[6], nodes[7]));
+        assertFalse(tree.postDominates(nodes[2], nodes[1]));
+        assertFalse(tree.postDominates(nodes[7], nodes[6]));
+        assertEquals(nodesOf(nodes, 5, 6, 8, 9), tree.getPostDominators(nodes[7]));
+        assertEquals(nodesOf(nodes, 5, 6, 8, 9), cfg.postDominator(nodes[7]));
+        
+        assertEquals(nodesOf(nodes, 1), tree.getPostDominanceFrontier(nodes[2]));
+        assertEquals(nodesOf(nodes, 1), tree.getPostDominanceFrontier(nodes[3]));
+        assertEquals(nodesOf(nodes, 5, 6), tree.getPostDominanceFrontier(nodes[6]));
+        assertEquals(nodesOf(nodes, 6), tree.getPostDominanceFrontier(nodes[7]));
+        assertEquals(nodesOf(nodes, 5), tree.getPostDominanceFrontier(nodes[8]));
+        assertEquals(nodesOf(nodes), tree.getPostDominanceFrontier(nodes[4]));
+    }
+    
+    @Test
+    public void testPostDominatorTreeWithInfiniteLoop() {
+        CFG cfg = new CFG();
+        CFGNode[] nodes = new CFGNode[4];
+        CFGEntry entry = new CFGEntry(null, CFGNode.Kind.methodEntry, "m", "m()", "Test#m()", 0) {};
+        cfg.setEntryNode(entry);
+        nodes[0] = entry;
+        nodes[1] = new CFGNode(null, CFGNode.Kind.ifSt);
+        nodes[2] = new CFGNode(null, CFGNode.Kind.methodExit);
+        nodes[3] = new CFGNode(null, CFGNode.Kind.whileSt);
+        cfg.setExitNode(nodes[2]);
+        for (CFGNode node : nodes) {
+            cfg.add(node);
+        }
+        cfg.add(new ControlFlow(nodes[0], nodes[1]));
+        cfg.add(new ControlFlow(nodes[1], nodes[2]));
+        cfg.add(new ControlFlow(nodes[1], nodes[3]));
+        cfg.add(new ControlFlow(nodes[3], nodes[3]));
+        PostDominatorTree tree = cfg.getPostDominatorTree();
+        
+        assertEquals(nodes[2], tree.getImmediatePostDominator(nodes[3]));
+        assertEquals(nodes[2], tree.getImmediatePostDominator(nodes[1]));
+        assertTrue(tree.postDominates(nodes[2], nodes[3]));
+        assertFalse(tree.postDominates(nodes[3], nodes[1]));
+    }
+    
+    @Test
+    public void testNaturalLoopsOnLongPath() {
+        int size = 100000;
+        CFG cfg = new CFG();
+        CFGNode[] nodes = new CFGNode[size];
+        CFGEntry entry = new CFGEntry(null, CFGNode.Kind.methodEntry, "m", "m()", "Test#m()", 0) {};
+        cfg.setEntryNode(entry);
+        nodes[0] = entry;
+        cfg.add(nodes[0]);
+        for (int i = 1; i < size; i++) {
+            nodes[i] = new CFGNode(null, CFGNode.Kind.assignment);
+            cfg.add(nodes[i]);
+            cfg.add(new ControlFlow(nodes[i - 1], nodes[i]));
+            if (i % 2 == 0) {
+                cfg.add(new ControlFlow(nodes[i], nodes[i / 2]));
+            }
+        }
+        DominatorTree tree = cfg.getDominatorTree();
+        
+        assertEquals(size / 2 - 1, tree.getLoopHeaders().size());
+        assertEquals(size - 2, tree.getNaturalLoop(nodes[1]).size());
+        assertTrue(tree.isInNaturalLoop(nodes[size / 4], nodes[size - 2]));
+        assertFalse(tree.isInNaturalLoop(nodes[size / 2 - 1], nodes[size - 1]));
+    }
+    
     static void print() {
         String target = testDirInside + "Simple/";
         ModelBuilderBatch builder = new ModelBuilderBatch();
@@ -11,11 +11,19 @@ import org.jtool.eclipse.javamodel.JavaProject;
 import org.jtool.eclipse.javamodel.JavaClass;
 import org.jtool.eclipse.javamodel.JavaMethod;
 import org.jtool.eclipse.javamodel.JavaField;
+import org.jtool.eclipse.javamodel.ClassHierarchy;
+import org.jtool.eclipse.javamodel.SymbolTable;
+import org.jtool.eclipse.cfg.CFG;
 import org.jtool.eclipse.util.TimeInfo;
 import java.io.File;
 import java.time.ZonedDateTime;
 import java.time.temporal.ChronoUnit;
+import java.util.stream.Stream;
+import java.util.stream.Collectors;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 import org.junit.Test;
 
 /**
@@ -86,6 +94,96 @@ public class JavaModelBuilderTest {
         builder.unbuild();
     }
     
+    @Test
+    public void testClassHierarchy() {
+        String target = testDirInside + "Lambda/";
+        ModelBuilderBatch builder = new ModelBuilderBatch(true);
+        JavaProject jproject = builder.build(target, target, target, target, target);
+        ClassHierarchy hierarchy = jproject.getClassHierarchy();
+        
+        JavaClass book = jproject.getClass("Book");
+        assertEquals("[EBook, PBook]", getNames(hierarchy.getDescendants(book).stream().map(jc -> jc.getQualifiedName())));
+        
+        JavaMethod toString = book.getMethod("toString( )");
+        assertEquals("[EBook#toString( ), PBook#toString( )]",
+                getNames(toString.getOverridingMethods().stream().map(jm -> jm.getQualifiedName())));
+        assertTrue(jproject.getClass("EBook").getMethod("toString( )").getOverriddenMethods().contains(toString));
+        try {
+            hierarchy.getOverridingMethods(toString).clear();
+            fail();
+        } catch (UnsupportedOperationException e) { /* empty */ }
+        assertEquals(2, toString.getOverridingMethods().size());
+        
+        assertEquals("[Book#toString( ), EBook#toString( ), PBook#toString( )]",
+                getNames(hierarchy.getCHATargets("Book", "toString( )").stream().map(jm -> jm.getQualifiedName())));
+        assertEquals("[EBook#toString( ), PBook#toString( )]",
+                getNames(hierarchy.getRTATargets("Book", "toString( )").stream().map(jm -> jm.getQualifiedName())));
+        assertEquals("[Book#getTitle( )]",
+                getNames(hierarchy.getRTATargets("EBook", "getTitle( )").stream().map(jm -> jm.getQualifiedName())));
+        builder.unbuild();
+    }
+    
+    @Test
+    public void testSymbolTable() {
+        String target = testDirInside + "Lambda/";
+        ModelBuilderBatch builder = new ModelBuilderBatch(true);
+        JavaProject jproject = builder.build(target, target, target, target, target);
+        SymbolTable symbols = jproject.getSymbolTable();
+        
+        JavaClass book = jproject.getClass("Book");
+        int id = book.getSymbolId();
+        assertEquals(id, symbols.findId("Book"));
+        assertEquals("Book", symbols.getSymbol(id));
+        
+        JavaMethod toString = book.getMethod("toString( )");
+        CFG cfg = jproject.getCFGStore().getCFG(toString, false);
+        assertEquals(toString.getSymbolId(), cfg.getSymbolId());
+        assertEquals(cfg, jproject.getCFGStore().findCFG("Book#toString( )"));
+        assertEquals(SymbolTable.NO_SYMBOL, symbols.findId("Book#noSuchMethod( )"));
+        builder.unbuild();
+    }
+    
+    @Test
+    public void testParallelBuild() {
+        String target = testDirInside + "DrawTool/";
+        ModelBuilderBatch builder = new ModelBuilderBatch(false);
+        JavaProject jproject = builder.build(target, target, target, target + "/src", target);
+        String sequential = getModelInfo(jproject);
+        builder.unbuild();
+        
+        builder = new ModelBuilderBatch(false);
+        builder.setNumberOfThreads(4);
+        jproject = builder.build(target, target, target, target + "/src", target);
+        String parallel = getModelInfo(jproject);
+        builder.unbuild();
+        
+        assertTrue(sequential.length() > 0);
+        assertEquals(sequential, parallel);
+    }
+    
+    private String getModelInfo(JavaProject jproject) {
+        StringBuilder buf = new StringBuilder();
+        for (JavaClass jclass : jproject.getSortedClasses()) {
+            buf.append(jclass.getQualifiedName());
+            buf.append("\n");
+            for (JavaMethod jmethod : jclass.getMethods()) {
+                buf.append("  " + jmethod.getQualifiedName() + " -> ");
+                buf.append(getNames(jmethod.getCalledMethods().stream().map(jm -> jm.getQualifiedName())));
+                buf.append(getNames(jmethod.getAccessedFields().stream().map(jf -> jf.getQualifiedName())));
+                buf.append("\n");
+            }
+            for (JavaField jfield : jclass.getFields()) {
+                buf.append("  " + jfield.getQualifiedName() + " : " + jfield.getType());
+                buf.append("\n");
+            }
+        }
+        return buf.toString();
+    }
+    
+    private String getNames(Stream<String> names) {
+        return names.sorted().collect(Collectors.toList()).toString();
+    }
+    
     static void print() {
         String target = testDirInside + "Simple/";
         ModelBuilderBatch builder = new ModelBuilderBatch();
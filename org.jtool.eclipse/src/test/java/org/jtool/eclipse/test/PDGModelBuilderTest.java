@@ -12,8 +12,36 @@ import org.jtool.eclipse.util.TimeInfo;
 import org.jtool.eclipse.pdg.ClDG;
 import org.jtool.eclipse.javamodel.JavaClass;
 import org.jtool.eclipse.javamodel.JavaProject;
+import org.jtool.eclipse.javamodel.JavaFile;
+import org.jtool.eclipse.pdg.SDG;
+import org.jtool.eclipse.pdg.PDGNode;
+import org.jtool.eclipse.pdg.Dependence;
+import org.jtool.eclipse.pdg.DD;
+import org.jtool.eclipse.pdg.CD;
+import org.jtool.eclipse.pdg.CallEdge;
+import org.jtool.eclipse.cfg.CCFG;
+import org.jtool.eclipse.cfg.CFGNode;
+import org.jtool.eclipse.cfg.ControlFlow;
+import org.jtool.eclipse.cfg.CFGStatement;
+import org.jtool.eclipse.cfg.JReference;
+import org.jtool.eclipse.graph.CompactGraph;
 import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.List;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Map;
+import java.util.HashMap;
+import java.util.Set;
+import java.util.HashSet;
+import java.util.concurrent.ForkJoinPool;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.fail;
 import org.junit.Test;
 import java.time.ZonedDateTime;
 import java.time.temporal.ChronoUnit;
@@ -120,6 +148,412 @@ public class PDGModelBuilderTest {
         builder.unbuild();
     }
     
+    @Test
+    public void testIncrementalUpdate() throws IOException {
+        File dir = Files.createTempDirectory("update").toFile();
+        for (File file : new File(testDirInside + "Simple/").listFiles((d, name) -> name.endsWith(".java"))) {
+            Files.copy(file.toPath(), new File(dir, file.getName()).toPath());
+        }
+        write(new File(dir, "Store.java"),
+                "class Store {\n" +
+                "    Movie create(String title) {\n" +
+                "        return new NewMovie(title);\n" +
+                "    }\n" +
+                "}\n");
+        String target = dir.getCanonicalPath() + "/";
+        
+        ModelBuilderBatch builder = new ModelBuilderBatch(false);
+        JavaProject jproject = builder.build(target, target, target, target, target);
+        builder.getSDG(jproject);
+        
+        File rental = new File(dir, "Rental.java");
+        String code = new String(Files.readAllBytes(rental.toPath()), StandardCharsets.UTF_8);
+        write(rental, code.replace("result += 2;", "result += 3;\n                _daysRented++;"));
+        File newMovie = new File(dir, "NewMovie.java");
+        write(newMovie,
+                "class NewMovie extends Movie {\n" +
+                "    NewMovie(String title) {\n" +
+                "        super(title, Movie.NEW_RELEASE);\n" +
+                "    }\n" +
+                "    public int getPriceCode() {\n" +
+                "        return Movie.CHILDRENS;\n" +
+                "    }\n" +
+                "}\n");
+        
+        Set<JavaFile> jfiles = new HashSet<>();
+        jfiles.add(jproject.getFile(rental.getCanonicalPath()));
+        Set<String> addedPaths = new HashSet<>();
+        addedPaths.add(newMovie.getCanonicalPath());
+        builder.update(jproject, jfiles, addedPaths);
+        List<String> updated = getSDGInfo(builder.getSDG(jproject));
+        builder.unbuild();
+        
+        builder = new ModelBuilderBatch(false);
+        jproject = builder.build(target, target, target, target, target);
+        List<String> rebuilt = getSDGInfo(builder.getSDG(jproject));
+        builder.unbuild();
+        
+        assertTrue(rebuilt.stream().anyMatch(edge -> edge.startsWith("NewMovie#getPriceCode(")));
+        assertTrue(rebuilt.stream().anyMatch(edge -> edge.startsWith("Store#create( java.lang.String )") && edge.contains("-> NewMovie#NewMovie(")));
+        assertEquals(rebuilt, updated);
+    }
+    
+    @Test
+    public void testSummaryEdges() throws IOException {
+        File dir = Files.createTempDirectory("summary").toFile();
+        write(new File(dir, "Calls.java"),
+                "class Calls {\n" +
+                "    int inc(int z) {\n" +
+                "        return z + 1;\n" +
+                "    }\n" +
+                "    int twice(int y) {\n" +
+                "        return inc(inc(y));\n" +
+                "    }\n" +
+                "    int chain(int x, int w) {\n" +
+                "        return twice(x);\n" +
+                "    }\n" +
+                "    int skip(int n, int m) {\n" +
+                "        if (n <= 0) {\n" +
+                "            return m;\n" +
+                "        }\n" +
+                "        return skip(n - 1, m);\n" +
+                "    }\n" +
+                "    int run(int a, int b) {\n" +
+                "        int c = chain(a, b);\n" +
+                "        int d = skip(b, c);\n" +
+                "        return d;\n" +
+                "    }\n" +
+                "}\n");
+        String target = dir.getCanonicalPath() + "/";
+        
+        ModelBuilderBatch builder = new ModelBuilderBatch(false);
+        JavaProject jproject = builder.build(target, target, target, target, target);
+        List<String> edges = new ArrayList<>();
+        for (String edge : getSDGInfo(builder.getSDG(jproject))) {
+            if (edge.contains(" SUM")) {
+                edges.add(edge);
+            }
+        }
+        builder.unbuild();
+        
+        // n of skip decides which value is returned, whereas w of chain affects nothing, so w alone has no edges
+        List<String> expected = new ArrayList<>();
+        expected.add("Calls#chain( int int ) actualIn@171 D = [$] U = [x$] -> Calls#chain( int int ) actualOut@165 D = [$] U = [$] SUM $");
+        expected.add("Calls#run( int int ) actualIn@351 D = [$] U = [a$] -> Calls#run( int int ) actualOut@345 D = [$] U = [$] SUM $");
+        expected.add("Calls#run( int int ) actualIn@379 D = [$] U = [b$] -> Calls#run( int int ) actualOut@374 D = [$] U = [$] SUM $");
+        expected.add("Calls#run( int int ) actualIn@382 D = [$] U = [c$] -> Calls#run( int int ) actualOut@374 D = [$] U = [$] SUM $");
+        expected.add("Calls#skip( int int ) actualIn@284 D = [$] U = [n$] -> Calls#skip( int int ) actualOut@279 D = [$] U = [$] SUM $");
+        expected.add("Calls#skip( int int ) actualIn@291 D = [$] U = [m$] -> Calls#skip( int int ) actualOut@279 D = [$] U = [$] SUM $");
+        expected.add("Calls#twice( int ) actualIn@105 D = [$] U = [$] -> Calls#twice( int ) actualOut@101 D = [$] U = [$] SUM $");
+        expected.add("Calls#twice( int ) actualIn@109 D = [$] U = [y$] -> Calls#twice( int ) actualOut@105 D = [$] U = [$] SUM $");
+        assertEquals(expected, edges);
+    }
+    
+    @Test
+    public void testControlSummaryEdges() throws IOException {
+        File dir = Files.createTempDirectory("summary").toFile();
+        write(new File(dir, "Branch.java"),
+                "class Branch {\n" +
+                "    int f(int x) {\n" +
+                "        if (x > 0) return 1;\n" +
+                "        return 0;\n" +
+                "    }\n" +
+                "    void m() {\n" +
+                "        int a = 5;\n" +
+                "        int y = f(a);\n" +
+                "        int z = y;\n" +
+                "    }\n" +
+                "}\n");
+        String target = dir.getCanonicalPath() + "/";
+        
+        ModelBuilderBatch builder = new ModelBuilderBatch(false);
+        JavaProject jproject = builder.build(target, target, target, target, target);
+        List<String> edges = new ArrayList<>();
+        for (String edge : getSDGInfo(builder.getSDG(jproject))) {
+            if (edge.contains(" SUM")) {
+                edges.add(edge);
+            }
+        }
+        builder.unbuild();
+        
+        // x reaches the return value of f only through the control dependences on the if statement
+        List<String> expected = new ArrayList<>();
+        expected.add("Branch#m( ) actualIn@139 D = [$] U = [a$] -> Branch#m( ) actualOut@137 D = [$] U = [$] SUM $");
+        assertEquals(expected, edges);
+    }
+    
+    @Test
+    public void testAdjacencyViews() {
+        String target = testDirInside + "Simple/";
+        ModelBuilderBatch builder = new ModelBuilderBatch(false);
+        JavaProject jproject = builder.build(target, target, target, target, target);
+        SDG sdg = builder.getSDG(jproject);
+        
+        PDG pdg = null;
+        DD var = null;
+        for (PDG p : sdg.getPDGs()) {
+            for (PDGNode node : p.getNodes()) {
+                for (DD dd : node.getOutgoingDDEdges()) {
+                    if (dd.getVariable() != null && p.getNodes().size() > 2) {
+                        pdg = p;
+                        var = dd;
+                    }
+                }
+            }
+        }
+        assertTrue(pdg != null);
+        List<PDGNode> nodes = new ArrayList<>(pdg.getNodes());
+        nodes.sort((n1, n2) -> Long.compare(n1.getId(), n2.getId()));
+        PDGNode src = nodes.get(nodes.size() - 1);
+        PDGNode dst = nodes.get(nodes.size() - 2);
+        sdg.getNodes().forEach(node -> checkAdjacency(node));
+        assertSame(src.getOutgoingDependenceList(), src.getOutgoingDependenceList());
+        
+        CD cd = new CD(src, dst);
+        DD dd = new DD(dst, src, var.getVariable());
+        CallEdge call = new CallEdge(src, dst);
+        CD twin = new CD(src, dst);
+        twin.setFalse();
+        pdg.add(cd);
+        pdg.add(dd);
+        pdg.add(call);
+        pdg.add(twin);
+        checkAdjacency(src);
+        checkAdjacency(dst);
+        assertTrue(src.getOutgoingDependenceList().contains(cd));
+        assertTrue(!src.getOutgoingCDList().contains(cd));
+        
+        cd.setTrue();
+        dd.setLIDD();
+        call.setCall();
+        checkAdjacency(src);
+        checkAdjacency(dst);
+        assertTrue(src.getOutgoingCDList().contains(cd));
+        
+        twin.setTrue();
+        checkAdjacency(src);
+        checkAdjacency(dst);
+        assertTrue(src.getOutgoingCDList().contains(twin));
+        assertTrue(src.getIncomingDDList().contains(dd));
+        assertTrue(src.getOutgoingCallList().contains(call));
+        
+        pdg.remove(cd);
+        pdg.remove(dd);
+        pdg.remove(call);
+        pdg.remove(twin);
+        checkAdjacency(src);
+        checkAdjacency(dst);
+        assertTrue(!src.getOutgoingDependenceList().contains(cd));
+        assertTrue(!src.getIncomingDDList().contains(dd));
+        assertTrue(!src.getOutgoingCallList().contains(call));
+        
+        try {
+            src.getOutgoingDependenceList().add(cd);
+            fail();
+        } catch (UnsupportedOperationException e) {
+        }
+        builder.unbuild();
+    }
+    
+    private void checkAdjacency(PDGNode node) {
+        Set<Dependence> incoming = node.getIncomingDependeceEdges();
+        Set<Dependence> outgoing = node.getOutgoingDependeceEdges();
+        checkView(incoming, node.getIncomingDependenceList());
+        checkView(outgoing, node.getOutgoingDependenceList());
+        checkView(getCDs(incoming), node.getIncomingCDList());
+        checkView(getCDs(outgoing), node.getOutgoingCDList());
+        checkView(getDDs(incoming), node.getIncomingDDList());
+        checkView(getDDs(outgoing), node.getOutgoingDDList());
+        checkView(getCalls(incoming), node.getIncomingCallList());
+        checkView(getCalls(outgoing), node.getOutgoingCallList());
+        assertEquals(getCDs(incoming), node.getIncomingCDEdges());
+        assertEquals(getDDs(outgoing), node.getOutgoingDDEdges());
+    }
+    
+    private void checkView(Set<? extends Dependence> edges, List<? extends Dependence> view) {
+        assertEquals(edges.size(), view.size());
+        assertEquals(edges, new HashSet<>(view));
+    }
+    
+    private Set<CD> getCDs(Set<Dependence> edges) {
+        Set<CD> cds = new HashSet<>();
+        edges.stream().filter(edge -> edge.isCD() && edge instanceof CD).forEach(edge -> cds.add((CD)edge));
+        return cds;
+    }
+    
+    private Set<DD> getDDs(Set<Dependence> edges) {
+        Set<DD> dds = new HashSet<>();
+        edges.stream().filter(edge -> edge.isDD() && edge instanceof DD).forEach(edge -> dds.add((DD)edge));
+        return dds;
+    }
+    
+    private Set<Dependence> getCalls(Set<Dependence> edges) {
+        Set<Dependence> calls = new HashSet<>();
+        edges.stream().filter(edge -> !edge.isCD() && !edge.isDD() && edge.isCall()).forEach(edge -> calls.add(edge));
+        return calls;
+    }
+    
+    @Test
+    public void testCompactGraphs() {
+        String target = testDirInside + "Simple/";
+        ModelBuilderBatch builder = new ModelBuilderBatch(false);
+        JavaProject jproject = builder.build(target, target, target, target, target);
+        SDG sdg = builder.getSDG(jproject);
+        
+        ClDG cldg = null;
+        for (ClDG c : sdg.getClDGs()) {
+            if (c.getPDGs().size() > 1) {
+                cldg = c;
+            }
+        }
+        CCFG ccfg = builder.getCCFG(jproject.getClass(cldg.getQualifiedName()));
+        assertSame(ccfg.getCompactGraph(), ccfg.getCompactGraph());
+        assertSame(ccfg.getDominatorTree(), ccfg.getDominatorTree());
+        assertSame(cldg.getCompactGraph(), cldg.getCompactGraph());
+        
+        CompactGraph<PDGNode, Dependence> graph = sdg.getCompactGraph();
+        assertSame(graph, sdg.getCompactGraph());
+        assertEquals(sdg.getNodes().size(), graph.size());
+        
+        CompactGraph<CFGNode, ControlFlow> cgraph = ccfg.getCompactGraph();
+        ccfg.getCFGs().iterator().next().thaw();
+        assertNotSame(cgraph, ccfg.getCompactGraph());
+        
+        CompactGraph<PDGNode, Dependence> cdgraph = cldg.getCompactGraph();
+        cldg.getPDGs().iterator().next().thaw();
+        assertNotSame(cdgraph, cldg.getCompactGraph());
+        assertNotSame(graph, sdg.getCompactGraph());
+        
+        graph = sdg.getCompactGraph();
+        sdg.remove(cldg);
+        assertNotSame(graph, sdg.getCompactGraph());
+        assertEquals(graph.size() - cldg.getNodes().size(), sdg.getCompactGraph().size());
+        
+        graph = sdg.getCompactGraph();
+        sdg.add(cldg);
+        assertNotSame(graph, sdg.getCompactGraph());
+        assertEquals(sdg.getNodes().size(), sdg.getCompactGraph().size());
+        builder.unbuild();
+    }
+    
+    @Test
+    public void testParallelFieldAccesses() throws Exception {
+        String target = testDirInside + "DrawTool/";
+        List<String> sequential = getFieldAccesses(target, 1);
+        List<String> parallel = getFieldAccesses(target, 8);
+        assertTrue(sequential.size() > 0);
+        assertEquals(sequential, parallel);
+    }
+    
+    /*
+     * Builds an SDG in a pool with a given number of threads, which runs the parallel streams of the stitch.
+     */
+    private List<String> getFieldAccesses(String target, int numberOfThreads) throws Exception {
+        ForkJoinPool pool = new ForkJoinPool(numberOfThreads);
+        try {
+            return pool.submit(() -> getFieldAccesses(target)).get();
+        } finally {
+            pool.shutdown();
+        }
+    }
+    
+    private List<String> getFieldAccesses(String target) {
+        ModelBuilderBatch builder = new ModelBuilderBatch(false);
+        JavaProject jproject = builder.build(target, target, target, target, target);
+        List<String> edges = new ArrayList<>();
+        for (String edge : getSDGInfo(builder.getSDG(jproject))) {
+            if (edge.contains(" FA ")) {
+                edges.add(edge);
+            }
+        }
+        builder.unbuild();
+        return edges;
+    }
+    
+    private void write(File file, String code) throws IOException {
+        Files.write(file.toPath(), code.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    /*
+     * Collects the edges of an SDG, where each node is identified by its PDG, kind, position, and variables
+     * since node numbers depend on the order of building.
+     */
+    private List<String> getSDGInfo(SDG sdg) {
+        Map<PDGNode, String> labels = new HashMap<>();
+        for (PDG pdg : sdg.getPDGs()) {
+            for (PDGNode node : pdg.getNodes()) {
+                CFGNode cfgnode = node.getCFGNode();
+                StringBuilder buf = new StringBuilder();
+                buf.append(pdg.getQualifiedName() + " " + cfgnode.getKind());
+                if (cfgnode.getASTNode() != null) {
+                    buf.append("@" + cfgnode.getASTNode().getStartPosition());
+                }
+                if (cfgnode.isStatement()) {
+                    CFGStatement stnode = (CFGStatement)cfgnode;
+                    buf.append(" D = " + getNames(stnode.getDefVariables()) + " U = " + getNames(stnode.getUseVariables()));
+                }
+                labels.put(node, buf.toString());
+            }
+        }
+        
+        List<String> edges = new ArrayList<>();
+        for (Dependence edge : sdg.getEdges()) {
+            String kind = getKind(edge);
+            if (edge instanceof DD && ((DD)edge).getVariable() != null) {
+                kind = kind + " " + ((DD)edge).getVariable().getReferenceName().replaceAll("\\$[0-9]+", "\\$");
+            }
+            edges.add(labels.get(edge.getSrcNode()) + " -> " + labels.get(edge.getDstNode()) + " " + kind);
+        }
+        Collections.sort(edges);
+        return edges;
+    }
+    
+    private String getKind(Dependence edge) {
+        if (edge.isTrue()) {
+            return "T";
+        } else if (edge.isFalse()) {
+            return "F";
+        } else if (edge.isFallThrough()) {
+            return "FT";
+        } else if (edge.isDeclaration()) {
+            return "DECL";
+        } else if (edge.isExceptionCatch()) {
+            return "EXC";
+        } else if (edge.isLIDD()) {
+            return "LIDD";
+        } else if (edge.isLCDD()) {
+            return "LCDD";
+        } else if (edge.isDefOrder()) {
+            return "DO";
+        } else if (edge.isOutput()) {
+            return "OUT";
+        } else if (edge.isAnti()) {
+            return "ANTI";
+        } else if (edge.isParameterIn()) {
+            return "PIN";
+        } else if (edge.isParameterOut()) {
+            return "POUT";
+        } else if (edge.isFieldAccess()) {
+            return "FA";
+        } else if (edge.isSummary()) {
+            return "SUM";
+        } else if (edge.isClassMember()) {
+            return "MEM";
+        } else if (edge.isCall()) {
+            return "CALL";
+        }
+        return "?";
+    }
+    
+    private List<String> getNames(List<JReference> jvars) {
+        List<String> names = new ArrayList<>();
+        for (JReference jvar : jvars) {
+            names.add(jvar.getReferenceName().replaceAll("\\$[0-9]+", "\\$"));
+        }
+        Collections.sort(names);
+        return names;
+    }
+    
     public static void print() {
         String target = testDirInside + "Simple/";
         ModelBuilderBatch builder = new ModelBuilderBatch();
@@ -10,18 +10,39 @@ import org.eclipse.jdt.core.JavaCore;
 import org.eclipse.jdt.core.formatter.DefaultCodeFormatterConstants;
 import org.jtool.eclipse.batch.ModelBuilderBatch;
 import org.jtool.eclipse.pdg.ClDG;
+import org.jtool.eclipse.pdg.PDG;
 import org.jtool.eclipse.pdg.SDG;
+import org.jtool.eclipse.pdg.PDGNode;
+import org.jtool.eclipse.pdg.SDGSnapshot;
+import org.jtool.eclipse.cfg.JReference;
 import org.jtool.eclipse.slice.Slice;
 import org.jtool.eclipse.slice.SliceCriterion;
 import org.jtool.eclipse.slice.SliceExtractor;
+import org.jtool.eclipse.slice.BatchSliceExtractor;
+import org.jtool.eclipse.slice.SlicingEngine;
+import org.jtool.eclipse.slice.SnapshotSlicer;
+import org.jtool.eclipse.slice.DDClosure;
 import org.jtool.eclipse.javamodel.JavaProject;
 import org.jtool.eclipse.javamodel.JavaClass;
 import org.jtool.eclipse.javamodel.JavaMethod;
 import java.io.File;
+import java.io.RandomAccessFile;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
 import java.util.Map;
 import java.util.HashMap;
 import java.util.Set;
+import java.util.HashSet;
+import java.util.List;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Arrays;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertNotNull;
 import org.junit.BeforeClass;
 import org.junit.AfterClass;
 import org.junit.Test;
@@ -1902,6 +1923,276 @@ public class SliceTest {
         assertEquals(expected, code);
     }
     
+    private SliceCriterion findCriterion(SDG sdg, String fqn, int lineNumber, int offset) {
+        JavaClass jclass = jproject.getClass(fqn);
+        ClDG cldg = sdg.getClDG(fqn);
+        return SliceCriterion.find(cldg, jclass.getFile().getCode(), lineNumber, offset);
+    }
+    
+    @Test
+    public void testSlicingEngine_1() {
+        JavaClass jclass = jproject.getClass("Test200");
+        SDG sdg = builder.getSDG(builder.getAllClassesBackward(jclass));
+        SlicingEngine engine = new SlicingEngine(sdg);
+        
+        SliceCriterion criterion = findCriterion(sdg, "Test200", 19, 12);
+        Slice slice = new Slice(criterion);
+        assertEquals(slice.getNodes(), engine.backwardSlice(criterion));
+    }
+    
+    @Test
+    public void testSlicingEngine_4() {
+        JavaClass jclass = jproject.getClass("Test201");
+        SDG sdg = builder.getSDG(builder.getAllClassesBackward(jclass));
+        SlicingEngine engine = new SlicingEngine(sdg);
+        
+        // Slice does not ascend from a called method to its callers, whereas the engine does
+        List<SliceCriterion> criteria = findCriteria(sdg, jclass);
+        assertTrue(criteria.size() > 20);
+        int numOfEqualSlices = 0;
+        for (SliceCriterion criterion : criteria) {
+            Set<PDGNode> nodes = new Slice(criterion).getNodes();
+            Set<PDGNode> engineNodes = engine.backwardSlice(criterion);
+            if (isCalled(sdg, criterion.getNode())) {
+                assertTrue(criterion.toString(), engineNodes.containsAll(nodes));
+            } else {
+                assertEquals(criterion.toString(), nodes, engineNodes);
+                numOfEqualSlices++;
+            }
+        }
+        assertTrue(numOfEqualSlices > 10);
+    }
+    
+    @Test
+    public void testSlicingEngine_5() {
+        JavaClass jclass = jproject.getClass("Test201");
+        SDG sdg = builder.getSDG(builder.getAllClassesBackward(jclass));
+        SlicingEngine engine = new SlicingEngine(sdg);
+        
+        // a affects the return values of f and g only through their branches
+        SliceCriterion a = findCriterion(sdg, "Test201", 3, 12);
+        SliceCriterion y = findCriterion(sdg, "Test201", 4, 12);
+        SliceCriterion z = findCriterion(sdg, "Test201", 5, 12);
+        SliceCriterion b = findCriterion(sdg, "Test201", 6, 12);
+        SliceCriterion v = findCriterion(sdg, "Test201", 8, 12);
+        
+        Set<PDGNode> forward = engine.forwardSlice(a);
+        assertTrue(forward.contains(y.getNode()));
+        assertTrue(forward.contains(z.getNode()));
+        assertTrue(forward.contains(v.getNode()));
+        
+        Set<PDGNode> chop = engine.chop(a, z);
+        assertTrue(chop.contains(a.getNode()));
+        assertTrue(chop.contains(y.getNode()));
+        assertTrue(chop.contains(z.getNode()));
+        assertFalse(chop.contains(b.getNode()));
+        
+        chop = engine.chop(b, v);
+        assertTrue(chop.contains(b.getNode()));
+        assertTrue(chop.contains(v.getNode()));
+        assertFalse(chop.contains(z.getNode()));
+        
+        assertTrue(engine.chop(y, b).isEmpty());
+    }
+    
+    private boolean isCalled(SDG sdg, PDGNode node) {
+        for (PDG pdg : sdg.getPDGs()) {
+            if (pdg.contains(node)) {
+                return pdg.getEntryNode().getIncomingDependenceList().stream().anyMatch(edge -> edge.isCall());
+            }
+        }
+        return false;
+    }
+    
+    /*
+     * Collects the criteria at all positions of the code of a class.
+     */
+    private List<SliceCriterion> findCriteria(SDG sdg, JavaClass jclass) {
+        ClDG cldg = sdg.getClDG(jclass.getQualifiedName());
+        List<SliceCriterion> criteria = new ArrayList<>();
+        for (int position = 0; position < jclass.getFile().getCode().length(); position++) {
+            SliceCriterion criterion = SliceCriterion.find(cldg, position);
+            if (criterion != null) {
+                criteria.add(criterion);
+            }
+        }
+        return criteria;
+    }
+    
+    @Test
+    public void testSlicingEngine_2() {
+        JavaClass jclass = jproject.getClass("Test101");
+        SDG sdg = builder.getSDG(builder.getAllClassesBackward(jclass));
+        SlicingEngine engine = new SlicingEngine(sdg);
+        
+        List<SliceCriterion> criteria = new ArrayList<>();
+        criteria.add(findCriterion(sdg, "Test101", 5, 12));
+        criteria.add(findCriterion(sdg, "Test101", 6, 12));
+        criteria.add(findCriterion(sdg, "Test101", 7, 12));
+        
+        List<Set<PDGNode>> backwardSlices = engine.backwardSlices(criteria);
+        List<Set<PDGNode>> forwardSlices = engine.forwardSlices(criteria);
+        for (int i = 0; i < criteria.size(); i++) {
+            assertEquals(engine.backwardSlice(criteria.get(i)), backwardSlices.get(i));
+            assertEquals(engine.forwardSlice(criteria.get(i)), forwardSlices.get(i));
+        }
+        assertTrue(forwardSlices.get(0).contains(criteria.get(1).getNode()));
+        assertTrue(forwardSlices.get(0).contains(criteria.get(2).getNode()));
+        assertFalse(forwardSlices.get(1).contains(criteria.get(2).getNode()));
+    }
+    
+    @Test
+    public void testSlicingEngine_3() {
+        JavaClass jclass = jproject.getClass("Test101");
+        SDG sdg = builder.getSDG(builder.getAllClassesBackward(jclass));
+        SlicingEngine engine = new SlicingEngine(sdg);
+        
+        SliceCriterion x = findCriterion(sdg, "Test101", 5, 12);
+        SliceCriterion y = findCriterion(sdg, "Test101", 6, 12);
+        SliceCriterion z = findCriterion(sdg, "Test101", 7, 12);
+        
+        Set<PDGNode> chop = engine.chop(x, z);
+        assertTrue(chop.contains(x.getNode()));
+        assertTrue(chop.contains(z.getNode()));
+        assertFalse(chop.contains(y.getNode()));
+        
+        JReference var = x.getnVariables().iterator().next();
+        List<PDGNode> closure = DDClosure.getForwardCDClosure(x.getNode(), var);
+        assertTrue(closure.contains(y.getNode()));
+        assertTrue(closure.contains(z.getNode()));
+    }
+    
+    @Test
+    public void testBatchSliceExtractor_1() {
+        JavaClass jclass = jproject.getClass("Test102");
+        List<Set<PDGNode>> slices = new ArrayList<>();
+        slices.add(slice(jclass, 7, 12).getNodes());
+        slices.add(slice(jclass, 9, 12).getNodes());
+        slices.add(slice(jclass, 10, 27).getNodes());
+        
+        BatchSliceExtractor extractor = new BatchSliceExtractor(builder, jclass.getFile());
+        List<String> codes = extractor.extract(slices, jclass);
+        assertEquals(slices.size(), codes.size());
+        for (int i = 0; i < slices.size(); i++) {
+            assertEquals(new SliceExtractor(builder, slices.get(i), jclass).extract(), codes.get(i));
+        }
+    }
+    
+    @Test
+    public void testBatchSliceExtractor_2() {
+        JavaClass jclass = jproject.getClass("Test200");
+        JavaMethod jmethod = jclass.getMethod("m( int )");
+        List<Set<PDGNode>> slices = new ArrayList<>();
+        slices.add(slice(jclass, 11, 12).getNodes());
+        slices.add(slice(jclass, 19, 12).getNodes());
+        
+        BatchSliceExtractor extractor = new BatchSliceExtractor(builder, jclass.getFile());
+        List<String> codes = extractor.extract(slices, jmethod);
+        assertEquals(slices.size(), codes.size());
+        for (int i = 0; i < slices.size(); i++) {
+            assertEquals(new SliceExtractor(builder, slices.get(i), jmethod).extract(), codes.get(i));
+        }
+    }
+    
+    @Test
+    public void testSDGSnapshot() throws IOException {
+        JavaClass jclass = jproject.getClass("Test102");
+        SDG sdg = builder.getSDG(builder.getAllClassesBackward(jclass));
+        SlicingEngine engine = new SlicingEngine(sdg);
+        SliceCriterion criterion = findCriterion(sdg, "Test102", 9, 12);
+        
+        File file = File.createTempFile("sdg", ".snapshot");
+        file.deleteOnExit();
+        SDGSnapshot.write(sdg, file);
+        SDGSnapshot snapshot = SDGSnapshot.load(file);
+        assertNotNull(snapshot);
+        assertEquals(sdg.getPDGs().size(), snapshot.numberOfPDGs());
+        
+        int pdg = snapshot.findPDG("Test102#m( )");
+        assertTrue(pdg >= 0);
+        assertTrue(snapshot.getSourcePath(pdg).endsWith("Test102.java"));
+        
+        int node = -1;
+        for (int n : snapshot.findNodes(pdg, 9)) {
+            if (snapshot.getId(n) == criterion.getNode().getId()) {
+                node = n;
+            }
+        }
+        assertTrue(node >= 0);
+        
+        List<String> names = new ArrayList<>();
+        for (JReference var : criterion.getnVariables()) {
+            names.add(var.getReferenceName());
+        }
+        SnapshotSlicer slicer = new SnapshotSlicer(snapshot);
+        assertEquals(getIds(engine.backwardSlice(criterion)), getIds(snapshot, slicer.backwardSlice(node, names)));
+        assertEquals(getIds(engine.forwardSlice(criterion)), getIds(snapshot, slicer.forwardSlice(node)));
+        
+        try (RandomAccessFile out = new RandomAccessFile(file, "rw")) {
+            out.seek(4);
+            out.writeInt(0);
+        }
+        assertNull(SDGSnapshot.load(file));
+    }
+    
+    @Test
+    public void testCorruptSDGSnapshot() throws IOException {
+        JavaClass jclass = jproject.getClass("Test102");
+        SDG sdg = builder.getSDG(builder.getAllClassesBackward(jclass));
+        File file = File.createTempFile("sdg", ".snapshot");
+        file.deleteOnExit();
+        SDGSnapshot.write(sdg, file);
+        byte[] bytes = Files.readAllBytes(file.toPath());
+        assertNotNull(SDGSnapshot.load(file));
+        
+        Files.write(file.toPath(), Arrays.copyOf(bytes, bytes.length / 2));
+        assertNull(SDGSnapshot.load(file));
+        Files.write(file.toPath(), Arrays.copyOf(bytes, 80));
+        assertNull(SDGSnapshot.load(file));
+        
+        ByteBuffer header = ByteBuffer.wrap(bytes);
+        int nodePos = header.getInt(40);
+        int edgePos = header.getInt(44);
+        int inEdgePos = header.getInt(56);
+        
+        byte[] corrupt = bytes.clone();
+        ByteBuffer.wrap(corrupt).putInt(edgePos, header.getInt(20));
+        Files.write(file.toPath(), corrupt);
+        assertNull(SDGSnapshot.load(file));
+        
+        corrupt = bytes.clone();
+        ByteBuffer.wrap(corrupt).putInt(nodePos + 8, -1);
+        Files.write(file.toPath(), corrupt);
+        assertNull(SDGSnapshot.load(file));
+        
+        corrupt = bytes.clone();
+        ByteBuffer.wrap(corrupt).putInt(inEdgePos, Integer.MAX_VALUE);
+        Files.write(file.toPath(), corrupt);
+        assertNull(SDGSnapshot.load(file));
+        
+        corrupt = bytes.clone();
+        ByteBuffer.wrap(corrupt).putInt(header.getInt(28) + 4, Integer.MAX_VALUE);
+        Files.write(file.toPath(), corrupt);
+        assertNull(SDGSnapshot.load(file));
+        
+        Files.write(file.toPath(), bytes);
+        assertNotNull(SDGSnapshot.load(file));
+    }
+    
+    private Set<Long> getIds(Set<PDGNode> nodes) {
+        Set<Long> ids = new HashSet<>();
+        nodes.forEach(node -> ids.add(node.getId()));
+        return ids;
+    }
+    
+    private Set<Long> getIds(SDGSnapshot snapshot, BitSet nodes) {
+        Set<Long> ids = new HashSet<>();
+        for (int node = nodes.nextSetBit(0); node >= 0; node = nodes.nextSetBit(node + 1)) {
+            ids.add(snapshot.getId(node));
+        }
+        return ids;
+    }
+    
     @SuppressWarnings("unused")
     public static void main(String[] args) {
         build();
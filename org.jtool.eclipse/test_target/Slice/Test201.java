@@ -0,0 +1,27 @@
+class Test201 {
+    public void m() {
+        int a = 5;
+        int y = f(a);
+        int z = y;
+        int b = a + 1;
+        int w = g(b, z);
+        int v = w;
+    }
+    
+    private int f(int x) {
+        if (x > 0) return 1;
+        return 0;
+    }
+    
+    private int g(int p, int q) {
+        int r = 0;
+        while (p > 0) {
+            r = r + 1;
+            p = p - 1;
+        }
+        if (q > 0) {
+            return r;
+        }
+        return -1;
+    }
+}